@@ -0,0 +1,86 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.aggregator.serde.MarketQuoteAvroDeserializer;
+import com.marketpulse.aggregator.serde.MarketQuoteAvroSerializer;
+import com.marketpulse.avro.MarketQuote;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MarketQuote} through the Confluent Avro serde, backed by an in-memory schema
+ * registry so only the serialization cost is measured, against the registry-free
+ * {@link MarketQuoteAvroSerializer}/{@link MarketQuoteAvroDeserializer} pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AvroSerdeBenchmark {
+
+    private static final String TOPIC = "market-quotes";
+
+    private KafkaAvroSerializer serializer;
+    private KafkaAvroDeserializer deserializer;
+    private final MarketQuoteAvroSerializer localSerializer = new MarketQuoteAvroSerializer();
+    private final MarketQuoteAvroDeserializer localDeserializer = new MarketQuoteAvroDeserializer();
+    private MarketQuote quote;
+    private byte[] payload;
+    private byte[] localPayload;
+
+    @Setup
+    public void setUp() {
+        SchemaRegistryClient registry = new MockSchemaRegistryClient();
+        Map<String, Object> config = Map.of(
+                "schema.registry.url", "mock://benchmarks",
+                "specific.avro.reader", true);
+        serializer = new KafkaAvroSerializer(registry);
+        serializer.configure(config, false);
+        deserializer = new KafkaAvroDeserializer(registry);
+        deserializer.configure(config, false);
+        quote = SampleQuotes.quote(0);
+        payload = serializer.serialize(TOPIC, quote);
+        localPayload = localSerializer.serialize(TOPIC, quote);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, quote);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+
+    @Benchmark
+    public byte[] localSerialize() {
+        return localSerializer.serialize(TOPIC, quote);
+    }
+
+    @Benchmark
+    public MarketQuote localDeserialize() {
+        return localDeserializer.deserialize(TOPIC, localPayload);
+    }
+}
@@ -0,0 +1,66 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.aggregator.config.BlockingSchedulerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends per second through the aggregator's blocking scheduler when every send blocks for
+ * {@link #BLOCK}, as a producer waiting on {@code max.block.ms} does, on bounded elastic
+ * platform threads and on virtual threads ({@code spring.threads.virtual.enabled}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BlockingSchedulerBenchmark {
+
+    private static final int TASKS = 2_000;
+    private static final Duration BLOCK = Duration.ofMillis(5);
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private Scheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        BlockingSchedulerConfig config = new BlockingSchedulerConfig();
+        Fields.set(config, "virtualThreads", virtualThreads);
+        scheduler = config.blockingScheduler();
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void blockingSends() {
+        Flux.range(0, TASKS)
+                .flatMap(i -> Mono.fromRunnable(BlockingSchedulerBenchmark::block).subscribeOn(scheduler), TASKS)
+                .blockLast(Duration.ofMinutes(2));
+    }
+
+    private static void block() {
+        try {
+            Thread.sleep(BLOCK);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.aggregator.candle.CandleAggregator;
+import com.marketpulse.aggregator.candle.CandleInterval;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a synthetic session through {@link CandleAggregator}: every symbol quotes once per
+ * second with up to a second of jitter, for ten minutes of event time. The score is quotes
+ * per second; closed bars per second are the {@code bars} secondary result, and the
+ * {@code gc} profiler's normalized allocation rate is per quote.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CandleAggregatorBenchmark {
+
+    private static final int SYMBOLS = 2_000;
+    private static final int SECONDS = 600;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final String[] symbols = new String[SYMBOLS];
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bars {
+        public long bars;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bars = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols[i] = SampleQuotes.symbol(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SYMBOLS * SECONDS)
+    public CandleAggregator replaySession(Bars counter) {
+        CandleAggregator aggregator = new CandleAggregator(EnumSet.allOf(CandleInterval.class), Duration.ofSeconds(2),
+                (symbol, interval, windowStart, open, high, low, close, volume, count) -> counter.bars++);
+        SplittableRandom random = new SplittableRandom(42);
+        double[] prices = new double[SYMBOLS];
+        double[] volumes = new double[SYMBOLS];
+        Arrays.fill(prices, 100.0);
+        for (int second = 0; second < SECONDS; second++) {
+            long base = T0 + second * 1_000L;
+            for (int i = 0; i < SYMBOLS; i++) {
+                prices[i] += random.nextDouble(-0.05, 0.05);
+                volumes[i] += random.nextInt(1, 500);
+                aggregator.onQuote(symbols[i], base + random.nextInt(1_000), prices[i], volumes[i]);
+            }
+        }
+        return aggregator;
+    }
+}
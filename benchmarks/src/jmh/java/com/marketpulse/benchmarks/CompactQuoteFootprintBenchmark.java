@@ -0,0 +1,105 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.store.LatestQuoteStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory held by the storage service's latest quotes for {@link #SYMBOLS} symbols: a map of
+ * {@code MarketQuote} objects, as the latest-quote store used to keep, against the compact
+ * {@link LatestQuoteStore}. Retained heap is walked with JOL, so it does not depend on GC
+ * timing; the store's off-heap arena is added from its {@code storage.latest.offheap} gauge.
+ * The footprint is reported per symbol as the {@code heapBytesPerSymbol} and
+ * {@code offHeapBytesPerSymbol} secondary results; the time is only that of filling and
+ * walking the structure. Every quote gets its own string instances, as quotes decoded from
+ * Kafka do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+// The counters add up over measurement iterations, and the footprint does not vary between them.
+@Measurement(iterations = 1)
+public class CompactQuoteFootprintBenchmark {
+
+    private static final int SYMBOLS = 100_000;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapBytesPerSymbol;
+        public long offHeapBytesPerSymbol;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            heapBytesPerSymbol = 0;
+            offHeapBytesPerSymbol = 0;
+        }
+    }
+
+    @Benchmark
+    public Map<String, MarketQuote> objectMap(Footprint footprint) {
+        Map<String, MarketQuote> quotes = new ConcurrentHashMap<>();
+        for (int i = 0; i < SYMBOLS; i++) {
+            MarketQuote quote = quote(i);
+            quotes.put(quote.getSymbol(), quote);
+        }
+        footprint.heapBytesPerSymbol = GraphLayout.parseInstance(quotes).totalSize() / SYMBOLS;
+        return quotes;
+    }
+
+    @Benchmark
+    public LatestQuoteStore compactStore(Footprint footprint) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LatestQuoteStore store = new LatestQuoteStore(null, false, registry);
+        for (int i = 0; i < SYMBOLS; i++) {
+            store.update(quote(i));
+        }
+        footprint.heapBytesPerSymbol = GraphLayout.parseInstance(store).totalSize() / SYMBOLS;
+        footprint.offHeapBytesPerSymbol = (long) registry.get("storage.latest.offheap").gauge().value() / SYMBOLS;
+        return store;
+    }
+
+    private static MarketQuote quote(int i) {
+        return MarketQuote.newBuilder()
+                .setSymbol(SampleQuotes.symbol(i))
+                .setName("Company " + i + " Inc.")
+                .setPrice(189.84 + i)
+                .setChangesPercentage(0.5829)
+                .setChange(1.1)
+                .setDayLow(187.45)
+                .setDayHigh(190.32)
+                .setYearHigh(199.62)
+                .setYearLow(164.08)
+                .setMarketCap(2952226545600.0)
+                .setPriceAvg50(182.5436)
+                .setPriceAvg200(181.66545)
+                .setVolume(53600542.0 + i)
+                .setAvgVolume(55446373.0)
+                .setExchange(new String("NASDAQ"))
+                .setOpen(188.15)
+                .setPreviousClose(188.74)
+                .setEps(6.43)
+                .setPe(29.52)
+                .setEarningsAnnouncement("2024-05-0" + (1 + i % 9) + "T20:30:00.000+0000")
+                .setSharesOutstanding(15550100000.0)
+                .setTimestamp(1714766401L + i)
+                .build();
+    }
+}
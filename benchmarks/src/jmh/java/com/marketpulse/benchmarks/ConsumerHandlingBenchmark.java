@@ -0,0 +1,88 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.consumer.MarketQuoteConsumer;
+import com.marketpulse.storage.consumer.SymbolShardedExecutor;
+import com.marketpulse.storage.repository.MarketQuoteRepository;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import com.marketpulse.storage.segment.QuoteSegmentStore;
+import com.marketpulse.storage.store.LatestQuoteStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One poll of {@code market-quotes} through the storage {@link MarketQuoteConsumer}: symbol
+ * sharding across the writer workers and the latest-quote store. The JDBC write is replaced
+ * by a repository that discards rows so the database does not dominate the result, and
+ * history segments are off because replaying the same poll would grow them without bound;
+ * {@link QuoteSegmentStoreBenchmark} covers those.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConsumerHandlingBenchmark {
+
+    @Param({"500"})
+    public int recordsPerPoll;
+
+    private SymbolShardedExecutor executor;
+    private MarketQuoteConsumer consumer;
+    private List<ConsumerRecord<String, MarketQuote>> records;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MarketQuoteRepository repository = new DiscardingRepository();
+        executor = new SymbolShardedExecutor(8, registry);
+        QuoteSegmentStore segmentStore = new QuoteSegmentStore(Path.of("segments"), false, 65_536,
+                Duration.ofMinutes(5), 16, registry);
+        consumer = new MarketQuoteConsumer(repository, executor,
+                new LatestQuoteStore(repository, false, registry), segmentStore, QuoteRetryRouter.disabled(registry),
+                registry);
+        records = new ArrayList<>(recordsPerPoll);
+        for (int i = 0; i < recordsPerPoll; i++) {
+            MarketQuote quote = SampleQuotes.quote(i);
+            records.add(new ConsumerRecord<>("market-quotes", 0, i, quote.getSymbol(), quote));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.destroy();
+    }
+
+    @Benchmark
+    public void consume() {
+        consumer.consume(records);
+    }
+
+    static final class DiscardingRepository extends MarketQuoteRepository {
+        DiscardingRepository() {
+            super(null, 500);
+        }
+
+        @Override
+        public List<MarketQuote> saveAll(List<MarketQuote> quotes) {
+            return quotes;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.aggregator.client.FmpCircuitBreaker;
+import com.marketpulse.aggregator.client.FmpClient;
+import com.marketpulse.aggregator.client.FmpRateLimiter;
+import com.marketpulse.aggregator.client.QuoteBatcher;
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.controller.MarketDataController;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@code GET /quotes?symbols=...} through {@link MarketDataController}, either served from a
+ * warm {@link QuoteCache} or going through the batcher, {@link FmpClient} and the response
+ * decoder on every call. FMP is replaced by an in-process exchange function returning a
+ * canned body and Kafka by a producer that completes immediately, so only the aggregator's
+ * own work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ControllerQuotePathBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    @Param({"1", "100"})
+    public int symbolCount;
+
+    private MarketDataController controller;
+    private List<String> symbols;
+
+    @Setup
+    public void setUp() {
+        symbols = IntStream.range(0, symbolCount).mapToObj(SampleQuotes::symbol).toList();
+        String body = new String(SampleQuotes.fmpResponse(symbolCount), StandardCharsets.UTF_8);
+        WebClient.Builder webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build()));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Duration timeout = Duration.ofSeconds(3);
+        // No rate limit and a breaker that never opens.
+        FmpRateLimiter rateLimiter = new FmpRateLimiter(false, 1, 1, Duration.ZERO);
+        FmpCircuitBreaker circuitBreaker = new FmpCircuitBreaker(false, 1, 1, 1.0, Duration.ZERO, registry);
+        FmpClient fmpClient = new FmpClient(webClient, "benchmark", "http://fmp.invalid", rateLimiter, circuitBreaker,
+                timeout, timeout, 1.0, false, Duration.ZERO, 0, registry);
+        QuoteBatcher batcher = new QuoteBatcher(fmpClient, Duration.ofMillis(10), symbolCount);
+        QuoteCache cache = new QuoteCache(batcher, cached, Duration.ofHours(1), 10_000, Duration.ZERO, registry);
+        controller = new MarketDataController(cache, new DiscardingProducer(registry), QuoteLogSampler.never());
+        getQuotes();
+    }
+
+    @Benchmark
+    public List<MarketQuote> getQuotes() {
+        return controller.getQuotes(symbols).collectList().block();
+    }
+
+    static final class DiscardingProducer extends MarketQuoteProducer {
+        private static final CompletableFuture<SendResult<String, MarketQuote>> SENT =
+                CompletableFuture.completedFuture(null);
+
+        DiscardingProducer(SimpleMeterRegistry registry) {
+            super(null, null, 1, registry, QuoteLogSampler.never(), Schedulers.immediate(), 1, 1, Duration.ofSeconds(1));
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, MarketQuote>> send(MarketQuote quote) {
+            return SENT;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.marketpulse.benchmarks;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets the {@code @Value} fields of the services' configuration classes, which the
+ * benchmarks build without a Spring context.
+ */
+final class Fields {
+
+    private Fields() {
+    }
+
+    static void set(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
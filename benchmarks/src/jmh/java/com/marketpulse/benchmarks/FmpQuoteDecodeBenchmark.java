@@ -0,0 +1,113 @@
+package com.marketpulse.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketpulse.aggregator.mapper.FmpQuoteDecoder;
+import com.marketpulse.avro.MarketQuote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FMP {@code /quote} response to {@link MarketQuote}: the streaming {@link FmpQuoteDecoder}
+ * used by the aggregator against the previous path of databind into a DTO followed by
+ * {@code MarketQuote.Builder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FmpQuoteDecodeBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<FmpQuoteDto>> DTO_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100"})
+    public int quotesPerResponse;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = SampleQuotes.fmpResponse(quotesPerResponse);
+    }
+
+    @Benchmark
+    public List<MarketQuote> streamingDecoder() throws IOException {
+        return FmpQuoteDecoder.decode(body);
+    }
+
+    @Benchmark
+    public List<MarketQuote> databindAndBuilder() throws IOException {
+        List<FmpQuoteDto> dtos = OBJECT_MAPPER.readValue(body, DTO_LIST);
+        List<MarketQuote> quotes = new ArrayList<>(dtos.size());
+        for (FmpQuoteDto dto : dtos) {
+            quotes.add(MarketQuote.newBuilder()
+                    .setSymbol(dto.symbol)
+                    .setName(dto.name)
+                    .setPrice(dto.price)
+                    .setChangesPercentage(dto.changesPercentage)
+                    .setChange(dto.change)
+                    .setDayLow(dto.dayLow)
+                    .setDayHigh(dto.dayHigh)
+                    .setYearHigh(dto.yearHigh)
+                    .setYearLow(dto.yearLow)
+                    .setMarketCap(dto.marketCap)
+                    .setPriceAvg50(dto.priceAvg50)
+                    .setPriceAvg200(dto.priceAvg200)
+                    .setVolume(dto.volume)
+                    .setAvgVolume(dto.avgVolume)
+                    .setExchange(dto.exchange)
+                    .setOpen(dto.open)
+                    .setPreviousClose(dto.previousClose)
+                    .setEps(dto.eps)
+                    .setPe(dto.pe)
+                    .setEarningsAnnouncement(dto.earningsAnnouncement)
+                    .setSharesOutstanding(dto.sharesOutstanding)
+                    .setTimestamp(dto.timestamp)
+                    .build());
+        }
+        return quotes;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FmpQuoteDto {
+        public String symbol;
+        public String name;
+        public Double price;
+        public Double changesPercentage;
+        public Double change;
+        public Double dayLow;
+        public Double dayHigh;
+        public Double yearHigh;
+        public Double yearLow;
+        public Double marketCap;
+        public Double priceAvg50;
+        public Double priceAvg200;
+        public Double volume;
+        public Double avgVolume;
+        public String exchange;
+        public Double open;
+        public Double previousClose;
+        public Double eps;
+        public Double pe;
+        public String earningsAnnouncement;
+        public Double sharesOutstanding;
+        public Long timestamp;
+    }
+}
@@ -0,0 +1,130 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.aggregator.config.KafkaProducerConfig;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.aggregator.producer.QuoteChangeFilter;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Messages per second through {@link MarketQuoteProducer} into an embedded broker with the
+ * default producer settings, with the {@code throughput} profile values, and with those values
+ * in exactly-once mode, where quotes go in {@link #TRANSACTION_SIZE}-quote transactions (the
+ * poller's FMP batch size).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MarketQuoteProducerBenchmark {
+
+    private static final int MESSAGES = 20_000;
+    private static final int TRANSACTION_SIZE = 100;
+    private static final int TRANSACTION_CONCURRENCY = 4;
+    private static final Map<String, Object> DEFAULT_PROFILE = Map.of(
+            "lingerMs", 0, "batchSize", 16384, "compressionType", "none",
+            "bufferMemory", 33554432L, "maxBlockMs", 60000L);
+    private static final Map<String, Object> THROUGHPUT_PROFILE = Map.of(
+            "lingerMs", 20, "batchSize", 131072, "compressionType", "lz4",
+            "bufferMemory", 67108864L, "maxBlockMs", 100L);
+
+    @Param({"default", "throughput", "exactlyOnce"})
+    public String profile;
+
+    private EmbeddedKafkaBroker broker;
+    private DefaultKafkaProducerFactory<String, MarketQuote> factory;
+    private Scheduler scheduler;
+    private MarketQuoteProducer producer;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, "market-quotes")
+                .brokerProperties(Map.of(
+                        "transaction.state.log.replication.factor", "1",
+                        "transaction.state.log.min.isr", "1"));
+        broker.afterPropertiesSet();
+
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        Fields.set(config, "bootstrapServers", broker.getBrokersAsString());
+        Fields.set(config, "schemaRegistryUrl", "mock://producer-benchmark");
+        Fields.set(config, "acks", "all");
+        Fields.set(config, "enableIdempotence", true);
+        Fields.set(config, "maxInFlightRequestsPerConnection", 5);
+        Map<String, Object> settings = new HashMap<>(profile.equals("default") ? DEFAULT_PROFILE : THROUGHPUT_PROFILE);
+        if (profile.equals("exactlyOnce")) {
+            settings.put("transactionIdPrefix", "producer-benchmark-");
+        }
+        settings.forEach((field, value) -> Fields.set(config, field, value));
+        factory = (DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Transactions block until commit, so they need threads of their own; plain sends stay inline.
+        scheduler = factory.transactionCapable()
+                ? Schedulers.newBoundedElastic(TRANSACTION_CONCURRENCY, Integer.MAX_VALUE, "producer-benchmark")
+                : Schedulers.immediate();
+        producer = new MarketQuoteProducer(new KafkaTemplate<>(factory),
+                new QuoteChangeFilter(false, 0, Duration.ZERO, 16, registry), 50_000, registry,
+                QuoteLogSampler.never(), scheduler, 3, 1, Duration.ofSeconds(1));
+        // Metadata and connections are in place before the first iteration.
+        producer.publish(quote(-1)).block(Duration.ofSeconds(30));
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+        factory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public Object publish() {
+        if (factory.transactionCapable()) {
+            return Flux.range(0, MESSAGES / TRANSACTION_SIZE)
+                    .flatMap(batch -> producer.publishAll(IntStream.range(0, TRANSACTION_SIZE)
+                            .mapToObj(i -> quote(batch * TRANSACTION_SIZE + i))
+                            .toList()), TRANSACTION_CONCURRENCY)
+                    .blockLast(Duration.ofMinutes(5));
+        }
+        return Flux.range(0, MESSAGES)
+                .flatMap(i -> producer.publish(quote(i)), 4096)
+                .blockLast(Duration.ofMinutes(5));
+    }
+
+    private static MarketQuote quote(int i) {
+        return MarketQuote.newBuilder()
+                .setSymbol(SampleQuotes.symbol(Math.floorMod(i, 500)))
+                .setPrice(100.0 + i % 1000 / 100.0)
+                .setVolume((double) i)
+                .setTimestamp(1_700_000_000L + i)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.aggregator.backfill.BackfillCheckpoint;
+import com.marketpulse.aggregator.backfill.FileHistoricalQuoteSource;
+import com.marketpulse.aggregator.backfill.QuoteBackfill;
+import com.marketpulse.aggregator.config.KafkaProducerConfig;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.aggregator.producer.QuoteChangeFilter;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quotes per second of a backfill from local CSV files: decoding alone, and end to end into
+ * an embedded broker with the {@code throughput} profile producer settings. Each end-to-end
+ * run starts from a fresh checkpoint, so every invocation publishes all of the files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class QuoteBackfillBenchmark {
+
+    private static final int SYMBOLS = 50;
+    private static final int BARS_PER_SYMBOL = 2_000;
+    private static final int QUOTES = SYMBOLS * BARS_PER_SYMBOL;
+    private static final long FIRST_MINUTE = 1_704_465_000L;
+
+    private Path directory;
+    private EmbeddedKafkaBroker broker;
+    private DefaultKafkaProducerFactory<String, MarketQuote> factory;
+    private Scheduler scheduler;
+    private SimpleMeterRegistry registry;
+    private MarketQuoteProducer producer;
+    private int runs;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("backfill-benchmark");
+        for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(SampleQuotes.symbol(symbol) + ".csv"))) {
+                writer.write("timestamp,open,high,low,close,volume\n");
+                for (int bar = 0; bar < BARS_PER_SYMBOL; bar++) {
+                    double close = 100 + (bar % 500) / 10.0;
+                    writer.write((FIRST_MINUTE + bar * 60L) + "," + (close - 0.05) + "," + (close + 0.1) + ","
+                            + (close - 0.1) + "," + close + "," + (1_000 + bar) + "\n");
+                }
+            }
+        }
+        broker = new EmbeddedKafkaKraftBroker(1, 6, "market-quotes");
+        broker.afterPropertiesSet();
+
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        Fields.set(config, "bootstrapServers", broker.getBrokersAsString());
+        Fields.set(config, "schemaRegistryUrl", "mock://backfill-benchmark");
+        Map.<String, Object>of("lingerMs", 20, "batchSize", 131072, "compressionType", "lz4",
+                        "bufferMemory", 67108864L, "maxBlockMs", 60000L)
+                .forEach((field, value) -> Fields.set(config, field, value));
+        factory = (DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory();
+        scheduler = Schedulers.newBoundedElastic(16, Integer.MAX_VALUE, "backfill-benchmark");
+        registry = new SimpleMeterRegistry();
+        producer = new MarketQuoteProducer(new KafkaTemplate<>(factory),
+                new QuoteChangeFilter(false, 0, Duration.ZERO, 16, registry), 50_000, registry,
+                QuoteLogSampler.never(), scheduler, 6, 500, Duration.ofMillis(10));
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+        factory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUOTES)
+    public long decodeOnly() {
+        FileHistoricalQuoteSource source = new FileHistoricalQuoteSource(directory, scheduler);
+        return Flux.range(0, SYMBOLS)
+                .flatMap(symbol -> source.quotes(SampleQuotes.symbol(symbol), BackfillCheckpoint.NONE).count(), 8)
+                .reduce(0L, Long::sum)
+                .block(Duration.ofMinutes(2));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUOTES)
+    public long endToEnd() {
+        QuoteBackfill backfill = new QuoteBackfill(new FileHistoricalQuoteSource(directory, scheduler), producer,
+                List.of(), 0, 16, 2_000, directory.resolve("checkpoint-" + runs++ + ".properties").toString(),
+                Duration.ofSeconds(1), false, "market-quotes-rebuild", scheduler, registry);
+        return backfill.run().block(Duration.ofMinutes(5));
+    }
+}
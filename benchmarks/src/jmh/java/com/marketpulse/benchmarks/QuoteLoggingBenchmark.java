@@ -0,0 +1,138 @@
+package com.marketpulse.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
+import com.marketpulse.avro.MarketQuote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-quote log line on the producer path, written to a real file. Compares the
+ * old INFO line with the full record {@code toString()}, the same line through an
+ * {@link AsyncAppender}, and the sampled key-value event the services now emit.
+ * The async appender blocks when its queue is full here, so a sustained rate above what
+ * the file can take shows up as back-pressure rather than as silently dropped events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class QuoteLoggingBenchmark {
+
+    private static final int SYMBOLS = 100;
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level [%thread] %logger{36} - %msg %kvp%n";
+
+    private final MarketQuote[] quotes = new MarketQuote[SYMBOLS];
+    private Path directory;
+    private Logger syncLog;
+    private Logger asyncLog;
+    private QuoteLogSampler sampler;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < SYMBOLS; i++) {
+            quotes[i] = SampleQuotes.quote(i);
+        }
+        directory = Files.createTempDirectory("logging-benchmark");
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        syncLog = logger(context, "benchmark.sync", fileAppender(context, "sync"));
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("async");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.addAppender(fileAppender(context, "async"));
+        async.start();
+        asyncLog = logger(context, "benchmark.async", async);
+
+        sampler = new QuoteLogSampler(true, 10_000, Duration.ofSeconds(60));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        syncLog.detachAndStopAllAppenders();
+        asyncLog.detachAndStopAllAppenders();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void fullRecordSync() {
+        syncLog.info("Produced MarketQuote: {}", nextQuote());
+    }
+
+    @Benchmark
+    public void fullRecordAsync() {
+        asyncLog.info("Produced MarketQuote: {}", nextQuote());
+    }
+
+    @Benchmark
+    public void sampledKeyValueAsync() {
+        MarketQuote quote = nextQuote();
+        if (asyncLog.isInfoEnabled() && sampler.sample(quote.getSymbol())) {
+            asyncLog.atInfo()
+                    .addKeyValue("symbol", quote.getSymbol())
+                    .addKeyValue("price", quote.getPrice())
+                    .addKeyValue("timestamp", quote.getTimestamp())
+                    .log("Produced quote");
+        }
+    }
+
+    private MarketQuote nextQuote() {
+        MarketQuote quote = quotes[next];
+        next = next + 1 == SYMBOLS ? 0 : next + 1;
+        return quote;
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(LoggerContext context, String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setFile(directory.resolve(name + ".log").toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private static Logger logger(LoggerContext context, String name, Appender<ILoggingEvent> appender) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+}
@@ -0,0 +1,182 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.repository.MarketQuoteRepository;
+import com.marketpulse.storage.segment.QuoteSegmentStore;
+import com.marketpulse.storage.segment.SegmentColumn;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The same synthetic month of quotes in the JDBC table (file-backed H2 in PostgreSQL mode)
+ * and in segment files: the "one symbol, 30 days, price+volume" range scan against each,
+ * and the on-disk size of each per row, reported by {@code diskFootprint} as the
+ * {@code jdbcBytesPerRow} and {@code segmentBytesPerRow} secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class QuoteSegmentStoreBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA"};
+    private static final int DAYS = 30;
+    private static final int TICKS_PER_DAY = 2_000;
+    private static final int ROWS = SYMBOLS.length * DAYS * TICKS_PER_DAY;
+    private static final Instant START = Instant.parse("2024-03-01T14:30:00Z");
+    private static final Instant END = START.plus(Duration.ofDays(DAYS));
+    private static final List<SegmentColumn> COLUMNS = List.of(SegmentColumn.PRICE, SegmentColumn.VOLUME);
+    private static final String SCAN = "SELECT quote_timestamp, price, volume FROM market_quotes"
+            + " WHERE symbol = ? AND quote_timestamp >= ? AND quote_timestamp < ? ORDER BY quote_timestamp";
+
+    private Path directory;
+    private QuoteSegmentStore segments;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private long jdbcBytes;
+    private long segmentBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long jdbcBytesPerRow;
+        public long segmentBytesPerRow;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            jdbcBytesPerRow = 0;
+            segmentBytesPerRow = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("segment-benchmark");
+        Path segmentDirectory = directory.resolve("segments");
+        segments = new QuoteSegmentStore(segmentDirectory, true, 65_536, Duration.ofMinutes(5), 16,
+                new SimpleMeterRegistry());
+        dataSource = dataSource();
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        MarketQuoteRepository repository = new MarketQuoteRepository(new JdbcTemplate(dataSource), 500);
+        Random random = new Random(1);
+        for (String symbol : SYMBOLS) {
+            for (int day = 0; day < DAYS; day++) {
+                List<MarketQuote> quotes = session(symbol, day, random);
+                repository.saveAll(quotes);
+                for (MarketQuote quote : quotes) {
+                    segments.append(quote, quote.getTimestamp());
+                }
+            }
+        }
+        segments.flushAll();
+
+        // Compacted, as a long-running database would be after vacuuming.
+        new JdbcTemplate(dataSource).execute("SHUTDOWN COMPACT");
+        dataSource.close();
+        jdbcBytes = Files.size(directory.resolve("quotes.mv.db"));
+        segmentBytes = sizeOf(segmentDirectory);
+        dataSource = dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        dataSource.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int segmentScan() {
+        return segments.scan("AAPL", START, END, COLUMNS).size();
+    }
+
+    @Benchmark
+    public int jdbcScan() {
+        return jdbcTemplate.query(SCAN, (rs, n) -> rs.getDouble(2),
+                "AAPL", START.toEpochMilli(), END.toEpochMilli()).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    // The counters add up over measurement iterations, and the footprint does not vary between them.
+    @Measurement(iterations = 1)
+    public void diskFootprint(Footprint footprint) {
+        footprint.jdbcBytesPerRow = jdbcBytes / ROWS;
+        footprint.segmentBytesPerRow = segmentBytes / ROWS;
+    }
+
+    private HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:file:" + directory.resolve("quotes") + ";MODE=PostgreSQL");
+        return dataSource;
+    }
+
+    private static List<MarketQuote> session(String symbol, int day, Random random) {
+        long open = START.plus(Duration.ofDays(day)).toEpochMilli();
+        double price = 100.0 + symbol.hashCode() % 50 + day;
+        double low = price;
+        double high = price;
+        double volume = 0;
+        double shares = 15_000_000_000.0;
+        List<MarketQuote> quotes = new ArrayList<>(TICKS_PER_DAY);
+        for (int tick = 0; tick < TICKS_PER_DAY; tick++) {
+            price = Math.round((price + random.nextGaussian() * 0.05) * 100) / 100.0;
+            low = Math.min(low, price);
+            high = Math.max(high, price);
+            volume += random.nextInt(5_000);
+            quotes.add(MarketQuote.newBuilder()
+                    .setSymbol(symbol).setName(symbol + " Inc.").setExchange("NASDAQ")
+                    .setPrice(price).setChange(Math.round((price - 100.0) * 100) / 100.0)
+                    .setChangesPercentage(Math.round((price - 100.0) * 100) / 100.0)
+                    .setDayLow(low).setDayHigh(high).setYearHigh(199.62).setYearLow(124.17)
+                    .setMarketCap(price * shares).setPriceAvg50(180.2).setPriceAvg200(175.9)
+                    .setVolume(volume).setAvgVolume(55_000_000.0).setOpen(100.0).setPreviousClose(99.5)
+                    .setEps(6.42).setPe(Math.round(price / 6.42 * 100) / 100.0).setSharesOutstanding(shares)
+                    .setTimestamp(open + tick * 11_700L)
+                    .build());
+        }
+        return quotes;
+    }
+
+    private static long sizeOf(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> {
+                try {
+                    return Files.size(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+        }
+    }
+}
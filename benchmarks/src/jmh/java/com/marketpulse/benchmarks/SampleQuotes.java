@@ -0,0 +1,75 @@
+package com.marketpulse.benchmarks;
+
+import com.marketpulse.avro.MarketQuote;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic quote fixtures shared by the benchmarks: a full FMP {@code /quote} object and
+ * Avro records with every field populated.
+ */
+final class SampleQuotes {
+
+    static final String FMP_QUOTE = """
+            {"symbol":"%s","name":"Apple Inc.","price":189.84,"changesPercentage":0.5829,"change":1.1,\
+            "dayLow":187.45,"dayHigh":190.32,"yearHigh":199.62,"yearLow":164.08,"marketCap":2952226545600,\
+            "priceAvg50":182.5436,"priceAvg200":181.66545,"exchange":"NASDAQ","volume":53600542,\
+            "avgVolume":55446373,"open":188.15,"previousClose":188.74,"eps":6.43,"pe":29.52,\
+            "earningsAnnouncement":"2024-05-02T20:30:00.000+0000","sharesOutstanding":15550100000,\
+            "timestamp":1714766401}""";
+
+    private SampleQuotes() {
+    }
+
+    static String symbol(int i) {
+        return "SYM" + i;
+    }
+
+    static byte[] fmpResponse(int quotes) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < quotes; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(FMP_QUOTE.formatted(symbol(i)));
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static MarketQuote quote(int i) {
+        return MarketQuote.newBuilder()
+                .setSymbol(symbol(i))
+                .setName("Apple Inc.")
+                .setPrice(189.84 + i)
+                .setChangesPercentage(0.5829)
+                .setChange(1.1)
+                .setDayLow(187.45)
+                .setDayHigh(190.32)
+                .setYearHigh(199.62)
+                .setYearLow(164.08)
+                .setMarketCap(2952226545600.0)
+                .setPriceAvg50(182.5436)
+                .setPriceAvg200(181.66545)
+                .setVolume(53600542.0 + i)
+                .setAvgVolume(55446373.0)
+                .setExchange("NASDAQ")
+                .setOpen(188.15)
+                .setPreviousClose(188.74)
+                .setEps(6.43)
+                .setPe(29.52)
+                .setEarningsAnnouncement("2024-05-02T20:30:00.000+0000")
+                .setSharesOutstanding(15550100000.0)
+                .setTimestamp(1714766401L + i)
+                .build();
+    }
+
+    static List<MarketQuote> quotes(int count) {
+        List<MarketQuote> quotes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            quotes.add(quote(i));
+        }
+        return quotes;
+    }
+}
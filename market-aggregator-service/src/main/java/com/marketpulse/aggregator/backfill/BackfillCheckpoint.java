@@ -0,0 +1,140 @@
+package com.marketpulse.aggregator.backfill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * How far a backfill got, per symbol: the timestamp of the last quote the broker acknowledged,
+ * or {@code complete}. It is kept in a properties file together with the source description
+ * and a {@link #run() run id}, and a file written for a different source or range is ignored.
+ * {@link #flush} replaces the file atomically and only when something changed.
+ *
+ * <p>Quotes sent after the last flush are sent again on resume; the storage service absorbs
+ * them as duplicates.
+ */
+public class BackfillCheckpoint {
+
+    /**
+     * Position of a symbol with no checkpoint: every quote is after it.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    static final String SOURCE_KEY = "_source";
+    static final String RUN_KEY = "_run";
+    static final String COMPLETE = "complete";
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillCheckpoint.class);
+
+    private final Path file;
+    private final String source;
+    private final String run;
+    private final Map<String, String> positions = new HashMap<>();
+    private final Object flushLock = new Object();
+    private boolean dirty;
+
+    private BackfillCheckpoint(Path file, String source, String run) {
+        this.file = file;
+        this.source = source;
+        this.run = run;
+    }
+
+    /**
+     * Loads the checkpoint for {@code source} from {@code file}, or starts an empty one.
+     */
+    public static BackfillCheckpoint load(Path file, String source) throws IOException {
+        BackfillCheckpoint fresh = new BackfillCheckpoint(file, source, UUID.randomUUID().toString());
+        if (!Files.exists(file)) {
+            return fresh;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        if (!source.equals(properties.getProperty(SOURCE_KEY))) {
+            log.warn("Ignoring backfill checkpoint {} taken for {}; starting {} from the beginning",
+                    file, properties.getProperty(SOURCE_KEY), source);
+            return fresh;
+        }
+        properties.remove(SOURCE_KEY);
+        String run = (String) properties.remove(RUN_KEY);
+        BackfillCheckpoint checkpoint = run != null ? new BackfillCheckpoint(file, source, run) : fresh;
+        properties.forEach((symbol, position) -> checkpoint.positions.put((String) symbol, (String) position));
+        return checkpoint;
+    }
+
+    /**
+     * Identifies this backfill run: new for a fresh checkpoint, kept when a run resumes.
+     */
+    public String run() {
+        return run;
+    }
+
+    public synchronized long position(String symbol) {
+        String position = positions.get(symbol);
+        return position == null || position.equals(COMPLETE) ? NONE : Long.parseLong(position);
+    }
+
+    public synchronized boolean isComplete(String symbol) {
+        return COMPLETE.equals(positions.get(symbol));
+    }
+
+    public synchronized void advance(String symbol, long epochSecond) {
+        positions.put(symbol, Long.toString(epochSecond));
+        dirty = true;
+    }
+
+    public synchronized void complete(String symbol) {
+        positions.put(symbol, COMPLETE);
+        dirty = true;
+    }
+
+    /**
+     * Writes the checkpoint if it changed since the last flush.
+     */
+    public void flush() {
+        // Flushes take their snapshot and write it in turn, so an older snapshot never replaces a newer one.
+        synchronized (flushLock) {
+            Properties properties = new Properties();
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                properties.putAll(positions);
+                dirty = false;
+            }
+            properties.setProperty(SOURCE_KEY, source);
+            properties.setProperty(RUN_KEY, run);
+            try {
+                write(properties);
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw new UncheckedIOException("Could not write backfill checkpoint " + file, e);
+            }
+        }
+    }
+
+    private void write(Properties properties) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "MarketPulse backfill checkpoint");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.marketpulse.aggregator.backfill;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Spreads a backfill's sends evenly at {@code backfill.rate} records per second across all
+ * symbol streams. Each batch reserves its records on a shared timeline and is told how long
+ * to wait for its turn, so the rate holds however many streams run. Time the backfill spends
+ * below the rate (e.g. while reading the next file) is not saved up for a later burst.
+ */
+public class BackfillPacer {
+
+    private final double nanosPerRecord;
+    private final LongSupplier nanoClock;
+    private long nextFree;
+
+    public BackfillPacer(double recordsPerSecond) {
+        this(recordsPerSecond, System::nanoTime);
+    }
+
+    BackfillPacer(double recordsPerSecond, LongSupplier nanoClock) {
+        if (recordsPerSecond < 0) {
+            throw new IllegalArgumentException("backfill.rate must not be negative");
+        }
+        this.nanosPerRecord = recordsPerSecond == 0 ? 0 : 1e9 / recordsPerSecond;
+        this.nanoClock = nanoClock;
+        this.nextFree = nanoClock.getAsLong();
+    }
+
+    /**
+     * A pacer that never waits.
+     */
+    public static BackfillPacer unlimited() {
+        return new BackfillPacer(0);
+    }
+
+    /**
+     * Reserves {@code records} sends.
+     *
+     * @return nanoseconds to wait before sending them
+     */
+    public synchronized long reserve(int records) {
+        if (nanosPerRecord == 0) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long start = Math.max(now, nextFree);
+        nextFree = start + (long) (records * nanosPerRecord);
+        return start - now;
+    }
+}
@@ -0,0 +1,69 @@
+package com.marketpulse.aggregator.backfill;
+
+import com.marketpulse.aggregator.mapper.HistoricalQuoteDecoder;
+import com.marketpulse.avro.MarketQuote;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Historical quotes from a directory holding one file per symbol, {@code <SYMBOL>.csv} or
+ * {@code <SYMBOL>.json}, in any format {@link HistoricalQuoteDecoder} reads. Each file is read
+ * and decoded whole on the blocking scheduler.
+ */
+public class FileHistoricalQuoteSource implements HistoricalQuoteSource {
+
+    private final Path directory;
+    private final Scheduler blockingScheduler;
+
+    public FileHistoricalQuoteSource(Path directory, Scheduler blockingScheduler) {
+        this.directory = directory;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    @Override
+    public Flux<MarketQuote> quotes(String symbol, long afterEpochSecond) {
+        return Mono.fromCallable(() -> read(symbol))
+                .subscribeOn(blockingScheduler)
+                .flatMapIterable(quotes -> quotes)
+                .filter(quote -> quote.getTimestamp() > afterEpochSecond);
+    }
+
+    @Override
+    public List<String> symbols() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".csv") || name.endsWith(".json"))
+                    .map(name -> name.substring(0, name.lastIndexOf('.')).toUpperCase(Locale.ROOT))
+                    .distinct()
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "file:" + directory.toAbsolutePath().normalize();
+    }
+
+    private List<MarketQuote> read(String symbol) throws IOException {
+        for (String name : List.of(symbol, symbol.toLowerCase(Locale.ROOT))) {
+            Path csv = directory.resolve(name + ".csv");
+            if (Files.isRegularFile(csv)) {
+                return HistoricalQuoteDecoder.decodeCsv(symbol, Files.readAllBytes(csv));
+            }
+            Path json = directory.resolve(name + ".json");
+            if (Files.isRegularFile(json)) {
+                return HistoricalQuoteDecoder.decodeJson(symbol, Files.readAllBytes(json));
+            }
+        }
+        throw new IOException("No " + symbol + ".csv or " + symbol + ".json in " + directory);
+    }
+}
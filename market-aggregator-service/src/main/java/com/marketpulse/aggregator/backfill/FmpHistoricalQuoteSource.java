@@ -0,0 +1,143 @@
+package com.marketpulse.aggregator.backfill;
+
+import com.marketpulse.aggregator.client.FmpRateLimiter;
+import com.marketpulse.aggregator.exception.FmpApiException;
+import com.marketpulse.aggregator.mapper.HistoricalQuoteDecoder;
+import com.marketpulse.avro.MarketQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Historical quotes from FMP: {@code /historical-price-full/{symbol}} for daily bars, or
+ * {@code /historical-chart/{interval}/{symbol}} for intraday ones. The {@code [from, to]} range
+ * is fetched in windows of {@code windowDays}, oldest first, because FMP caps how many
+ * intraday bars one call returns; a resumed backfill starts at the window holding its
+ * checkpoint. Every call takes a token from the plan's {@link FmpRateLimiter}, waiting as long
+ * as it takes, so a backfill shares the plan with live traffic instead of exceeding it.
+ */
+public class FmpHistoricalQuoteSource implements HistoricalQuoteSource {
+
+    static final String DAILY = "1day";
+
+    private static final Logger log = LoggerFactory.getLogger(FmpHistoricalQuoteSource.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration RATE_LIMIT_BACKOFF = Duration.ofSeconds(1);
+    private static final int RETRIES = 3;
+
+    private final WebClient webClient;
+    private final String apiKey;
+    private final String interval;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int windowDays;
+    private final FmpRateLimiter rateLimiter;
+
+    public FmpHistoricalQuoteSource(WebClient.Builder webClientBuilder,
+                                    String apiKey,
+                                    String baseUrl,
+                                    String interval,
+                                    LocalDate from,
+                                    LocalDate to,
+                                    int windowDays,
+                                    int maxResponseBytes,
+                                    FmpRateLimiter rateLimiter) {
+        if (from.isAfter(to) || windowDays < 1) {
+            throw new IllegalArgumentException("backfill.from must not be after backfill.to and backfill.fmp.window-days must be positive");
+        }
+        this.webClient = webClientBuilder.baseUrl(baseUrl)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .build();
+        this.apiKey = apiKey;
+        this.interval = interval;
+        this.from = from;
+        this.to = to;
+        this.windowDays = windowDays;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Flux<MarketQuote> quotes(String symbol, long afterEpochSecond) {
+        return Flux.fromIterable(windows(afterEpochSecond))
+                .concatMap(window -> awaitToken().then(request(symbol, window[0], window[1])))
+                .flatMapIterable(quotes -> quotes)
+                .filter(quote -> quote.getTimestamp() > afterEpochSecond);
+    }
+
+    @Override
+    public List<String> symbols() {
+        return List.of();
+    }
+
+    @Override
+    public String description() {
+        return "fmp:" + interval + ":" + from + ".." + to;
+    }
+
+    /**
+     * {@code [start, end]} date pairs covering the range from the checkpoint's day on.
+     */
+    List<LocalDate[]> windows(long afterEpochSecond) {
+        LocalDate start = from;
+        if (afterEpochSecond != BackfillCheckpoint.NONE) {
+            LocalDate checkpointDay = Instant.ofEpochSecond(afterEpochSecond)
+                    .atZone(HistoricalQuoteDecoder.EXCHANGE_ZONE).toLocalDate();
+            start = checkpointDay.isAfter(start) ? checkpointDay : start;
+        }
+        List<LocalDate[]> windows = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(to); day = day.plusDays(windowDays)) {
+            LocalDate end = day.plusDays(windowDays - 1L);
+            windows.add(new LocalDate[]{day, end.isAfter(to) ? to : end});
+        }
+        return windows;
+    }
+
+    private Mono<Void> awaitToken() {
+        return Mono.defer(() -> {
+            long wait = rateLimiter.reserve();
+            if (wait < 0) {
+                return Mono.delay(RATE_LIMIT_BACKOFF).then(awaitToken());
+            }
+            return wait == 0 ? Mono.<Void>empty() : Mono.delay(Duration.ofNanos(wait)).then();
+        });
+    }
+
+    private Mono<List<MarketQuote>> request(String symbol, LocalDate start, LocalDate end) {
+        return webClient.get()
+                .uri(uriBuilder -> (DAILY.equals(interval)
+                        ? uriBuilder.path("/historical-price-full/{symbol}")
+                        : uriBuilder.path("/historical-chart/" + interval + "/{symbol}"))
+                        .queryParam("from", start)
+                        .queryParam("to", end)
+                        .queryParam("apikey", apiKey)
+                        .build(symbol))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response -> response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .flatMap(body -> Mono.error(new FmpApiException("FMP API error for " + symbol + ": " + body))))
+                .bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .<List<MarketQuote>>handle((body, sink) -> {
+                    try {
+                        sink.next(HistoricalQuoteDecoder.decodeJson(symbol, body));
+                    } catch (IOException e) {
+                        sink.error(new FmpApiException("Malformed FMP history for " + symbol, e));
+                    }
+                })
+                .timeout(TIMEOUT)
+                .retryWhen(Retry.backoff(RETRIES, RATE_LIMIT_BACKOFF)
+                        .doBeforeRetry(retry -> log.warn("Retrying FMP history for {} {}..{}: {}",
+                                symbol, start, end, retry.failure().getMessage())));
+    }
+}
@@ -0,0 +1,28 @@
+package com.marketpulse.aggregator.backfill;
+
+import com.marketpulse.avro.MarketQuote;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where a backfill reads historical quotes from.
+ */
+public interface HistoricalQuoteSource {
+
+    /**
+     * The symbol's quotes with a timestamp after {@code afterEpochSecond}, oldest first.
+     */
+    Flux<MarketQuote> quotes(String symbol, long afterEpochSecond);
+
+    /**
+     * Symbols this source can list on its own, used when {@code backfill.symbols} is empty.
+     */
+    List<String> symbols() throws IOException;
+
+    /**
+     * Identifies what is being replayed; a checkpoint taken under another description is ignored.
+     */
+    String description();
+}
@@ -0,0 +1,217 @@
+package com.marketpulse.aggregator.backfill;
+
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays historical quotes with their original timestamps. By default they go onto
+ * {@code market-quotes}, so the storage service can re-populate its database, latest-quote
+ * store and history segments. Up to {@code backfill.parallelism} symbols stream at once, each
+ * in timestamp order: a symbol's next batch is sent only once the broker has acknowledged the
+ * previous one, which keeps per-symbol order and makes the acknowledged position a safe
+ * checkpoint. Batches go through {@link MarketQuoteProducer#replay}, bypassing the live change
+ * filter, and all streams together are held to {@code backfill.rate} records per second by a
+ * {@link BackfillPacer}.
+ *
+ * <p>Consumers that work in event time, the candle builder and the analytics topology, drop
+ * replayed quotes older than what they have already seen on {@code market-quotes}. With
+ * {@code backfill.rebuild.enabled} the quotes go to {@code backfill.rebuild.topic} instead,
+ * each tagged with the checkpoint's run id, and those consumers rebuild from it into state of
+ * their own that starts afresh for every new run.
+ *
+ * <p>Progress is checkpointed to {@code backfill.checkpoint.file} every
+ * {@code backfill.checkpoint.interval} and when the run ends. A restarted backfill skips
+ * completed symbols and resumes the others after their last checkpointed quote. A symbol that
+ * fails is logged and left at its checkpoint while the others carry on.
+ */
+@Component
+@ConditionalOnProperty(prefix = "backfill", name = "enabled", havingValue = "true")
+public class QuoteBackfill implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteBackfill.class);
+
+    private final HistoricalQuoteSource source;
+    private final MarketQuoteProducer marketQuoteProducer;
+    private final List<String> symbols;
+    private final BackfillPacer pacer;
+    private final int parallelism;
+    private final int batchSize;
+    private final Path checkpointFile;
+    private final Duration checkpointInterval;
+    private final Scheduler blockingScheduler;
+    private final String rebuildTopic;
+
+    private final Counter published;
+    private final Counter completedSymbols;
+    private final Counter failedSymbols;
+
+    private volatile Disposable subscription;
+
+    @Autowired
+    public QuoteBackfill(HistoricalQuoteSource source,
+                         MarketQuoteProducer marketQuoteProducer,
+                         @Value("${backfill.symbols:}") List<String> symbols,
+                         @Value("${backfill.rate:0}") double rate,
+                         @Value("${backfill.parallelism:8}") int parallelism,
+                         @Value("${backfill.batch-size:1000}") int batchSize,
+                         @Value("${backfill.checkpoint.file:backfill-checkpoint.properties}") String checkpointFile,
+                         @Value("${backfill.checkpoint.interval:5s}") Duration checkpointInterval,
+                         @Value("${backfill.rebuild.enabled:false}") boolean rebuild,
+                         @Value("${backfill.rebuild.topic:market-quotes-rebuild}") String rebuildTopic,
+                         Scheduler blockingScheduler,
+                         MeterRegistry meterRegistry) {
+        this(source, marketQuoteProducer, symbols, new BackfillPacer(rate), parallelism, batchSize,
+                Path.of(checkpointFile), checkpointInterval, rebuild ? rebuildTopic : null, blockingScheduler,
+                meterRegistry);
+    }
+
+    QuoteBackfill(HistoricalQuoteSource source,
+                  MarketQuoteProducer marketQuoteProducer,
+                  List<String> symbols,
+                  BackfillPacer pacer,
+                  int parallelism,
+                  int batchSize,
+                  Path checkpointFile,
+                  Duration checkpointInterval,
+                  String rebuildTopic,
+                  Scheduler blockingScheduler,
+                  MeterRegistry meterRegistry) {
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("backfill.parallelism and backfill.batch-size must be positive");
+        }
+        this.source = source;
+        this.marketQuoteProducer = marketQuoteProducer;
+        this.symbols = symbols.stream()
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .map(symbol -> symbol.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        this.pacer = pacer;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
+        this.rebuildTopic = rebuildTopic;
+        this.blockingScheduler = blockingScheduler;
+        this.published = meterRegistry.counter("backfill.quotes.published");
+        this.completedSymbols = meterRegistry.counter("backfill.symbols", "result", "completed");
+        this.failedSymbols = meterRegistry.counter("backfill.symbols", "result", "failed");
+    }
+
+    /**
+     * Runs the backfill once and emits the number of quotes published.
+     */
+    public Mono<Long> run() {
+        return Mono.defer(() -> {
+            BackfillCheckpoint checkpoint;
+            List<String> universe;
+            try {
+                // A plain run's progress says nothing about a rebuild's, and the other way round.
+                String scope = rebuildTopic == null ? source.description() : source.description() + " -> " + rebuildTopic;
+                checkpoint = BackfillCheckpoint.load(checkpointFile, scope);
+                universe = symbols.isEmpty() ? source.symbols() : symbols;
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+            List<String> pending = universe.stream().filter(symbol -> !checkpoint.isComplete(symbol)).toList();
+            log.info("Backfilling {} of {} symbols from {}", pending.size(), universe.size(), source.description());
+            long start = System.nanoTime();
+            Disposable flusher = Flux.interval(checkpointInterval, checkpointInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> Mono.fromRunnable(() -> flush(checkpoint)).subscribeOn(blockingScheduler))
+                    .subscribe();
+            return Flux.fromIterable(pending)
+                    .flatMap(symbol -> backfill(symbol, checkpoint), parallelism)
+                    .reduce(0L, Long::sum)
+                    .doOnNext(total -> {
+                        double seconds = (System.nanoTime() - start) / 1e9;
+                        log.info("Backfill published {} quotes for {} symbols in {}s ({} quotes/s)",
+                                total, pending.size(), Math.round(seconds), Math.round(total / Math.max(seconds, 1e-9)));
+                    })
+                    .doFinally(signal -> {
+                        flusher.dispose();
+                        flush(checkpoint);
+                    });
+        });
+    }
+
+    private Mono<Long> backfill(String symbol, BackfillCheckpoint checkpoint) {
+        AtomicLong sent = new AtomicLong();
+        return source.quotes(symbol, checkpoint.position(symbol))
+                .buffer(batchSize)
+                .concatMap(batch -> paced(batch.size())
+                        .then(rebuildTopic == null
+                                ? marketQuoteProducer.replay(batch)
+                                : marketQuoteProducer.replay(batch, rebuildTopic, checkpoint.run()))
+                        .then(Mono.fromRunnable(() -> {
+                            checkpoint.advance(symbol, batch.get(batch.size() - 1).getTimestamp());
+                            sent.addAndGet(batch.size());
+                            published.increment(batch.size());
+                        })))
+                .then(Mono.fromSupplier(() -> {
+                    checkpoint.complete(symbol);
+                    completedSymbols.increment();
+                    log.debug("Backfilled {} quotes for {}", sent.get(), symbol);
+                    return sent.get();
+                }))
+                .onErrorResume(e -> {
+                    failedSymbols.increment();
+                    log.error("Backfill of {} stopped at its checkpoint after {} quotes: {}", symbol, sent.get(), e.getMessage());
+                    return Mono.just(sent.get());
+                });
+    }
+
+    private static void flush(BackfillCheckpoint checkpoint) {
+        try {
+            checkpoint.flush();
+        } catch (RuntimeException e) {
+            log.warn("Backfill checkpoint failed: {}", e.getMessage());
+        }
+    }
+
+    private Mono<Void> paced(int records) {
+        long wait = pacer.reserve(records);
+        return wait == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(wait)).then();
+    }
+
+    @Override
+    public void start() {
+        subscription = run().subscribe(total -> {
+        }, e -> log.error("Backfill failed: {}", e.getMessage()));
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            subscription = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = subscription;
+        return current != null && !current.isDisposed();
+    }
+}
@@ -0,0 +1,279 @@
+package com.marketpulse.aggregator.candle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolls quotes into OHLCV bars per symbol and interval, in event time.
+ *
+ * <p>Every symbol has its own watermark, trailing the highest event time seen for that symbol
+ * by the allowed lateness, so a thinly traded symbol whose quotes arrive behind SPY's is not
+ * dropped as late. A window {@code [start, end)} closes once its symbol's watermark reaches
+ * {@code end}, and a quote whose window has already closed is dropped and counted. When a
+ * symbol's event time stops advancing, {@link #advanceIdle} moves its watermark on with the
+ * wall clock, so its last bars still close. Every symbol keeps a small ring of mutable bars
+ * per interval, sized so that all windows that can still be open fit, so bars are reused
+ * rather than allocated in steady state.
+ *
+ * <p>Volume is the increase in the quote's cumulative day volume; a decrease from a newer
+ * quote is treated as a new trading day.
+ *
+ * <p>Not thread-safe; callers serialize access.
+ */
+public final class CandleAggregator {
+
+    private final CandleInterval[] intervals;
+    private final long allowedLatenessMillis;
+    private final CandleSink sink;
+    private final int[] slotsPerInterval;
+    private final LongSupplier wallClock;
+
+    private final Map<String, SymbolBars> bySymbol = new HashMap<>();
+    private final List<SymbolBars> symbols = new ArrayList<>();
+
+    private long watermarkFloor = Long.MIN_VALUE;
+    private long lateDropped;
+    private final long[] emitted;
+
+    public CandleAggregator(Collection<CandleInterval> intervals, Duration allowedLateness, CandleSink sink) {
+        this(intervals, allowedLateness, sink, System::currentTimeMillis);
+    }
+
+    public CandleAggregator(Collection<CandleInterval> intervals, Duration allowedLateness, CandleSink sink,
+                            LongSupplier wallClock) {
+        if (intervals.isEmpty()) {
+            throw new IllegalArgumentException("At least one candle interval is required");
+        }
+        if (allowedLateness.isNegative()) {
+            throw new IllegalArgumentException("Allowed lateness must not be negative");
+        }
+        this.intervals = intervals.stream().distinct().sorted().toArray(CandleInterval[]::new);
+        this.allowedLatenessMillis = allowedLateness.toMillis();
+        this.sink = sink;
+        this.wallClock = wallClock;
+        this.slotsPerInterval = new int[this.intervals.length];
+        for (int i = 0; i < this.intervals.length; i++) {
+            // Windows whose end is past the watermark and whose start is at or before the newest event.
+            slotsPerInterval[i] = (int) (allowedLatenessMillis / this.intervals[i].millis()) + 2;
+        }
+        this.emitted = new long[CandleInterval.values().length];
+    }
+
+    public void onQuote(String symbol, long eventTimeMillis, double price, double cumulativeVolume) {
+        if (Double.isNaN(price)) {
+            return;
+        }
+        SymbolBars bars = bySymbol.get(symbol);
+        if (bars == null) {
+            bars = new SymbolBars(symbol, intervals.length, slotsPerInterval, watermarkFloor);
+            bySymbol.put(symbol, bars);
+            symbols.add(bars);
+        }
+        double volume = bars.volumeDelta(eventTimeMillis, cumulativeVolume);
+
+        boolean accepted = false;
+        for (int i = 0; i < intervals.length; i++) {
+            CandleInterval interval = intervals[i];
+            long start = interval.windowStart(eventTimeMillis);
+            if (start + interval.millis() <= bars.watermark) {
+                continue;
+            }
+            Bar[] ring = bars.rings[i];
+            Bar bar = ring[(int) Math.floorMod(start / interval.millis(), (long) ring.length)];
+            if (bar.count > 0 && bar.start != start) {
+                emit(bars.symbol, interval, bar);
+            }
+            bar.add(start, eventTimeMillis, price, volume);
+            accepted = true;
+        }
+        if (!accepted) {
+            lateDropped++;
+        }
+
+        if (eventTimeMillis > bars.maxEventTime) {
+            bars.maxEventTime = eventTimeMillis;
+            bars.advancedAt = wallClock.getAsLong();
+            advance(bars, eventTimeMillis - allowedLatenessMillis);
+        }
+    }
+
+    /**
+     * Moves every symbol's watermark forward to at least {@code watermarkMillis}, including
+     * symbols seen later, and emits every bar whose window has ended.
+     */
+    public void advanceWatermark(long watermarkMillis) {
+        if (watermarkMillis <= watermarkFloor) {
+            return;
+        }
+        watermarkFloor = watermarkMillis;
+        for (int s = 0, n = symbols.size(); s < n; s++) {
+            advance(symbols.get(s), watermarkMillis);
+        }
+    }
+
+    /**
+     * Moves each symbol's watermark on by the wall-clock time since its event time last
+     * advanced, so bars close after a symbol, or the whole market, goes quiet.
+     */
+    public void advanceIdle() {
+        long now = wallClock.getAsLong();
+        for (int s = 0, n = symbols.size(); s < n; s++) {
+            SymbolBars bars = symbols.get(s);
+            if (bars.maxEventTime != Long.MIN_VALUE) {
+                advance(bars, bars.maxEventTime + (now - bars.advancedAt) - allowedLatenessMillis);
+            }
+        }
+    }
+
+    /**
+     * Moves the symbol's watermark forward (never back) and emits its bars whose window has ended.
+     */
+    private void advance(SymbolBars bars, long watermarkMillis) {
+        if (watermarkMillis <= bars.watermark) {
+            return;
+        }
+        bars.watermark = watermarkMillis;
+        // Every window ends on a whole second, so nothing new can close until the watermark crosses one.
+        long second = Math.floorDiv(watermarkMillis, 1000L);
+        if (second == bars.lastScanSecond) {
+            return;
+        }
+        bars.lastScanSecond = second;
+        for (int i = 0; i < intervals.length; i++) {
+            closeEnded(bars, intervals[i], bars.rings[i]);
+        }
+    }
+
+    private void closeEnded(SymbolBars bars, CandleInterval interval, Bar[] ring) {
+        while (true) {
+            Bar oldest = null;
+            for (Bar bar : ring) {
+                if (bar.count > 0 && bar.start + interval.millis() <= bars.watermark
+                        && (oldest == null || bar.start < oldest.start)) {
+                    oldest = bar;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            emit(bars.symbol, interval, oldest);
+        }
+    }
+
+    private void emit(String symbol, CandleInterval interval, Bar bar) {
+        sink.onCandle(symbol, interval, bar.start, bar.open, bar.high, bar.low, bar.close, bar.volume, bar.count);
+        emitted[interval.ordinal()]++;
+        bar.count = 0;
+    }
+
+    /**
+     * Forgets everything about the symbol, open bars included, so its next quote starts it
+     * afresh as if it had never been seen. Nothing is emitted.
+     */
+    public void reset(String symbol) {
+        SymbolBars bars = bySymbol.remove(symbol);
+        if (bars != null) {
+            symbols.remove(bars);
+        }
+    }
+
+    /**
+     * The symbol's watermark, or {@code Long.MIN_VALUE} for a symbol not seen yet.
+     */
+    public long watermark(String symbol) {
+        SymbolBars bars = bySymbol.get(symbol);
+        return bars != null ? bars.watermark : Long.MIN_VALUE;
+    }
+
+    public long lateDropped() {
+        return lateDropped;
+    }
+
+    public long emitted(CandleInterval interval) {
+        return emitted[interval.ordinal()];
+    }
+
+    public int symbolCount() {
+        return symbols.size();
+    }
+
+    private static final class SymbolBars {
+        final String symbol;
+        final Bar[][] rings;
+        long maxEventTime = Long.MIN_VALUE;
+        long advancedAt;
+        long watermark;
+        long lastScanSecond = Long.MIN_VALUE;
+        double lastCumulativeVolume = Double.NaN;
+        long lastVolumeTime = Long.MIN_VALUE;
+
+        SymbolBars(String symbol, int intervals, int[] slotsPerInterval, long watermark) {
+            this.symbol = symbol;
+            this.watermark = watermark;
+            this.rings = new Bar[intervals][];
+            for (int i = 0; i < intervals; i++) {
+                rings[i] = new Bar[slotsPerInterval[i]];
+                for (int j = 0; j < rings[i].length; j++) {
+                    rings[i][j] = new Bar();
+                }
+            }
+        }
+
+        double volumeDelta(long eventTimeMillis, double cumulativeVolume) {
+            if (Double.isNaN(cumulativeVolume) || eventTimeMillis < lastVolumeTime) {
+                return 0.0;
+            }
+            double previous = lastCumulativeVolume;
+            lastCumulativeVolume = cumulativeVolume;
+            lastVolumeTime = eventTimeMillis;
+            if (Double.isNaN(previous)) {
+                return 0.0;
+            }
+            return cumulativeVolume >= previous ? cumulativeVolume - previous : cumulativeVolume;
+        }
+    }
+
+    private static final class Bar {
+        long start;
+        double open;
+        double high;
+        double low;
+        double close;
+        double volume;
+        int count;
+        long openTime;
+        long closeTime;
+
+        // Open and close follow event time, so a late quote inside the window lands in the right place.
+        void add(long windowStart, long eventTime, double price, double tradedVolume) {
+            if (count == 0) {
+                start = windowStart;
+                open = price;
+                high = price;
+                low = price;
+                close = price;
+                volume = 0.0;
+                openTime = eventTime;
+                closeTime = eventTime;
+            } else {
+                high = Math.max(high, price);
+                low = Math.min(low, price);
+                if (eventTime < openTime) {
+                    open = price;
+                    openTime = eventTime;
+                }
+                if (eventTime >= closeTime) {
+                    close = price;
+                    closeTime = eventTime;
+                }
+            }
+            volume += tradedVolume;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.marketpulse.aggregator.candle;
+
+import java.time.Duration;
+
+public enum CandleInterval {
+    ONE_SECOND("1s", Duration.ofSeconds(1)),
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1));
+
+    private final String label;
+    private final long millis;
+
+    CandleInterval(String label, Duration size) {
+        this.label = label;
+        this.millis = size.toMillis();
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long millis() {
+        return millis;
+    }
+
+    public long windowStart(long eventTimeMillis) {
+        return Math.floorDiv(eventTimeMillis, millis) * millis;
+    }
+}
@@ -0,0 +1,207 @@
+package com.marketpulse.aggregator.candle;
+
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketCandle;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Feeds market-quotes into a {@link CandleAggregator} and publishes closed bars to
+ * market-candles, keyed by symbol.
+ *
+ * <p>Event time is the quote's FMP timestamp (epoch seconds), falling back to the Kafka
+ * record timestamp when the quote has none. Watermarks are kept per symbol; when a symbol's
+ * quotes stop advancing, its watermark keeps moving with the wall clock, so its bars still
+ * close after it, or the whole market, goes quiet.
+ *
+ * <p>With {@code candles.rebuild.enabled} a second aggregator rebuilds bars from a backfill
+ * replayed onto {@code backfill.rebuild.topic}, under its own consumer group. Its state is
+ * separate from the live one, so history older than the live watermarks is not dropped as
+ * late, and a symbol's state is reset whenever a quote from a new backfill run arrives. Rebuilt
+ * bars are published to market-candles like live ones, replacing earlier bars for the same
+ * window downstream.
+ */
+@Component
+@ConditionalOnProperty(prefix = "candles", name = "enabled", havingValue = "true")
+public class CandleService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleService.class);
+    static final String TOPIC = "market-candles";
+
+    private final KafkaTemplate<String, MarketCandle> candleKafkaTemplate;
+    private final CandleAggregator aggregator;
+    private final CandleAggregator rebuildAggregator;
+    // Backfill run each symbol's rebuild state belongs to; guarded by rebuildAggregator.
+    private final Map<String, String> rebuildRuns = new HashMap<>();
+    private final Duration idleAdvance;
+    private final Counter publishFailures;
+
+    private volatile Disposable idleTicker;
+
+    @Autowired
+    public CandleService(KafkaTemplate<String, MarketCandle> candleKafkaTemplate,
+                         @Value("${candles.allowed-lateness:2s}") Duration allowedLateness,
+                         @Value("${candles.idle-advance:1s}") Duration idleAdvance,
+                         MeterRegistry meterRegistry) {
+        this(candleKafkaTemplate, allowedLateness, idleAdvance, meterRegistry, System::currentTimeMillis);
+    }
+
+    CandleService(KafkaTemplate<String, MarketCandle> candleKafkaTemplate,
+                  Duration allowedLateness,
+                  Duration idleAdvance,
+                  MeterRegistry meterRegistry,
+                  LongSupplier clock) {
+        this.candleKafkaTemplate = candleKafkaTemplate;
+        this.idleAdvance = idleAdvance;
+        this.aggregator = new CandleAggregator(EnumSet.allOf(CandleInterval.class), allowedLateness, this::publish,
+                clock);
+        this.rebuildAggregator = new CandleAggregator(EnumSet.allOf(CandleInterval.class), allowedLateness,
+                this::publish, clock);
+        this.publishFailures = meterRegistry.counter("candles.publish.failures");
+        registerMeters(meterRegistry, aggregator, "live");
+        registerMeters(meterRegistry, rebuildAggregator, "rebuild");
+    }
+
+    private static void registerMeters(MeterRegistry meterRegistry, CandleAggregator aggregator, String source) {
+        for (CandleInterval interval : CandleInterval.values()) {
+            FunctionCounter.builder("candles.emitted", aggregator, a -> a.emitted(interval))
+                    .tag("interval", interval.label())
+                    .tag("source", source)
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("candles.late.dropped", aggregator, CandleAggregator::lateDropped)
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "market-quotes", groupId = "${candles.group-id:market-candle-aggregator}",
+            containerFactory = "candleListenerContainerFactory")
+    public void consume(List<ConsumerRecord<String, MarketQuote>> consumerRecords) {
+        synchronized (aggregator) {
+            for (ConsumerRecord<String, MarketQuote> consumerRecord : consumerRecords) {
+                feed(aggregator, consumerRecord);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds bars from a backfill replay. The rebuild topic only ever holds replays, so it is
+     * read from the earliest offset.
+     */
+    @KafkaListener(topics = "${backfill.rebuild.topic:market-quotes-rebuild}",
+            groupId = "${candles.rebuild.group-id:market-candle-rebuild}",
+            containerFactory = "candleListenerContainerFactory",
+            autoStartup = "${candles.rebuild.enabled:false}",
+            properties = "auto.offset.reset=earliest")
+    public void consumeRebuild(List<ConsumerRecord<String, MarketQuote>> consumerRecords) {
+        synchronized (rebuildAggregator) {
+            for (ConsumerRecord<String, MarketQuote> consumerRecord : consumerRecords) {
+                MarketQuote quote = consumerRecord.value();
+                if (quote != null) {
+                    String run = run(consumerRecord);
+                    if (!run.equals(rebuildRuns.put(quote.getSymbol(), run))) {
+                        rebuildAggregator.reset(quote.getSymbol());
+                    }
+                }
+                feed(rebuildAggregator, consumerRecord);
+            }
+        }
+    }
+
+    private static void feed(CandleAggregator aggregator, ConsumerRecord<String, MarketQuote> consumerRecord) {
+        MarketQuote quote = consumerRecord.value();
+        if (quote == null || quote.getPrice() == null) {
+            return;
+        }
+        long eventTime = quote.getTimestamp() != null ? quote.getTimestamp() * 1000L : consumerRecord.timestamp();
+        double volume = quote.getVolume() != null ? quote.getVolume() : Double.NaN;
+        aggregator.onQuote(quote.getSymbol(), eventTime, quote.getPrice(), volume);
+    }
+
+    private static String run(ConsumerRecord<String, MarketQuote> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(MarketQuoteProducer.REBUILD_RUN_HEADER);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : "";
+    }
+
+    /**
+     * Advances each symbol's watermark by the wall-clock time since its quotes last moved it.
+     */
+    void advanceIdle() {
+        synchronized (aggregator) {
+            aggregator.advanceIdle();
+        }
+        synchronized (rebuildAggregator) {
+            rebuildAggregator.advanceIdle();
+        }
+    }
+
+    private void publish(String symbol, CandleInterval interval, long windowStart,
+                         double open, double high, double low, double close, double volume, int quoteCount) {
+        MarketCandle candle = MarketCandle.newBuilder()
+                .setSymbol(symbol)
+                .setInterval(interval.label())
+                .setWindowStart(windowStart)
+                .setWindowEnd(windowStart + interval.millis())
+                .setOpen(open)
+                .setHigh(high)
+                .setLow(low)
+                .setClose(close)
+                .setVolume(volume)
+                .setQuoteCount(quoteCount)
+                .build();
+        try {
+            candleKafkaTemplate.send(TOPIC, symbol, candle).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    publishFailures.increment();
+                    log.error("Failed to publish {} candle for {}: {}", interval.label(), symbol, ex.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            publishFailures.increment();
+            log.error("Failed to publish {} candle for {}: {}", interval.label(), symbol, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        idleTicker = Flux.interval(idleAdvance, idleAdvance).subscribe(tick -> advanceIdle());
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = idleTicker;
+        if (current != null) {
+            current.dispose();
+            idleTicker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = idleTicker;
+        return current != null && !current.isDisposed();
+    }
+}
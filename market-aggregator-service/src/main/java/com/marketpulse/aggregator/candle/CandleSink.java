@@ -0,0 +1,11 @@
+package com.marketpulse.aggregator.candle;
+
+/**
+ * Receives closed bars from {@link CandleAggregator}. Values are passed as primitives so the
+ * engine does not allocate per bar; the sink decides whether to build a record.
+ */
+@FunctionalInterface
+public interface CandleSink {
+    void onCandle(String symbol, CandleInterval interval, long windowStart,
+                  double open, double high, double low, double close, double volume, int quoteCount);
+}
@@ -0,0 +1,204 @@
+package com.marketpulse.aggregator.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for FMP calls. Outcomes of the last {@code window-size} calls
+ * are kept; once at least {@code minimum-calls} are recorded and the failure rate reaches
+ * the threshold the breaker opens and rejects calls for {@code open-duration}. It then lets a
+ * single trial call through: success closes it, failure opens it again.
+ *
+ * <p>Every permitted call gets its own {@link Permit}, which reports the call's outcome once.
+ * A permit remembers whether it holds the half-open trial and which state it was issued in,
+ * so a call permitted before the last transition can neither free the trial slot nor move
+ * the breaker when it completes or is cancelled late.
+ */
+@Component
+public class FmpCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(FmpCircuitBreaker.class);
+
+    /** Exported as the {@code fmp.circuit.state} gauge by ordinal. */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+    // Bumped on every transition; permits from an earlier generation no longer count.
+    private long generation;
+
+    @Autowired
+    public FmpCircuitBreaker(@Value("${fmp.circuit-breaker.enabled:true}") boolean enabled,
+                             @Value("${fmp.circuit-breaker.window-size:20}") int windowSize,
+                             @Value("${fmp.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                             @Value("${fmp.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                             @Value("${fmp.circuit-breaker.open-duration:10s}") Duration openDuration,
+                             MeterRegistry meterRegistry) {
+        this(enabled, windowSize, minimumCalls, failureRateThreshold, openDuration, System::nanoTime);
+        meterRegistry.gauge("fmp.circuit.state", this, breaker -> breaker.state().ordinal());
+    }
+
+    FmpCircuitBreaker(boolean enabled, int windowSize, int minimumCalls, double failureRateThreshold,
+                      Duration openDuration, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("fmp.circuit-breaker.minimum-calls must be between 1 and window-size");
+        }
+        if (failureRateThreshold <= 0.0 || failureRateThreshold > 1.0) {
+            throw new IllegalArgumentException("fmp.circuit-breaker.failure-rate-threshold must be in (0, 1]");
+        }
+        this.enabled = enabled;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks to send a call upstream now. Returns null when the breaker rejects it; otherwise
+     * the caller must report the call's outcome, or that it was never made, through the
+     * returned permit. In half-open state only one trial call is let through.
+     */
+    public synchronized Permit tryAcquirePermission() {
+        if (!enabled) {
+            return new Permit(false, generation);
+        }
+        switch (state) {
+            case CLOSED:
+                return new Permit(false, generation);
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                    return null;
+                }
+                transitionTo(State.HALF_OPEN);
+                trialInFlight = true;
+                return new Permit(true, generation);
+            default:
+                if (trialInFlight) {
+                    return null;
+                }
+                trialInFlight = true;
+                return new Permit(true, generation);
+        }
+    }
+
+    private synchronized void onSuccess(Permit permit) {
+        if (!enabled || permit.generation != generation) {
+            return;
+        }
+        if (permit.trial) {
+            transitionTo(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure(Permit permit) {
+        if (!enabled || permit.generation != generation) {
+            return;
+        }
+        if (permit.trial) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onIgnored(Permit permit) {
+        if (permit.trial && permit.generation == generation) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State target) {
+        log.warn("FMP circuit breaker {} -> {}", state, target);
+        state = target;
+        generation++;
+        trialInFlight = false;
+        if (target == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        } else if (target == State.CLOSED) {
+            calls = 0;
+            failures = 0;
+            next = 0;
+        }
+    }
+
+    /**
+     * Permission for one call. Only the first of {@link #onSuccess}, {@link #onFailure} and
+     * {@link #onIgnored} counts; later reports are ignored.
+     */
+    public final class Permit {
+        private final boolean trial;
+        private final long generation;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private Permit(boolean trial, long generation) {
+            this.trial = trial;
+            this.generation = generation;
+        }
+
+        public void onSuccess() {
+            if (reported.compareAndSet(false, true)) {
+                FmpCircuitBreaker.this.onSuccess(this);
+            }
+        }
+
+        public void onFailure() {
+            if (reported.compareAndSet(false, true)) {
+                FmpCircuitBreaker.this.onFailure(this);
+            }
+        }
+
+        /**
+         * The call was never made or was cancelled; frees the half-open trial slot if this
+         * permit holds it.
+         */
+        public void onIgnored() {
+            if (reported.compareAndSet(false, true)) {
+                FmpCircuitBreaker.this.onIgnored(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.marketpulse.aggregator.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketpulse.aggregator.exception.FmpApiException;
+import com.marketpulse.aggregator.mapper.FmpQuoteDecoder;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client for the FMP quote endpoint. FMP accepts a comma-separated list of symbols in
+ * {@code /quote/{symbols}}, so one call can serve any number of tickers. The response body
+ * is read as raw bytes and decoded straight into {@link MarketQuote}s by {@link FmpQuoteDecoder}.
+ *
+ * <p>Every call goes through the plan's {@link FmpRateLimiter} and the {@link FmpCircuitBreaker}.
+ * Once enough latencies are observed, the timeout follows the recent p99 (times
+ * {@code fmp.timeout.p99-multiplier}, clamped to {@code [min, max]}) and, if the first request
+ * has not answered by the recent p95, a duplicate is sent when a rate-limit token is free and
+ * whichever answers first wins. While the breaker is open, calls fail fast and are served
+ * from the last quotes seen for the requested symbols.
+ */
+@Component
+public class FmpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(FmpClient.class);
+    private static final int LATENCY_WINDOW = 512;
+
+    private final WebClient webClient;
+    private final String apiKey;
+    private final FmpRateLimiter rateLimiter;
+    private final FmpCircuitBreaker circuitBreaker;
+    private final FmpLatencyTracker latencies = new FmpLatencyTracker(LATENCY_WINDOW);
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
+    private final double timeoutMultiplier;
+    private final boolean hedgeEnabled;
+    private final long minHedgeDelayNanos;
+    private final Cache<String, MarketQuote> lastKnown;
+
+    private final Timer latency;
+    private final Timer errorLatency;
+    private final Timer cancelledLatency;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter rateLimited;
+    private final Counter timeouts;
+    private final Counter fallbackQuotes;
+
+    @Autowired
+    public FmpClient(WebClient.Builder webClientBuilder,
+                     @Value("${fmp.api.key:demo}") String apiKey,
+                     @Value("${fmp.api.base-url}") String baseUrl,
+                     FmpRateLimiter rateLimiter,
+                     FmpCircuitBreaker circuitBreaker,
+                     @Value("${fmp.timeout.min:250ms}") Duration minTimeout,
+                     @Value("${fmp.timeout.max:3s}") Duration maxTimeout,
+                     @Value("${fmp.timeout.p99-multiplier:2.0}") double timeoutMultiplier,
+                     @Value("${fmp.hedge.enabled:true}") boolean hedgeEnabled,
+                     @Value("${fmp.hedge.min-delay:50ms}") Duration minHedgeDelay,
+                     @Value("${fmp.circuit-breaker.fallback-max-size:10000}") long fallbackMaxSize,
+                     MeterRegistry meterRegistry) {
+        this.apiKey = apiKey;
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.minTimeoutNanos = minTimeout.toNanos();
+        this.maxTimeoutNanos = maxTimeout.toNanos();
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.hedgeEnabled = hedgeEnabled;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.lastKnown = Caffeine.newBuilder().maximumSize(fallbackMaxSize).build();
+        this.latency = meterRegistry.timer("fmp.client.latency", "outcome", "success");
+        this.errorLatency = meterRegistry.timer("fmp.client.latency", "outcome", "error");
+        this.cancelledLatency = meterRegistry.timer("fmp.client.latency", "outcome", "cancelled");
+        this.hedges = meterRegistry.counter("fmp.client.hedges", "result", "sent");
+        this.hedgeWins = meterRegistry.counter("fmp.client.hedges", "result", "won");
+        this.rateLimited = meterRegistry.counter("fmp.client.rejected", "reason", "rate-limit");
+        this.timeouts = meterRegistry.counter("fmp.client.rejected", "reason", "timeout");
+        this.fallbackQuotes = meterRegistry.counter("fmp.client.fallback.quotes");
+        meterRegistry.gauge("fmp.client.timeout", this, client -> client.currentTimeout().toMillis());
+    }
+
+    public Flux<MarketQuote> getQuotes(Collection<String> symbols) {
+        List<String> requested = List.copyOf(symbols);
+        return Mono.defer(() -> call(requested)).flatMapIterable(quotes -> quotes);
+    }
+
+    /**
+     * Timeout the next call would get, from the latencies observed so far.
+     */
+    Duration currentTimeout() {
+        FmpLatencyTracker.Snapshot snapshot = latencies.snapshot();
+        if (!snapshot.isWarm()) {
+            return Duration.ofNanos(maxTimeoutNanos);
+        }
+        long adaptive = (long) (snapshot.p99Nanos() * timeoutMultiplier);
+        return Duration.ofNanos(Math.max(minTimeoutNanos, Math.min(maxTimeoutNanos, adaptive)));
+    }
+
+    private Mono<List<MarketQuote>> call(List<String> symbols) {
+        FmpCircuitBreaker.Permit permit = circuitBreaker.tryAcquirePermission();
+        if (permit == null) {
+            return fallback(symbols);
+        }
+        long wait = rateLimiter.reserve();
+        if (wait < 0) {
+            permit.onIgnored();
+            rateLimited.increment();
+            return Mono.error(new FmpApiException("FMP rate limit exceeded"));
+        }
+        FmpLatencyTracker.Snapshot snapshot = latencies.snapshot();
+        Duration timeout = currentTimeout();
+        Mono<List<MarketQuote>> attempt = timed(symbols);
+        if (hedgeEnabled && snapshot.isWarm()) {
+            Duration hedgeDelay = Duration.ofNanos(Math.max(minHedgeDelayNanos, snapshot.p95Nanos()));
+            attempt = Mono.firstWithSignal(attempt, hedge(symbols, hedgeDelay));
+        }
+        Mono<List<MarketQuote>> guarded = attempt
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class, e -> {
+                    timeouts.increment();
+                    return new FmpApiException("FMP request timed out after " + timeout.toMillis() + " ms", e);
+                })
+                .doOnNext(quotes -> {
+                    permit.onSuccess();
+                    quotes.forEach(quote -> lastKnown.put(QuoteBatcher.normalize(quote.getSymbol()), quote));
+                })
+                .doOnError(e -> permit.onFailure());
+        return (wait == 0 ? guarded : Mono.delay(Duration.ofNanos(wait)).then(guarded))
+                .doOnCancel(permit::onIgnored);
+    }
+
+    /**
+     * Sends a duplicate request after {@code delay} if a rate-limit token is free right away.
+     * A hedge that fails or is not sent never completes, so the first request alone decides
+     * the error.
+     */
+    private Mono<List<MarketQuote>> hedge(List<String> symbols, Duration delay) {
+        return Mono.delay(delay).flatMap(tick -> {
+            if (!rateLimiter.tryAcquire()) {
+                return Mono.never();
+            }
+            hedges.increment();
+            return timed(symbols)
+                    .doOnNext(quotes -> hedgeWins.increment())
+                    .onErrorResume(e -> Mono.never());
+        });
+    }
+
+    /**
+     * Times one HTTP exchange under {@code fmp.client.latency}, tagged by outcome. Requests cut
+     * short by the timeout or by a winning hedge count as {@code cancelled}. Only successful
+     * latencies feed the adaptive timeout and hedge delay.
+     */
+    private Mono<List<MarketQuote>> timed(List<String> symbols) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // Subscribers such as block() cancel right after the value, so record only the first outcome.
+            AtomicBoolean recorded = new AtomicBoolean();
+            return request(symbols)
+                    .doOnNext(quotes -> {
+                        long elapsed = System.nanoTime() - start;
+                        if (recorded.compareAndSet(false, true)) {
+                            latencies.record(elapsed);
+                            latency.record(elapsed, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(e -> record(recorded, errorLatency, start))
+                    .doOnCancel(() -> record(recorded, cancelledLatency, start));
+        });
+    }
+
+    private static void record(AtomicBoolean recorded, Timer timer, long start) {
+        if (recorded.compareAndSet(false, true)) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Mono<List<MarketQuote>> fallback(List<String> symbols) {
+        List<MarketQuote> cached = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            MarketQuote quote = lastKnown.getIfPresent(QuoteBatcher.normalize(symbol));
+            if (quote != null) {
+                cached.add(quote);
+            }
+        }
+        if (cached.isEmpty()) {
+            return Mono.error(new FmpApiException("FMP circuit breaker is open"));
+        }
+        fallbackQuotes.increment(cached.size());
+        return Mono.just(cached);
+    }
+
+    private Mono<List<MarketQuote>> request(List<String> symbols) {
+        String joined = String.join(",", symbols);
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/quote/{symbols}")
+                        .queryParam("apikey", apiKey)
+                        .build(joined))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response -> response.bodyToMono(String.class)
+                        .flatMap(body -> {
+                            log.error("FMP API error for symbols {}: {}", joined, body);
+                            return Mono.error(new FmpApiException("FMP API error: " + body));
+                        }))
+                .bodyToMono(byte[].class)
+                .<List<MarketQuote>>handle((body, sink) -> {
+                    try {
+                        sink.next(FmpQuoteDecoder.decode(body));
+                    } catch (IOException e) {
+                        log.error("Malformed FMP response for symbols {}: {}", joined, e.getMessage());
+                        sink.error(new FmpApiException("Malformed FMP response", e));
+                    }
+                });
+    }
+}
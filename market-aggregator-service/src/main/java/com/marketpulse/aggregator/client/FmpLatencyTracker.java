@@ -0,0 +1,51 @@
+package com.marketpulse.aggregator.client;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent FMP call latencies. Percentiles are recomputed from a sorted copy
+ * every {@link #REFRESH_EVERY} samples and published as an immutable snapshot, so readers on
+ * the request path never sort.
+ */
+final class FmpLatencyTracker {
+
+    static final int MIN_SAMPLES = 20;
+    private static final int REFRESH_EVERY = 32;
+
+    private final long[] samples;
+    private int next;
+    private int size;
+    private int sinceRefresh;
+    private volatile Snapshot snapshot = new Snapshot(0, 0, 0);
+
+    FmpLatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        if (++sinceRefresh >= REFRESH_EVERY || size <= MIN_SAMPLES) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            snapshot = new Snapshot(size, percentile(sorted, 0.95), percentile(sorted, 0.99));
+            sinceRefresh = 0;
+        }
+    }
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * quantile) - 1)];
+    }
+
+    record Snapshot(int samples, long p95Nanos, long p99Nanos) {
+
+        boolean isWarm() {
+            return samples >= MIN_SAMPLES;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.marketpulse.aggregator.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sized to the FMP plan: {@code requests-per-minute} refill continuously and
+ * up to {@code burst} can be spent at once. A caller that finds the bucket empty reserves the
+ * next token and waits for it, as long as the wait stays within {@code max-wait}; beyond
+ * that the request is refused so callers fail fast instead of queueing behind the limit.
+ */
+@Component
+public class FmpRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final boolean enabled;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long refilledAt;
+
+    @Autowired
+    public FmpRateLimiter(@Value("${fmp.rate-limit.enabled:true}") boolean enabled,
+                          @Value("${fmp.rate-limit.requests-per-minute:300}") int requestsPerMinute,
+                          @Value("${fmp.rate-limit.burst:10}") int burst,
+                          @Value("${fmp.rate-limit.max-wait:1s}") Duration maxWait) {
+        this(enabled, requestsPerMinute, burst, maxWait, System::nanoTime);
+    }
+
+    FmpRateLimiter(boolean enabled, int requestsPerMinute, int burst, Duration maxWait, LongSupplier nanoClock) {
+        if (requestsPerMinute < 1 || burst < 1) {
+            throw new IllegalArgumentException("fmp.rate-limit.requests-per-minute and burst must be positive");
+        }
+        this.enabled = enabled;
+        this.capacity = burst;
+        this.tokensPerNano = (double) requestsPerMinute / NANOS_PER_MINUTE;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token, waiting for one if necessary.
+     *
+     * @return nanoseconds the caller has to wait before sending, or {@code -1} if that wait
+     * would exceed {@code max-wait}, in which case nothing is taken
+     */
+    public synchronized long reserve() {
+        if (!enabled) {
+            return 0;
+        }
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+        long wait = (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1.0;
+        return wait;
+    }
+
+    /**
+     * Takes a token only if one is available right now.
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,125 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.avro.MarketQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces single-symbol quote lookups that arrive within a short window into one
+ * comma-joined FMP call. Callers asking for the same symbol in the same window share
+ * one result; a batch is flushed when the window elapses or it reaches the max size.
+ */
+@Component
+public class QuoteBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteBatcher.class);
+
+    private final FmpClient fmpClient;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    private final Object lock = new Object();
+    private Map<String, Sinks.One<MarketQuote>> pending = new LinkedHashMap<>();
+    private long batchId;
+
+    @Autowired
+    public QuoteBatcher(FmpClient fmpClient,
+                        @Value("${fmp.batch.window:10ms}") Duration window,
+                        @Value("${fmp.batch.max-size:100}") int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("fmp.batch.max-size must be positive");
+        }
+        this.fmpClient = fmpClient;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Mono<MarketQuote> getQuote(String symbol) {
+        return Mono.defer(() -> enqueue(normalize(symbol)));
+    }
+
+    public Flux<MarketQuote> getQuotes(Collection<String> symbols) {
+        List<String> distinct = symbols.stream().map(QuoteBatcher::normalize).distinct().toList();
+        return Flux.fromIterable(distinct)
+                .flatMapSequential(this::getQuote, Math.max(1, distinct.size()));
+    }
+
+    static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private Mono<MarketQuote> enqueue(String symbol) {
+        Sinks.One<MarketQuote> sink;
+        Map<String, Sinks.One<MarketQuote>> full = null;
+        synchronized (lock) {
+            sink = pending.get(symbol);
+            if (sink == null) {
+                sink = Sinks.one();
+                pending.put(symbol, sink);
+                if (pending.size() >= maxBatchSize) {
+                    full = takePending();
+                } else if (pending.size() == 1) {
+                    long id = batchId;
+                    scheduler.schedule(() -> flush(id), window.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return sink.asMono();
+    }
+
+    private void flush(long id) {
+        Map<String, Sinks.One<MarketQuote>> batch;
+        synchronized (lock) {
+            if (id != batchId || pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<String, Sinks.One<MarketQuote>> takePending() {
+        Map<String, Sinks.One<MarketQuote>> batch = pending;
+        pending = new LinkedHashMap<>();
+        batchId++;
+        return batch;
+    }
+
+    private void dispatch(Map<String, Sinks.One<MarketQuote>> batch) {
+        log.debug("Dispatching FMP quote batch of {} symbols", batch.size());
+        fmpClient.getQuotes(batch.keySet())
+                .collectList()
+                .subscribe(quotes -> {
+                    for (MarketQuote quote : quotes) {
+                        if (quote.getSymbol() == null) {
+                            continue;
+                        }
+                        Sinks.One<MarketQuote> sink = batch.get(normalize(quote.getSymbol()));
+                        if (sink != null) {
+                            sink.tryEmitValue(quote);
+                        }
+                    }
+                    batch.values().forEach(Sinks.One::tryEmitEmpty);
+                }, error -> batch.values().forEach(sink -> sink.tryEmitError(error)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.marketpulse.aggregator.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-symbol TTL cache in front of {@link QuoteBatcher}. Entries are fresh for {@code ttl};
+ * with a non-zero {@code stale-while-revalidate} window an expired entry is still served
+ * while one background refresh runs. Concurrent misses for a symbol share a single fetch.
+ */
+@Component
+public class QuoteCache {
+
+    private static final String METRIC = "fmp.quote.cache";
+
+    private final QuoteBatcher quoteBatcher;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final Ticker ticker;
+    private final Cache<String, Entry> entries;
+    private final ConcurrentMap<String, Sinks.One<MarketQuote>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    @Autowired
+    public QuoteCache(QuoteBatcher quoteBatcher,
+                      @Value("${fmp.cache.enabled:true}") boolean enabled,
+                      @Value("${fmp.cache.ttl:1s}") Duration ttl,
+                      @Value("${fmp.cache.max-size:10000}") long maxSize,
+                      @Value("${fmp.cache.stale-while-revalidate:0s}") Duration staleWhileRevalidate,
+                      MeterRegistry meterRegistry) {
+        this(quoteBatcher, enabled, ttl, maxSize, staleWhileRevalidate, meterRegistry, Ticker.systemTicker());
+    }
+
+    QuoteCache(QuoteBatcher quoteBatcher, boolean enabled, Duration ttl, long maxSize,
+               Duration staleWhileRevalidate, MeterRegistry meterRegistry, Ticker ticker) {
+        this.quoteBatcher = quoteBatcher;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = staleWhileRevalidate.toNanos();
+        this.ticker = ticker;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl.plus(staleWhileRevalidate))
+                .ticker(ticker)
+                .build();
+        this.hits = meterRegistry.counter(METRIC, "result", "hit");
+        this.staleHits = meterRegistry.counter(METRIC, "result", "stale");
+        this.misses = meterRegistry.counter(METRIC, "result", "miss");
+        this.coalesced = meterRegistry.counter(METRIC, "result", "coalesced");
+        meterRegistry.gauge(METRIC + ".size", entries, Cache::estimatedSize);
+    }
+
+    public Mono<MarketQuote> getQuote(String symbol) {
+        if (!enabled) {
+            return quoteBatcher.getQuote(symbol);
+        }
+        return Mono.defer(() -> lookup(QuoteBatcher.normalize(symbol)));
+    }
+
+    public Flux<MarketQuote> getQuotes(Collection<String> symbols) {
+        List<String> distinct = symbols.stream().map(QuoteBatcher::normalize).distinct().toList();
+        return Flux.fromIterable(distinct)
+                .flatMapSequential(this::getQuote, Math.max(1, distinct.size()));
+    }
+
+    private Mono<MarketQuote> lookup(String symbol) {
+        Entry entry = entries.getIfPresent(symbol);
+        if (entry != null) {
+            long age = ticker.read() - entry.fetchedAt();
+            if (age < ttlNanos) {
+                hits.increment();
+                return Mono.just(entry.quote());
+            }
+            if (age < ttlNanos + staleNanos) {
+                staleHits.increment();
+                if (!inFlight.containsKey(symbol)) {
+                    fetch(symbol).subscribe(quote -> { }, error -> { });
+                }
+                return Mono.just(entry.quote());
+            }
+        }
+        misses.increment();
+        return fetch(symbol);
+    }
+
+    private Mono<MarketQuote> fetch(String symbol) {
+        Sinks.One<MarketQuote> sink = Sinks.one();
+        Sinks.One<MarketQuote> existing = inFlight.putIfAbsent(symbol, sink);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.asMono();
+        }
+        quoteBatcher.getQuote(symbol).subscribe(
+                quote -> {
+                    entries.put(symbol, new Entry(quote, ticker.read()));
+                    inFlight.remove(symbol, sink);
+                    sink.tryEmitValue(quote);
+                },
+                error -> {
+                    inFlight.remove(symbol, sink);
+                    sink.tryEmitError(error);
+                },
+                () -> {
+                    inFlight.remove(symbol, sink);
+                    sink.tryEmitEmpty();
+                });
+        return sink.asMono();
+    }
+
+    private record Entry(MarketQuote quote, long fetchedAt) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.marketpulse.aggregator.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets Jackson write Avro specific records as plain JSON objects by hiding the schema and
+ * model accessors every generated class inherits. Spring Boot registers {@code Module} beans
+ * with the shared {@code ObjectMapper}, so REST responses can return {@code MarketQuote} as is.
+ */
+@Component
+public class AvroJacksonModule extends SimpleModule {
+
+    public AvroJacksonModule() {
+        super("AvroJacksonModule");
+        setMixInAnnotation(SpecificRecordBase.class, SpecificRecordMixIn.class);
+    }
+
+    @JsonIgnoreProperties({"schema", "specificData"})
+    private abstract static class SpecificRecordMixIn {
+    }
+}
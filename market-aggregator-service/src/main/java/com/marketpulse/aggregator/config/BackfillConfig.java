@@ -0,0 +1,73 @@
+package com.marketpulse.aggregator.config;
+
+import com.marketpulse.aggregator.backfill.FileHistoricalQuoteSource;
+import com.marketpulse.aggregator.backfill.FmpHistoricalQuoteSource;
+import com.marketpulse.aggregator.backfill.HistoricalQuoteSource;
+import com.marketpulse.aggregator.client.FmpRateLimiter;
+import com.marketpulse.aggregator.mapper.HistoricalQuoteDecoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Picks where {@code QuoteBackfill} reads history from: {@code backfill.source=file} replays
+ * the per-symbol files under {@code backfill.path}, {@code fmp} fetches
+ * {@code [backfill.from, backfill.to]} from FMP's historical endpoints at
+ * {@code backfill.fmp.interval} ({@code 1day}, or an intraday interval such as {@code 1min}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "backfill", name = "enabled", havingValue = "true")
+public class BackfillConfig {
+
+    @Value("${backfill.source:file}")
+    private String source = "file";
+
+    @Value("${backfill.path:backfill}")
+    private String path = "backfill";
+
+    // Empty defaults to a year before backfill.to; set both to keep a checkpoint valid across days.
+    @Value("${backfill.from:}")
+    private String from = "";
+
+    @Value("${backfill.to:}")
+    private String to = "";
+
+    @Value("${backfill.fmp.interval:1day}")
+    private String interval = "1day";
+
+    // FMP caps intraday responses, so intraday backfills need windows of a few days.
+    @Value("${backfill.fmp.window-days:365}")
+    private int windowDays = 365;
+
+    @Value("${backfill.fmp.max-response-size:64MB}")
+    private DataSize maxResponseSize = DataSize.ofMegabytes(64);
+
+    @Value("${fmp.api.key:demo}")
+    private String apiKey = "demo";
+
+    @Value("${fmp.api.base-url:}")
+    private String baseUrl = "";
+
+    @Bean
+    public HistoricalQuoteSource historicalQuoteSource(WebClient.Builder webClientBuilder,
+                                                       FmpRateLimiter rateLimiter,
+                                                       Scheduler blockingScheduler) {
+        return switch (source) {
+            case "file" -> new FileHistoricalQuoteSource(Path.of(path), blockingScheduler);
+            case "fmp" -> {
+                LocalDate end = to.isBlank() ? LocalDate.now(HistoricalQuoteDecoder.EXCHANGE_ZONE) : LocalDate.parse(to);
+                LocalDate start = from.isBlank() ? end.minusYears(1) : LocalDate.parse(from);
+                yield new FmpHistoricalQuoteSource(webClientBuilder, apiKey, baseUrl, interval, start, end,
+                        windowDays, Math.toIntExact(maxResponseSize.toBytes()), rateLimiter);
+            }
+            default -> throw new IllegalArgumentException("backfill.source must be file or fmp, got " + source);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.marketpulse.aggregator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler for work that can block, such as {@code KafkaTemplate.send} waiting up to
+ * {@code max.block.ms} for metadata or buffer space, so it never runs on a Netty event loop.
+ * With {@code spring.threads.virtual.enabled} every task gets its own virtual thread;
+ * otherwise it falls back to Reactor's bounded elastic pool of platform threads.
+ */
+@Configuration
+public class BlockingSchedulerConfig {
+
+    static final String VIRTUAL_SCHEDULER_NAME = "blocking-vt";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads = false;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), VIRTUAL_SCHEDULER_NAME);
+        }
+        // A dedicated pool, so disposing the bean leaves Reactor's shared boundedElastic() alone.
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "blocking");
+    }
+}
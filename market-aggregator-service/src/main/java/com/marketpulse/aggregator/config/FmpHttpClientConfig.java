@@ -0,0 +1,137 @@
+package com.marketpulse.aggregator.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Reactor Netty transport behind the FMP {@code WebClient}. Spring Boot's {@code WebClient.Builder}
+ * picks up a {@code ClientHttpConnector} bean, so {@code FmpClient} gets this pool without
+ * building its own. It runs on its own event loop so FMP traffic does not share threads with
+ * the WebFlux server. Connections are handed out LIFO so bursts reuse the warmest (already
+ * TLS-negotiated) connections and the rest age out through idle eviction. HTTP/2 is offered
+ * through ALPN when the base URL is https; plain http stays on HTTP/1.1.
+ *
+ * <p>Pool gauges are published under {@code reactor.netty.connection.provider.*} and request
+ * timers under {@code reactor.netty.http.client.*}, with every quote path folded into one
+ * {@code uri} tag.
+ */
+@Configuration
+public class FmpHttpClientConfig {
+
+    static final String POOL_NAME = "fmp";
+
+    @Value("${fmp.api.base-url}")
+    private String baseUrl;
+
+    @Value("${fmp.http.max-connections:200}")
+    private int maxConnections = 200;
+
+    @Value("${fmp.http.pending-acquire-max-count:2000}")
+    private int pendingAcquireMaxCount = 2000;
+
+    @Value("${fmp.http.pending-acquire-timeout:2s}")
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+    @Value("${fmp.http.max-idle-time:30s}")
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    @Value("${fmp.http.max-life-time:5m}")
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    @Value("${fmp.http.evict-in-background:30s}")
+    private Duration evictInBackground = Duration.ofSeconds(30);
+
+    @Value("${fmp.http.connect-timeout:2s}")
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // 0 sizes the dedicated event loop like Reactor Netty's default (one thread per core).
+    @Value("${fmp.http.worker-threads:0}")
+    private int workerThreads = 0;
+
+    @Value("${fmp.http.http2:true}")
+    private boolean http2 = true;
+
+    @Value("${fmp.http.compression:true}")
+    private boolean compression = true;
+
+    @Value("${fmp.http.dns-cache.enabled:false}")
+    private boolean dnsCache = false;
+
+    @Value("${fmp.http.dns-cache.ttl:60s}")
+    private Duration dnsCacheTtl = Duration.ofSeconds(60);
+
+    @Value("${fmp.http.metrics:true}")
+    private boolean metrics = true;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider fmpConnectionProvider() {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .lifo()
+                .metrics(metrics)
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources fmpLoopResources() {
+        int threads = workerThreads > 0 ? workerThreads : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        return LoopResources.create("fmp-http", threads, true);
+    }
+
+    @Bean
+    public ReactorClientHttpConnector fmpClientHttpConnector(ConnectionProvider fmpConnectionProvider,
+                                                            LoopResources fmpLoopResources) {
+        return new ReactorClientHttpConnector(fmpHttpClient(fmpConnectionProvider, fmpLoopResources));
+    }
+
+    HttpClient fmpHttpClient(ConnectionProvider connectionProvider, LoopResources loopResources) {
+        HttpClient client = HttpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .compress(compression)
+                .protocol(http2 && baseUrl.startsWith("https:")
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        if (dnsCache) {
+            client = client.resolver(spec -> spec.cacheMaxTimeToLive(dnsCacheTtl));
+        }
+        if (metrics) {
+            client = client.metrics(true, FmpHttpClientConfig::uriTag);
+        }
+        return client;
+    }
+
+    /**
+     * Folds symbols and intervals out of the path, and drops the query with its API key, so
+     * the {@code uri} tag stays bounded.
+     */
+    static String uriTag(String uri) {
+        if (uri.contains("/quote/")) {
+            return "/quote/{symbols}";
+        }
+        if (uri.contains("/historical-price-full/")) {
+            return "/historical-price-full/{symbol}";
+        }
+        if (uri.contains("/historical-chart/")) {
+            return "/historical-chart/{interval}/{symbol}";
+        }
+        int query = uri.indexOf('?');
+        return query >= 0 ? uri.substring(0, query) : uri;
+    }
+}
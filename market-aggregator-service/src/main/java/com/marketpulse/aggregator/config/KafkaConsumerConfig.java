@@ -0,0 +1,77 @@
+package com.marketpulse.aggregator.config;
+
+import com.marketpulse.aggregator.serde.MarketQuoteAvroDeserializer;
+import com.marketpulse.avro.MarketQuote;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumer side of the candle engine: reads market-quotes back in batches. A single
+ * consumer thread feeds the engine, which is single-threaded by design.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "candles", name = "enabled", havingValue = "true")
+public class KafkaConsumerConfig {
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.properties.schema.registry.url}")
+    private String schemaRegistryUrl;
+
+    @Value("${candles.group-id:market-candle-aggregator}")
+    private String groupId = "market-candle-aggregator";
+
+    @Value("${candles.max-poll-records:1000}")
+    private int maxPollRecords = 1000;
+
+    // Must match the producer's kafka.avro.local-serde.enabled.
+    @Value("${kafka.avro.local-serde.enabled:false}")
+    private boolean localSerde = false;
+
+    // Older MarketQuote schemas producers may still write, resolved to the current one.
+    @Value("${kafka.avro.local-serde.writer-schemas:}")
+    private List<String> writerSchemas = List.of();
+
+    @Bean
+    public ConsumerFactory<String, MarketQuote> candleConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        if (localSerde) {
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, MarketQuoteAvroDeserializer.class);
+            props.put(MarketQuoteAvroDeserializer.WRITER_SCHEMAS_CONFIG, writerSchemas);
+        } else {
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaAvroDeserializer.class);
+            props.put("schema.registry.url", schemaRegistryUrl);
+            props.put("specific.avro.reader", true);
+        }
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, MarketQuote> candleListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, MarketQuote> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(candleConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+}
@@ -1,5 +1,8 @@
 package com.marketpulse.aggregator.config;
 
+import com.marketpulse.aggregator.producer.SymbolWeightedPartitioner;
+import com.marketpulse.aggregator.serde.MarketQuoteAvroSerializer;
+import com.marketpulse.avro.MarketCandle;
 import com.marketpulse.avro.MarketQuote;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -16,24 +19,105 @@ import java.util.Map;
 
 @Configuration
 public class KafkaProducerConfig {
+    static final long TRANSACTION_MAX_BLOCK_MS = 60000L;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.properties.schema.registry.url}")
     private String schemaRegistryUrl;
 
+    // Field defaults mirror the Kafka client defaults; the throughput profile overrides them.
+    @Value("${kafka.producer.linger-ms:0}")
+    private int lingerMs = 0;
+
+    @Value("${kafka.producer.batch-size:16384}")
+    private int batchSize = 16384;
+
+    @Value("${kafka.producer.compression-type:none}")
+    private String compressionType = "none";
+
+    @Value("${kafka.producer.acks:all}")
+    private String acks = "all";
+
+    @Value("${kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence = true;
+
+    @Value("${kafka.producer.max-in-flight-requests-per-connection:5}")
+    private int maxInFlightRequestsPerConnection = 5;
+
+    @Value("${kafka.producer.buffer-memory:33554432}")
+    private long bufferMemory = 33554432L;
+
+    @Value("${kafka.producer.max-block-ms:60000}")
+    private long maxBlockMs = 60000L;
+
+    // Registry-free serde for market-quotes only; every consumer of the topic has to switch with it.
+    @Value("${kafka.avro.local-serde.enabled:false}")
+    private boolean localSerde = false;
+
+    // Non-empty switches market-quotes to transactional sends (exactly-once mode); must be unique per instance.
+    @Value("${kafka.producer.transaction-id-prefix:}")
+    private String transactionIdPrefix = "";
+
+    // Hot tickers and their relative load (e.g. SPY=10,AAPL=8); non-empty spreads them over market-quotes partitions.
+    @Value("${kafka.producer.partitioner.symbol-weights:}")
+    private String symbolWeights = "";
+
     @Bean
     public ProducerFactory<String, MarketQuote> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
-        configProps.put("schema.registry.url", schemaRegistryUrl);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        Map<String, Object> props = producerProps();
+        if (localSerde) {
+            props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, MarketQuoteAvroSerializer.class);
+            props.remove("schema.registry.url");
+        }
+        if (!symbolWeights.isBlank()) {
+            props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, SymbolWeightedPartitioner.class);
+            props.put(SymbolWeightedPartitioner.SYMBOL_WEIGHTS_CONFIG, symbolWeights);
+        }
+        if (transactionIdPrefix.isEmpty()) {
+            return new DefaultKafkaProducerFactory<>(props);
+        }
+        // Kafka rejects transactions without idempotence and acks=all, so they are not left to the profile.
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, Math.min(maxInFlightRequestsPerConnection, 5));
+        // initTransactions() and commits wait max.block.ms for the coordinator; a fail-fast value would abort them.
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, Math.max(maxBlockMs, TRANSACTION_MAX_BLOCK_MS));
+        DefaultKafkaProducerFactory<String, MarketQuote> factory = new DefaultKafkaProducerFactory<>(props);
+        factory.setTransactionIdPrefix(transactionIdPrefix);
+        return factory;
     }
 
     @Bean
     public KafkaTemplate<String, MarketQuote> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean
+    public ProducerFactory<String, MarketCandle> candleProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProps());
+    }
+
+    @Bean
+    public KafkaTemplate<String, MarketCandle> candleKafkaTemplate() {
+        return new KafkaTemplate<>(candleProducerFactory());
+    }
+
+    private Map<String, Object> producerProps() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
+        configProps.put("schema.registry.url", schemaRegistryUrl);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequestsPerConnection);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        return configProps;
+    }
 }
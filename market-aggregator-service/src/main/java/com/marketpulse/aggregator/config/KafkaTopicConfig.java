@@ -0,0 +1,56 @@
+package com.marketpulse.aggregator.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Declares {@code market-quotes} so it is sized on purpose rather than by the broker's
+ * auto-create defaults. The partition count caps how many storage consumers can share the
+ * load, and {@code kafka.producer.partitioner.symbol-weights} needs enough partitions to give
+ * each hot ticker its own. Spring's {@code KafkaAdmin} creates the topic at startup and adds
+ * partitions if the count is raised; it never removes any. Adding partitions moves symbols,
+ * so raise the count while the producers are quiet.
+ *
+ * <p>{@code backfill.rebuild.topic} is declared with the same sizing, so a symbol's replayed
+ * history stays on one partition and in order for the consumers rebuilding from it.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    static final String MARKET_QUOTES = "market-quotes";
+
+    @Value("${kafka.topics.market-quotes.partitions:6}")
+    private int partitions = 6;
+
+    @Value("${kafka.topics.market-quotes.replication-factor:1}")
+    private short replicationFactor = 1;
+
+    // With acks=all, how many replicas must have a quote before the send succeeds.
+    @Value("${kafka.topics.market-quotes.min-insync-replicas:1}")
+    private int minInsyncReplicas = 1;
+
+    @Value("${backfill.rebuild.topic:market-quotes-rebuild}")
+    private String rebuildTopic = "market-quotes-rebuild";
+
+    @Bean
+    public NewTopic marketQuotesTopic() {
+        return quotesTopic(MARKET_QUOTES);
+    }
+
+    @Bean
+    public NewTopic marketQuotesRebuildTopic() {
+        return quotesTopic(rebuildTopic);
+    }
+
+    private NewTopic quotesTopic(String name) {
+        return TopicBuilder.name(name)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(Math.min(minInsyncReplicas, replicationFactor)))
+                .build();
+    }
+}
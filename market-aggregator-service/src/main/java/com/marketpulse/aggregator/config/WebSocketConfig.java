@@ -0,0 +1,20 @@
+package com.marketpulse.aggregator.config;
+
+import com.marketpulse.aggregator.stream.QuoteStreamWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+
+    @Bean
+    public HandlerMapping quoteStreamWebSocketMapping(QuoteStreamWebSocketHandler handler) {
+        // Ahead of the annotated controllers so WebSocket upgrades are handled here.
+        return new SimpleUrlHandlerMapping(Map.of("/quotes/stream/ws", handler), Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,50 @@
+package com.marketpulse.aggregator.controller;
+
+import com.marketpulse.aggregator.stream.QuoteStreamHub;
+import com.marketpulse.avro.MarketQuote;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@Tag(name = "Market Data", description = "Endpoints for fetching market data from FMP API")
+public class QuoteStreamController {
+
+    private final QuoteStreamHub quoteStreamHub;
+    private final Duration heartbeat;
+
+    @Autowired
+    public QuoteStreamController(QuoteStreamHub quoteStreamHub,
+                                 @Value("${quotes.stream.heartbeat:15s}") Duration heartbeat) {
+        this.quoteStreamHub = quoteStreamHub;
+        this.heartbeat = heartbeat;
+    }
+
+    @Operation(summary = "Stream live quotes", description = "Server-Sent Events stream of quote updates for a comma-separated list of symbols. Each symbol is fetched once for all subscribers; slow clients only receive the latest quote per symbol. A WebSocket variant is served at /quotes/stream/ws.")
+    @GetMapping(value = "/quotes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MarketQuote>> streamQuotes(@RequestParam List<String> symbols) {
+        Flux<ServerSentEvent<MarketQuote>> quotes;
+        try {
+            quotes = quoteStreamHub.subscribe(symbols)
+                    .map(quote -> ServerSentEvent.builder(quote).event("quote").build());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        // Comment-only keep-alives stop proxies from closing quiet streams.
+        Flux<ServerSentEvent<MarketQuote>> keepAlive = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<MarketQuote>builder().comment("keep-alive").build());
+        return Flux.merge(quotes, keepAlive);
+    }
+}
@@ -1,13 +0,0 @@
-package com.marketpulse.aggregator.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class QuoteDto {
-    private String symbol;
-    private double price;
-} 
@@ -0,0 +1,7 @@
+package com.marketpulse.aggregator.exception;
+
+public class ProducerSaturatedException extends RuntimeException {
+    public ProducerSaturatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.marketpulse.aggregator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The node already serves {@code quotes.stream.max-subscribers} quote streams; the client may
+ * retry later or elsewhere.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StreamCapacityException extends RuntimeException {
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.marketpulse.aggregator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A quote stream asked for more symbols than one subscriber may have: the request is at
+ * fault, unlike {@link StreamCapacityException}, which reports the node being full.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class StreamSymbolLimitException extends RuntimeException {
+    public StreamSymbolLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,145 @@
+package com.marketpulse.aggregator.ingest;
+
+import com.marketpulse.aggregator.client.FmpClient;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Polls a fixed symbol universe from FMP on a fixed cadence and publishes every quote to
+ * Kafka, independent of REST traffic. Each cycle splits the universe into batch-sized
+ * FMP calls run with bounded concurrency. Each call's quotes are published as one batch (one
+ * Kafka transaction in exactly-once mode), and publishing waits for broker acks so a slow
+ * producer holds back the next cycle. Ticks that arrive while a cycle is still running
+ * are dropped and counted as skipped rather than queued.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fmp.poller", name = "enabled", havingValue = "true")
+public class QuotePoller implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(QuotePoller.class);
+
+    private final FmpClient fmpClient;
+    private final MarketQuoteProducer marketQuoteProducer;
+    private final List<String> symbols;
+    private final Duration interval;
+    private final int batchSize;
+    private final int maxConcurrency;
+
+    private final Timer cycleTimer;
+    private final Counter skippedCycles;
+    private final Counter lateCycles;
+    private final Counter batchErrors;
+    private final Counter published;
+
+    private volatile Disposable subscription;
+
+    @Autowired
+    public QuotePoller(FmpClient fmpClient,
+                       MarketQuoteProducer marketQuoteProducer,
+                       @Value("${fmp.poller.symbols:}") List<String> symbols,
+                       @Value("${fmp.poller.interval:1s}") Duration interval,
+                       @Value("${fmp.poller.batch-size:100}") int batchSize,
+                       @Value("${fmp.poller.max-concurrency:4}") int maxConcurrency,
+                       MeterRegistry meterRegistry) {
+        if (batchSize < 1 || maxConcurrency < 1) {
+            throw new IllegalArgumentException("fmp.poller.batch-size and fmp.poller.max-concurrency must be positive");
+        }
+        this.fmpClient = fmpClient;
+        this.marketQuoteProducer = marketQuoteProducer;
+        this.symbols = symbols.stream()
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .map(symbol -> symbol.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.cycleTimer = meterRegistry.timer("fmp.poller.cycle");
+        this.skippedCycles = meterRegistry.counter("fmp.poller.cycles.skipped");
+        this.lateCycles = meterRegistry.counter("fmp.poller.cycles.late");
+        this.batchErrors = meterRegistry.counter("fmp.poller.batch.errors");
+        this.published = meterRegistry.counter("fmp.poller.quotes.published");
+    }
+
+    /**
+     * Continuous stream of poll cycles; each element is the number of quotes published in one cycle.
+     */
+    public Flux<Long> cycles() {
+        return Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop(tick -> skippedCycles.increment())
+                .flatMap(tick -> pollOnce(), 1);
+    }
+
+    Mono<Long> pollOnce() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.fromIterable(symbols)
+                    .buffer(batchSize)
+                    .flatMap(batch -> fmpClient.getQuotes(batch)
+                            .collectList()
+                            .onErrorResume(e -> {
+                                batchErrors.increment();
+                                log.warn("Poll of {} symbols failed: {}", batch.size(), e.getMessage());
+                                return Mono.just(List.of());
+                            }), maxConcurrency)
+                    .flatMap(quotes -> marketQuoteProducer.publishAll(quotes)
+                            .thenReturn((long) quotes.size()), maxConcurrency)
+                    .reduce(0L, Long::sum)
+                    .doOnNext(published::increment)
+                    .doOnTerminate(() -> recordCycle(System.nanoTime() - start))
+                    .onErrorResume(e -> {
+                        log.error("Poll cycle failed: {}", e.getMessage());
+                        return Mono.just(0L);
+                    });
+        });
+    }
+
+    private void recordCycle(long nanos) {
+        cycleTimer.record(Duration.ofNanos(nanos));
+        if (nanos > interval.toNanos()) {
+            lateCycles.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (symbols.isEmpty()) {
+            log.warn("Quote poller enabled but fmp.poller.symbols is empty; not starting");
+            return;
+        }
+        log.info("Starting quote poller for {} symbols every {}", symbols.size(), interval);
+        subscription = cycles().subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            subscription = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = subscription;
+        return current != null && !current.isDisposed();
+    }
+}
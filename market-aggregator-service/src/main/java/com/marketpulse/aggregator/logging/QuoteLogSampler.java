@@ -0,0 +1,83 @@
+package com.marketpulse.aggregator.logging;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which per-quote events are worth a log line. An event is kept when it is the first
+ * for its symbol in {@code logging.sampling.per-symbol-interval}, or when it is every
+ * {@code logging.sampling.every-n}th event overall; either rule is off when set to zero.
+ * With {@code logging.sampling.enabled=false} every event is kept, which is only meant for
+ * debugging at low rates.
+ *
+ * <p>Callers check {@link #sample} before building the event, so dropped events cost a map
+ * lookup and no formatting.
+ */
+@Component
+public class QuoteLogSampler {
+
+    // Bounds the per-symbol table; symbols are a small, slowly changing set in practice.
+    private static final int MAX_SYMBOLS = 10_000;
+
+    private final boolean enabled;
+    private final long everyN;
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    private final AtomicLong events = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> nextBySymbol = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QuoteLogSampler(@Value("${logging.sampling.enabled:true}") boolean enabled,
+                           @Value("${logging.sampling.every-n:10000}") long everyN,
+                           @Value("${logging.sampling.per-symbol-interval:60s}") Duration perSymbolInterval) {
+        this(enabled, everyN, perSymbolInterval, System::nanoTime);
+    }
+
+    QuoteLogSampler(boolean enabled, long everyN, Duration perSymbolInterval, LongSupplier clock) {
+        this.enabled = enabled;
+        this.everyN = everyN;
+        this.intervalNanos = perSymbolInterval.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Sampler that keeps nothing, for callers built outside Spring.
+     */
+    public static QuoteLogSampler never() {
+        return new QuoteLogSampler(true, 0, Duration.ZERO, System::nanoTime);
+    }
+
+    /**
+     * Returns {@code true} if this event for {@code symbol} should be logged.
+     */
+    public boolean sample(String symbol) {
+        if (!enabled) {
+            return true;
+        }
+        boolean keep = everyN > 0 && events.incrementAndGet() % everyN == 0;
+        if (intervalNanos > 0 && symbol != null) {
+            keep |= firstInInterval(symbol);
+        }
+        return keep;
+    }
+
+    private boolean firstInInterval(String symbol) {
+        long now = clock.getAsLong();
+        AtomicLong next = nextBySymbol.get(symbol);
+        if (next == null) {
+            if (nextBySymbol.size() >= MAX_SYMBOLS) {
+                nextBySymbol.clear();
+            }
+            next = nextBySymbol.computeIfAbsent(symbol, s -> new AtomicLong(now));
+        }
+        long due = next.get();
+        return now - due >= 0 && next.compareAndSet(due, now + intervalNanos);
+    }
+}
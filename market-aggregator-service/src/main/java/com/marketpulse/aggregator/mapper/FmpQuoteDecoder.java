@@ -0,0 +1,126 @@
+package com.marketpulse.aggregator.mapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.marketpulse.avro.MarketQuote;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the FMP {@code /quote} response (a JSON array of quote objects) straight into Avro
+ * {@link MarketQuote}s with a streaming parser. Records are created with the no-arg
+ * constructor and filled field by field, which skips the schema default copying and
+ * validation that {@code MarketQuote.Builder} does on every build. Unknown fields are
+ * skipped, JSON nulls stay null, and objects without a symbol are dropped.
+ */
+public final class FmpQuoteDecoder {
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+
+    private FmpQuoteDecoder() {
+    }
+
+    public static List<MarketQuote> decode(byte[] json) throws IOException {
+        try (JsonParser parser = JSON.createParser(json)) {
+            return decode(parser);
+        }
+    }
+
+    private static List<MarketQuote> decode(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return List.of();
+        }
+        if (token == JsonToken.START_OBJECT) {
+            // FMP answers a single unknown symbol with an error object rather than an array.
+            MarketQuote quote = readQuote(parser);
+            return quote == null ? List.of() : List.of(quote);
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array of quotes but found " + token);
+        }
+        List<MarketQuote> quotes = new ArrayList<>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            MarketQuote quote = readQuote(parser);
+            if (quote != null) {
+                quotes.add(quote);
+            }
+        }
+        return quotes;
+    }
+
+    private static MarketQuote readQuote(JsonParser parser) throws IOException {
+        MarketQuote quote = new MarketQuote();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "symbol" -> quote.setSymbol(text(parser, value));
+                case "name" -> quote.setName(text(parser, value));
+                case "price" -> quote.setPrice(number(parser, value));
+                case "changesPercentage" -> quote.setChangesPercentage(number(parser, value));
+                case "change" -> quote.setChange(number(parser, value));
+                case "dayLow" -> quote.setDayLow(number(parser, value));
+                case "dayHigh" -> quote.setDayHigh(number(parser, value));
+                case "yearHigh" -> quote.setYearHigh(number(parser, value));
+                case "yearLow" -> quote.setYearLow(number(parser, value));
+                case "marketCap" -> quote.setMarketCap(number(parser, value));
+                case "priceAvg50" -> quote.setPriceAvg50(number(parser, value));
+                case "priceAvg200" -> quote.setPriceAvg200(number(parser, value));
+                case "volume" -> quote.setVolume(number(parser, value));
+                case "avgVolume" -> quote.setAvgVolume(number(parser, value));
+                case "exchange" -> quote.setExchange(text(parser, value));
+                case "open" -> quote.setOpen(number(parser, value));
+                case "previousClose" -> quote.setPreviousClose(number(parser, value));
+                case "eps" -> quote.setEps(number(parser, value));
+                case "pe" -> quote.setPe(number(parser, value));
+                case "earningsAnnouncement" -> quote.setEarningsAnnouncement(text(parser, value));
+                case "sharesOutstanding" -> quote.setSharesOutstanding(number(parser, value));
+                case "timestamp" -> quote.setTimestamp(integer(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return quote.getSymbol() == null ? null : quote;
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    private static Double number(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static Long integer(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getLongValue();
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,231 @@
+package com.marketpulse.aggregator.mapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.io.NumberInput;
+import com.marketpulse.avro.MarketQuote;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decodes historical price bars into {@link MarketQuote}s for one symbol, oldest first. Accepts
+ * FMP's {@code /historical-price-full} response (an object whose {@code historical} array is
+ * newest first), the bare bar array of {@code /historical-chart/{interval}}, and CSV with a
+ * header row. Bars map onto quotes as {@code close} (or {@code price}) to price,
+ * {@code high}/{@code low} to the day range, plus {@code open}, {@code volume}, {@code change}
+ * and {@code changePercent}; other fields and columns are skipped.
+ *
+ * <p>The quote timestamp, in epoch seconds like FMP's live quotes, comes from a numeric
+ * {@code timestamp} or from {@code date}, read in exchange time: {@code yyyy-MM-dd HH:mm:ss}
+ * as is and a bare {@code yyyy-MM-dd} at the 16:00 close. Bars without either are dropped.
+ * CSV cells are split on commas without quoting, which is all numeric bar data needs.
+ */
+public final class HistoricalQuoteDecoder {
+
+    public static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    private static final int CLOSE_HOUR = 16;
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+    private static final Comparator<MarketQuote> OLDEST_FIRST = Comparator.comparingLong(MarketQuote::getTimestamp);
+
+    private HistoricalQuoteDecoder() {
+    }
+
+    public static List<MarketQuote> decodeJson(String symbol, byte[] json) throws IOException {
+        List<MarketQuote> quotes = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                // historical-price-full wraps the bars; an empty object means no data for the range.
+                String field;
+                while ((field = parser.nextFieldName()) != null) {
+                    if (parser.nextToken() == JsonToken.START_ARRAY && field.equals("historical")) {
+                        readBars(parser, symbol, quotes);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                readBars(parser, symbol, quotes);
+            } else if (token != null) {
+                throw new IOException("Expected historical bars for " + symbol + " but found " + token);
+            }
+        }
+        return oldestFirst(quotes);
+    }
+
+    public static List<MarketQuote> decodeCsv(String symbol, byte[] csv) throws IOException {
+        String text = new String(csv, StandardCharsets.UTF_8);
+        int lineEnd = endOfLine(text, 0);
+        if (lineEnd == 0) {
+            return List.of();
+        }
+        String[] header = text.substring(0, lineEnd).split(",");
+        Column[] columns = new Column[header.length];
+        for (int i = 0; i < header.length; i++) {
+            columns[i] = Column.of(header[i]);
+        }
+        List<MarketQuote> quotes = new ArrayList<>();
+        int line = 1;
+        for (int start = nextLine(text, lineEnd); start < text.length(); start = nextLine(text, lineEnd)) {
+            line++;
+            lineEnd = endOfLine(text, start);
+            if (lineEnd == start) {
+                continue;
+            }
+            MarketQuote quote = newQuote(symbol);
+            int cellStart = start;
+            for (int column = 0; column < columns.length && cellStart <= lineEnd; column++) {
+                int cellEnd = text.indexOf(',', cellStart);
+                if (cellEnd < 0 || cellEnd > lineEnd) {
+                    cellEnd = lineEnd;
+                }
+                if (cellEnd > cellStart && columns[column] != Column.OTHER) {
+                    String cell = text.substring(cellStart, cellEnd).trim();
+                    try {
+                        columns[column].apply(quote, cell);
+                    } catch (RuntimeException e) {
+                        throw new IOException("Malformed " + columns[column].name().toLowerCase(Locale.ROOT)
+                                + " '" + cell + "' on line " + line + " for " + symbol, e);
+                    }
+                }
+                cellStart = cellEnd + 1;
+            }
+            if (quote.getTimestamp() != null) {
+                quotes.add(quote);
+            }
+        }
+        return oldestFirst(quotes);
+    }
+
+    /**
+     * Epoch second of a {@code yyyy-MM-dd} (at the close) or {@code yyyy-MM-dd HH:mm:ss} exchange-time date.
+     */
+    static long epochSecond(String date) {
+        LocalDate day = LocalDate.of(digits(date, 0, 4), digits(date, 5, 7), digits(date, 8, 10));
+        LocalDateTime time = date.length() >= 19
+                ? day.atTime(digits(date, 11, 13), digits(date, 14, 16), digits(date, 17, 19))
+                : day.atTime(CLOSE_HOUR, 0);
+        return time.atZone(EXCHANGE_ZONE).toEpochSecond();
+    }
+
+    private static void readBars(JsonParser parser, String symbol, List<MarketQuote> quotes) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            MarketQuote quote = newQuote(symbol);
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                Column column = Column.of(field);
+                if (value.isStructStart()) {
+                    parser.skipChildren();
+                } else if (column == Column.DATE && value == JsonToken.VALUE_STRING) {
+                    try {
+                        quote.setTimestamp(epochSecond(parser.getText()));
+                    } catch (RuntimeException e) {
+                        throw new IOException("Malformed date '" + parser.getText() + "' for " + symbol, e);
+                    }
+                } else if (column == Column.TIMESTAMP && value.isNumeric()) {
+                    quote.setTimestamp(parser.getLongValue());
+                } else if (column != Column.OTHER && column != Column.DATE && column != Column.TIMESTAMP && value.isNumeric()) {
+                    column.set(quote, parser.getDoubleValue());
+                }
+            }
+            if (quote.getTimestamp() != null) {
+                quotes.add(quote);
+            }
+        }
+    }
+
+    private static MarketQuote newQuote(String symbol) {
+        MarketQuote quote = new MarketQuote();
+        quote.setSymbol(symbol);
+        return quote;
+    }
+
+    private static List<MarketQuote> oldestFirst(List<MarketQuote> quotes) {
+        // FMP lists bars newest first; TimSort reverses a descending run in linear time.
+        quotes.sort(OLDEST_FIRST);
+        return quotes;
+    }
+
+    private static int endOfLine(String text, int start) {
+        int end = text.indexOf('\n', start);
+        end = end < 0 ? text.length() : end;
+        return end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private static int nextLine(String text, int lineEnd) {
+        int newline = text.indexOf('\n', lineEnd);
+        return newline < 0 ? text.length() : newline + 1;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Expected yyyy-MM-dd[ HH:mm:ss] but got " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private enum Column {
+        DATE, TIMESTAMP, PRICE, OPEN, HIGH, LOW, VOLUME, CHANGE, CHANGE_PERCENT, OTHER;
+
+        static Column of(String name) {
+            return switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "date" -> DATE;
+                case "timestamp" -> TIMESTAMP;
+                case "close", "price" -> PRICE;
+                case "open" -> OPEN;
+                case "high", "dayhigh" -> HIGH;
+                case "low", "daylow" -> LOW;
+                case "volume" -> VOLUME;
+                case "change" -> CHANGE;
+                case "changepercent", "changespercentage" -> CHANGE_PERCENT;
+                default -> OTHER;
+            };
+        }
+
+        void apply(MarketQuote quote, String cell) {
+            switch (this) {
+                case DATE -> quote.setTimestamp(epochSecond(cell));
+                case TIMESTAMP -> quote.setTimestamp(Long.parseLong(cell));
+                default -> set(quote, NumberInput.parseDouble(cell, true));
+            }
+        }
+
+        void set(MarketQuote quote, double value) {
+            switch (this) {
+                case PRICE -> quote.setPrice(value);
+                case OPEN -> quote.setOpen(value);
+                case HIGH -> quote.setDayHigh(value);
+                case LOW -> quote.setDayLow(value);
+                case VOLUME -> quote.setVolume(value);
+                case CHANGE -> quote.setChange(value);
+                case CHANGE_PERCENT -> quote.setChangesPercentage(value);
+                default -> {
+                }
+            }
+        }
+    }
+}
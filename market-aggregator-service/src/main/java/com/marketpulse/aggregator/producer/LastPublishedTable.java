@@ -0,0 +1,113 @@
+package com.marketpulse.aggregator.producer;
+
+/**
+ * Open-addressing hash table from symbol to the last published price, volume, timestamp and
+ * publish time, stored in parallel primitive arrays so each tracked symbol costs a few dozen
+ * bytes rather than a boxed map entry. Not thread-safe; callers synchronize.
+ */
+final class LastPublishedTable {
+
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private String[] symbols;
+    private double[] prices;
+    private double[] volumes;
+    private long[] timestamps;
+    private long[] publishedAt;
+    private int size;
+
+    LastPublishedTable(int expectedSymbols) {
+        allocate(tableSizeFor(Math.max(expectedSymbols, 16) * 2));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the slot for {@code symbol}, or {@code -(insertionPoint + 1)} if it is not tracked yet.
+     */
+    int find(String symbol) {
+        int mask = symbols.length - 1;
+        int slot = mix(symbol.hashCode()) & mask;
+        while (true) {
+            String existing = symbols[slot];
+            if (existing == null) {
+                return -(slot + 1);
+            }
+            if (existing.equals(symbol)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    double price(int slot) {
+        return prices[slot];
+    }
+
+    double volume(int slot) {
+        return volumes[slot];
+    }
+
+    long timestamp(int slot) {
+        return timestamps[slot];
+    }
+
+    long publishedAt(int slot) {
+        return publishedAt[slot];
+    }
+
+    void update(int slot, double price, double volume, long timestamp, long now) {
+        prices[slot] = price;
+        volumes[slot] = volume;
+        timestamps[slot] = timestamp;
+        publishedAt[slot] = now;
+    }
+
+    /**
+     * Adds {@code symbol} at the position encoded by a negative {@link #find} result.
+     */
+    void insert(int notFound, String symbol, double price, double volume, long timestamp, long now) {
+        int slot = -(notFound + 1);
+        if ((size + 1) * 2 > symbols.length) {
+            grow();
+            slot = -(find(symbol) + 1);
+        }
+        symbols[slot] = symbol;
+        update(slot, price, volume, timestamp, now);
+        size++;
+    }
+
+    private void grow() {
+        String[] oldSymbols = symbols;
+        double[] oldPrices = prices;
+        double[] oldVolumes = volumes;
+        long[] oldTimestamps = timestamps;
+        long[] oldPublishedAt = publishedAt;
+        allocate(oldSymbols.length * 2);
+        for (int i = 0; i < oldSymbols.length; i++) {
+            if (oldSymbols[i] != null) {
+                int slot = -(find(oldSymbols[i]) + 1);
+                symbols[slot] = oldSymbols[i];
+                update(slot, oldPrices[i], oldVolumes[i], oldTimestamps[i], oldPublishedAt[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        symbols = new String[capacity];
+        prices = new double[capacity];
+        volumes = new double[capacity];
+        timestamps = new long[capacity];
+        publishedAt = new long[capacity];
+    }
+
+    private static int tableSizeFor(int n) {
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,24 +1,401 @@
 package com.marketpulse.aggregator.producer;
 
+import com.marketpulse.aggregator.exception.ProducerSaturatedException;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
 import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class MarketQuoteProducer {
     private static final Logger log = LoggerFactory.getLogger(MarketQuoteProducer.class);
+    private static final Duration SATURATION_BACKOFF = Duration.ofMillis(1);
+    private static final Duration MAX_SATURATION_BACKOFF = Duration.ofMillis(50);
+    static final Duration SATURATION_TIMEOUT = Duration.ofSeconds(30);
+    private static final String TOPIC = "market-quotes";
+    // Bounds the spin while other threads are emitting into the transactional batcher.
+    private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
+    // How long shutdown waits for the last transactional batch to commit.
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Header naming the backfill run a quote replayed onto a rebuild topic belongs to; see
+     * {@link #replay(List, String, String)}.
+     */
+    public static final String REBUILD_RUN_HEADER = "marketpulse-rebuild-run";
+
     private final KafkaTemplate<String, MarketQuote> kafkaTemplate;
+    private final QuoteChangeFilter changeFilter;
+    private final QuoteLogSampler logSampler;
+    private final Scheduler blockingScheduler;
+    private final Semaphore pendingSends;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Timer sendLatency;
+    private final Timer failedSendLatency;
+    private final Counter committed;
+    private final Counter aborted;
+    private final PartitionSkewMonitor partitionSkew;
+    private final Sinks.Many<TransactionalSend> transactionalSends = Sinks.many().unicast().onBackpressureBuffer();
+    private final CountDownLatch transactionalSendsDrained = new CountDownLatch(1);
+    private final Disposable transactionalBatcher;
 
     @Autowired
-    public MarketQuoteProducer(KafkaTemplate<String, MarketQuote> kafkaTemplate) {
+    public MarketQuoteProducer(KafkaTemplate<String, MarketQuote> kafkaTemplate,
+                               QuoteChangeFilter changeFilter,
+                               @Value("${kafka.producer.max-pending-sends:10000}") int maxPendingSends,
+                               MeterRegistry meterRegistry,
+                               QuoteLogSampler logSampler,
+                               Scheduler blockingScheduler,
+                               @Value("${kafka.topics.market-quotes.partitions:6}") int partitions,
+                               @Value("${kafka.producer.transaction-batch-size:500}") int transactionBatchSize,
+                               @Value("${kafka.producer.transaction-linger:10ms}") Duration transactionLinger) {
         this.kafkaTemplate = kafkaTemplate;
+        this.changeFilter = changeFilter;
+        this.logSampler = logSampler;
+        this.blockingScheduler = blockingScheduler;
+        this.pendingSends = new Semaphore(maxPendingSends);
+        this.succeeded = meterRegistry.counter("kafka.producer.sends", "result", "success");
+        this.failed = meterRegistry.counter("kafka.producer.sends", "result", "failure");
+        this.rejected = meterRegistry.counter("kafka.producer.sends", "result", "rejected");
+        this.sendLatency = meterRegistry.timer("kafka.producer.send.latency", "result", "success");
+        this.failedSendLatency = meterRegistry.timer("kafka.producer.send.latency", "result", "failure");
+        this.committed = meterRegistry.counter("kafka.producer.transactions", "result", "committed");
+        this.aborted = meterRegistry.counter("kafka.producer.transactions", "result", "aborted");
+        meterRegistry.gauge("kafka.producer.sends.pending", pendingSends,
+                permits -> maxPendingSends - permits.availablePermits());
+        this.partitionSkew = new PartitionSkewMonitor(meterRegistry, partitions);
+        this.transactionalBatcher = transactionalSends.asFlux()
+                .bufferTimeout(transactionBatchSize, transactionLinger, true)
+                .concatMap(batch -> Mono.fromRunnable(() -> commitBatch(batch))
+                        .subscribeOn(blockingScheduler)
+                        .onErrorResume(error -> {
+                            batch.forEach(send -> send.result().completeExceptionally(error));
+                            return Mono.empty();
+                        }))
+                .doFinally(signal -> transactionalSendsDrained.countDown())
+                .subscribe();
+    }
+
+    /**
+     * Stops taking transactional single sends and waits, up to {@link #DRAIN_TIMEOUT}, for the
+     * batch still lingering to commit, so quotes already handed to {@link #send} are not lost
+     * on shutdown. Sends after this fail.
+     */
+    @PreDestroy
+    public void close() {
+        try {
+            transactionalSends.emitComplete(Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+            if (!transactionalSendsDrained.await(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Gave up waiting for the last transactional batch after {}", DRAIN_TIMEOUT);
+            }
+        } catch (Sinks.EmissionException e) {
+            log.warn("Could not close the transactional batcher: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            transactionalBatcher.dispose();
+        }
+    }
+
+    /**
+     * Hands the quote to Kafka without waiting for the broker. The returned future completes
+     * with {@code null} when the quote is suppressed as unchanged, and fails fast with
+     * {@link ProducerSaturatedException} when {@code kafka.producer.max-pending-sends}
+     * sends are already outstanding. The change filter records the quote only once the
+     * broker has acknowledged it. With a transactional template the quote is committed together
+     * with other single sends, up to {@code kafka.producer.transaction-batch-size} of them or
+     * after {@code kafka.producer.transaction-linger}, since every commit flushes the producer.
+     */
+    public CompletableFuture<SendResult<String, MarketQuote>> send(MarketQuote quote) {
+        if (!changeFilter.shouldPublish(quote)) {
+            log.debug("Skipped unchanged MarketQuote for {}", quote.getSymbol());
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!pendingSends.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new ProducerSaturatedException("Too many pending sends for " + quote.getSymbol()));
+        }
+        return sendChanged(quote);
+    }
+
+    /**
+     * Fire-and-forget {@link #send} for callers on a Netty event loop: the send, which can block
+     * for up to {@code max.block.ms} while the producer waits for metadata or buffer space,
+     * runs on the blocking scheduler instead of the caller's thread.
+     */
+    public void sendDetached(MarketQuote quote) {
+        try {
+            blockingScheduler.schedule(() -> send(quote));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Dropped MarketQuote for {}: {}", quote.getSymbol(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reactive variant of {@link #send} that completes once the broker acknowledges the quote.
+     * While the pending-send limit is reached it waits on a timer, backing off from 1ms to
+     * 50ms, instead of blocking the calling thread, so upstream operators see backpressure.
+     * After {@link #SATURATION_TIMEOUT} without a free slot it fails with
+     * {@link ProducerSaturatedException}. The send itself is subscribed on the blocking
+     * scheduler. Nothing happens, not even the change-filter check, until the {@code Mono}
+     * is subscribed.
+     */
+    public Mono<Void> publish(MarketQuote quote) {
+        return Mono.defer(() -> {
+            if (!changeFilter.shouldPublish(quote)) {
+                return Mono.empty();
+            }
+            long deadline = Schedulers.parallel().now(TimeUnit.NANOSECONDS) + SATURATION_TIMEOUT.toNanos();
+            return Mono.defer(() -> pendingSends.tryAcquire()
+                            ? Mono.fromFuture(sendChanged(quote)).then()
+                            : Mono.<Void>error(new ProducerSaturatedException("Too many pending sends")))
+                    .subscribeOn(blockingScheduler)
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, SATURATION_BACKOFF)
+                            .maxBackoff(MAX_SATURATION_BACKOFF)
+                            .filter(error -> error instanceof ProducerSaturatedException
+                                    && Schedulers.parallel().now(TimeUnit.NANOSECONDS) < deadline))
+                    .doOnError(ProducerSaturatedException.class, error -> rejected.increment());
+        });
+    }
+
+    /**
+     * Publishes a batch of quotes. With a transactional template (exactly-once mode) the changed
+     * quotes go out in one Kafka transaction on the blocking scheduler, so {@code read_committed}
+     * consumers see all of them or none; the returned {@code Mono} fails if the transaction is
+     * aborted. The change filter records the quotes only once the transaction has committed,
+     * so quotes from an aborted transaction are offered again on the next poll. Otherwise every
+     * quote is {@link #publish published} on its own.
+     */
+    public Mono<Void> publishAll(List<MarketQuote> quotes) {
+        if (!kafkaTemplate.isTransactional()) {
+            return Flux.fromIterable(quotes).flatMap(this::publish, Math.max(1, quotes.size())).then();
+        }
+        return Mono.<Void>fromRunnable(() -> {
+            List<MarketQuote> changed = quotes.stream().filter(changeFilter::shouldPublish).toList();
+            if (!changed.isEmpty()) {
+                sendInTransaction(changed, TOPIC, null);
+                changed.forEach(changeFilter::recordPublished);
+            }
+        }).subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Publishes historical quotes as they are and in list order. The change filter tracks live
+     * quotes, so it is bypassed: replayed history is neither suppressed by it nor fed into it.
+     * The sends run on the blocking scheduler, each one waiting for a free pending-send slot,
+     * and the returned {@code Mono} completes once the broker has acknowledged all of them. With
+     * a transactional template the quotes are committed as one transaction.
+     */
+    public Mono<Void> replay(List<MarketQuote> quotes) {
+        return replay(quotes, TOPIC, null);
+    }
+
+    /**
+     * {@link #replay(List) Replays} historical quotes onto {@code topic}. With a {@code run},
+     * every record carries it in the {@value #REBUILD_RUN_HEADER} header, so consumers
+     * rebuilding derived state can tell a new backfill run from a resumed one.
+     */
+    public Mono<Void> replay(List<MarketQuote> quotes, String topic, String run) {
+        if (quotes.isEmpty()) {
+            return Mono.empty();
+        }
+        if (kafkaTemplate.isTransactional()) {
+            return Mono.<Void>fromRunnable(() -> sendInTransaction(quotes, topic, run)).subscribeOn(blockingScheduler);
+        }
+        return Mono.fromCallable(() -> {
+                    CompletableFuture<?>[] sends = new CompletableFuture<?>[quotes.size()];
+                    for (int i = 0; i < sends.length; i++) {
+                        pendingSends.acquire();
+                        sends[i] = doSend(topic, quotes.get(i), run);
+                    }
+                    return CompletableFuture.allOf(sends);
+                })
+                .subscribeOn(blockingScheduler)
+                .flatMap(Mono::fromFuture);
+    }
+
+    /**
+     * {@link #doSend Sends} a quote that passed the change filter and records it there once
+     * the broker has acknowledged it.
+     */
+    private CompletableFuture<SendResult<String, MarketQuote>> sendChanged(MarketQuote quote) {
+        return doSend(TOPIC, quote, null).whenComplete((result, error) -> {
+            if (error == null) {
+                changeFilter.recordPublished(quote);
+            }
+        });
+    }
+
+    /**
+     * Commits single sends queued by {@link #doSend} as one transaction and completes each
+     * send's future with its own result.
+     */
+    private void commitBatch(List<TransactionalSend> batch) {
+        List<CompletableFuture<SendResult<String, MarketQuote>>> results =
+                sendInTransaction(batch.stream().map(TransactionalSend::quote).toList(), TOPIC, null);
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<SendResult<String, MarketQuote>> result = batch.get(i).result();
+            results.get(i).whenComplete((sent, error) -> {
+                if (error == null) {
+                    result.complete(sent);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+    }
+
+    /**
+     * Commits the quotes to {@code topic} as one transaction and returns their sends in list
+     * order. The commit flushes the producer, so this blocks until the broker has acknowledged
+     * every quote; all of them share the batch latency.
+     */
+    private List<CompletableFuture<SendResult<String, MarketQuote>>> sendInTransaction(List<MarketQuote> quotes,
+                                                                                      String topic, String run) {
+        long start = System.nanoTime();
+        List<CompletableFuture<SendResult<String, MarketQuote>>> sends = new ArrayList<>(quotes.size());
+        try {
+            kafkaTemplate.executeInTransaction(operations -> {
+                for (MarketQuote quote : quotes) {
+                    CompletableFuture<SendResult<String, MarketQuote>> send = send(operations, topic, quote, run);
+                    send.thenAccept(result -> {
+                        logProduced(quote);
+                        recordPartition(result);
+                    });
+                    sends.add(send);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            aborted.increment();
+            failed.increment(quotes.size());
+            failedSendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Aborted transaction of {} MarketQuotes: {}", quotes.size(), e.getMessage());
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        committed.increment();
+        succeeded.increment(quotes.size());
+        quotes.forEach(quote -> sendLatency.record(elapsed, TimeUnit.NANOSECONDS));
+        return sends;
+    }
+
+    /**
+     * Sends the quote to {@code topic} and records the time until the broker acknowledges it
+     * (or the send fails) under {@code kafka.producer.send.latency}. With a transactional
+     * template and no transaction in progress the send is queued for {@link #commitBatch},
+     * which records the metrics for the whole batch; only live single sends take that path,
+     * since transactional replays commit their own transactions.
+     */
+    private CompletableFuture<SendResult<String, MarketQuote>> doSend(String topic, MarketQuote quote, String run) {
+        if (kafkaTemplate.isTransactional() && !kafkaTemplate.inTransaction()) {
+            CompletableFuture<SendResult<String, MarketQuote>> result = new CompletableFuture<>();
+            Sinks.EmitResult queued = queueTransactional(new TransactionalSend(quote, result));
+            if (queued.isFailure()) {
+                failed.increment();
+                result.completeExceptionally(new Sinks.EmissionException(queued,
+                        "Could not queue MarketQuote for " + quote.getSymbol()));
+            }
+            return result.whenComplete((sent, error) -> pendingSends.release());
+        }
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, MarketQuote>> future;
+        try {
+            future = send(kafkaTemplate, topic, quote, run);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            pendingSends.release();
+            long elapsed = System.nanoTime() - start;
+            if (error == null) {
+                succeeded.increment();
+                sendLatency.record(elapsed, TimeUnit.NANOSECONDS);
+                recordPartition(result);
+                logProduced(quote);
+            } else {
+                failed.increment();
+                failedSendLatency.record(elapsed, TimeUnit.NANOSECONDS);
+                log.error("Failed to send MarketQuote for {}: {}", quote.getSymbol(), error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queues a single send for {@link #commitBatch}, spinning while another thread is emitting.
+     * Unlike {@code emitNext}, reports a closed batcher instead of silently dropping the send.
+     */
+    private Sinks.EmitResult queueTransactional(TransactionalSend send) {
+        long deadline = System.nanoTime() + EMIT_TIMEOUT.toNanos();
+        Sinks.EmitResult queued = transactionalSends.tryEmitNext(send);
+        while (queued == Sinks.EmitResult.FAIL_NON_SERIALIZED && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+            queued = transactionalSends.tryEmitNext(send);
+        }
+        return queued;
+    }
+
+    private static CompletableFuture<SendResult<String, MarketQuote>> send(KafkaOperations<String, MarketQuote> operations,
+                                                                          String topic, MarketQuote quote, String run) {
+        if (run == null) {
+            return operations.send(topic, quote.getSymbol(), quote);
+        }
+        ProducerRecord<String, MarketQuote> record = new ProducerRecord<>(topic, quote.getSymbol(), quote);
+        record.headers().add(REBUILD_RUN_HEADER, run.getBytes(StandardCharsets.UTF_8));
+        return operations.send(record);
+    }
+
+    private void recordPartition(SendResult<String, MarketQuote> result) {
+        if (result != null && result.getRecordMetadata() != null) {
+            partitionSkew.record(result.getRecordMetadata().partition());
+        }
+    }
+
+    /**
+     * Logs a quote the broker has acknowledged, for the symbols the sampler picks.
+     */
+    private void logProduced(MarketQuote quote) {
+        if (log.isInfoEnabled() && logSampler.sample(quote.getSymbol())) {
+            log.atInfo()
+                    .addKeyValue("symbol", quote.getSymbol())
+                    .addKeyValue("price", quote.getPrice())
+                    .addKeyValue("timestamp", quote.getTimestamp())
+                    .log("Produced quote");
+        }
     }
 
-    public void send(MarketQuote quote) {
-        kafkaTemplate.send("market-quotes", quote.getSymbol(), quote);
-        log.info("Produced MarketQuote: {}", quote);
+    private record TransactionalSend(MarketQuote quote, CompletableFuture<SendResult<String, MarketQuote>> result) {
     }
 }
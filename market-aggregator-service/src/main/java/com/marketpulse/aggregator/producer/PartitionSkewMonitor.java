@@ -0,0 +1,85 @@
+package com.marketpulse.aggregator.producer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts acknowledged {@code market-quotes} records per partition. The
+ * {@code kafka.producer.partition.skew} gauge is the busiest partition's share over the mean
+ * share for the last complete window. 1.0 means perfectly even. N means one partition carries
+ * N times its share, so consumers top out at 1/N of their combined throughput. Partitions
+ * that got nothing count too, up to the provisioned partition count.
+ */
+final class PartitionSkewMonitor {
+
+    static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final long windowNanos;
+    private final List<Counter> partitionRecords = new ArrayList<>();
+    private long[] counts;
+    private long windowStart;
+    private double skew = Double.NaN;
+
+    PartitionSkewMonitor(MeterRegistry meterRegistry, int expectedPartitions) {
+        this(meterRegistry, expectedPartitions, WINDOW, System::nanoTime);
+    }
+
+    PartitionSkewMonitor(MeterRegistry meterRegistry, int expectedPartitions, Duration window, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.windowNanos = window.toNanos();
+        this.counts = new long[Math.max(1, expectedPartitions)];
+        this.windowStart = nanoClock.getAsLong();
+        meterRegistry.gauge("kafka.producer.partition.skew", this, PartitionSkewMonitor::skew);
+    }
+
+    synchronized void record(int partition) {
+        if (partition < 0) {
+            return;
+        }
+        rotateIfDue();
+        if (partition >= counts.length) {
+            counts = Arrays.copyOf(counts, partition + 1);
+        }
+        counts[partition]++;
+        while (partitionRecords.size() <= partition) {
+            partitionRecords.add(meterRegistry.counter("kafka.producer.partition.records",
+                    "partition", String.valueOf(partitionRecords.size())));
+        }
+        partitionRecords.get(partition).increment();
+    }
+
+    /**
+     * Skew of the last complete window, or NaN if it saw no records.
+     */
+    synchronized double skew() {
+        rotateIfDue();
+        return skew;
+    }
+
+    private void rotateIfDue() {
+        long now = nanoClock.getAsLong();
+        if (now - windowStart < windowNanos) {
+            return;
+        }
+        long total = 0;
+        long busiest = 0;
+        for (long count : counts) {
+            total += count;
+            busiest = Math.max(busiest, count);
+        }
+        // After an idle gap the last complete window saw nothing, whatever the one before it did.
+        boolean idle = now - windowStart >= 2 * windowNanos;
+        skew = total == 0 || idle ? Double.NaN : busiest / ((double) total / counts.length);
+        Arrays.fill(counts, 0);
+        windowStart = idle ? now : windowStart + windowNanos;
+    }
+}
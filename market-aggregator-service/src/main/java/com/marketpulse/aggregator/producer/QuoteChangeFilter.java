@@ -0,0 +1,137 @@
+package com.marketpulse.aggregator.producer;
+
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Suppresses publishing a {@link MarketQuote} whose price, volume and timestamp match the
+ * last quote published for the same symbol. Prices within {@code epsilon} of each other
+ * count as equal. With a non-zero {@code heartbeat}, an unchanged quote is still republished
+ * once the heartbeat has elapsed since the last publish, so consumers can tell a quiet
+ * symbol from a dead feed.
+ *
+ * <p>Checking and recording are separate steps: the producer records a quote only once the
+ * broker has acknowledged it, so a rejected, failed or aborted send never suppresses the
+ * next attempt.
+ */
+@Component
+public class QuoteChangeFilter {
+
+    private final boolean enabled;
+    private final double epsilon;
+    private final long heartbeatNanos;
+    private final LongSupplier clock;
+    private final LastPublishedTable table;
+
+    private final Counter published;
+    private final Counter suppressed;
+
+    @Autowired
+    public QuoteChangeFilter(@Value("${quotes.change-filter.enabled:true}") boolean enabled,
+                             @Value("${quotes.change-filter.epsilon:0}") double epsilon,
+                             @Value("${quotes.change-filter.heartbeat:60s}") Duration heartbeat,
+                             @Value("${quotes.change-filter.expected-symbols:1024}") int expectedSymbols,
+                             MeterRegistry meterRegistry) {
+        this(enabled, epsilon, heartbeat, expectedSymbols, meterRegistry, System::nanoTime);
+    }
+
+    QuoteChangeFilter(boolean enabled, double epsilon, Duration heartbeat, int expectedSymbols,
+                      MeterRegistry meterRegistry, LongSupplier clock) {
+        this.enabled = enabled;
+        this.epsilon = epsilon;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.clock = clock;
+        this.table = new LastPublishedTable(expectedSymbols);
+        this.published = meterRegistry.counter("quotes.change.filter", "outcome", "published");
+        this.suppressed = meterRegistry.counter("quotes.change.filter", "outcome", "suppressed");
+        meterRegistry.gauge("quotes.change.filter.suppression.ratio", this, QuoteChangeFilter::suppressionRatio);
+    }
+
+    /**
+     * Returns {@code true} if the quote should be sent: it differs from the last quote
+     * {@link #recordPublished recorded} for its symbol, or the heartbeat is due. Does not
+     * record anything, so a quote whose send is rejected or fails is offered again next time.
+     */
+    public boolean shouldPublish(MarketQuote quote) {
+        if (!enabled) {
+            return true;
+        }
+        double price = priceOf(quote);
+        double volume = volumeOf(quote);
+        long timestamp = timestampOf(quote);
+        long now = clock.getAsLong();
+        synchronized (table) {
+            int slot = table.find(quote.getSymbol());
+            if (slot < 0 || !unchanged(slot, price, volume, timestamp) || heartbeatDue(slot, now)) {
+                return true;
+            }
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * Records the quote as the last one published for its symbol. Call once the broker has
+     * acknowledged it.
+     */
+    public void recordPublished(MarketQuote quote) {
+        if (!enabled) {
+            return;
+        }
+        String symbol = quote.getSymbol();
+        double price = priceOf(quote);
+        double volume = volumeOf(quote);
+        long timestamp = timestampOf(quote);
+        long now = clock.getAsLong();
+        synchronized (table) {
+            int slot = table.find(symbol);
+            if (slot < 0) {
+                table.insert(slot, symbol, price, volume, timestamp, now);
+            } else {
+                table.update(slot, price, volume, timestamp, now);
+            }
+        }
+        published.increment();
+    }
+
+    public double suppressionRatio() {
+        double total = published.count() + suppressed.count();
+        return total == 0 ? 0 : suppressed.count() / total;
+    }
+
+    private boolean unchanged(int slot, double price, double volume, long timestamp) {
+        return timestamp == table.timestamp(slot)
+                && sameValue(volume, table.volume(slot), 0)
+                && sameValue(price, table.price(slot), epsilon);
+    }
+
+    private boolean heartbeatDue(int slot, long now) {
+        return heartbeatNanos > 0 && now - table.publishedAt(slot) >= heartbeatNanos;
+    }
+
+    private static double priceOf(MarketQuote quote) {
+        return quote.getPrice() != null ? quote.getPrice() : Double.NaN;
+    }
+
+    private static double volumeOf(MarketQuote quote) {
+        return quote.getVolume() != null ? quote.getVolume() : Double.NaN;
+    }
+
+    private static long timestampOf(MarketQuote quote) {
+        return quote.getTimestamp() != null ? quote.getTimestamp() : LastPublishedTable.NO_TIMESTAMP;
+    }
+
+    private static boolean sameValue(double current, double previous, double tolerance) {
+        if (Double.isNaN(current) || Double.isNaN(previous)) {
+            return Double.isNaN(current) && Double.isNaN(previous);
+        }
+        return Math.abs(current - previous) <= tolerance;
+    }
+}
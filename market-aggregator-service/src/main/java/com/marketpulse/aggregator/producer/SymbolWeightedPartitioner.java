@@ -0,0 +1,149 @@
+package com.marketpulse.aggregator.producer;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Partitioner for {@code market-quotes} that keeps hot tickers apart. Each symbol still maps to
+ * exactly one partition, so per-symbol order is kept, but the symbols listed under
+ * {@link #SYMBOL_WEIGHTS_CONFIG} (e.g. {@code SPY=10,AAPL=8,TSLA=6}, weights relative to an
+ * ordinary ticker's load) are placed first, heaviest first, each on the least-loaded partition.
+ * Every other symbol is hashed with murmur2, like Kafka's default partitioner, but only over the
+ * partitions whose weighted load is at most the mean, so no ordinary ticker lands next to a
+ * ticker that already fills a partition. With no weights this is exactly Kafka's default keyed
+ * placement.
+ *
+ * <p>The placement depends only on the weight table and the partition count, so every
+ * producer instance agrees on it, and it is recomputed when partitions are added. Adding
+ * partitions, or changing the table, moves symbols: quotes in flight during the switch may be
+ * consumed out of order.
+ */
+public class SymbolWeightedPartitioner implements Partitioner {
+
+    /**
+     * Hot symbols and their relative weights, as {@code SYMBOL=weight} pairs in a
+     * comma-separated string, a list or a map.
+     */
+    public static final String SYMBOL_WEIGHTS_CONFIG = "marketpulse.partitioner.symbol-weights";
+
+    private static final Logger log = LoggerFactory.getLogger(SymbolWeightedPartitioner.class);
+
+    private Map<String, Double> weights = Map.of();
+    private volatile Placement placement;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        weights = parseWeights(configs.get(SYMBOL_WEIGHTS_CONFIG));
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int partitions = cluster.partitionsForTopic(topic).size();
+        if (keyBytes == null) {
+            return ThreadLocalRandom.current().nextInt(partitions);
+        }
+        Placement current = placement;
+        if (current == null || current.partitions() != partitions) {
+            current = Placement.of(weights, partitions);
+            placement = current;
+            if (!weights.isEmpty()) {
+                log.info("Placed hot symbols on {} partitions of {}: {}", partitions, topic, current.hot());
+            }
+        }
+        return current.partitionOf(key instanceof String symbol ? symbol : null, keyBytes);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    static Map<String, Double> parseWeights(Object config) {
+        if (config == null) {
+            return Map.of();
+        }
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        if (config instanceof Map<?, ?> map) {
+            map.forEach((symbol, weight) -> put(parsed, symbol.toString(), weight.toString()));
+            return parsed;
+        }
+        Collection<?> entries = config instanceof Collection<?> list ? list : Arrays.asList(config.toString().split(","));
+        for (Object entry : entries) {
+            String pair = entry.toString().trim();
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            if (separator < 0) {
+                throw new ConfigException(SYMBOL_WEIGHTS_CONFIG, config, "Expected SYMBOL=weight, got " + pair);
+            }
+            put(parsed, pair.substring(0, separator), pair.substring(separator + 1));
+        }
+        return parsed;
+    }
+
+    private static void put(Map<String, Double> weights, String symbol, String weight) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(weight.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigException(SYMBOL_WEIGHTS_CONFIG, weight, "Weight for " + symbol + " is not a number");
+        }
+        if (!(parsed > 0)) {
+            throw new ConfigException(SYMBOL_WEIGHTS_CONFIG, weight, "Weight for " + symbol + " must be positive");
+        }
+        weights.put(symbol.trim().toUpperCase(Locale.ROOT), parsed);
+    }
+
+    /**
+     * Where every symbol goes for one partition count.
+     */
+    record Placement(int partitions, Map<String, Integer> hot, int[] cold) {
+
+        static Placement of(Map<String, Double> weights, int partitions) {
+            List<Map.Entry<String, Double>> heaviestFirst = new ArrayList<>(weights.entrySet());
+            heaviestFirst.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            double[] load = new double[partitions];
+            double total = 0;
+            Map<String, Integer> hot = new HashMap<>();
+            for (Map.Entry<String, Double> symbol : heaviestFirst) {
+                int lightest = 0;
+                for (int partition = 1; partition < partitions; partition++) {
+                    if (load[partition] < load[lightest]) {
+                        lightest = partition;
+                    }
+                }
+                load[lightest] += symbol.getValue();
+                total += symbol.getValue();
+                hot.put(symbol.getKey(), lightest);
+            }
+            double mean = total / partitions;
+            int[] cold = IntStream.range(0, partitions).filter(p -> load[p] <= mean).toArray();
+            return new Placement(partitions, Map.copyOf(hot), cold);
+        }
+
+        int partitionOf(String symbol, byte[] keyBytes) {
+            Integer partition = symbol != null && !hot.isEmpty() ? hot.get(symbol.toUpperCase(Locale.ROOT)) : null;
+            if (partition != null) {
+                return partition;
+            }
+            return cold[Utils.toPositive(Utils.murmur2(keyBytes)) % cold.length];
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.marketpulse.aggregator.serde;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.serde.AvroSingleObjectSerializer;
+
+/**
+ * Registry-free serializer for market-quotes, in Avro single-object encoding against the
+ * {@link MarketQuote} schema compiled into the service. Named in producer configs, which need
+ * a class with a no-argument constructor.
+ *
+ * <p>Read back with {@link MarketQuoteAvroDeserializer}, or with
+ * {@code MarketQuote.getDecoder()}.
+ */
+public class MarketQuoteAvroSerializer extends AvroSingleObjectSerializer<MarketQuote> {
+
+    public MarketQuoteAvroSerializer() {
+        super(MarketQuote.getClassSchema());
+    }
+}
@@ -0,0 +1,233 @@
+package com.marketpulse.aggregator.stream;
+
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.exception.StreamCapacityException;
+import com.marketpulse.aggregator.exception.StreamSymbolLimitException;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out point for live quote streams. Every symbol with at least one subscriber has one
+ * channel; each {@code interval} all such symbols are fetched once through {@link QuoteCache}
+ * (so upstream calls batch as usual), published to Kafka once, and multicast to every
+ * subscriber of the channel. A channel replays its latest quote to new subscribers and is
+ * dropped with its last subscriber.
+ *
+ * <p>Each subscriber conflates per symbol: if it falls behind, only the newest undelivered
+ * quote per symbol is kept, so a slow client holds at most one quote per subscribed symbol
+ * and never delays the others or the refresh.
+ */
+@Component
+public class QuoteStreamHub implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteStreamHub.class);
+
+    private final QuoteCache quoteCache;
+    private final MarketQuoteProducer marketQuoteProducer;
+    private final Duration interval;
+    private final int maxSubscribers;
+    private final int maxSymbolsPerSubscriber;
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final Counter updates;
+    private final Counter fetchErrors;
+    private final Counter rejected;
+
+    private volatile Disposable refresher;
+
+    @Autowired
+    public QuoteStreamHub(QuoteCache quoteCache,
+                          MarketQuoteProducer marketQuoteProducer,
+                          @Value("${quotes.stream.interval:1s}") Duration interval,
+                          @Value("${quotes.stream.max-subscribers:20000}") int maxSubscribers,
+                          @Value("${quotes.stream.max-symbols-per-subscriber:50}") int maxSymbolsPerSubscriber,
+                          MeterRegistry meterRegistry) {
+        this.quoteCache = quoteCache;
+        this.marketQuoteProducer = marketQuoteProducer;
+        this.interval = interval;
+        this.maxSubscribers = maxSubscribers;
+        this.maxSymbolsPerSubscriber = maxSymbolsPerSubscriber;
+        this.updates = meterRegistry.counter("quotes.stream.updates");
+        this.fetchErrors = meterRegistry.counter("quotes.stream.fetch.errors");
+        this.rejected = meterRegistry.counter("quotes.stream.rejected");
+        meterRegistry.gauge("quotes.stream.subscribers", subscribers);
+        meterRegistry.gauge("quotes.stream.symbols", channels, ConcurrentMap::size);
+    }
+
+    /**
+     * Live quotes for the given symbols, starting with the latest known quote of each. The
+     * stream fails with {@link StreamCapacityException} on subscription if the subscriber
+     * limit is reached.
+     *
+     * @throws StreamSymbolLimitException if more than {@code max-symbols-per-subscriber} symbols are given
+     * @throws IllegalArgumentException if no symbol is given
+     */
+    public Flux<MarketQuote> subscribe(Collection<String> symbols) {
+        List<String> distinct = symbols.stream()
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .map(symbol -> symbol.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("Symbols must not be blank");
+        }
+        if (distinct.size() > maxSymbolsPerSubscriber) {
+            rejected.increment();
+            throw new StreamSymbolLimitException("At most " + maxSymbolsPerSubscriber + " symbols per stream");
+        }
+        return Flux.defer(() -> {
+            if (subscribers.incrementAndGet() > maxSubscribers) {
+                subscribers.decrementAndGet();
+                rejected.increment();
+                return Flux.error(new StreamCapacityException("Quote stream subscriber limit reached"));
+            }
+            return Flux.<MarketQuote>create(sink -> {
+                        Conflator conflator = new Conflator(sink);
+                        sink.onRequest(n -> conflator.drain());
+                        sink.onDispose(Flux.fromIterable(distinct)
+                                .flatMap(this::symbolStream, distinct.size())
+                                .subscribe(conflator::offer, sink::error, sink::complete));
+                    })
+                    .doFinally(signal -> subscribers.decrementAndGet());
+        });
+    }
+
+    /**
+     * Fetches every subscribed symbol once and pushes changed quotes to their channels; runs
+     * every {@code interval} while the hub is started. Emits the number of quotes pushed.
+     */
+    public Mono<Long> refresh() {
+        return Flux.fromIterable(List.copyOf(channels.keySet()))
+                .flatMap(symbol -> quoteCache.getQuote(symbol)
+                        .onErrorResume(e -> {
+                            fetchErrors.increment();
+                            log.debug("Stream refresh of {} failed: {}", symbol, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .filter(this::emit)
+                .count();
+    }
+
+    int subscriberCount() {
+        return subscribers.get();
+    }
+
+    int channelCount() {
+        return channels.size();
+    }
+
+    private Flux<MarketQuote> symbolStream(String symbol) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(symbol, (key, existing) -> {
+                Channel current = existing != null ? existing : new Channel();
+                current.subscribers++;
+                return current;
+            });
+            return channel.sink.asFlux().doFinally(signal -> release(symbol, channel));
+        });
+    }
+
+    private void release(String symbol, Channel channel) {
+        channels.computeIfPresent(symbol, (key, current) ->
+                current == channel && --current.subscribers == 0 ? null : current);
+    }
+
+    private boolean emit(MarketQuote quote) {
+        Channel channel = channels.get(quote.getSymbol().trim().toUpperCase(Locale.ROOT));
+        if (channel == null || Objects.equals(channel.latest, quote)) {
+            return false;
+        }
+        channel.latest = quote;
+        channel.sink.tryEmitNext(quote);
+        updates.increment();
+        marketQuoteProducer.sendDetached(quote);
+        return true;
+    }
+
+    @Override
+    public void start() {
+        refresher = Flux.interval(interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = refresher;
+        if (current != null) {
+            current.dispose();
+            refresher = null;
+        }
+        channels.values().forEach(channel -> channel.sink.tryEmitComplete());
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = refresher;
+        return current != null && !current.isDisposed();
+    }
+
+    /**
+     * Per-subscriber buffer holding at most one undelivered quote per symbol; a newer quote
+     * replaces the pending one in place. Quotes are handed downstream only against demand.
+     */
+    private static final class Conflator {
+        private final FluxSink<MarketQuote> sink;
+        private final Map<String, MarketQuote> pending = new LinkedHashMap<>();
+
+        Conflator(FluxSink<MarketQuote> sink) {
+            this.sink = sink;
+        }
+
+        synchronized void offer(MarketQuote quote) {
+            pending.put(quote.getSymbol(), quote);
+            drain();
+        }
+
+        synchronized void drain() {
+            Iterator<MarketQuote> iterator = pending.values().iterator();
+            while (sink.requestedFromDownstream() > 0 && iterator.hasNext()) {
+                MarketQuote quote = iterator.next();
+                iterator.remove();
+                sink.next(quote);
+                iterator = pending.values().iterator();
+            }
+        }
+    }
+
+    private static final class Channel {
+        // Subscribers request unbounded (each conflates on its own), so the replay sink
+        // never buffers beyond the latest quote.
+        final Sinks.Many<MarketQuote> sink = Sinks.many().replay().latest();
+        volatile MarketQuote latest;
+        int subscribers;
+    }
+}
@@ -0,0 +1,71 @@
+package com.marketpulse.aggregator.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketpulse.aggregator.exception.StreamCapacityException;
+import com.marketpulse.aggregator.exception.StreamSymbolLimitException;
+import com.marketpulse.avro.MarketQuote;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * WebSocket variant of {@code /quotes/stream}: {@code /quotes/stream/ws?symbols=AAPL,MSFT}
+ * sends each quote update from {@link QuoteStreamHub} as one JSON text frame. Bad symbol lists
+ * close the socket with 1008 (policy violation) and capacity limits with 1013 (try again later).
+ */
+@Component
+public class QuoteStreamWebSocketHandler implements WebSocketHandler {
+
+    private final QuoteStreamHub quoteStreamHub;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public QuoteStreamWebSocketHandler(QuoteStreamHub quoteStreamHub, ObjectMapper objectMapper) {
+        this.quoteStreamHub = quoteStreamHub;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        List<String> symbols = symbols(session);
+        Flux<MarketQuote> quotes;
+        try {
+            quotes = quoteStreamHub.subscribe(symbols);
+        } catch (IllegalArgumentException | StreamSymbolLimitException e) {
+            return session.close(CloseStatus.POLICY_VIOLATION.withReason(e.getMessage()));
+        }
+        Flux<WebSocketMessage> frames = quotes.map(quote -> session.textMessage(toJson(quote)));
+        // Closing from the client side completes receive() and cancels the quote stream.
+        return Mono.firstWithSignal(
+                        session.send(frames),
+                        session.receive().then())
+                .onErrorResume(StreamCapacityException.class, e ->
+                        session.close(CloseStatus.SERVICE_OVERLOAD.withReason(e.getMessage())));
+    }
+
+    private static List<String> symbols(WebSocketSession session) {
+        String param = UriComponentsBuilder.fromUri(session.getHandshakeInfo().getUri())
+                .build()
+                .getQueryParams()
+                .getFirst("symbols");
+        return param == null ? List.of() : Arrays.asList(param.split(","));
+    }
+
+    private String toJson(MarketQuote quote) {
+        try {
+            return objectMapper.writeValueAsString(quote);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize quote for " + quote.getSymbol(), e);
+        }
+    }
+}
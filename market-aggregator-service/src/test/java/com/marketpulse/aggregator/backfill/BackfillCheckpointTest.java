@@ -0,0 +1,72 @@
+package com.marketpulse.aggregator.backfill;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Backfill Checkpoint Tests")
+class BackfillCheckpointTest {
+
+    private static final String SOURCE = "file:/data/history";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should restore positions and completed symbols after a flush")
+    void flush_thenLoad_restoresProgress() throws IOException {
+        Path file = directory.resolve("checkpoint.properties");
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.load(file, SOURCE);
+        checkpoint.advance("AAPL", 1_704_488_400L);
+        checkpoint.complete("MSFT");
+        checkpoint.flush();
+
+        BackfillCheckpoint restored = BackfillCheckpoint.load(file, SOURCE);
+
+        assertThat(restored.position("AAPL")).isEqualTo(1_704_488_400L);
+        assertThat(restored.isComplete("AAPL")).isFalse();
+        assertThat(restored.isComplete("MSFT")).isTrue();
+        assertThat(restored.position("TSLA")).isEqualTo(BackfillCheckpoint.NONE);
+        assertThat(restored.run()).isEqualTo(checkpoint.run());
+    }
+
+    @Test
+    @DisplayName("Should start over when the checkpoint was taken for another source")
+    void load_otherSource_startsOver() throws IOException {
+        Path file = directory.resolve("checkpoint.properties");
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.load(file, SOURCE);
+        checkpoint.complete("AAPL");
+        checkpoint.flush();
+
+        BackfillCheckpoint other = BackfillCheckpoint.load(file, "fmp:1day:2024-01-01..2024-06-30");
+
+        assertThat(other.isComplete("AAPL")).isFalse();
+        assertThat(other.position("AAPL")).isEqualTo(BackfillCheckpoint.NONE);
+        assertThat(other.run()).isNotEqualTo(checkpoint.run());
+    }
+
+    @Test
+    @DisplayName("Should write only when something changed and leave no temp files")
+    void flush_onlyWhenDirty() throws IOException {
+        Path file = directory.resolve("nested").resolve("checkpoint.properties");
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.load(file, SOURCE);
+        checkpoint.flush();
+        assertThat(file).doesNotExist();
+
+        checkpoint.advance("AAPL", 1L);
+        checkpoint.flush();
+        Files.writeString(file, "overwritten");
+        checkpoint.flush();
+
+        assertThat(file).hasContent("overwritten");
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.marketpulse.aggregator.backfill;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Backfill Pacer Tests")
+class BackfillPacerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should queue batches back to back at the configured rate")
+    void reserve_queuesBatchesAtRate() {
+        BackfillPacer pacer = new BackfillPacer(1_000, now::get);
+
+        assertThat(pacer.reserve(500)).isZero();
+        assertThat(pacer.reserve(500)).isEqualTo(500_000_000L);
+        assertThat(pacer.reserve(1)).isEqualTo(1_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should not save up idle time for a burst")
+    void reserve_afterIdle_doesNotBurst() {
+        BackfillPacer pacer = new BackfillPacer(1_000, now::get);
+        pacer.reserve(100);
+        now.addAndGet(10_000_000_000L);
+
+        assertThat(pacer.reserve(1_000)).isZero();
+        assertThat(pacer.reserve(1)).isEqualTo(1_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should never wait when unlimited")
+    void unlimited_neverWaits() {
+        BackfillPacer pacer = BackfillPacer.unlimited();
+
+        assertThat(pacer.reserve(1_000_000)).isZero();
+        assertThat(pacer.reserve(1_000_000)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a negative rate")
+    void negativeRate_rejected() {
+        assertThatThrownBy(() -> new BackfillPacer(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.marketpulse.aggregator.backfill;
+
+import com.marketpulse.avro.MarketQuote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("File Historical Quote Source Tests")
+class FileHistoricalQuoteSourceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should list one symbol per CSV or JSON file")
+    void symbols_listsDataFiles() throws IOException {
+        Files.writeString(directory.resolve("AAPL.csv"), "timestamp,price\n");
+        Files.writeString(directory.resolve("msft.json"), "[]");
+        Files.writeString(directory.resolve("README.txt"), "notes");
+
+        assertThat(source().symbols()).containsExactly("AAPL", "MSFT");
+    }
+
+    @Test
+    @DisplayName("Should stream a symbol's quotes after the checkpoint, oldest first")
+    void quotes_afterCheckpoint() throws IOException {
+        Files.writeString(directory.resolve("AAPL.csv"), "timestamp,price\n30,3.0\n10,1.0\n20,2.0\n");
+
+        List<MarketQuote> quotes = source().quotes("AAPL", 10).collectList().block();
+
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).containsExactly(20L, 30L);
+        assertThat(quotes).extracting(MarketQuote::getSymbol).containsOnly("AAPL");
+    }
+
+    @Test
+    @DisplayName("Should read lower-case JSON files for upper-case symbols")
+    void quotes_lowerCaseJsonFile() throws IOException {
+        Files.writeString(directory.resolve("msft.json"), "[{\"timestamp\":5,\"price\":410.5}]");
+
+        StepVerifier.create(source().quotes("MSFT", BackfillCheckpoint.NONE))
+                .assertNext(quote -> assertThat(quote.getPrice()).isEqualTo(410.5))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fail a symbol without a file")
+    void quotes_missingFile_fails() {
+        StepVerifier.create(source().quotes("TSLA", BackfillCheckpoint.NONE))
+                .expectErrorMessage("No TSLA.csv or TSLA.json in " + directory)
+                .verify();
+    }
+
+    private FileHistoricalQuoteSource source() {
+        return new FileHistoricalQuoteSource(directory, Schedulers.immediate());
+    }
+}
@@ -0,0 +1,79 @@
+package com.marketpulse.aggregator.backfill;
+
+import com.marketpulse.aggregator.mapper.HistoricalQuoteDecoder;
+import com.marketpulse.aggregator.support.StubFmpServer;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import com.marketpulse.avro.MarketQuote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FMP Historical Quote Source Tests")
+class FmpHistoricalQuoteSourceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 10);
+
+    private StubFmpServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = new StubFmpServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should fetch the range in windows and emit the bars oldest first")
+    void quotes_fetchesWindowsInOrder() {
+        List<MarketQuote> quotes = source(4).quotes("AAPL", BackfillCheckpoint.NONE).collectList().block();
+
+        assertThat(stub.historyRequests()).containsExactly(
+                "AAPL 2024-01-01..2024-01-04", "AAPL 2024-01-05..2024-01-08", "AAPL 2024-01-09..2024-01-10");
+        assertThat(quotes).hasSize(10);
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).isSorted().doesNotHaveDuplicates();
+        assertThat(quotes.get(0).getPrice()).isEqualTo(101.0);
+    }
+
+    @Test
+    @DisplayName("Should resume from the window holding the checkpoint")
+    void quotes_resumesFromCheckpointWindow() {
+        long jan6Close = LocalDate.of(2024, 1, 6).atTime(16, 0).atZone(HistoricalQuoteDecoder.EXCHANGE_ZONE).toEpochSecond();
+
+        List<MarketQuote> quotes = source(4).quotes("AAPL", jan6Close).collectList().block();
+
+        assertThat(stub.historyRequests()).containsExactly("AAPL 2024-01-06..2024-01-09", "AAPL 2024-01-10..2024-01-10");
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).allMatch(timestamp -> timestamp > jan6Close);
+        assertThat(quotes).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Should describe the interval and range it replays")
+    void description_namesIntervalAndRange() {
+        assertThat(source(365).description()).isEqualTo("fmp:1day:2024-01-01..2024-01-10");
+    }
+
+    @Test
+    @DisplayName("Should reject an inverted range")
+    void invertedRange_rejected() {
+        assertThatThrownBy(() -> new FmpHistoricalQuoteSource(WebClient.builder(), "key", stub.baseUrl(),
+                FmpHistoricalQuoteSource.DAILY, TO, FROM, 1, 1 << 20, TestFmpClients.noRateLimit()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private FmpHistoricalQuoteSource source(int windowDays) {
+        return new FmpHistoricalQuoteSource(WebClient.builder(), "key", stub.baseUrl(),
+                FmpHistoricalQuoteSource.DAILY, FROM, TO, windowDays, 1 << 20, TestFmpClients.noRateLimit());
+    }
+}
@@ -0,0 +1,188 @@
+package com.marketpulse.aggregator.backfill;
+
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Quote Backfill Tests")
+class QuoteBackfillTest {
+
+    private static final String SOURCE = "memory";
+
+    @Mock
+    private MarketQuoteProducer marketQuoteProducer;
+
+    @TempDir
+    Path directory;
+
+    private final List<List<MarketQuote>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> read = Collections.synchronizedList(new ArrayList<>());
+    private SimpleMeterRegistry registry;
+    private Path checkpointFile;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        checkpointFile = directory.resolve("checkpoint.properties");
+    }
+
+    @Test
+    @DisplayName("Should publish every symbol in timestamp order, batch by batch")
+    void run_publishesEverySymbolInOrder() throws IOException {
+        acceptAll();
+        Map<String, List<MarketQuote>> history = Map.of("AAPL", quotes("AAPL", 1, 25), "MSFT", quotes("MSFT", 1, 7));
+
+        Long total = backfill(history, List.of()).run().block(Duration.ofSeconds(5));
+
+        assertThat(total).isEqualTo(32L);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+        assertThat(published("AAPL")).containsExactlyElementsOf(LongStream.rangeClosed(1, 25).boxed().toList());
+        assertThat(published("MSFT")).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(registry.counter("backfill.quotes.published").count()).isEqualTo(32.0);
+        assertThat(registry.counter("backfill.symbols", "result", "completed").count()).isEqualTo(2.0);
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.load(checkpointFile, SOURCE);
+        assertThat(checkpoint.isComplete("AAPL")).isTrue();
+        assertThat(checkpoint.isComplete("MSFT")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should skip completed symbols and resume the others after their checkpoint")
+    void run_resumesFromCheckpoint() throws IOException {
+        acceptAll();
+        BackfillCheckpoint previous = BackfillCheckpoint.load(checkpointFile, SOURCE);
+        previous.advance("AAPL", 20);
+        previous.complete("MSFT");
+        previous.flush();
+        Map<String, List<MarketQuote>> history = Map.of("AAPL", quotes("AAPL", 1, 25), "MSFT", quotes("MSFT", 1, 7));
+
+        Long total = backfill(history, List.of()).run().block(Duration.ofSeconds(5));
+
+        assertThat(total).isEqualTo(5L);
+        assertThat(published("AAPL")).containsExactly(21L, 22L, 23L, 24L, 25L);
+        assertThat(read).containsExactly("AAPL");
+    }
+
+    @Test
+    @DisplayName("Should leave a failed symbol at its last acknowledged batch and finish the others")
+    void run_failedSymbol_keepsCheckpoint() throws IOException {
+        when(marketQuoteProducer.replay(any())).thenAnswer(invocation -> {
+            List<MarketQuote> batch = invocation.getArgument(0);
+            if (batch.get(0).getSymbol().equals("MSFT") && batch.get(0).getTimestamp() > 10) {
+                return Mono.error(new IllegalStateException("broker down"));
+            }
+            batches.add(batch);
+            return Mono.empty();
+        });
+        Map<String, List<MarketQuote>> history = Map.of("AAPL", quotes("AAPL", 1, 5), "MSFT", quotes("MSFT", 1, 30));
+
+        Long total = backfill(history, List.of("aapl", "MSFT")).run().block(Duration.ofSeconds(5));
+
+        assertThat(total).isEqualTo(15L);
+        assertThat(registry.counter("backfill.symbols", "result", "failed").count()).isEqualTo(1.0);
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.load(checkpointFile, SOURCE);
+        assertThat(checkpoint.isComplete("AAPL")).isTrue();
+        assertThat(checkpoint.isComplete("MSFT")).isFalse();
+        assertThat(checkpoint.position("MSFT")).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("Should replay onto the rebuild topic tagged with a run that survives a resume")
+    void run_rebuild_tagsRun() throws IOException {
+        List<String> runs = Collections.synchronizedList(new ArrayList<>());
+        when(marketQuoteProducer.replay(any(), eq("market-quotes-rebuild"), any())).thenAnswer(invocation -> {
+            batches.add(invocation.getArgument(0));
+            runs.add(invocation.getArgument(2));
+            return Mono.empty();
+        });
+        BackfillCheckpoint plain = BackfillCheckpoint.load(checkpointFile, SOURCE);
+        plain.complete("AAPL");
+        plain.flush();
+        Map<String, List<MarketQuote>> history = Map.of("AAPL", quotes("AAPL", 1, 25));
+
+        Long total = backfill(history, List.of(), "market-quotes-rebuild").run().block(Duration.ofSeconds(5));
+
+        assertThat(total).isEqualTo(25L);
+        assertThat(published("AAPL")).containsExactlyElementsOf(LongStream.rangeClosed(1, 25).boxed().toList());
+        assertThat(runs).hasSize(3).containsOnly(runs.get(0));
+        verify(marketQuoteProducer, never()).replay(any());
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.load(checkpointFile, SOURCE + " -> market-quotes-rebuild");
+        assertThat(checkpoint.isComplete("AAPL")).isTrue();
+        assertThat(checkpoint.run()).isEqualTo(runs.get(0));
+    }
+
+    private void acceptAll() {
+        when(marketQuoteProducer.replay(any())).thenAnswer(invocation -> {
+            batches.add(invocation.getArgument(0));
+            return Mono.empty();
+        });
+    }
+
+    private QuoteBackfill backfill(Map<String, List<MarketQuote>> history, List<String> symbols) {
+        return backfill(history, symbols, null);
+    }
+
+    private QuoteBackfill backfill(Map<String, List<MarketQuote>> history, List<String> symbols, String rebuildTopic) {
+        HistoricalQuoteSource source = new HistoricalQuoteSource() {
+            @Override
+            public Flux<MarketQuote> quotes(String symbol, long afterEpochSecond) {
+                read.add(symbol);
+                return Flux.fromIterable(history.get(symbol)).filter(quote -> quote.getTimestamp() > afterEpochSecond);
+            }
+
+            @Override
+            public List<String> symbols() {
+                return history.keySet().stream().sorted().toList();
+            }
+
+            @Override
+            public String description() {
+                return SOURCE;
+            }
+        };
+        return new QuoteBackfill(source, marketQuoteProducer, symbols, BackfillPacer.unlimited(), 4, 10,
+                checkpointFile, Duration.ofMillis(50), rebuildTopic, Schedulers.immediate(), registry);
+    }
+
+    private List<Long> published(String symbol) {
+        synchronized (batches) {
+            return batches.stream().flatMap(List::stream)
+                    .filter(quote -> quote.getSymbol().equals(symbol))
+                    .map(MarketQuote::getTimestamp)
+                    .toList();
+        }
+    }
+
+    private static List<MarketQuote> quotes(String symbol, long first, long last) {
+        return LongStream.rangeClosed(first, last)
+                .mapToObj(timestamp -> MarketQuote.newBuilder().setSymbol(symbol).setPrice(100.0 + timestamp)
+                        .setTimestamp(timestamp).build())
+                .toList();
+    }
+}
@@ -0,0 +1,159 @@
+package com.marketpulse.aggregator.candle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Candle Aggregator Tests")
+class CandleAggregatorTest {
+
+    private static final long T0 = 1_699_999_980_000L; // on a minute boundary
+
+    private final List<Candle> closed = new ArrayList<>();
+    private long now;
+
+    @Test
+    @DisplayName("Should roll quotes into OHLCV and close the bar once the watermark passes its end")
+    void onQuote_closesBarByWatermark() {
+        CandleAggregator aggregator = aggregator(Duration.ZERO, CandleInterval.ONE_SECOND);
+
+        aggregator.onQuote("AAPL", T0, 150.0, 1_000.0);
+        aggregator.onQuote("AAPL", T0 + 200, 152.0, 1_100.0);
+        aggregator.onQuote("AAPL", T0 + 400, 149.0, 1_250.0);
+        aggregator.onQuote("AAPL", T0 + 900, 151.0, 1_300.0);
+        assertThat(closed).isEmpty();
+
+        aggregator.onQuote("AAPL", T0 + 1_000, 151.5, 1_310.0);
+
+        assertThat(closed).containsExactly(
+                new Candle("AAPL", CandleInterval.ONE_SECOND, T0, 150.0, 152.0, 149.0, 151.0, 300.0, 4));
+    }
+
+    @Test
+    @DisplayName("Should accept late quotes within the allowed lateness and keep open/close in event order")
+    void onQuote_lateWithinLateness_isMerged() {
+        CandleAggregator aggregator = aggregator(Duration.ofSeconds(2), CandleInterval.ONE_SECOND);
+
+        aggregator.onQuote("AAPL", T0 + 100, 150.0, Double.NaN);
+        aggregator.onQuote("AAPL", T0 + 1_500, 160.0, Double.NaN);
+        aggregator.onQuote("AAPL", T0 + 900, 155.0, Double.NaN);
+        aggregator.onQuote("AAPL", T0 + 50, 149.0, Double.NaN);
+        aggregator.advanceWatermark(T0 + 1_000);
+
+        assertThat(closed).containsExactly(
+                new Candle("AAPL", CandleInterval.ONE_SECOND, T0, 149.0, 155.0, 149.0, 155.0, 0.0, 3));
+        assertThat(aggregator.lateDropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop quotes whose window has already closed")
+    void onQuote_pastLateness_isDropped() {
+        CandleAggregator aggregator = aggregator(Duration.ofSeconds(1), CandleInterval.ONE_SECOND);
+
+        aggregator.onQuote("AAPL", T0 + 100, 150.0, Double.NaN);
+        aggregator.onQuote("AAPL", T0 + 3_000, 151.0, Double.NaN);
+        aggregator.onQuote("AAPL", T0 + 500, 140.0, Double.NaN);
+
+        assertThat(closed).hasSize(1);
+        assertThat(closed.get(0).low()).isEqualTo(150.0);
+        assertThat(aggregator.lateDropped()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should close bars for every interval and symbol independently")
+    void onQuote_multipleIntervalsAndSymbols() {
+        CandleAggregator aggregator = aggregator(Duration.ZERO, CandleInterval.ONE_SECOND, CandleInterval.ONE_MINUTE);
+
+        for (int second = 0; second < 60; second++) {
+            aggregator.onQuote("AAPL", T0 + second * 1_000L, 100.0 + second, Double.NaN);
+            aggregator.onQuote("MSFT", T0 + second * 1_000L, 200.0 - second, Double.NaN);
+        }
+        aggregator.advanceWatermark(T0 + 60_000);
+
+        assertThat(aggregator.emitted(CandleInterval.ONE_SECOND)).isEqualTo(120);
+        assertThat(aggregator.emitted(CandleInterval.ONE_MINUTE)).isEqualTo(2);
+        assertThat(closed).contains(
+                new Candle("AAPL", CandleInterval.ONE_MINUTE, T0, 100.0, 159.0, 100.0, 159.0, 0.0, 60),
+                new Candle("MSFT", CandleInterval.ONE_MINUTE, T0, 200.0, 200.0, 141.0, 141.0, 0.0, 60));
+    }
+
+    @Test
+    @DisplayName("Should keep the watermark per symbol, so a symbol behind a busier one is not late")
+    void onQuote_laggingSymbol_isNotDroppedByOtherSymbolsWatermark() {
+        CandleAggregator aggregator = aggregator(Duration.ofSeconds(1), CandleInterval.ONE_SECOND);
+
+        aggregator.onQuote("SPY", T0 + 10_000, 450.0, Double.NaN);
+        aggregator.onQuote("XYZ", T0 + 100, 12.0, Double.NaN);
+        aggregator.onQuote("XYZ", T0 + 2_500, 12.5, Double.NaN);
+
+        assertThat(aggregator.lateDropped()).isZero();
+        assertThat(aggregator.watermark("SPY")).isEqualTo(T0 + 9_000);
+        assertThat(aggregator.watermark("XYZ")).isEqualTo(T0 + 1_500);
+        assertThat(closed).containsExactly(
+                new Candle("XYZ", CandleInterval.ONE_SECOND, T0, 12.0, 12.0, 12.0, 12.0, 0.0, 1));
+    }
+
+    @Test
+    @DisplayName("Should advance a quiet symbol's watermark with the wall clock")
+    void advanceIdle_closesQuietSymbolsBars() {
+        CandleAggregator aggregator = aggregator(Duration.ofSeconds(1), CandleInterval.ONE_SECOND);
+        now = 5_000;
+        aggregator.onQuote("XYZ", T0 + 100, 12.0, Double.NaN);
+        now = 6_500;
+        aggregator.onQuote("SPY", T0 + 5_000, 450.0, Double.NaN);
+
+        aggregator.advanceIdle();
+        assertThat(closed).isEmpty();
+
+        now = 7_000;
+        aggregator.advanceIdle();
+        assertThat(closed).containsExactly(
+                new Candle("XYZ", CandleInterval.ONE_SECOND, T0, 12.0, 12.0, 12.0, 12.0, 0.0, 1));
+    }
+
+    @Test
+    @DisplayName("Should treat a drop in cumulative volume as a new trading day")
+    void onQuote_volumeReset_countsNewDayVolume() {
+        CandleAggregator aggregator = aggregator(Duration.ZERO, CandleInterval.ONE_SECOND);
+
+        aggregator.onQuote("AAPL", T0, 150.0, 9_000.0);
+        aggregator.onQuote("AAPL", T0 + 100, 150.0, 9_500.0);
+        aggregator.onQuote("AAPL", T0 + 200, 150.0, 300.0);
+        aggregator.advanceWatermark(T0 + 1_000);
+
+        assertThat(closed.get(0).volume()).isEqualTo(800.0);
+    }
+
+    @Test
+    @DisplayName("Should forget a reset symbol's bars and watermark without emitting them")
+    void reset_startsSymbolOver() {
+        CandleAggregator aggregator = aggregator(Duration.ZERO, CandleInterval.ONE_SECOND);
+        aggregator.onQuote("AAPL", T0 + 5_000, 150.0, Double.NaN);
+
+        aggregator.reset("AAPL");
+        aggregator.onQuote("AAPL", T0, 140.0, Double.NaN);
+        aggregator.onQuote("AAPL", T0 + 1_000, 141.0, Double.NaN);
+
+        assertThat(closed).containsExactly(
+                new Candle("AAPL", CandleInterval.ONE_SECOND, T0, 140.0, 140.0, 140.0, 140.0, 0.0, 1));
+        assertThat(aggregator.lateDropped()).isZero();
+        assertThat(aggregator.symbolCount()).isEqualTo(1);
+    }
+
+    private CandleAggregator aggregator(Duration lateness, CandleInterval... intervals) {
+        return new CandleAggregator(EnumSet.of(intervals[0], intervals), lateness,
+                (symbol, interval, start, open, high, low, close, volume, count) ->
+                        closed.add(new Candle(symbol, interval, start, open, high, low, close, volume, count)),
+                () -> now);
+    }
+
+    private record Candle(String symbol, CandleInterval interval, long start, double open, double high,
+                          double low, double close, double volume, int count) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.marketpulse.aggregator.candle;
+
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketCandle;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Candle Service Tests")
+class CandleServiceTest {
+
+    private static final long T0_SECONDS = 1_700_000_000L;
+
+    @Mock
+    private KafkaTemplate<String, MarketCandle> candleKafkaTemplate;
+
+    private final AtomicLong now = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private CandleService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CandleService(candleKafkaTemplate, Duration.ZERO, Duration.ofSeconds(1), meterRegistry, now::get);
+    }
+
+    @Test
+    @DisplayName("Should publish closed bars keyed by symbol using the quote timestamp as event time")
+    void consume_publishesClosedCandle() {
+        CompletableFuture<SendResult<String, MarketCandle>> sent = CompletableFuture.completedFuture(null);
+        when(candleKafkaTemplate.send(anyString(), anyString(), any(MarketCandle.class))).thenReturn(sent);
+
+        service.consume(List.of(
+                quoteRecord(quote("AAPL", 150.0, 1_000.0, T0_SECONDS)),
+                quoteRecord(quote("AAPL", 151.0, 1_200.0, T0_SECONDS)),
+                quoteRecord(quote("AAPL", 152.0, 1_300.0, T0_SECONDS + 1))));
+
+        ArgumentCaptor<MarketCandle> candle = ArgumentCaptor.forClass(MarketCandle.class);
+        verify(candleKafkaTemplate).send(eq(CandleService.TOPIC), eq("AAPL"), candle.capture());
+        assertThat(candle.getValue().getInterval()).isEqualTo("1s");
+        assertThat(candle.getValue().getWindowStart()).isEqualTo(T0_SECONDS * 1000);
+        assertThat(candle.getValue().getWindowEnd()).isEqualTo(T0_SECONDS * 1000 + 1000);
+        assertThat(candle.getValue().getOpen()).isEqualTo(150.0);
+        assertThat(candle.getValue().getClose()).isEqualTo(151.0);
+        assertThat(candle.getValue().getVolume()).isEqualTo(200.0);
+        assertThat(candle.getValue().getQuoteCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("candles.emitted").tag("interval", "1s").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should close bars by wall-clock time once quotes stop arriving")
+    void advanceIdle_closesBarsWhenQuiet() {
+        CompletableFuture<SendResult<String, MarketCandle>> sent = CompletableFuture.completedFuture(null);
+        when(candleKafkaTemplate.send(anyString(), anyString(), any(MarketCandle.class))).thenReturn(sent);
+        service.consume(List.of(quoteRecord(quote("AAPL", 150.0, null, T0_SECONDS))));
+
+        service.advanceIdle();
+        verify(candleKafkaTemplate, never()).send(anyString(), anyString(), any(MarketCandle.class));
+
+        now.addAndGet(1_000);
+        service.advanceIdle();
+        verify(candleKafkaTemplate, atLeastOnce()).send(eq(CandleService.TOPIC), eq("AAPL"), any(MarketCandle.class));
+    }
+
+    @Test
+    @DisplayName("Should skip tombstones and quotes without a price")
+    void consume_skipsUnpriceableRecords() {
+        service.consume(List.of(
+                quoteRecord(null),
+                quoteRecord(MarketQuote.newBuilder().setSymbol("AAPL").build())));
+        now.addAndGet(60_000);
+        service.advanceIdle();
+
+        verify(candleKafkaTemplate, never()).send(anyString(), anyString(), any(MarketCandle.class));
+    }
+
+    @Test
+    @DisplayName("Should rebuild bars behind the live watermark and start a symbol over for a new backfill run")
+    void consumeRebuild_keepsSeparateStatePerRun() {
+        CompletableFuture<SendResult<String, MarketCandle>> sent = CompletableFuture.completedFuture(null);
+        when(candleKafkaTemplate.send(anyString(), anyString(), any(MarketCandle.class))).thenReturn(sent);
+        service.consume(List.of(quoteRecord(quote("AAPL", 160.0, null, T0_SECONDS + 3_600))));
+
+        service.consumeRebuild(List.of(
+                rebuildRecord(quote("AAPL", 150.0, null, T0_SECONDS), "run-1"),
+                rebuildRecord(quote("AAPL", 151.0, null, T0_SECONDS + 1), "run-1"),
+                rebuildRecord(quote("AAPL", 152.0, null, T0_SECONDS), "run-2"),
+                rebuildRecord(quote("AAPL", 153.0, null, T0_SECONDS + 1), "run-2")));
+
+        ArgumentCaptor<MarketCandle> candles = ArgumentCaptor.forClass(MarketCandle.class);
+        verify(candleKafkaTemplate, times(2)).send(eq(CandleService.TOPIC), eq("AAPL"), candles.capture());
+        assertThat(candles.getAllValues()).extracting(MarketCandle::getWindowStart)
+                .containsExactly(T0_SECONDS * 1000, T0_SECONDS * 1000);
+        assertThat(candles.getAllValues()).extracting(MarketCandle::getOpen).containsExactly(150.0, 152.0);
+        assertThat(meterRegistry.get("candles.late.dropped").tag("source", "rebuild").functionCounter().count())
+                .isZero();
+    }
+
+    private static ConsumerRecord<String, MarketQuote> rebuildRecord(MarketQuote quote, String run) {
+        ConsumerRecord<String, MarketQuote> rebuildRecord =
+                new ConsumerRecord<>("market-quotes-rebuild", 0, 0L, quote.getSymbol(), quote);
+        rebuildRecord.headers().add(MarketQuoteProducer.REBUILD_RUN_HEADER, run.getBytes(StandardCharsets.UTF_8));
+        return rebuildRecord;
+    }
+
+    private static ConsumerRecord<String, MarketQuote> quoteRecord(MarketQuote quote) {
+        return new ConsumerRecord<>("market-quotes", 0, 0L, quote == null ? "AAPL" : quote.getSymbol(), quote);
+    }
+
+    private static MarketQuote quote(String symbol, double price, Double volume, long timestampSeconds) {
+        return MarketQuote.newBuilder()
+                .setSymbol(symbol)
+                .setPrice(price)
+                .setVolume(volume)
+                .setTimestamp(timestampSeconds)
+                .build();
+    }
+}
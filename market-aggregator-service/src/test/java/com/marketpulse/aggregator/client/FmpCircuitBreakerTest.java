@@ -0,0 +1,147 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.aggregator.client.FmpCircuitBreaker.State;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FMP Circuit Breaker Tests")
+class FmpCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final AtomicLong now = new AtomicLong();
+    private final FmpCircuitBreaker breaker = new FmpCircuitBreaker(true, 10, 4, 0.5, OPEN_DURATION, now::get);
+
+    @Test
+    @DisplayName("Should stay closed until minimum calls are recorded")
+    void failures_belowMinimumCalls_stayClosed() {
+        breaker.tryAcquirePermission().onFailure();
+        breaker.tryAcquirePermission().onFailure();
+        breaker.tryAcquirePermission().onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should open once the failure rate reaches the threshold and reject calls")
+    void failureRateAtThreshold_opens() {
+        breaker.tryAcquirePermission().onSuccess();
+        breaker.tryAcquirePermission().onSuccess();
+        breaker.tryAcquirePermission().onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        breaker.tryAcquirePermission().onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should forget outcomes that slid out of the window")
+    void oldFailures_slideOutOfWindow() {
+        breaker.tryAcquirePermission().onFailure();
+        breaker.tryAcquirePermission().onFailure();
+        breaker.tryAcquirePermission().onFailure();
+        for (int i = 0; i < 10; i++) {
+            breaker.tryAcquirePermission().onSuccess();
+        }
+        breaker.tryAcquirePermission().onFailure();
+        breaker.tryAcquirePermission().onFailure();
+        breaker.tryAcquirePermission().onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should let a single trial call through after the open duration")
+    void halfOpen_singleTrial() {
+        open();
+
+        now.addAndGet(OPEN_DURATION.toNanos());
+
+        FmpCircuitBreaker.Permit trial = breaker.tryAcquirePermission();
+        assertThat(trial).isNotNull();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isNull();
+
+        trial.onIgnored();
+        assertThat(breaker.tryAcquirePermission()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should close on a successful trial and reopen on a failed one")
+    void halfOpen_trialOutcome() {
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+        breaker.tryAcquirePermission().onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isNull();
+
+        now.addAndGet(OPEN_DURATION.toNanos());
+        breaker.tryAcquirePermission().onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        breaker.tryAcquirePermission().onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should not let a cancelled closed-state call free the half-open trial slot")
+    void halfOpen_cancelledClosedCall_keepsTrialSlot() {
+        FmpCircuitBreaker.Permit closedCall = breaker.tryAcquirePermission();
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+        FmpCircuitBreaker.Permit trial = breaker.tryAcquirePermission();
+        assertThat(trial).isNotNull();
+
+        closedCall.onIgnored();
+
+        assertThat(breaker.tryAcquirePermission()).isNull();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+    }
+
+    @Test
+    @DisplayName("Should ignore late outcomes of calls permitted before the last transition")
+    void halfOpen_lateOutcomes_doNotMoveBreaker() {
+        FmpCircuitBreaker.Permit slowSuccess = breaker.tryAcquirePermission();
+        FmpCircuitBreaker.Permit slowFailure = breaker.tryAcquirePermission();
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+        FmpCircuitBreaker.Permit trial = breaker.tryAcquirePermission();
+
+        slowSuccess.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        slowFailure.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+
+        trial.onSuccess();
+        trial.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should never open when disabled")
+    void disabled_neverOpens() {
+        FmpCircuitBreaker disabled = new FmpCircuitBreaker(false, 10, 4, 0.5, OPEN_DURATION, now::get);
+        for (int i = 0; i < 100; i++) {
+            disabled.tryAcquirePermission().onFailure();
+        }
+
+        assertThat(disabled.state()).isEqualTo(State.CLOSED);
+        assertThat(disabled.tryAcquirePermission()).isNotNull();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquirePermission().onFailure();
+        }
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+}
@@ -0,0 +1,148 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.aggregator.exception.FmpApiException;
+import com.marketpulse.aggregator.support.StubFmpServer;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises rate limiting, adaptive timeouts, hedging and the circuit breaker against a
+ * local latency-injecting stub of the FMP quote endpoint.
+ */
+@DisplayName("FMP Client Tests")
+class FmpClientTest {
+
+    private StubFmpServer stub;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        stub = new StubFmpServer();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should answer from a hedged request when the first one is slower than p95")
+    void slowRequest_hedgeWins() {
+        FmpClient client = client(TestFmpClients.noRateLimit(), TestFmpClients.noCircuitBreaker(),
+                Duration.ofSeconds(2), true);
+        warmUp(client);
+        stub.resetRequestCount();
+        stub.queueLatencies(Duration.ofMillis(1500));
+
+        long start = System.nanoTime();
+        List<MarketQuote> quotes = fetch(client, "AAPL");
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(quotes).extracting(MarketQuote::getSymbol).containsExactly("AAPL");
+        assertThat(elapsed).isLessThan(Duration.ofMillis(1000));
+        assertThat(stub.requestCount()).isEqualTo(2);
+        assertThat(meterRegistry.counter("fmp.client.hedges", "result", "won").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should tighten the timeout to the observed latency")
+    void observedLatency_adaptiveTimeout() {
+        FmpClient client = client(TestFmpClients.noRateLimit(), TestFmpClients.noCircuitBreaker(),
+                Duration.ofMillis(200), false);
+        assertThat(client.currentTimeout()).isEqualTo(Duration.ofSeconds(3));
+        warmUp(client);
+        Duration timeout = client.currentTimeout();
+        assertThat(timeout).isBetween(Duration.ofMillis(200), Duration.ofSeconds(1));
+        stub.setLatency(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> fetch(client, "AAPL"))
+                .isInstanceOf(FmpApiException.class)
+                .hasMessageContaining("timed out after " + timeout.toMillis() + " ms");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    @DisplayName("Should reject requests beyond the plan's rate without calling upstream")
+    void overRateLimit_failsFast() {
+        FmpRateLimiter limiter = new FmpRateLimiter(true, 60, 2, Duration.ZERO);
+        FmpClient client = client(limiter, TestFmpClients.noCircuitBreaker(), Duration.ofSeconds(2), false);
+
+        fetch(client, "AAPL");
+        fetch(client, "MSFT");
+
+        assertThatThrownBy(() -> fetch(client, "TSLA"))
+                .isInstanceOf(FmpApiException.class)
+                .hasMessageContaining("rate limit");
+        assertThat(stub.requestCount()).isEqualTo(2);
+        assertThat(meterRegistry.counter("fmp.client.rejected", "reason", "rate-limit").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should open on upstream failures and serve last known quotes while open")
+    void upstreamFailures_openCircuitAndServeCached() {
+        FmpCircuitBreaker breaker = new FmpCircuitBreaker(true, 4, 4, 0.5, Duration.ofMinutes(1), System::nanoTime);
+        FmpClient client = client(TestFmpClients.noRateLimit(), breaker, Duration.ofSeconds(2), false);
+        fetch(client, "AAPL");
+        stub.setStatus(500);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> fetch(client, "AAPL")).isInstanceOf(FmpApiException.class);
+        }
+        assertThat(breaker.state()).isEqualTo(FmpCircuitBreaker.State.OPEN);
+        stub.resetRequestCount();
+
+        List<MarketQuote> quotes = fetch(client, "aapl", "MSFT");
+
+        assertThat(quotes).extracting(MarketQuote::getSymbol).containsExactly("AAPL");
+        assertThat(quotes.get(0).getPrice()).isEqualTo(StubFmpServer.priceOf("AAPL"));
+        assertThatThrownBy(() -> fetch(client, "MSFT"))
+                .isInstanceOf(FmpApiException.class)
+                .hasMessageContaining("circuit breaker is open");
+        assertThat(stub.requestCount()).isZero();
+        assertThat(meterRegistry.counter("fmp.client.fallback.quotes").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should time each FMP call by outcome")
+    void calls_timedByOutcome() {
+        FmpClient client = client(TestFmpClients.noRateLimit(), TestFmpClients.noCircuitBreaker(), Duration.ofSeconds(2), false);
+
+        fetch(client, "AAPL");
+        stub.setStatus(500);
+        assertThatThrownBy(() -> fetch(client, "AAPL")).isInstanceOf(FmpApiException.class);
+
+        assertThat(meterRegistry.timer("fmp.client.latency", "outcome", "success").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("fmp.client.latency", "outcome", "error").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("fmp.client.latency", "outcome", "cancelled").count()).isZero();
+    }
+
+    private FmpClient client(FmpRateLimiter limiter, FmpCircuitBreaker breaker, Duration minTimeout, boolean hedge) {
+        return new FmpClient(WebClient.builder(), "test-key", stub.baseUrl(), limiter, breaker,
+                minTimeout, Duration.ofSeconds(3), 2.0, hedge, Duration.ofMillis(20), 100, meterRegistry);
+    }
+
+    private static void warmUp(FmpClient client) {
+        for (int i = 0; i < FmpLatencyTracker.MIN_SAMPLES; i++) {
+            fetch(client, "AAPL");
+        }
+    }
+
+    private static List<MarketQuote> fetch(FmpClient client, String... symbols) {
+        return client.getQuotes(List.of(symbols)).collectList().block();
+    }
+}
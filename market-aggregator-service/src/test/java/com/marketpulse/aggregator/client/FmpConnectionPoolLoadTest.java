@@ -0,0 +1,87 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.aggregator.support.StubFmpServer;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires a burst of concurrent quote calls at a local stub FMP server, once over a pool with
+ * Reactor Netty's default limits for a small host (16 connections, 32 pending acquires) and
+ * once over a pool sized like {@code fmp.http.*}, and compares throughput and failed calls.
+ */
+@DisplayName("FMP Connection Pool Load Tests")
+class FmpConnectionPoolLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FmpConnectionPoolLoadTest.class);
+    private static final int REQUESTS = 2000;
+    private static final int CONCURRENCY = 400;
+
+    private StubFmpServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = new StubFmpServer();
+        stub.setLatency(Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should raise burst throughput with a pool sized for it")
+    void burst_tunedPoolVersusDefault() {
+        Result small = run(ConnectionProvider.builder("small").maxConnections(16).build());
+        Result tuned = run(ConnectionProvider.builder("tuned")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(REQUESTS)
+                .pendingAcquireTimeout(Duration.ofSeconds(2))
+                .lifo()
+                .build());
+
+        log.info("{} requests at concurrency {}: 16 connections={} req/s ({} failed), {} connections={} req/s ({} failed)",
+                REQUESTS, CONCURRENCY, Math.round(small.throughput()), small.errors(),
+                CONCURRENCY, Math.round(tuned.throughput()), tuned.errors());
+        assertThat(tuned.errors()).isZero();
+        assertThat(tuned.throughput()).isGreaterThan(small.throughput() * 2);
+    }
+
+    private Result run(ConnectionProvider provider) {
+        try {
+            FmpClient client = TestFmpClients.plain(WebClient.builder()
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider))),
+                    "test-key", stub.baseUrl());
+            AtomicInteger errors = new AtomicInteger();
+            long start = System.nanoTime();
+            Flux.range(0, REQUESTS)
+                    .flatMap(i -> client.getQuotes(List.of("SYM" + i))
+                            .doOnError(e -> errors.incrementAndGet())
+                            .onErrorResume(e -> Flux.empty()), CONCURRENCY)
+                    .blockLast(Duration.ofSeconds(60));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result((REQUESTS - errors.get()) / seconds, errors.get());
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    private record Result(double throughput, int errors) {
+    }
+}
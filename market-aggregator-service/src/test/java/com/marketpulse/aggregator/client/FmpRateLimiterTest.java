@@ -0,0 +1,70 @@
+package com.marketpulse.aggregator.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("FMP Rate Limiter Tests")
+class FmpRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should spend the burst without waiting")
+    void reserve_withinBurst_noWait() {
+        FmpRateLimiter limiter = limiter(60, 3, Duration.ZERO);
+
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should make callers wait for the next token up to max-wait")
+    void reserve_emptyBucket_waitsForRefill() {
+        FmpRateLimiter limiter = limiter(60, 1, Duration.ofSeconds(2));
+
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isCloseTo(Duration.ofSeconds(1).toNanos(), within(1_000L));
+        assertThat(limiter.reserve()).isCloseTo(Duration.ofSeconds(2).toNanos(), within(1_000L));
+        assertThat(limiter.reserve()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate without exceeding the burst")
+    void reserve_refillsOverTime() {
+        FmpRateLimiter limiter = limiter(120, 2, Duration.ZERO);
+        limiter.reserve();
+        limiter.reserve();
+
+        now.addAndGet(Duration.ofMillis(500).toNanos());
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should never throttle when disabled")
+    void unlimited_neverThrottles() {
+        FmpRateLimiter limiter = new FmpRateLimiter(false, 1, 1, Duration.ZERO, now::get);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    private FmpRateLimiter limiter(int requestsPerMinute, int burst, Duration maxWait) {
+        return new FmpRateLimiter(true, requestsPerMinute, burst, maxWait, now::get);
+    }
+}
@@ -0,0 +1,83 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.aggregator.support.StubFmpServer;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import com.marketpulse.avro.MarketQuote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires a dashboard-sized burst of single-symbol lookups at a local stub FMP server,
+ * once straight through {@link FmpClient} and once through {@link QuoteBatcher}, and
+ * compares upstream call counts and p99 latency.
+ */
+@DisplayName("Quote Batcher Load Tests")
+class QuoteBatcherLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteBatcherLoadTest.class);
+    private static final int SYMBOLS = 500;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private StubFmpServer stub;
+    private FmpClient fmpClient;
+
+    @BeforeEach
+    void setUp() {
+        stub = new StubFmpServer();
+        stub.setLatency(Duration.ofMillis(20));
+        fmpClient = TestFmpClients.plain(WebClient.builder(), "test-key", stub.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should cut upstream calls for a burst of 500 symbols")
+    void burstOfSingleSymbolLookups_isCoalesced() {
+        List<Long> direct = run(symbol -> fmpClient.getQuotes(List.of(symbol)).next());
+        int directCalls = stub.requestCount();
+
+        stub.resetRequestCount();
+        QuoteBatcher batcher = new QuoteBatcher(fmpClient, Duration.ofMillis(10), MAX_BATCH_SIZE);
+        List<Long> batched = run(batcher::getQuote);
+        int batchedCalls = stub.requestCount();
+
+        log.info("Upstream calls: direct={} batched={}; p99 latency: direct={}ms batched={}ms",
+                directCalls, batchedCalls, p99Millis(direct), p99Millis(batched));
+        assertThat(directCalls).isEqualTo(SYMBOLS);
+        assertThat(batchedCalls).isLessThanOrEqualTo(SYMBOLS / 10);
+    }
+
+    private List<Long> run(Function<String, Mono<MarketQuote>> lookup) {
+        return Flux.range(0, SYMBOLS)
+                .map(i -> "SYM" + i)
+                .flatMap(symbol -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return lookup.apply(symbol)
+                            .doOnNext(quote -> assertThat(quote.getSymbol()).isEqualTo(symbol))
+                            .map(quote -> System.nanoTime() - start);
+                }), SYMBOLS)
+                .collectSortedList()
+                .block(Duration.ofSeconds(30));
+    }
+
+    private static double p99Millis(List<Long> sortedNanos) {
+        int index = (int) Math.ceil(sortedNanos.size() * 0.99) - 1;
+        return sortedNanos.get(index) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,112 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.aggregator.exception.FmpApiException;
+import com.marketpulse.avro.MarketQuote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Quote Batcher Tests")
+class QuoteBatcherTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(20);
+
+    @Mock
+    private FmpClient fmpClient;
+
+    @Test
+    @DisplayName("Should coalesce concurrent lookups into one upstream call")
+    void getQuote_concurrentCalls_shareOneUpstreamCall() {
+        when(fmpClient.getQuotes(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> symbols = invocation.getArgument(0);
+            return Flux.fromIterable(symbols).map(symbol -> quote(symbol, 1.0));
+        });
+        QuoteBatcher batcher = new QuoteBatcher(fmpClient, WINDOW, 100);
+
+        List<MarketQuote> quotes = Flux.merge(
+                        batcher.getQuote("AAPL"),
+                        batcher.getQuote("msft"),
+                        batcher.getQuote("AAPL"))
+                .collectList()
+                .block(Duration.ofSeconds(1));
+
+        assertThat(quotes).extracting(MarketQuote::getSymbol).containsExactlyInAnyOrder("AAPL", "MSFT", "AAPL");
+        ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(fmpClient, times(1)).getQuotes(captor.capture());
+        assertThat(captor.getValue()).containsExactly("AAPL", "MSFT");
+    }
+
+    @Test
+    @DisplayName("Should flush immediately when batch reaches max size")
+    void getQuote_fullBatch_flushesWithoutWaitingForWindow() {
+        when(fmpClient.getQuotes(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> symbols = invocation.getArgument(0);
+            return Flux.fromIterable(symbols).map(symbol -> quote(symbol, 1.0));
+        });
+        QuoteBatcher batcher = new QuoteBatcher(fmpClient, Duration.ofSeconds(30), 2);
+
+        StepVerifier.create(batcher.getQuotes(List.of("AAPL", "MSFT")))
+                .expectNextMatches(quote -> quote.getSymbol().equals("AAPL"))
+                .expectNextMatches(quote -> quote.getSymbol().equals("MSFT"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should complete empty when FMP omits a symbol")
+    void getQuote_missingSymbol_completesEmpty() {
+        when(fmpClient.getQuotes(anyCollection())).thenReturn(Flux.empty());
+        QuoteBatcher batcher = new QuoteBatcher(fmpClient, WINDOW, 100);
+
+        StepVerifier.create(batcher.getQuote("UNKNOWN"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should propagate upstream error to every caller in the batch")
+    void getQuote_upstreamError_propagatesToAllCallers() {
+        when(fmpClient.getQuotes(any())).thenReturn(Flux.error(new FmpApiException("FMP API error: 500")));
+        QuoteBatcher batcher = new QuoteBatcher(fmpClient, WINDOW, 100);
+
+        StepVerifier.create(Mono.zip(
+                        batcher.getQuote("AAPL").materialize(),
+                        batcher.getQuote("MSFT").materialize()))
+                .assertNext(signals -> {
+                    assertThat(signals.getT1().getThrowable()).isInstanceOf(FmpApiException.class);
+                    assertThat(signals.getT2().getThrowable()).isInstanceOf(FmpApiException.class);
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive max batch size")
+    void constructor_invalidMaxSize_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new QuoteBatcher(fmpClient, WINDOW, 0));
+    }
+
+    private static MarketQuote quote(String symbol, double price) {
+        return MarketQuote.newBuilder().setSymbol(symbol).setPrice(price).build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.aggregator.support.StubFmpServer;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the "200 clients ask for AAPL every few milliseconds" pattern against a local
+ * stub FMP server with the cache disabled and enabled, comparing upstream call counts.
+ */
+@DisplayName("Quote Cache Load Tests")
+class QuoteCacheLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteCacheLoadTest.class);
+    private static final int ROUNDS = 20;
+    private static final int CLIENTS = 200;
+
+    private StubFmpServer stub;
+    private QuoteBatcher quoteBatcher;
+
+    @BeforeEach
+    void setUp() {
+        stub = new StubFmpServer();
+        FmpClient fmpClient = TestFmpClients.plain(WebClient.builder(), "test-key", stub.baseUrl());
+        quoteBatcher = new QuoteBatcher(fmpClient, Duration.ofMillis(5), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should collapse repeated lookups to a single upstream call")
+    void repeatedLookups_cacheOnVersusOff() {
+        int uncachedCalls = run(false);
+        int cachedCalls = run(true);
+
+        log.info("Upstream calls for {} rounds x {} clients: cache off={} cache on={}",
+                ROUNDS, CLIENTS, uncachedCalls, cachedCalls);
+        assertThat(cachedCalls).isEqualTo(1);
+        assertThat(uncachedCalls).isGreaterThan(cachedCalls);
+    }
+
+    private int run(boolean enabled) {
+        stub.resetRequestCount();
+        QuoteCache cache = new QuoteCache(quoteBatcher, enabled, Duration.ofSeconds(30), 100, Duration.ZERO,
+                new SimpleMeterRegistry());
+        Flux.range(0, ROUNDS)
+                .concatMap(round -> Flux.range(0, CLIENTS)
+                        .flatMap(client -> cache.getQuote("AAPL"), CLIENTS)
+                        .then()
+                        .delayElement(Duration.ofMillis(10)))
+                .blockLast(Duration.ofSeconds(30));
+        return stub.requestCount();
+    }
+}
@@ -0,0 +1,142 @@
+package com.marketpulse.aggregator.client;
+
+import com.marketpulse.aggregator.exception.FmpApiException;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Quote Cache Tests")
+class QuoteCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(1);
+    private static final MarketQuote AAPL = quote("AAPL", 150.0);
+
+    @Mock
+    private QuoteBatcher quoteBatcher;
+
+    private final AtomicLong now = new AtomicLong();
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should serve fresh entries without calling upstream")
+    void getQuote_withinTtl_isHit() {
+        when(quoteBatcher.getQuote("AAPL")).thenReturn(Mono.just(AAPL));
+        QuoteCache cache = cache(Duration.ZERO);
+
+        StepVerifier.create(cache.getQuote("AAPL")).expectNext(AAPL).verifyComplete();
+        now.addAndGet(TTL.toNanos() - 1);
+        StepVerifier.create(cache.getQuote("aapl")).expectNext(AAPL).verifyComplete();
+
+        verify(quoteBatcher, times(1)).getQuote("AAPL");
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should refetch once the TTL has elapsed")
+    void getQuote_afterTtl_isMiss() {
+        when(quoteBatcher.getQuote("AAPL")).thenReturn(Mono.just(AAPL));
+        QuoteCache cache = cache(Duration.ZERO);
+
+        cache.getQuote("AAPL").block();
+        now.addAndGet(TTL.toNanos());
+        cache.getQuote("AAPL").block();
+
+        verify(quoteBatcher, times(2)).getQuote("AAPL");
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should serve stale entry and refresh in background")
+    void getQuote_withinStaleWindow_servesStaleAndRefreshes() {
+        MarketQuote refreshed = quote("AAPL", 151.0);
+        when(quoteBatcher.getQuote("AAPL")).thenReturn(Mono.just(AAPL), Mono.just(refreshed));
+        QuoteCache cache = cache(Duration.ofSeconds(5));
+
+        cache.getQuote("AAPL").block();
+        now.addAndGet(TTL.toNanos() + 1);
+
+        StepVerifier.create(cache.getQuote("AAPL")).expectNext(AAPL).verifyComplete();
+        StepVerifier.create(cache.getQuote("AAPL")).expectNext(refreshed).verifyComplete();
+        assertThat(count("stale")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight fetch between concurrent callers")
+    void getQuote_concurrentMisses_areCoalesced() {
+        Sinks.One<MarketQuote> upstream = Sinks.one();
+        when(quoteBatcher.getQuote("AAPL")).thenReturn(upstream.asMono());
+        QuoteCache cache = cache(Duration.ZERO);
+
+        Mono<MarketQuote> first = cache.getQuote("AAPL").cache();
+        Mono<MarketQuote> second = cache.getQuote("AAPL").cache();
+        first.subscribe();
+        second.subscribe();
+        upstream.tryEmitValue(AAPL);
+
+        StepVerifier.create(first).expectNext(AAPL).verifyComplete();
+        StepVerifier.create(second).expectNext(AAPL).verifyComplete();
+        verify(quoteBatcher, times(1)).getQuote("AAPL");
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache upstream errors")
+    void getQuote_upstreamError_isNotCached() {
+        when(quoteBatcher.getQuote("AAPL"))
+                .thenReturn(Mono.error(new FmpApiException("FMP API error: 500")), Mono.just(AAPL));
+        QuoteCache cache = cache(Duration.ZERO);
+
+        StepVerifier.create(cache.getQuote("AAPL")).expectError(FmpApiException.class).verify();
+        StepVerifier.create(cache.getQuote("AAPL")).expectNext(AAPL).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should pass straight through when disabled")
+    void getQuote_disabled_delegates() {
+        when(quoteBatcher.getQuote("AAPL")).thenReturn(Mono.just(AAPL));
+        QuoteCache cache = new QuoteCache(quoteBatcher, false, TTL, 100, Duration.ZERO, registry, now::get);
+
+        cache.getQuote("AAPL").block();
+        cache.getQuote("AAPL").block();
+
+        verify(quoteBatcher, times(2)).getQuote("AAPL");
+        assertThat(count("hit")).isZero();
+    }
+
+    private QuoteCache cache(Duration staleWhileRevalidate) {
+        return new QuoteCache(quoteBatcher, true, TTL, 100, staleWhileRevalidate, registry, now::get);
+    }
+
+    private double count(String result) {
+        return registry.counter("fmp.quote.cache", "result", result).count();
+    }
+
+    private static MarketQuote quote(String symbol, double price) {
+        return MarketQuote.newBuilder().setSymbol(symbol).setPrice(price).build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.marketpulse.aggregator.config;
+
+import com.marketpulse.aggregator.backfill.FileHistoricalQuoteSource;
+import com.marketpulse.aggregator.backfill.FmpHistoricalQuoteSource;
+import com.marketpulse.aggregator.backfill.HistoricalQuoteSource;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillConfigTest {
+    private BackfillConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new BackfillConfig();
+        setField(config, "baseUrl", "http://localhost:1");
+    }
+
+    @Test
+    void historicalQuoteSource_shouldReadFilesByDefault() {
+        HistoricalQuoteSource source = source();
+
+        assertInstanceOf(FileHistoricalQuoteSource.class, source);
+        assertEquals("file:" + Path.of("backfill").toAbsolutePath().normalize(), source.description());
+    }
+
+    @Test
+    void historicalQuoteSource_fmp_shouldUseConfiguredRange() {
+        setField(config, "source", "fmp");
+        setField(config, "from", "2024-01-01");
+        setField(config, "to", "2024-06-30");
+        setField(config, "interval", "5min");
+
+        HistoricalQuoteSource source = source();
+
+        assertInstanceOf(FmpHistoricalQuoteSource.class, source);
+        assertEquals("fmp:5min:2024-01-01..2024-06-30", source.description());
+    }
+
+    @Test
+    void historicalQuoteSource_fmp_shouldDefaultToTheLastYear() {
+        setField(config, "source", "fmp");
+        setField(config, "to", "2024-06-30");
+
+        assertEquals("fmp:1day:2023-06-30..2024-06-30", source().description());
+    }
+
+    @Test
+    void historicalQuoteSource_unknownSource_shouldFail() {
+        setField(config, "source", "s3");
+
+        assertThrows(IllegalArgumentException.class, this::source);
+    }
+
+    private HistoricalQuoteSource source() {
+        return config.historicalQuoteSource(WebClient.builder(), TestFmpClients.noRateLimit(), Schedulers.immediate());
+    }
+
+    private static void setField(Object target, String fieldName, Object value) {
+        try {
+            java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.marketpulse.aggregator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockingSchedulerConfigTest {
+    private BlockingSchedulerConfig config;
+    private Scheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        config = new BlockingSchedulerConfig();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void blockingScheduler_shouldUsePlatformThreadsByDefault() {
+        scheduler = config.blockingScheduler();
+
+        Thread thread = runOn(scheduler);
+        assertFalse(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("blocking-"));
+    }
+
+    @Test
+    void blockingScheduler_virtualThreads_shouldRunEachTaskOnAVirtualThread() {
+        setField(config, "virtualThreads", true);
+        scheduler = config.blockingScheduler();
+
+        assertTrue(runOn(scheduler).isVirtual());
+    }
+
+    @Test
+    void blockingScheduler_disposeShouldNotAffectSharedBoundedElastic() {
+        config.blockingScheduler().dispose();
+
+        assertNotNull(runOn(Schedulers.boundedElastic()));
+    }
+
+    private static Thread runOn(Scheduler scheduler) {
+        return Mono.fromSupplier(Thread::currentThread).subscribeOn(scheduler).block(Duration.ofSeconds(5));
+    }
+
+    private static void setField(Object target, String fieldName, Object value) {
+        try {
+            java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
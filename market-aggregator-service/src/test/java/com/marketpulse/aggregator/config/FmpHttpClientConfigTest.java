@@ -0,0 +1,107 @@
+package com.marketpulse.aggregator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmpHttpClientConfigTest {
+    private FmpHttpClientConfig config;
+    private ConnectionProvider provider;
+    private LoopResources loops;
+
+    @BeforeEach
+    void setUp() {
+        config = new FmpHttpClientConfig();
+        setField(config, "baseUrl", "https://financialmodelingprep.com/api/v3");
+        setField(config, "metrics", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (provider != null) {
+            provider.dispose();
+        }
+        if (loops != null) {
+            loops.dispose();
+        }
+    }
+
+    @Test
+    void connectionProvider_shouldApplyPoolLimits() {
+        setField(config, "maxConnections", 64);
+        setField(config, "pendingAcquireMaxCount", 128);
+        setField(config, "maxIdleTime", Duration.ofSeconds(5));
+
+        provider = config.fmpConnectionProvider();
+
+        assertEquals("fmp", provider.name());
+        assertEquals(64, provider.maxConnections());
+    }
+
+    @Test
+    void httpClient_shouldOfferHttp2OverTls() {
+        HttpClient client = httpClient();
+
+        assertArrayEquals(new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}, client.configuration().protocols());
+        assertTrue(client.configuration().isAcceptGzip());
+    }
+
+    @Test
+    void httpClient_shouldStayOnHttp11ForPlainHttp() {
+        setField(config, "baseUrl", "http://localhost:8089");
+        setField(config, "compression", false);
+
+        HttpClient client = httpClient();
+
+        assertArrayEquals(new HttpProtocol[]{HttpProtocol.HTTP11}, client.configuration().protocols());
+        assertFalse(client.configuration().isAcceptGzip());
+    }
+
+    @Test
+    void httpClient_shouldUseDedicatedEventLoop() {
+        setField(config, "workerThreads", 2);
+
+        HttpClient client = httpClient();
+
+        assertSame(loops, client.configuration().loopResources());
+    }
+
+    @Test
+    void uriTag_shouldFoldSymbolsIntoOneTag() {
+        assertEquals("/quote/{symbols}", FmpHttpClientConfig.uriTag("/api/v3/quote/AAPL,MSFT?apikey=x"));
+        assertEquals("/api/v3/profile", FmpHttpClientConfig.uriTag("/api/v3/profile"));
+    }
+
+    @Test
+    void uriTag_shouldFoldHistoricalPathsAndDropQueries() {
+        assertEquals("/historical-price-full/{symbol}",
+                FmpHttpClientConfig.uriTag("/api/v3/historical-price-full/AAPL?from=2024-01-01&apikey=x"));
+        assertEquals("/historical-chart/{interval}/{symbol}",
+                FmpHttpClientConfig.uriTag("/api/v3/historical-chart/1min/MSFT?apikey=x"));
+        assertEquals("/api/v3/profile", FmpHttpClientConfig.uriTag("/api/v3/profile?apikey=x"));
+    }
+
+    private HttpClient httpClient() {
+        provider = config.fmpConnectionProvider();
+        loops = config.fmpLoopResources();
+        return config.fmpHttpClient(provider, loops);
+    }
+
+    private static void setField(Object target, String fieldName, Object value) {
+        try {
+            java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
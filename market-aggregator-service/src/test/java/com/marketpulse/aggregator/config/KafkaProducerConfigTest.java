@@ -1,5 +1,8 @@
 package com.marketpulse.aggregator.config;
 
+import com.marketpulse.aggregator.producer.SymbolWeightedPartitioner;
+import com.marketpulse.aggregator.serde.MarketQuoteAvroSerializer;
+import com.marketpulse.avro.MarketCandle;
 import com.marketpulse.avro.MarketQuote;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -36,6 +39,28 @@ class KafkaProducerConfigTest {
         assertEquals("http://localhost:8081", props.get("schema.registry.url"));
     }
 
+    @Test
+    void producerFactory_shouldApplyThroughputSettings() {
+        setField(config, "lingerMs", 20);
+        setField(config, "batchSize", 131072);
+        setField(config, "compressionType", "lz4");
+        setField(config, "acks", "all");
+        setField(config, "enableIdempotence", true);
+        setField(config, "maxInFlightRequestsPerConnection", 5);
+        setField(config, "bufferMemory", 67108864L);
+        setField(config, "maxBlockMs", 100L);
+
+        Map<String, Object> props = ((DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory()).getConfigurationProperties();
+        assertEquals(20, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(131072, props.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("lz4", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals("all", props.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, props.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(5, props.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+        assertEquals(67108864L, props.get(ProducerConfig.BUFFER_MEMORY_CONFIG));
+        assertEquals(100L, props.get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+    }
+
     @Test
     void kafkaTemplate_shouldReturnTemplateWithProducerFactory() {
         KafkaTemplate<String, MarketQuote> template = config.kafkaTemplate();
@@ -43,6 +68,60 @@ class KafkaProducerConfigTest {
         assertNotNull(template.getProducerFactory());
     }
 
+    @Test
+    void candleKafkaTemplate_shouldShareProducerSettings() {
+        KafkaTemplate<String, MarketCandle> template = config.candleKafkaTemplate();
+        Map<String, Object> props = ((DefaultKafkaProducerFactory<String, MarketCandle>) template.getProducerFactory())
+                .getConfigurationProperties();
+        assertEquals("localhost:9092", props.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals(KafkaAvroSerializer.class, props.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void producerFactory_localSerde_shouldOnlySwitchMarketQuotes() {
+        setField(config, "localSerde", true);
+
+        Map<String, Object> quoteProps = ((DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory()).getConfigurationProperties();
+        assertEquals(MarketQuoteAvroSerializer.class, quoteProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+        assertFalse(quoteProps.containsKey("schema.registry.url"));
+
+        Map<String, Object> candleProps = ((DefaultKafkaProducerFactory<String, MarketCandle>) config.candleProducerFactory()).getConfigurationProperties();
+        assertEquals(KafkaAvroSerializer.class, candleProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void producerFactory_transactionIdPrefix_shouldEnableTransactionsForMarketQuotesOnly() {
+        setField(config, "transactionIdPrefix", "aggregator-1-");
+        setField(config, "acks", "1");
+        setField(config, "enableIdempotence", false);
+        setField(config, "maxBlockMs", 100L);
+
+        DefaultKafkaProducerFactory<String, MarketQuote> factory =
+                (DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory();
+        assertTrue(factory.transactionCapable());
+        assertEquals("aggregator-1-", factory.getTransactionIdPrefix());
+        assertEquals("all", factory.getConfigurationProperties().get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, factory.getConfigurationProperties().get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(KafkaProducerConfig.TRANSACTION_MAX_BLOCK_MS, factory.getConfigurationProperties().get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+        assertTrue(config.kafkaTemplate().isTransactional());
+        assertFalse(config.candleProducerFactory().transactionCapable());
+    }
+
+    @Test
+    void producerFactory_symbolWeights_shouldUseWeightedPartitionerForMarketQuotesOnly() {
+        Map<String, Object> defaults = ((DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory()).getConfigurationProperties();
+        assertFalse(defaults.containsKey(ProducerConfig.PARTITIONER_CLASS_CONFIG));
+
+        setField(config, "symbolWeights", "SPY=10,AAPL=8");
+
+        Map<String, Object> quoteProps = ((DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory()).getConfigurationProperties();
+        assertEquals(SymbolWeightedPartitioner.class, quoteProps.get(ProducerConfig.PARTITIONER_CLASS_CONFIG));
+        assertEquals("SPY=10,AAPL=8", quoteProps.get(SymbolWeightedPartitioner.SYMBOL_WEIGHTS_CONFIG));
+
+        Map<String, Object> candleProps = ((DefaultKafkaProducerFactory<String, MarketCandle>) config.candleProducerFactory()).getConfigurationProperties();
+        assertFalse(candleProps.containsKey(ProducerConfig.PARTITIONER_CLASS_CONFIG));
+    }
+
     @Test
     void producerFactory_directCoverage() {
         config.producerFactory();
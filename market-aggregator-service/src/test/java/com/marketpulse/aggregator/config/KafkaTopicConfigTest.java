@@ -0,0 +1,61 @@
+package com.marketpulse.aggregator.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaTopicConfigTest {
+
+    @Test
+    void marketQuotesTopic_shouldUseDefaults() {
+        NewTopic topic = new KafkaTopicConfig().marketQuotesTopic();
+
+        assertEquals("market-quotes", topic.name());
+        assertEquals(6, topic.numPartitions());
+        assertEquals((short) 1, topic.replicationFactor());
+        assertEquals("1", topic.configs().get(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG));
+    }
+
+    @Test
+    void marketQuotesTopic_shouldApplyConfiguredSizing() {
+        KafkaTopicConfig config = new KafkaTopicConfig();
+        setField(config, "partitions", 24);
+        setField(config, "replicationFactor", (short) 3);
+        setField(config, "minInsyncReplicas", 2);
+
+        NewTopic topic = config.marketQuotesTopic();
+        assertEquals(24, topic.numPartitions());
+        assertEquals((short) 3, topic.replicationFactor());
+        assertEquals("2", topic.configs().get(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG));
+    }
+
+    @Test
+    void marketQuotesRebuildTopic_shouldBeSizedLikeMarketQuotes() {
+        KafkaTopicConfig config = new KafkaTopicConfig();
+        setField(config, "partitions", 24);
+
+        NewTopic topic = config.marketQuotesRebuildTopic();
+        assertEquals("market-quotes-rebuild", topic.name());
+        assertEquals(24, topic.numPartitions());
+    }
+
+    @Test
+    void marketQuotesTopic_minInsyncReplicas_shouldNotExceedReplicationFactor() {
+        KafkaTopicConfig config = new KafkaTopicConfig();
+        setField(config, "minInsyncReplicas", 2);
+
+        assertEquals("1", config.marketQuotesTopic().configs().get(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG));
+    }
+
+    private static void setField(Object target, String fieldName, Object value) {
+        try {
+            java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
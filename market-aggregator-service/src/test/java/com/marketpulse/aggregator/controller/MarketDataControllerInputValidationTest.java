@@ -1,13 +1,23 @@
 package com.marketpulse.aggregator.controller;
 
+import com.marketpulse.aggregator.client.QuoteBatcher;
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
 import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.aggregator.support.TestFmpClients;
 import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 class MarketDataControllerInputValidationTest {
     private WebTestClient webTestClient;
@@ -15,14 +25,18 @@ class MarketDataControllerInputValidationTest {
     @BeforeEach
     void setUp() {
         // Use a real controller with minimal dependencies for validation
-        MarketQuoteProducer dummyProducer = new MarketQuoteProducer(null) {
+        MarketQuoteProducer dummyProducer = new MarketQuoteProducer(null, null, 1, new SimpleMeterRegistry(),
+                QuoteLogSampler.never(), Schedulers.immediate(), 1, 1, Duration.ofSeconds(1)) {
             @Override
-            public void send(MarketQuote quote) {
+            public CompletableFuture<SendResult<String, MarketQuote>> send(MarketQuote quote) {
                 // no-op
+                return CompletableFuture.completedFuture(null);
             }
         };
         WebClient.Builder builder = WebClient.builder();
-        MarketDataController controller = new MarketDataController(builder, "demo", "http://localhost", dummyProducer);
+        QuoteBatcher quoteBatcher = new QuoteBatcher(TestFmpClients.plain(builder, "demo", "http://localhost"), Duration.ofMillis(5), 100);
+        QuoteCache quoteCache = new QuoteCache(quoteBatcher, true, Duration.ofSeconds(1), 100, Duration.ZERO, new SimpleMeterRegistry());
+        MarketDataController controller = new MarketDataController(quoteCache, dummyProducer, QuoteLogSampler.never());
         webTestClient = WebTestClient.bindToController(controller).build();
     }
 
@@ -34,4 +48,13 @@ class MarketDataControllerInputValidationTest {
             .exchange()
             .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST);
     }
+
+    @Test
+    @DisplayName("Should return 400 when all requested symbols are blank")
+    void getQuotes_blankSymbols_returnsBadRequest() {
+        webTestClient.get()
+            .uri("/quotes?symbols={symbols}", " , ")
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST);
+    }
 } 
\ No newline at end of file
@@ -1,8 +1,15 @@
 package com.marketpulse.aggregator.controller;
 
-import com.marketpulse.aggregator.dto.QuoteDto;
+import com.marketpulse.aggregator.client.FmpClient;
+import com.marketpulse.aggregator.client.QuoteBatcher;
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.config.AvroJacksonModule;
 import com.marketpulse.aggregator.exception.FmpApiException;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
 import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,16 +18,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
@@ -59,8 +69,26 @@ class MarketDataControllerTest {
         when(headersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
 
-        controller = new MarketDataController(webClientBuilder, TEST_API_KEY, TEST_BASE_URL, marketQuoteProducer);
-        webTestClient = WebTestClient.bindToController(controller).build();
+        FmpClient fmpClient = TestFmpClients.plain(webClientBuilder, TEST_API_KEY, TEST_BASE_URL);
+        QuoteBatcher quoteBatcher = new QuoteBatcher(fmpClient, Duration.ofMillis(5), 100);
+        QuoteCache quoteCache = new QuoteCache(quoteBatcher, true, Duration.ofSeconds(1), 100, Duration.ZERO, new SimpleMeterRegistry());
+        controller = new MarketDataController(quoteCache, marketQuoteProducer, QuoteLogSampler.never());
+        webTestClient = bindToController().build();
+    }
+
+    private WebTestClient.ControllerSpec bindToController() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new AvroJacksonModule());
+        return WebTestClient.bindToController(controller)
+                .httpMessageCodecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)));
+    }
+
+    private void respondWith(String... quotes) {
+        byte[] body = ("[" + String.join(",", quotes) + "]").getBytes(StandardCharsets.UTF_8);
+        when(responseSpec.bodyToMono(byte[].class)).thenReturn(Mono.just(body));
+    }
+
+    private static String quoteJson(String symbol, double price) {
+        return "{\"symbol\":\"" + symbol + "\",\"price\":" + price + "}";
     }
 
     @Nested
@@ -70,15 +98,38 @@ class MarketDataControllerTest {
         @Test
         @DisplayName("Should return quote when valid symbol is provided")
         void getQuote_returnsQuote() {
-            QuoteDto mockQuote = new QuoteDto(VALID_SYMBOL, VALID_PRICE);
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(Flux.just(mockQuote));
+            respondWith(quoteJson(VALID_SYMBOL, VALID_PRICE));
 
             webTestClient.get()
                     .uri("/quotes/{symbol}", VALID_SYMBOL)
                     .exchange()
                     .expectStatus().isOk()
-                    .expectBody(QuoteDto.class)
-                    .isEqualTo(mockQuote);
+                    .expectBody()
+                    .jsonPath("$.symbol").isEqualTo(VALID_SYMBOL)
+                    .jsonPath("$.price").isEqualTo(VALID_PRICE)
+                    .jsonPath("$.schema").doesNotExist();
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Quotes Tests")
+    class GetQuotesTests {
+
+        @Test
+        @DisplayName("Should return quotes for every requested symbol in request order")
+        void getQuotes_returnsQuotesInRequestOrder() {
+            respondWith(quoteJson("MSFT", 410.0), quoteJson(VALID_SYMBOL, VALID_PRICE));
+
+            webTestClient.get()
+                    .uri("/quotes?symbols={symbols}", "AAPL,MSFT")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$[0].symbol").isEqualTo(VALID_SYMBOL)
+                    .jsonPath("$[0].price").isEqualTo(VALID_PRICE)
+                    .jsonPath("$[1].symbol").isEqualTo("MSFT")
+                    .jsonPath("$[1].price").isEqualTo(410.0);
+            verify(marketQuoteProducer, times(2)).sendDetached(any());
         }
     }
 
@@ -89,10 +140,10 @@ class MarketDataControllerTest {
         @Test
         @DisplayName("Should return bad gateway when FMP API returns error")
         void getQuote_fmpApiError_returnsBadGateway() {
-            Flux<QuoteDto> errorFlux = Flux.error(new FmpApiException("FMP API error: 500 Internal Server Error"));
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(errorFlux);
+            Mono<byte[]> errorBody = Mono.error(new FmpApiException("FMP API error: 500 Internal Server Error"));
+            when(responseSpec.bodyToMono(byte[].class)).thenReturn(errorBody);
 
-            WebTestClient testClient = WebTestClient.bindToController(controller)
+            WebTestClient testClient = bindToController()
                     .controllerAdvice(new com.marketpulse.aggregator.exception.GlobalExceptionHandler())
                     .build();
 
@@ -107,10 +158,10 @@ class MarketDataControllerTest {
         @Test
         @DisplayName("Should return bad gateway when FMP API returns 404")
         void getQuote_fmpApiNotFound_returnsBadGateway() {
-            Flux<QuoteDto> errorFlux = Flux.error(new FmpApiException("FMP API error: 404 Not Found"));
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(errorFlux);
+            Mono<byte[]> errorBody = Mono.error(new FmpApiException("FMP API error: 404 Not Found"));
+            when(responseSpec.bodyToMono(byte[].class)).thenReturn(errorBody);
 
-            WebTestClient testClient = WebTestClient.bindToController(controller)
+            WebTestClient testClient = bindToController()
                     .controllerAdvice(new com.marketpulse.aggregator.exception.GlobalExceptionHandler())
                     .build();
 
@@ -125,10 +176,10 @@ class MarketDataControllerTest {
         @Test
         @DisplayName("Should return bad gateway when FMP API returns 401")
         void getQuote_fmpApiUnauthorized_returnsBadGateway() {
-            Flux<QuoteDto> errorFlux = Flux.error(new FmpApiException("FMP API error: 401 Unauthorized"));
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(errorFlux);
+            Mono<byte[]> errorBody = Mono.error(new FmpApiException("FMP API error: 401 Unauthorized"));
+            when(responseSpec.bodyToMono(byte[].class)).thenReturn(errorBody);
 
-            WebTestClient testClient = WebTestClient.bindToController(controller)
+            WebTestClient testClient = bindToController()
                     .controllerAdvice(new com.marketpulse.aggregator.exception.GlobalExceptionHandler())
                     .build();
 
@@ -139,6 +190,23 @@ class MarketDataControllerTest {
                     .expectBody(String.class)
                     .value(body -> assertThat(body).contains("FMP API error"));
         }
+
+        @Test
+        @DisplayName("Should return bad gateway when FMP API returns malformed JSON")
+        void getQuote_malformedBody_returnsBadGateway() {
+            when(responseSpec.bodyToMono(byte[].class))
+                    .thenReturn(Mono.just("[{\"symbol\":".getBytes(StandardCharsets.UTF_8)));
+
+            bindToController()
+                    .controllerAdvice(new com.marketpulse.aggregator.exception.GlobalExceptionHandler())
+                    .build()
+                    .get()
+                    .uri("/quotes/{symbol}", VALID_SYMBOL)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.BAD_GATEWAY)
+                    .expectBody(String.class)
+                    .value(body -> assertThat(body).contains("Malformed FMP response"));
+        }
     }
 
     @Nested
@@ -148,9 +216,9 @@ class MarketDataControllerTest {
         @Test
         @DisplayName("Should return server error when request times out")
         void getQuote_timeout_returnsServerError() {
-            Flux<QuoteDto> slowFlux = Flux.just(new QuoteDto(VALID_SYMBOL, VALID_PRICE))
-                    .delayElements(Duration.ofSeconds(5));
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(slowFlux);
+            Mono<byte[]> slowBody = Mono.just(quoteJson(VALID_SYMBOL, VALID_PRICE).getBytes(StandardCharsets.UTF_8))
+                    .delayElement(Duration.ofSeconds(5));
+            when(responseSpec.bodyToMono(byte[].class)).thenReturn(slowBody);
 
             webTestClient.get()
                     .uri("/quotes/{symbol}", VALID_SYMBOL)
@@ -161,9 +229,9 @@ class MarketDataControllerTest {
         @Test
         @DisplayName("Should return server error when request takes too long")
         void getQuote_slowResponse_returnsServerError() {
-            Flux<QuoteDto> slowFlux = Flux.just(new QuoteDto(VALID_SYMBOL, VALID_PRICE))
-                    .delayElements(Duration.ofSeconds(10));
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(slowFlux);
+            Mono<byte[]> slowBody = Mono.just(quoteJson(VALID_SYMBOL, VALID_PRICE).getBytes(StandardCharsets.UTF_8))
+                    .delayElement(Duration.ofSeconds(10));
+            when(responseSpec.bodyToMono(byte[].class)).thenReturn(slowBody);
 
             webTestClient.get()
                     .uri("/quotes/{symbol}", VALID_SYMBOL)
@@ -179,56 +247,51 @@ class MarketDataControllerTest {
         @Test
         @DisplayName("Should handle multiple quotes from FMP API")
         void getQuote_multipleQuotes_returnsFirstQuote() {
-            QuoteDto firstQuote = new QuoteDto(VALID_SYMBOL, VALID_PRICE);
-            QuoteDto secondQuote = new QuoteDto(VALID_SYMBOL, 160.0);
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(Flux.just(firstQuote, secondQuote));
+            respondWith(quoteJson(VALID_SYMBOL, VALID_PRICE), quoteJson(VALID_SYMBOL, 160.0));
 
             webTestClient.get()
                     .uri("/quotes/{symbol}", VALID_SYMBOL)
                     .exchange()
                     .expectStatus().isOk()
-                    .expectBody(QuoteDto.class)
-                    .isEqualTo(firstQuote);
+                    .expectBody()
+                    .jsonPath("$.price").isEqualTo(VALID_PRICE);
         }
 
         @Test
         @DisplayName("Should handle zero price from FMP API")
         void getQuote_zeroPrice_returnsQuote() {
-            QuoteDto mockQuote = new QuoteDto(VALID_SYMBOL, 0.0);
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(Flux.just(mockQuote));
+            respondWith(quoteJson(VALID_SYMBOL, 0.0));
 
             webTestClient.get()
                     .uri("/quotes/{symbol}", VALID_SYMBOL)
                     .exchange()
                     .expectStatus().isOk()
-                    .expectBody(QuoteDto.class)
-                    .isEqualTo(mockQuote);
+                    .expectBody()
+                    .jsonPath("$.price").isEqualTo(0.0);
         }
 
         @Test
         @DisplayName("Should handle negative price from FMP API")
         void getQuote_negativePrice_returnsQuote() {
-            QuoteDto mockQuote = new QuoteDto(VALID_SYMBOL, -10.0);
-            when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(Flux.just(mockQuote));
+            respondWith(quoteJson(VALID_SYMBOL, -10.0));
 
             webTestClient.get()
                     .uri("/quotes/{symbol}", VALID_SYMBOL)
                     .exchange()
                     .expectStatus().isOk()
-                    .expectBody(QuoteDto.class)
-                    .isEqualTo(mockQuote);
+                    .expectBody()
+                    .jsonPath("$.price").isEqualTo(-10.0);
         }
     }
 
     @Test
     @DisplayName("Should call producer when quote is fetched")
     void getQuote_validSymbol_callsProducer() {
-        QuoteDto mockQuote = new QuoteDto(VALID_SYMBOL, VALID_PRICE);
-        when(responseSpec.bodyToFlux(QuoteDto.class)).thenReturn(Flux.just(mockQuote));
+        respondWith(quoteJson(VALID_SYMBOL, VALID_PRICE));
         webTestClient.get()
             .uri("/quotes/{symbol}", VALID_SYMBOL)
             .exchange()
             .expectStatus().isOk();
-        verify(marketQuoteProducer).send(any());
+        verify(marketQuoteProducer).sendDetached(any());
     }
 }
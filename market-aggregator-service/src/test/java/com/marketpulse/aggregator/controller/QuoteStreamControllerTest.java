@@ -0,0 +1,117 @@
+package com.marketpulse.aggregator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.config.AvroJacksonModule;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.aggregator.stream.QuoteStreamHub;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Quote Stream Controller Tests")
+class QuoteStreamControllerTest {
+
+    @Mock
+    private QuoteCache quoteCache;
+    @Mock
+    private MarketQuoteProducer marketQuoteProducer;
+
+    private QuoteStreamHub hub;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(quoteCache.getQuote(anyString())).thenAnswer(invocation ->
+                Mono.just(MarketQuote.newBuilder().setSymbol(invocation.getArgument(0)).setPrice(150.0).build()));
+        hub = new QuoteStreamHub(quoteCache, marketQuoteProducer, Duration.ofSeconds(1), 10, 5, new SimpleMeterRegistry());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new AvroJacksonModule());
+        webTestClient = WebTestClient.bindToController(new QuoteStreamController(hub, Duration.ofSeconds(15)))
+                .httpMessageCodecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should stream quote events for the requested symbols")
+    void streamQuotes_emitsServerSentEvents() {
+        Disposable primer = hub.subscribe(List.of("AAPL")).subscribe();
+        hub.refresh().block();
+
+        Flux<ServerSentEvent<String>> events = webTestClient.get()
+                .uri("/quotes/stream?symbols=aapl")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() { })
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("quote");
+                    assertThat(event.data()).contains("\"symbol\":\"AAPL\"").contains("\"price\":150.0")
+                            .doesNotContain("schema");
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(2));
+        primer.dispose();
+    }
+
+    @Test
+    @DisplayName("Should reject blank symbol lists and oversized subscriptions as bad requests")
+    void streamQuotes_invalidRequests() {
+        webTestClient.get()
+                .uri("/quotes/stream?symbols= ")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get()
+                .uri("/quotes/stream?symbols=A,B,C,D,E,F")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 once the node serves its maximum number of streams")
+    void streamQuotes_subscriberLimit() {
+        List<Disposable> open = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            open.add(hub.subscribe(List.of("AAPL")).subscribe());
+        }
+
+        webTestClient.get()
+                .uri("/quotes/stream?symbols=AAPL")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isEqualTo(503);
+        open.forEach(Disposable::dispose);
+    }
+}
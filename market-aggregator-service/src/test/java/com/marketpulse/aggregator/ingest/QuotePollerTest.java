@@ -0,0 +1,112 @@
+package com.marketpulse.aggregator.ingest;
+
+import com.marketpulse.aggregator.client.FmpClient;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.aggregator.support.StubFmpServer;
+import com.marketpulse.aggregator.support.TestFmpClients;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Quote Poller Tests")
+class QuotePollerTest {
+
+    private static final List<String> UNIVERSE = IntStream.range(0, 250).mapToObj(i -> "SYM" + i).toList();
+
+    @Mock
+    private MarketQuoteProducer marketQuoteProducer;
+
+    private StubFmpServer stub;
+    private FmpClient fmpClient;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(marketQuoteProducer.publishAll(any())).thenReturn(Mono.empty());
+        stub = new StubFmpServer();
+        fmpClient = TestFmpClients.plain(WebClient.builder(), "test-key", stub.baseUrl());
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should split the universe into batch-sized calls and publish every quote")
+    void pollOnce_publishesWholeUniverse() {
+        QuotePoller poller = poller(Duration.ofSeconds(1));
+
+        Long count = poller.pollOnce().block(Duration.ofSeconds(10));
+
+        assertThat(count).isEqualTo(UNIVERSE.size());
+        assertThat(stub.requestCount()).isEqualTo(3);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MarketQuote>> captor = ArgumentCaptor.forClass(List.class);
+        verify(marketQuoteProducer, times(3)).publishAll(captor.capture());
+        assertThat(captor.getAllValues()).flatMap(quotes -> quotes)
+                .extracting(quote -> quote.getSymbol().toString())
+                .containsExactlyInAnyOrderElementsOf(UNIVERSE);
+        assertThat(registry.timer("fmp.poller.cycle").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip ticks and count late cycles when FMP is slower than the interval")
+    void cycles_slowUpstream_skipsInsteadOfQueueing() {
+        stub.setLatency(Duration.ofMillis(150));
+        QuotePoller poller = poller(Duration.ofMillis(50));
+
+        poller.cycles().take(Duration.ofMillis(700)).blockLast(Duration.ofSeconds(5));
+
+        verify(marketQuoteProducer, atLeastOnce()).publishAll(any());
+        assertThat(registry.counter("fmp.poller.cycles.skipped").count()).isPositive();
+        assertThat(registry.counter("fmp.poller.cycles.late").count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should keep polling when a batch fails")
+    void pollOnce_upstreamDown_countsBatchErrors() {
+        stub.close();
+        QuotePoller poller = poller(Duration.ofSeconds(1));
+
+        Long count = poller.pollOnce().block(Duration.ofSeconds(10));
+
+        assertThat(count).isZero();
+        assertThat(registry.counter("fmp.poller.batch.errors").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive batch size")
+    void constructor_invalidBatchSize_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new QuotePoller(fmpClient, marketQuoteProducer,
+                UNIVERSE, Duration.ofSeconds(1), 0, 1, registry));
+    }
+
+    private QuotePoller poller(Duration interval) {
+        return new QuotePoller(fmpClient, marketQuoteProducer, UNIVERSE, interval, 100, 2, registry);
+    }
+}
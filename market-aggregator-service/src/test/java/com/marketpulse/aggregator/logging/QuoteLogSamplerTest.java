@@ -0,0 +1,52 @@
+package com.marketpulse.aggregator.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Quote Log Sampler Tests")
+class QuoteLogSamplerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should keep the first event per symbol in each interval")
+    void perSymbolInterval_keepsFirstEvent() {
+        QuoteLogSampler sampler = new QuoteLogSampler(true, 0, Duration.ofSeconds(60), now::get);
+
+        assertThat(sampler.sample("AAPL")).isTrue();
+        assertThat(sampler.sample("AAPL")).isFalse();
+        assertThat(sampler.sample("MSFT")).isTrue();
+
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertThat(sampler.sample("AAPL")).isFalse();
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(sampler.sample("AAPL")).isTrue();
+        assertThat(sampler.sample("AAPL")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep every Nth event regardless of symbol")
+    void everyN_keepsOneInN() {
+        QuoteLogSampler sampler = new QuoteLogSampler(true, 100, Duration.ZERO, now::get);
+
+        long kept = IntStream.range(0, 1_000).filter(i -> sampler.sample("SYM" + (i % 7))).count();
+
+        assertThat(kept).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should keep everything when disabled and nothing from never()")
+    void disabledAndNever() {
+        QuoteLogSampler disabled = new QuoteLogSampler(false, 100, Duration.ofSeconds(60), now::get);
+        QuoteLogSampler never = QuoteLogSampler.never();
+
+        assertThat(IntStream.range(0, 50).allMatch(i -> disabled.sample("AAPL"))).isTrue();
+        assertThat(IntStream.range(0, 50).noneMatch(i -> never.sample("AAPL"))).isTrue();
+    }
+}
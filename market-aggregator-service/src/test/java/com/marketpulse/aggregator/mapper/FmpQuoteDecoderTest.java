@@ -0,0 +1,109 @@
+package com.marketpulse.aggregator.mapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.marketpulse.avro.MarketQuote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("FMP Quote Decoder Tests")
+class FmpQuoteDecoderTest {
+
+    private static final String FULL_QUOTE = """
+            {"symbol":"AAPL","name":"Apple Inc.","price":189.84,"changesPercentage":0.5829,"change":1.1,
+             "dayLow":187.45,"dayHigh":190.32,"yearHigh":199.62,"yearLow":164.08,"marketCap":2952226545600,
+             "priceAvg50":182.5436,"priceAvg200":181.66545,"exchange":"NASDAQ","volume":53600542,
+             "avgVolume":55446373,"open":188.15,"previousClose":188.74,"eps":6.43,"pe":29.52,
+             "earningsAnnouncement":"2024-05-02T20:30:00.000+0000","sharesOutstanding":15550100000,
+             "timestamp":1714766401}""";
+
+    @Test
+    @DisplayName("Should map every FMP field onto the Avro record")
+    void decode_fullQuote_mapsAllFields() throws IOException {
+        List<MarketQuote> quotes = decode("[" + FULL_QUOTE + "]");
+
+        assertThat(quotes).hasSize(1);
+        MarketQuote quote = quotes.get(0);
+        assertThat(quote.getSymbol()).isEqualTo("AAPL");
+        assertThat(quote.getName()).isEqualTo("Apple Inc.");
+        assertThat(quote.getPrice()).isEqualTo(189.84);
+        assertThat(quote.getChangesPercentage()).isEqualTo(0.5829);
+        assertThat(quote.getChange()).isEqualTo(1.1);
+        assertThat(quote.getDayLow()).isEqualTo(187.45);
+        assertThat(quote.getDayHigh()).isEqualTo(190.32);
+        assertThat(quote.getYearHigh()).isEqualTo(199.62);
+        assertThat(quote.getYearLow()).isEqualTo(164.08);
+        assertThat(quote.getMarketCap()).isEqualTo(2952226545600.0);
+        assertThat(quote.getPriceAvg50()).isEqualTo(182.5436);
+        assertThat(quote.getPriceAvg200()).isEqualTo(181.66545);
+        assertThat(quote.getVolume()).isEqualTo(53600542.0);
+        assertThat(quote.getAvgVolume()).isEqualTo(55446373.0);
+        assertThat(quote.getExchange()).isEqualTo("NASDAQ");
+        assertThat(quote.getOpen()).isEqualTo(188.15);
+        assertThat(quote.getPreviousClose()).isEqualTo(188.74);
+        assertThat(quote.getEps()).isEqualTo(6.43);
+        assertThat(quote.getPe()).isEqualTo(29.52);
+        assertThat(quote.getEarningsAnnouncement()).isEqualTo("2024-05-02T20:30:00.000+0000");
+        assertThat(quote.getSharesOutstanding()).isEqualTo(15550100000.0);
+        assertThat(quote.getTimestamp()).isEqualTo(1714766401L);
+    }
+
+    @Test
+    @DisplayName("Should produce the same record as the Avro builder")
+    void decode_matchesBuilderOutput() throws IOException {
+        MarketQuote expected = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(410.5).setVolume(1000.0).build();
+
+        assertThat(decode("[{\"symbol\":\"MSFT\",\"price\":410.5,\"volume\":1000}]")).containsExactly(expected);
+    }
+
+    @Test
+    @DisplayName("Should keep nulls, skip unknown fields and drop quotes without a symbol")
+    void decode_nullsUnknownFieldsAndMissingSymbol() throws IOException {
+        List<MarketQuote> quotes = decode("""
+                [{"symbol":"TSLA","price":null,"pe":null,"extra":{"nested":[1,2]},"tags":["a"]},
+                 {"price":1.0},
+                 {"symbol":"NVDA","price":900}]""");
+
+        assertThat(quotes).extracting(MarketQuote::getSymbol).containsExactly("TSLA", "NVDA");
+        assertThat(quotes.get(0).getPrice()).isNull();
+        assertThat(quotes.get(0).getPe()).isNull();
+        assertThat(quotes.get(1).getPrice()).isEqualTo(900.0);
+    }
+
+    @Test
+    @DisplayName("Should skip a timestamp that is an object or array instead of a number")
+    void decode_structuredTimestamp_skipped() throws IOException {
+        List<MarketQuote> quotes = decode("""
+                [{"symbol":"AAPL","timestamp":{"seconds":1714766401},"price":189.84},
+                 {"symbol":"MSFT","timestamp":[1714766401],"price":410.5}]""");
+
+        assertThat(quotes).extracting(MarketQuote::getSymbol).containsExactly("AAPL", "MSFT");
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).containsExactly(null, null);
+        assertThat(quotes).extracting(MarketQuote::getPrice).containsExactly(189.84, 410.5);
+    }
+
+    @Test
+    @DisplayName("Should return no quotes for an empty array or an FMP error object")
+    void decode_emptyOrErrorBody() throws IOException {
+        assertThat(decode("[]")).isEmpty();
+        assertThat(decode("")).isEmpty();
+        assertThat(decode("{\"Error Message\":\"Invalid API KEY.\"}")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fail on malformed JSON")
+    void decode_malformedJson_throws() {
+        assertThrows(JsonParseException.class, () -> decode("[{\"symbol\":\"AAPL\",]"));
+        assertThrows(IOException.class, () -> decode("\"AAPL\""));
+    }
+
+    private static List<MarketQuote> decode(String json) throws IOException {
+        return FmpQuoteDecoder.decode(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
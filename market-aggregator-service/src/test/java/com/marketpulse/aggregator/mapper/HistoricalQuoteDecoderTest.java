@@ -0,0 +1,107 @@
+package com.marketpulse.aggregator.mapper;
+
+import com.marketpulse.avro.MarketQuote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Historical Quote Decoder Tests")
+class HistoricalQuoteDecoderTest {
+
+    private static final long JAN_5_CLOSE = ZonedDateTime.of(2024, 1, 5, 16, 0, 0, 0, HistoricalQuoteDecoder.EXCHANGE_ZONE).toEpochSecond();
+    private static final long JAN_4_CLOSE = JAN_5_CLOSE - 86_400;
+
+    @Test
+    @DisplayName("Should decode historical-price-full bars oldest first")
+    void decodeJson_historicalPriceFull_oldestFirst() throws IOException {
+        String json = """
+                {"symbol":"AAPL","historical":[
+                  {"date":"2024-01-05","open":181.99,"high":182.76,"low":180.17,"close":181.18,"adjClose":180.9,
+                   "volume":62303300,"change":-0.81,"changePercent":-0.44507,"label":"January 05, 24"},
+                  {"date":"2024-01-04","open":182.15,"high":183.09,"low":180.88,"close":181.91,"volume":71983600}
+                ]}""";
+
+        List<MarketQuote> quotes = HistoricalQuoteDecoder.decodeJson("AAPL", bytes(json));
+
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).containsExactly(JAN_4_CLOSE, JAN_5_CLOSE);
+        MarketQuote latest = quotes.get(1);
+        assertThat(latest.getSymbol()).isEqualTo("AAPL");
+        assertThat(latest.getPrice()).isEqualTo(181.18);
+        assertThat(latest.getOpen()).isEqualTo(181.99);
+        assertThat(latest.getDayHigh()).isEqualTo(182.76);
+        assertThat(latest.getDayLow()).isEqualTo(180.17);
+        assertThat(latest.getVolume()).isEqualTo(62303300.0);
+        assertThat(latest.getChange()).isEqualTo(-0.81);
+        assertThat(latest.getChangesPercentage()).isEqualTo(-0.44507);
+        assertThat(quotes.get(0).getChange()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should decode intraday bars in exchange time")
+    void decodeJson_intradayArray_usesExchangeTime() throws IOException {
+        String json = """
+                [{"date":"2024-01-05 09:31:00","open":181.5,"low":181.2,"high":181.9,"close":181.7,"volume":1200},
+                 {"date":"2024-01-05 09:30:00","open":181.99,"low":181.4,"high":182.1,"close":181.5,"volume":3400}]""";
+
+        List<MarketQuote> quotes = HistoricalQuoteDecoder.decodeJson("AAPL", bytes(json));
+
+        long open = ZonedDateTime.of(2024, 1, 5, 9, 30, 0, 0, HistoricalQuoteDecoder.EXCHANGE_ZONE).toEpochSecond();
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).containsExactly(open, open + 60);
+        assertThat(quotes).extracting(MarketQuote::getPrice).containsExactly(181.5, 181.7);
+    }
+
+    @Test
+    @DisplayName("Should treat an empty response as no bars")
+    void decodeJson_emptyResponse_noBars() throws IOException {
+        assertThat(HistoricalQuoteDecoder.decodeJson("AAPL", bytes("{}"))).isEmpty();
+        assertThat(HistoricalQuoteDecoder.decodeJson("AAPL", new byte[0])).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should decode CSV by header name, skipping unknown columns and empty cells")
+    void decodeCsv_byHeader() throws IOException {
+        String csv = "date,open,high,low,close,adjClose,volume\r\n"
+                + "2024-01-05,181.99,182.76,180.17,181.18,180.9,62303300\r\n"
+                + "\r\n"
+                + "2024-01-04,182.15,,180.88,181.91,181.6,\r\n";
+
+        List<MarketQuote> quotes = HistoricalQuoteDecoder.decodeCsv("AAPL", bytes(csv));
+
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).containsExactly(JAN_4_CLOSE, JAN_5_CLOSE);
+        assertThat(quotes.get(0).getDayHigh()).isNull();
+        assertThat(quotes.get(0).getVolume()).isNull();
+        assertThat(quotes.get(0).getPrice()).isEqualTo(181.91);
+        assertThat(quotes.get(1).getVolume()).isEqualTo(62303300.0);
+    }
+
+    @Test
+    @DisplayName("Should take epoch-second timestamps and drop rows without one")
+    void decodeCsv_timestampColumn() throws IOException {
+        String csv = "timestamp,price\n1704488400,181.18\n,180.0\n1704402000,181.91";
+
+        List<MarketQuote> quotes = HistoricalQuoteDecoder.decodeCsv("AAPL", bytes(csv));
+
+        assertThat(quotes).extracting(MarketQuote::getTimestamp).containsExactly(1704402000L, 1704488400L);
+    }
+
+    @Test
+    @DisplayName("Should report the line of a malformed cell")
+    void decodeCsv_malformedCell_reportsLine() {
+        String csv = "date,close\n2024-01-05,181.18\n2024-01-04,n/a\n";
+
+        IOException error = assertThrows(IOException.class, () -> HistoricalQuoteDecoder.decodeCsv("AAPL", bytes(csv)));
+
+        assertThat(error).hasMessageContaining("line 3").hasMessageContaining("AAPL");
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
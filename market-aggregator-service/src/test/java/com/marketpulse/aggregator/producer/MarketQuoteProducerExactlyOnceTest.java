@@ -0,0 +1,164 @@
+package com.marketpulse.aggregator.producer;
+
+import com.marketpulse.aggregator.config.KafkaProducerConfig;
+import com.marketpulse.aggregator.serde.MarketQuoteAvroDeserializer;
+import com.marketpulse.aggregator.serde.MarketQuoteAvroSerializer;
+import com.marketpulse.aggregator.support.TestProducers;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Crash-injection test for the exactly-once mode against an embedded broker. An aggregator
+ * instance dies halfway through a transaction; its replacement reuses the transactional id,
+ * which fences the dead producer and aborts its open transaction, then republishes the batch.
+ * {@code read_committed} consumers must see every quote exactly once.
+ */
+@DisplayName("Exactly-once Market Quote Producer Tests")
+class MarketQuoteProducerExactlyOnceTest {
+
+    private static final String TRANSACTION_ID_PREFIX = "aggregator-eos-";
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, "market-quotes")
+                .brokerProperties(Map.of(
+                        "transaction.state.log.replication.factor", "1",
+                        "transaction.state.log.min.isr", "1"));
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    @DisplayName("Should leave neither duplicates nor gaps when a producer crashes mid-transaction")
+    void publishAll_crashMidTransaction_readCommittedSeesEachQuoteOnce() {
+        List<MarketQuote> first = quotes(0, 100);
+        List<MarketQuote> second = quotes(100, 100);
+
+        DefaultKafkaProducerFactory<String, MarketQuote> beforeCrash = producerFactory();
+        producer(beforeCrash).publishAll(first).block(Duration.ofSeconds(30));
+        beforeCrash.destroy();
+
+        // The crashed instance: half of the next batch reached the log, the commit never happened.
+        KafkaProducer<String, MarketQuote> crashed = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.TRANSACTIONAL_ID_CONFIG, TRANSACTION_ID_PREFIX + "0",
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, MarketQuoteAvroSerializer.class));
+        crashed.initTransactions();
+        crashed.beginTransaction();
+        second.subList(0, 50).forEach(quote ->
+                crashed.send(new ProducerRecord<>("market-quotes", quote.getSymbol(), quote)));
+        crashed.flush();
+
+        DefaultKafkaProducerFactory<String, MarketQuote> afterRestart = producerFactory();
+        try {
+            producer(afterRestart).publishAll(second).block(Duration.ofSeconds(30));
+        } finally {
+            afterRestart.destroy();
+            crashed.close(Duration.ZERO);
+        }
+
+        List<MarketQuote> committed = consume("read_committed", 200);
+        assertThat(committed).containsExactlyInAnyOrderElementsOf(concat(first, second));
+        assertThat(consume("read_uncommitted", 250))
+                .as("the crashed transaction's records are in the log, only aborted")
+                .hasSize(250);
+    }
+
+    private static MarketQuoteProducer producer(DefaultKafkaProducerFactory<String, MarketQuote> factory) {
+        QuoteChangeFilter passThrough = new QuoteChangeFilter(false, 0, Duration.ZERO, 16, new SimpleMeterRegistry());
+        return TestProducers.producer(new KafkaTemplate<>(factory), passThrough, 1_000, new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DefaultKafkaProducerFactory<String, MarketQuote> producerFactory() {
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        setField(config, "bootstrapServers", broker.getBrokersAsString());
+        setField(config, "schemaRegistryUrl", "mock://exactly-once");
+        setField(config, "localSerde", true);
+        setField(config, "transactionIdPrefix", TRANSACTION_ID_PREFIX);
+        return (DefaultKafkaProducerFactory<String, MarketQuote>) config.producerFactory();
+    }
+
+    /**
+     * Reads the topic from the beginning until {@code expected} records arrived, then polls once
+     * more to catch anything beyond them.
+     */
+    private static List<MarketQuote> consume(String isolationLevel, int expected) {
+        List<MarketQuote> quotes = new ArrayList<>();
+        try (KafkaConsumer<String, MarketQuote> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, MarketQuoteAvroDeserializer.class))) {
+            TopicPartition partition = new TopicPartition("market-quotes", 0);
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (quotes.size() < expected && System.nanoTime() < deadline) {
+                consumer.poll(Duration.ofMillis(200)).forEach(consumerRecord -> quotes.add(consumerRecord.value()));
+            }
+            for (ConsumerRecord<String, MarketQuote> consumerRecord : consumer.poll(Duration.ofMillis(500))) {
+                quotes.add(consumerRecord.value());
+            }
+        }
+        return quotes;
+    }
+
+    private static List<MarketQuote> quotes(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> MarketQuote.newBuilder()
+                        .setSymbol("SYM" + i % 20)
+                        .setPrice(100.0 + i)
+                        .setTimestamp(1_700_000_000L + i)
+                        .build())
+                .toList();
+    }
+
+    private static List<MarketQuote> concat(List<MarketQuote> first, List<MarketQuote> second) {
+        List<MarketQuote> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private static void setField(Object target, String fieldName, Object value) {
+        try {
+            java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,28 +1,395 @@
 package com.marketpulse.aggregator.producer;
 
+import com.marketpulse.aggregator.exception.ProducerSaturatedException;
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
+import com.marketpulse.aggregator.support.TestProducers;
 import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class MarketQuoteProducerTest {
     @Mock
     private KafkaTemplate<String, MarketQuote> kafkaTemplate;
+    @Mock
+    private QuoteChangeFilter changeFilter;
 
-    @InjectMocks
+    private SimpleMeterRegistry registry;
     private MarketQuoteProducer producer;
 
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        producer = TestProducers.producer(kafkaTemplate, changeFilter, 1, registry);
+    }
+
     @Test
     void send_shouldCallKafkaTemplate() {
         MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(changeFilter.shouldPublish(quote)).thenReturn(true);
+        when(kafkaTemplate.send("market-quotes", "AAPL", quote)).thenReturn(new CompletableFuture<>());
         producer.send(quote);
         verify(kafkaTemplate).send("market-quotes", "AAPL", quote);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void send_shouldSkipUnchangedQuote() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(changeFilter.shouldPublish(quote)).thenReturn(false);
+        producer.send(quote);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void send_shouldCountFailedSends() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(changeFilter.shouldPublish(quote)).thenReturn(true);
+        when(kafkaTemplate.send("market-quotes", "AAPL", quote))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        CompletableFuture<SendResult<String, MarketQuote>> future = producer.send(quote);
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(1.0, registry.counter("kafka.producer.sends", "result", "failure").count());
+        assertEquals(1, registry.timer("kafka.producer.send.latency", "result", "failure").count());
+        assertEquals(0, registry.timer("kafka.producer.send.latency", "result", "success").count());
+    }
+
+    @Test
+    void send_shouldCountAcknowledgedRecordsPerPartition() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("market-quotes", 3), 0, 0, 0, 4, 16);
+        when(changeFilter.shouldPublish(quote)).thenReturn(true);
+        when(kafkaTemplate.send("market-quotes", "AAPL", quote))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, metadata)));
+
+        producer.send(quote);
+
+        assertEquals(1.0, registry.counter("kafka.producer.partition.records", "partition", "3").count());
+    }
+
+    @Test
+    void send_shouldRejectInsteadOfBlockingWhenSaturated() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(changeFilter.shouldPublish(any())).thenReturn(true);
+        when(kafkaTemplate.send(eq("market-quotes"), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        producer.send(quote);
+        CompletableFuture<SendResult<String, MarketQuote>> second = producer.send(quote);
+
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(1.0, registry.counter("kafka.producer.sends", "result", "rejected").count());
+        verify(changeFilter, never()).recordPublished(any());
+    }
+
+    @Test
+    void send_shouldRecordQuoteInFilterOnlyOnceAcknowledged() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        CompletableFuture<SendResult<String, MarketQuote>> inFlight = new CompletableFuture<>();
+        when(changeFilter.shouldPublish(quote)).thenReturn(true);
+        when(kafkaTemplate.send("market-quotes", "AAPL", quote))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")), inFlight);
+
+        producer.send(quote);
+        producer.send(quote);
+        verify(changeFilter, never()).recordPublished(any());
+
+        inFlight.complete(null);
+        verify(changeFilter).recordPublished(quote);
+    }
+
+    @Test
+    void publish_shouldGiveUpOnceSaturatedForTooLong() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(changeFilter.shouldPublish(any())).thenReturn(true);
+        when(kafkaTemplate.send(eq("market-quotes"), anyString(), any())).thenReturn(new CompletableFuture<>());
+        producer.send(quote);
+
+        StepVerifier.withVirtualTime(() -> producer.publish(quote))
+                .expectSubscription()
+                .thenAwait(MarketQuoteProducer.SATURATION_TIMEOUT.plusSeconds(1))
+                .verifyError(ProducerSaturatedException.class);
+        assertEquals(1.0, registry.counter("kafka.producer.sends", "result", "rejected").count());
+        verify(kafkaTemplate, times(1)).send(eq("market-quotes"), anyString(), any());
+    }
+
+    @Test
+    void publish_shouldWaitForPendingSendToComplete() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        CompletableFuture<SendResult<String, MarketQuote>> inFlight = new CompletableFuture<>();
+        when(changeFilter.shouldPublish(any())).thenReturn(true);
+        when(kafkaTemplate.send(eq("market-quotes"), anyString(), any()))
+                .thenReturn(inFlight, CompletableFuture.completedFuture(null));
+
+        producer.send(quote);
+        StepVerifier.create(producer.publish(quote))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .then(() -> inFlight.complete(null))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        assertEquals(0.0, registry.counter("kafka.producer.sends", "result", "rejected").count());
+        assertEquals(2.0, registry.counter("kafka.producer.sends", "result", "success").count());
+    }
+
+    @Test
+    void publish_shouldConsultChangeFilterOnlyOnSubscribe() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+
+        Mono<Void> publish = producer.publish(quote);
+        verifyNoInteractions(changeFilter);
+
+        when(changeFilter.shouldPublish(quote)).thenReturn(false);
+        StepVerifier.create(publish).verifyComplete();
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void send_shouldLogQuoteOnlyOnceAcknowledged() {
+        QuoteLogSampler logSampler = mock(QuoteLogSampler.class);
+        producer = new MarketQuoteProducer(kafkaTemplate, changeFilter, 1, registry, logSampler,
+                Schedulers.immediate(), 1, 1, Duration.ofSeconds(1));
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        CompletableFuture<SendResult<String, MarketQuote>> inFlight = new CompletableFuture<>();
+        when(changeFilter.shouldPublish(any())).thenReturn(true);
+        when(kafkaTemplate.send(eq("market-quotes"), anyString(), any())).thenReturn(inFlight);
+
+        producer.send(quote);
+        verifyNoInteractions(logSampler);
+
+        inFlight.complete(null);
+        verify(logSampler).sample("AAPL");
+    }
+
+    @Test
+    void send_shouldNotThrowWhenTemplateThrows() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(changeFilter.shouldPublish(quote)).thenReturn(true);
+        when(kafkaTemplate.send("market-quotes", "AAPL", quote)).thenThrow(new ProducerSaturatedException("full"));
+
+        assertTrue(producer.send(quote).isCompletedExceptionally());
+    }
+
+    @Test
+    void sendDetached_shouldSendOnBlockingScheduler() throws Exception {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        Scheduler scheduler = Schedulers.newSingle("blocking-test");
+        try {
+            producer = TestProducers.producer(kafkaTemplate, changeFilter, 1, registry, scheduler);
+            CompletableFuture<Thread> sender = new CompletableFuture<>();
+            when(changeFilter.shouldPublish(quote)).thenReturn(true);
+            when(kafkaTemplate.send("market-quotes", "AAPL", quote)).thenAnswer(invocation -> {
+                sender.complete(Thread.currentThread());
+                return new CompletableFuture<>();
+            });
+
+            producer.sendDetached(quote);
+
+            assertTrue(sender.get(5, TimeUnit.SECONDS).getName().startsWith("blocking-test"));
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void sendDetached_shouldCountRejectedWhenSchedulerIsDisposed() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        Scheduler scheduler = Schedulers.newSingle("blocking-test");
+        scheduler.dispose();
+        producer = TestProducers.producer(kafkaTemplate, changeFilter, 1, registry, scheduler);
+
+        producer.sendDetached(quote);
+
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(1.0, registry.counter("kafka.producer.sends", "result", "rejected").count());
+    }
+
+    @Test
+    void publishAll_transactional_shouldSendChangedQuotesInOneTransaction() {
+        MarketQuote aapl = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        MarketQuote msft = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(410.0).build();
+        MarketQuote unchanged = MarketQuote.newBuilder().setSymbol("TSLA").setPrice(170.0).build();
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(changeFilter.shouldPublish(any())).thenAnswer(invocation -> invocation.getArgument(0) != unchanged);
+        when(kafkaTemplate.send(eq("market-quotes"), anyString(), any())).thenReturn(new CompletableFuture<>());
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<KafkaOperations.OperationsCallback<String, MarketQuote, Object>>getArgument(0)
+                        .doInOperations(kafkaTemplate));
+
+        StepVerifier.create(producer.publishAll(List.of(aapl, unchanged, msft))).verifyComplete();
+
+        verify(kafkaTemplate, times(1)).executeInTransaction(any());
+        verify(kafkaTemplate).send("market-quotes", "AAPL", aapl);
+        verify(kafkaTemplate).send("market-quotes", "MSFT", msft);
+        verify(kafkaTemplate, never()).send("market-quotes", "TSLA", unchanged);
+        verify(changeFilter).recordPublished(aapl);
+        verify(changeFilter).recordPublished(msft);
+        assertEquals(1.0, registry.counter("kafka.producer.transactions", "result", "committed").count());
+        assertEquals(2.0, registry.counter("kafka.producer.sends", "result", "success").count());
+    }
+
+    @Test
+    void replay_shouldSendEveryQuoteInOrderWithoutTheChangeFilter() {
+        producer = TestProducers.producer(kafkaTemplate, changeFilter, 2, registry);
+        List<MarketQuote> quotes = List.of(
+                MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(1L).build(),
+                MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(2L).build(),
+                MarketQuote.newBuilder().setSymbol("AAPL").setPrice(151.0).setTimestamp(3L).build());
+        List<Long> sent = new java.util.ArrayList<>();
+        when(kafkaTemplate.send(eq("market-quotes"), eq("AAPL"), any())).thenAnswer(invocation -> {
+            sent.add(invocation.<MarketQuote>getArgument(2).getTimestamp());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        StepVerifier.create(producer.replay(quotes)).verifyComplete();
+
+        assertEquals(List.of(1L, 2L, 3L), sent);
+        verifyNoInteractions(changeFilter);
+        assertEquals(3.0, registry.counter("kafka.producer.sends", "result", "success").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_rebuild_shouldTagEveryRecordWithTheRun() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(1L).build();
+        ArgumentCaptor<ProducerRecord<String, MarketQuote>> record = ArgumentCaptor.forClass(ProducerRecord.class);
+        when(kafkaTemplate.send(record.capture())).thenReturn(CompletableFuture.completedFuture(null));
+
+        StepVerifier.create(producer.replay(List.of(quote), "market-quotes-rebuild", "run-1")).verifyComplete();
+
+        assertEquals("market-quotes-rebuild", record.getValue().topic());
+        assertEquals("AAPL", record.getValue().key());
+        assertEquals("run-1", new String(record.getValue().headers()
+                .lastHeader(MarketQuoteProducer.REBUILD_RUN_HEADER).value(), StandardCharsets.UTF_8));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void replay_shouldFailWhenASendFails() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(1L).build();
+        when(kafkaTemplate.send("market-quotes", "AAPL", quote))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")));
+
+        StepVerifier.create(producer.replay(List.of(quote))).verifyError(KafkaException.class);
+    }
+
+    @Test
+    void publishAll_abortedTransaction_shouldFailAndCountAbort() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(changeFilter.shouldPublish(quote)).thenReturn(true);
+        when(kafkaTemplate.executeInTransaction(any())).thenThrow(new KafkaException("fenced"));
+
+        StepVerifier.create(producer.publishAll(List.of(quote))).verifyError(KafkaException.class);
+
+        verify(changeFilter, never()).recordPublished(any());
+        assertEquals(1.0, registry.counter("kafka.producer.transactions", "result", "aborted").count());
+        assertEquals(1.0, registry.counter("kafka.producer.sends", "result", "failure").count());
+    }
+
+    @Test
+    void send_transactional_shouldCommitSingleSendsTogether() {
+        producer = new MarketQuoteProducer(kafkaTemplate, changeFilter, 2, registry, QuoteLogSampler.never(),
+                Schedulers.immediate(), 1, 2, Duration.ofMinutes(1));
+        MarketQuote aapl = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        MarketQuote msft = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(410.0).build();
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(changeFilter.shouldPublish(any())).thenReturn(true);
+        when(kafkaTemplate.send(eq("market-quotes"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<KafkaOperations.OperationsCallback<String, MarketQuote, Object>>getArgument(0)
+                        .doInOperations(kafkaTemplate));
+
+        CompletableFuture<SendResult<String, MarketQuote>> first = producer.send(aapl);
+        assertFalse(first.isDone());
+        CompletableFuture<SendResult<String, MarketQuote>> second = producer.send(msft);
+
+        assertTrue(first.isDone() && !first.isCompletedExceptionally());
+        assertTrue(second.isDone() && !second.isCompletedExceptionally());
+        verify(kafkaTemplate, times(1)).executeInTransaction(any());
+        verify(changeFilter).recordPublished(aapl);
+        verify(changeFilter).recordPublished(msft);
+        assertEquals(1.0, registry.counter("kafka.producer.transactions", "result", "committed").count());
+        assertEquals(2.0, registry.counter("kafka.producer.sends", "result", "success").count());
+    }
+
+    @Test
+    void send_transactional_shouldFailEverySendOfAnAbortedBatch() {
+        producer = new MarketQuoteProducer(kafkaTemplate, changeFilter, 2, registry, QuoteLogSampler.never(),
+                Schedulers.immediate(), 1, 2, Duration.ofMinutes(1));
+        MarketQuote aapl = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        MarketQuote msft = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(410.0).build();
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(changeFilter.shouldPublish(any())).thenReturn(true);
+        when(kafkaTemplate.executeInTransaction(any())).thenThrow(new KafkaException("fenced"));
+
+        CompletableFuture<SendResult<String, MarketQuote>> first = producer.send(aapl);
+        CompletableFuture<SendResult<String, MarketQuote>> second = producer.send(msft);
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        verify(changeFilter, never()).recordPublished(any());
+        assertEquals(1.0, registry.counter("kafka.producer.transactions", "result", "aborted").count());
+        // Both permits are back, so the next send is not rejected as saturated.
+        producer.send(aapl);
+        assertEquals(0.0, registry.counter("kafka.producer.sends", "result", "rejected").count());
+    }
+
+    @Test
+    void close_shouldCommitTheLingeringBatchAndFailLaterSends() {
+        producer = new MarketQuoteProducer(kafkaTemplate, changeFilter, 2, registry, QuoteLogSampler.never(),
+                Schedulers.immediate(), 1, 100, Duration.ofMinutes(1));
+        MarketQuote aapl = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(changeFilter.shouldPublish(any())).thenReturn(true);
+        when(kafkaTemplate.send(eq("market-quotes"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<KafkaOperations.OperationsCallback<String, MarketQuote, Object>>getArgument(0)
+                        .doInOperations(kafkaTemplate));
+
+        CompletableFuture<SendResult<String, MarketQuote>> lingering = producer.send(aapl);
+        assertFalse(lingering.isDone());
+        producer.close();
+
+        assertTrue(lingering.isDone() && !lingering.isCompletedExceptionally());
+        verify(kafkaTemplate, times(1)).executeInTransaction(any());
+        assertTrue(producer.send(aapl).isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,96 @@
+package com.marketpulse.aggregator.producer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Partition Skew Monitor Tests")
+class PartitionSkewMonitorTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should report NaN until a window completes")
+    void skew_beforeFirstWindow_isNaN() {
+        PartitionSkewMonitor monitor = monitor(4);
+        monitor.record(0);
+
+        assertThat(monitor.skew()).isNaN();
+    }
+
+    @Test
+    @DisplayName("Should report 1.0 for an even spread")
+    void skew_evenSpread_isOne() {
+        PartitionSkewMonitor monitor = monitor(4);
+        for (int partition = 0; partition < 4; partition++) {
+            monitor.record(partition);
+        }
+        advance(WINDOW);
+
+        assertThat(monitor.skew()).isEqualTo(1.0);
+        assertThat(gauge()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should count provisioned partitions that received nothing")
+    void skew_idlePartitions_countTowardsMean() {
+        PartitionSkewMonitor monitor = monitor(4);
+        monitor.record(0);
+        monitor.record(0);
+        monitor.record(0);
+        monitor.record(1);
+        advance(WINDOW);
+
+        // busiest 3 over a mean of 4 / 4 partitions
+        assertThat(monitor.skew()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should grow past the expected partition count")
+    void record_partitionBeyondExpected_growsCounts() {
+        PartitionSkewMonitor monitor = monitor(1);
+        monitor.record(0);
+        monitor.record(1);
+        advance(WINDOW);
+
+        assertThat(monitor.skew()).isEqualTo(1.0);
+        assertThat(registry.get("kafka.producer.partition.records").tag("partition", "1").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should report only the last complete window and NaN after an idle gap")
+    void skew_tracksLastCompleteWindow() {
+        PartitionSkewMonitor monitor = monitor(2);
+        monitor.record(0);
+        advance(WINDOW);
+        monitor.record(0);
+        monitor.record(1);
+        assertThat(monitor.skew()).isEqualTo(2.0);
+
+        advance(WINDOW);
+        assertThat(monitor.skew()).isEqualTo(1.0);
+
+        advance(WINDOW.multipliedBy(2));
+        assertThat(monitor.skew()).isNaN();
+    }
+
+    private PartitionSkewMonitor monitor(int partitions) {
+        return new PartitionSkewMonitor(registry, partitions, WINDOW, now::get);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private double gauge() {
+        return registry.get("kafka.producer.partition.skew").gauge().value();
+    }
+}
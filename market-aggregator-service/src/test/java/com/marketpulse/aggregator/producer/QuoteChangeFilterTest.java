@@ -0,0 +1,131 @@
+package com.marketpulse.aggregator.producer;
+
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Quote Change Filter Tests")
+class QuoteChangeFilterTest {
+
+    private static final Duration HEARTBEAT = Duration.ofSeconds(60);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should publish the first quote and suppress an identical one")
+    void shouldPublish_identicalQuote_isSuppressed() {
+        QuoteChangeFilter filter = filter(0);
+
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, 1L))).isTrue();
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, 1L))).isFalse();
+        assertThat(filter.suppressionRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should publish when price, volume or timestamp change")
+    void shouldPublish_changedFields_arePublished() {
+        QuoteChangeFilter filter = filter(0);
+        offer(filter, quote("AAPL", 150.0, 1_000.0, 1L));
+
+        assertThat(offer(filter, quote("AAPL", 150.5, 1_000.0, 1L))).isTrue();
+        assertThat(offer(filter, quote("AAPL", 150.5, 1_100.0, 1L))).isTrue();
+        assertThat(offer(filter, quote("AAPL", 150.5, 1_100.0, 2L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should treat price moves within epsilon as unchanged")
+    void shouldPublish_withinEpsilon_isSuppressed() {
+        QuoteChangeFilter filter = filter(0.01);
+        offer(filter, quote("AAPL", 150.0, 1_000.0, 1L));
+
+        assertThat(offer(filter, quote("AAPL", 150.005, 1_000.0, 1L))).isFalse();
+        assertThat(offer(filter, quote("AAPL", 150.02, 1_000.0, 1L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should treat missing fields as equal to missing fields")
+    void shouldPublish_nullFields_compareEqual() {
+        QuoteChangeFilter filter = filter(0);
+        MarketQuote sparse = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+
+        assertThat(offer(filter, sparse)).isTrue();
+        assertThat(offer(filter, sparse)).isFalse();
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, null))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should republish an unchanged quote once the heartbeat elapses")
+    void shouldPublish_heartbeatDue_isPublished() {
+        QuoteChangeFilter filter = filter(0);
+        offer(filter, quote("AAPL", 150.0, 1_000.0, 1L));
+
+        now.addAndGet(HEARTBEAT.toNanos() - 1);
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, 1L))).isFalse();
+        now.addAndGet(1);
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, 1L))).isTrue();
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, 1L))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should track many symbols independently")
+    void shouldPublish_manySymbols_trackedIndependently() {
+        QuoteChangeFilter filter = filter(0);
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(offer(filter, quote("SYM" + i, i, i, 1L))).isTrue();
+        }
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(offer(filter, quote("SYM" + i, i, i, 1L))).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish everything when disabled")
+    void shouldPublish_disabled_alwaysTrue() {
+        QuoteChangeFilter filter = new QuoteChangeFilter(false, 0, HEARTBEAT, 16, new SimpleMeterRegistry(), now::get);
+
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, 1L))).isTrue();
+        assertThat(offer(filter, quote("AAPL", 150.0, 1_000.0, 1L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep offering a quote until it is recorded as published")
+    void shouldPublish_unrecordedQuote_isOfferedAgain() {
+        QuoteChangeFilter filter = filter(0);
+        MarketQuote quote = quote("AAPL", 150.0, 1_000.0, 1L);
+
+        assertThat(filter.shouldPublish(quote)).isTrue();
+        assertThat(filter.shouldPublish(quote)).isTrue();
+        filter.recordPublished(quote);
+        assertThat(filter.shouldPublish(quote)).isFalse();
+    }
+
+    /**
+     * Checks the quote and, as the producer does after a successful send, records it.
+     */
+    private static boolean offer(QuoteChangeFilter filter, MarketQuote quote) {
+        boolean publish = filter.shouldPublish(quote);
+        if (publish) {
+            filter.recordPublished(quote);
+        }
+        return publish;
+    }
+
+    private QuoteChangeFilter filter(double epsilon) {
+        return new QuoteChangeFilter(true, epsilon, HEARTBEAT, 16, new SimpleMeterRegistry(), now::get);
+    }
+
+    private static MarketQuote quote(String symbol, double price, double volume, Long timestamp) {
+        return MarketQuote.newBuilder()
+                .setSymbol(symbol)
+                .setPrice(price)
+                .setVolume(volume)
+                .setTimestamp(timestamp)
+                .build();
+    }
+}
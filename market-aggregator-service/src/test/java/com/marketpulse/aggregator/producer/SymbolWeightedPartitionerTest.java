@@ -0,0 +1,141 @@
+package com.marketpulse.aggregator.producer;
+
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Symbol Weighted Partitioner Tests")
+class SymbolWeightedPartitionerTest {
+
+    private static final String TOPIC = "market-quotes";
+    private static final Node NODE = new Node(0, "localhost", 9092);
+
+    @Test
+    @DisplayName("Should put each hot symbol on its own partition, heaviest first")
+    void partition_hotSymbols_getDistinctPartitions() {
+        SymbolWeightedPartitioner partitioner = partitioner("SPY=10,AAPL=8,TSLA=6,NVDA=5");
+        Cluster cluster = cluster(6);
+
+        Set<Integer> partitions = new HashSet<>();
+        for (String symbol : List.of("SPY", "AAPL", "TSLA", "NVDA")) {
+            partitions.add(partition(partitioner, symbol, cluster));
+        }
+
+        assertThat(partitions).hasSize(4);
+        assertThat(partition(partitioner, "SPY", cluster)).isZero();
+        assertThat(partition(partitioner, "AAPL", cluster)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep ordinary symbols off partitions filled by a hot symbol")
+    void partition_coldSymbols_avoidHotPartitions() {
+        SymbolWeightedPartitioner partitioner = partitioner("SPY=10,AAPL=8");
+        Cluster cluster = cluster(6);
+        int spy = partition(partitioner, "SPY", cluster);
+        int aapl = partition(partitioner, "AAPL", cluster);
+
+        Set<Integer> cold = new HashSet<>();
+        IntStream.range(0, 1_000).forEach(i -> cold.add(partition(partitioner, "SYM" + i, cluster)));
+
+        assertThat(cold).doesNotContain(spy, aapl).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Should map every symbol to the same partition on every call")
+    void partition_isStablePerSymbol() {
+        SymbolWeightedPartitioner first = partitioner("SPY=10,AAPL=8");
+        SymbolWeightedPartitioner second = partitioner("AAPL=8, SPY=10");
+        Cluster cluster = cluster(6);
+
+        for (int i = 0; i < 200; i++) {
+            String symbol = "SYM" + i;
+            assertThat(partition(first, symbol, cluster)).isEqualTo(partition(first, symbol, cluster))
+                    .isEqualTo(partition(second, symbol, cluster));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match Kafka's keyed placement without weights")
+    void partition_noWeights_matchesMurmur2() {
+        SymbolWeightedPartitioner partitioner = partitioner(null);
+        Cluster cluster = cluster(6);
+
+        for (String symbol : List.of("AAPL", "MSFT", "SPY", "TSLA")) {
+            int expected = Utils.toPositive(Utils.murmur2(bytes(symbol))) % 6;
+            assertThat(partition(partitioner, symbol, cluster)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should recompute the placement when partitions are added")
+    void partition_partitionCountChange_recomputesPlacement() {
+        SymbolWeightedPartitioner partitioner = partitioner("SPY=10,AAPL=8,TSLA=6");
+        assertThat(partition(partitioner, "TSLA", cluster(2))).isEqualTo(1);
+
+        assertThat(partition(partitioner, "TSLA", cluster(6))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should look up hot symbols case-insensitively")
+    void partition_isCaseInsensitiveForHotSymbols() {
+        SymbolWeightedPartitioner partitioner = partitioner("spy=10,AAPL=8");
+        Cluster cluster = cluster(6);
+
+        assertThat(partition(partitioner, "SPY", cluster)).isZero();
+        assertThat(partition(partitioner, "aapl", cluster)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should accept weights as a string, a list or a map")
+    void parseWeights_acceptsStringListAndMap() {
+        Map<String, Double> expected = Map.of("SPY", 10.0, "AAPL", 2.5);
+
+        assertThat(SymbolWeightedPartitioner.parseWeights("SPY=10, aapl=2.5,")).isEqualTo(expected);
+        assertThat(SymbolWeightedPartitioner.parseWeights(List.of("SPY=10", "AAPL=2.5"))).isEqualTo(expected);
+        assertThat(SymbolWeightedPartitioner.parseWeights(Map.of("SPY", 10, "AAPL", "2.5"))).isEqualTo(expected);
+        assertThat(SymbolWeightedPartitioner.parseWeights("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed or non-positive weights")
+    void parseWeights_rejectsInvalidEntries() {
+        assertThatThrownBy(() -> SymbolWeightedPartitioner.parseWeights("SPY")).isInstanceOf(ConfigException.class);
+        assertThatThrownBy(() -> SymbolWeightedPartitioner.parseWeights("SPY=heavy")).isInstanceOf(ConfigException.class);
+        assertThatThrownBy(() -> SymbolWeightedPartitioner.parseWeights("SPY=0")).isInstanceOf(ConfigException.class);
+    }
+
+    private static SymbolWeightedPartitioner partitioner(String weights) {
+        SymbolWeightedPartitioner partitioner = new SymbolWeightedPartitioner();
+        partitioner.configure(weights == null ? Map.of() : Map.of(SymbolWeightedPartitioner.SYMBOL_WEIGHTS_CONFIG, weights));
+        return partitioner;
+    }
+
+    private static int partition(SymbolWeightedPartitioner partitioner, String symbol, Cluster cluster) {
+        return partitioner.partition(TOPIC, symbol, bytes(symbol), null, null, cluster);
+    }
+
+    private static Cluster cluster(int partitions) {
+        List<PartitionInfo> infos = IntStream.range(0, partitions)
+                .mapToObj(p -> new PartitionInfo(TOPIC, p, NODE, new Node[]{NODE}, new Node[]{NODE}))
+                .toList();
+        return new Cluster("test", List.of(NODE), infos, Set.of(), Set.of());
+    }
+
+    private static byte[] bytes(String symbol) {
+        return symbol.getBytes(StandardCharsets.UTF_8);
+    }
+}
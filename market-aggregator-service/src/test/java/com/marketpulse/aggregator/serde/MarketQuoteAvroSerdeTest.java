@@ -0,0 +1,174 @@
+package com.marketpulse.aggregator.serde;
+
+import com.marketpulse.avro.MarketQuote;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MarketQuote Avro Serde Tests")
+class MarketQuoteAvroSerdeTest {
+
+    private static final String TOPIC = "market-quotes";
+
+    private final MarketQuoteAvroSerializer serializer = new MarketQuoteAvroSerializer();
+    private final MarketQuoteAvroDeserializer deserializer = new MarketQuoteAvroDeserializer();
+
+    @Test
+    @DisplayName("Should round-trip every field")
+    void roundTrip_preservesAllFields() {
+        MarketQuote quote = fullQuote();
+
+        assertThat(deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, quote))).isEqualTo(quote);
+    }
+
+    @Test
+    @DisplayName("Should pass null through as a tombstone")
+    void nullValue_isNull() {
+        assertThat(serializer.serialize(TOPIC, null)).isNull();
+        assertThat(deserializer.deserialize(TOPIC, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should write Avro single-object encoding readable by the generated codec")
+    void wireFormat_isSingleObjectEncoding() throws IOException {
+        MarketQuote quote = fullQuote();
+
+        byte[] ours = serializer.serialize(TOPIC, quote);
+        byte[] generated = toArray(MarketQuote.getEncoder().encode(quote));
+
+        assertThat(ours).isEqualTo(generated);
+        assertThat(MarketQuote.getDecoder().decode(ours)).isEqualTo(quote);
+        assertThat(deserializer.deserialize(TOPIC, generated)).isEqualTo(quote);
+    }
+
+    @Test
+    @DisplayName("Should reuse per-thread buffers without leaking bytes between records")
+    void consecutiveRecords_doNotShareState() {
+        MarketQuote large = fullQuote();
+        MarketQuote small = MarketQuote.newBuilder().setSymbol("X").build();
+
+        byte[] first = serializer.serialize(TOPIC, large);
+        byte[] second = serializer.serialize(TOPIC, small);
+
+        assertThat(second.length).isLessThan(first.length);
+        assertThat(deserializer.deserialize(TOPIC, first)).isEqualTo(large);
+        assertThat(deserializer.deserialize(TOPIC, second)).isEqualTo(small);
+    }
+
+    @Test
+    @DisplayName("Should reject a record whose writer schema fingerprint is unknown")
+    void unknownFingerprint_isRejected() {
+        byte[] payload = serializer.serialize(TOPIC, fullQuote());
+        payload[5] ^= 0x7F;
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, payload))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("Unknown MarketQuote writer schema fingerprint");
+    }
+
+    @Test
+    @DisplayName("Should reject Confluent-framed or truncated records")
+    void foreignFraming_isRejected() {
+        byte[] confluentFramed = {0, 0, 0, 0, 1, 2, 'A'};
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, confluentFramed))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("not an Avro single-object encoded MarketQuote");
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, Arrays.copyOf(serializer.serialize(TOPIC, fullQuote()), 4)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @DisplayName("Should resolve records written with an older schema configured on the classpath")
+    void olderWriterSchema_isResolvedToCurrentSchema() throws IOException {
+        Schema v0 = schema("avro/MarketQuote-v0.avsc");
+        GenericRecord old = new GenericData.Record(v0);
+        old.put("symbol", "AAPL");
+        old.put("price", 150.0);
+        byte[] payload = write(v0, old);
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, payload)).isInstanceOf(SerializationException.class);
+
+        deserializer.configure(Map.of(MarketQuoteAvroDeserializer.WRITER_SCHEMAS_CONFIG, List.of("classpath:avro/MarketQuote-v0.avsc")), false);
+        MarketQuote quote = deserializer.deserialize(TOPIC, payload);
+
+        assertThat(quote.getSymbol()).isEqualTo("AAPL");
+        assertThat(quote.getPrice()).isEqualTo(150.0);
+        assertThat(quote.getVolume()).isNull();
+        assertThat(quote.getTimestamp()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fail fast on a missing writer schema resource")
+    void missingWriterSchema_failsOnConfigure() {
+        assertThatThrownBy(() -> deserializer.configure(Map.of(MarketQuoteAvroDeserializer.WRITER_SCHEMAS_CONFIG, "avro/missing.avsc"), false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("avro/missing.avsc");
+    }
+
+    private static MarketQuote fullQuote() {
+        return MarketQuote.newBuilder()
+                .setSymbol("AAPL")
+                .setName("Apple Inc.")
+                .setPrice(189.84)
+                .setChangesPercentage(0.58)
+                .setChange(1.1)
+                .setDayLow(187.45)
+                .setDayHigh(190.32)
+                .setYearHigh(199.62)
+                .setYearLow(164.08)
+                .setMarketCap(2.95e12)
+                .setPriceAvg50(182.54)
+                .setPriceAvg200(181.67)
+                .setVolume(53_600_542.0)
+                .setAvgVolume(55_446_373.0)
+                .setExchange("NASDAQ")
+                .setOpen(188.15)
+                .setPreviousClose(188.74)
+                .setEps(6.43)
+                .setPe(29.52)
+                .setEarningsAnnouncement("2024-05-02T20:30:00.000+0000")
+                .setSharesOutstanding(1.555e10)
+                .setTimestamp(1_714_766_401L)
+                .build();
+    }
+
+    private static Schema schema(String resource) throws IOException {
+        try (InputStream in = MarketQuoteAvroSerdeTest.class.getClassLoader().getResourceAsStream(resource)) {
+            return new Schema.Parser().parse(in);
+        }
+    }
+
+    private static byte[] write(Schema schema, GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(MarketQuoteAvroSerializer.header(SchemaNormalization.parsingFingerprint64(schema)));
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,169 @@
+package com.marketpulse.aggregator.stream;
+
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.exception.StreamCapacityException;
+import com.marketpulse.aggregator.exception.StreamSymbolLimitException;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Quote Stream Hub Tests")
+class QuoteStreamHubTest {
+
+    @Mock
+    private QuoteCache quoteCache;
+    @Mock
+    private MarketQuoteProducer marketQuoteProducer;
+
+    private final Map<String, Double> prices = new ConcurrentHashMap<>();
+    private QuoteStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(quoteCache.getQuote(anyString())).thenAnswer(invocation -> {
+            String symbol = invocation.getArgument(0);
+            return Mono.just(quote(symbol, prices.getOrDefault(symbol, 1.0)));
+        });
+        hub = new QuoteStreamHub(quoteCache, marketQuoteProducer, Duration.ofSeconds(1), 3, 2, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should fetch each symbol once per refresh however many subscribe")
+    void refresh_sharesOneFetchPerSymbol() {
+        List<MarketQuote> first = new ArrayList<>();
+        List<MarketQuote> second = new ArrayList<>();
+        Disposable a = hub.subscribe(List.of("AAPL", "msft")).subscribe(first::add);
+        Disposable b = hub.subscribe(List.of("AAPL")).subscribe(second::add);
+
+        assertThat(hub.refresh().block()).isEqualTo(2);
+
+        verify(quoteCache, times(1)).getQuote("AAPL");
+        verify(quoteCache, times(1)).getQuote("MSFT");
+        verify(marketQuoteProducer, times(2)).sendDetached(any());
+        assertThat(first).extracting(MarketQuote::getSymbol).containsExactlyInAnyOrder("AAPL", "MSFT");
+        assertThat(second).extracting(MarketQuote::getSymbol).containsExactly("AAPL");
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    @DisplayName("Should push only changed quotes and replay the latest to new subscribers")
+    void refresh_pushesChangesAndReplaysLatest() {
+        Disposable primer = hub.subscribe(List.of("AAPL")).subscribe();
+        hub.refresh().block();
+        assertThat(hub.refresh().block()).isZero();
+
+        StepVerifier.create(hub.subscribe(List.of("AAPL")))
+                .assertNext(quote -> assertThat(quote.getPrice()).isEqualTo(1.0))
+                .then(() -> {
+                    prices.put("AAPL", 2.0);
+                    hub.refresh().block();
+                })
+                .assertNext(quote -> assertThat(quote.getPrice()).isEqualTo(2.0))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        verify(marketQuoteProducer, times(2)).sendDetached(any());
+        primer.dispose();
+    }
+
+    @Test
+    @DisplayName("Should conflate to the latest quote for a subscriber that is not keeping up")
+    void slowSubscriber_getsLatestOnly() {
+        StalledSubscriber slow = new StalledSubscriber();
+        List<MarketQuote> fast = new ArrayList<>();
+        hub.subscribe(List.of("AAPL")).subscribe(slow);
+        Disposable fastSubscription = hub.subscribe(List.of("AAPL")).subscribe(fast::add);
+
+        for (int i = 1; i <= 5; i++) {
+            prices.put("AAPL", (double) i);
+            hub.refresh().block();
+        }
+        slow.request(10);
+
+        assertThat(fast).extracting(MarketQuote::getPrice).containsExactly(1.0, 2.0, 3.0, 4.0, 5.0);
+        assertThat(slow.received).extracting(MarketQuote::getPrice).containsExactly(5.0);
+        slow.dispose();
+        fastSubscription.dispose();
+    }
+
+    @Test
+    @DisplayName("Should drop a symbol's channel with its last subscriber")
+    void lastSubscriberLeaves_channelDropped() {
+        Disposable a = hub.subscribe(List.of("AAPL", "MSFT")).subscribe();
+        Disposable b = hub.subscribe(List.of("AAPL")).subscribe();
+        assertThat(hub.channelCount()).isEqualTo(2);
+
+        a.dispose();
+        assertThat(hub.channelCount()).isEqualTo(1);
+        b.dispose();
+
+        assertThat(hub.channelCount()).isZero();
+        assertThat(hub.subscriberCount()).isZero();
+        assertThat(hub.refresh().block()).isZero();
+        verify(quoteCache, times(0)).getQuote(eq("AAPL"));
+    }
+
+    @Test
+    @DisplayName("Should enforce subscriber and symbol limits")
+    void limits_rejectExcessSubscriptions() {
+        assertThrows(StreamSymbolLimitException.class, () -> hub.subscribe(List.of("AAPL", "MSFT", "TSLA")));
+        assertThrows(IllegalArgumentException.class, () -> hub.subscribe(List.of(" ", "")));
+
+        List<Disposable> open = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            open.add(hub.subscribe(List.of("AAPL")).subscribe());
+        }
+        StepVerifier.create(hub.subscribe(List.of("AAPL")))
+                .expectError(StreamCapacityException.class)
+                .verify(Duration.ofSeconds(1));
+
+        open.get(0).dispose();
+        StepVerifier.create(hub.subscribe(List.of("AAPL")))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        open.forEach(Disposable::dispose);
+    }
+
+    private static MarketQuote quote(String symbol, double price) {
+        return MarketQuote.newBuilder().setSymbol(symbol).setPrice(price).build();
+    }
+
+    private static final class StalledSubscriber extends BaseSubscriber<MarketQuote> {
+        final List<MarketQuote> received = new ArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(org.reactivestreams.Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(MarketQuote quote) {
+            received.add(quote);
+        }
+    }
+}
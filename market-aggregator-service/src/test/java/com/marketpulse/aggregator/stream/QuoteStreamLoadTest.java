@@ -0,0 +1,129 @@
+package com.marketpulse.aggregator.stream;
+
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Attaches 10k subscribers (three symbols each out of a 200-symbol universe) to one hub,
+ * a tenth of which never request anything, and pushes 50 rounds of price changes through it.
+ * Checks that upstream fetches scale with symbols rather than subscribers, that fast
+ * subscribers see every update and that stalled ones only ever hold the latest quote per symbol.
+ */
+@DisplayName("Quote Stream Load Tests")
+class QuoteStreamLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteStreamLoadTest.class);
+    private static final int SUBSCRIBERS = 10_000;
+    private static final int UNIVERSE = 200;
+    private static final int SYMBOLS_PER_SUBSCRIBER = 3;
+    private static final int ROUNDS = 50;
+
+    @Test
+    @DisplayName("Should fan out to 10k subscribers with one fetch per symbol and bounded buffering")
+    void tenThousandSubscribers() {
+        AtomicInteger round = new AtomicInteger();
+        AtomicLong fetches = new AtomicLong();
+        QuoteCache quoteCache = mock(QuoteCache.class);
+        when(quoteCache.getQuote(anyString())).thenAnswer(invocation -> {
+            fetches.incrementAndGet();
+            return Mono.just(MarketQuote.newBuilder()
+                    .setSymbol(invocation.getArgument(0))
+                    .setPrice(100.0 + round.get())
+                    .build());
+        });
+        QuoteStreamHub hub = new QuoteStreamHub(quoteCache, mock(MarketQuoteProducer.class), Duration.ofSeconds(1),
+                SUBSCRIBERS, SYMBOLS_PER_SUBSCRIBER, new SimpleMeterRegistry());
+
+        long heapBefore = usedHeap();
+        List<CountingSubscriber> subscribers = new ArrayList<>(SUBSCRIBERS);
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            CountingSubscriber subscriber = new CountingSubscriber(i % 10 != 0);
+            List<String> symbols = new ArrayList<>();
+            for (int s = 0; s < SYMBOLS_PER_SUBSCRIBER; s++) {
+                symbols.add("SYM" + (i + s * 67) % UNIVERSE);
+            }
+            hub.subscribe(symbols).subscribe(subscriber);
+            subscribers.add(subscriber);
+        }
+        long heapSubscribed = usedHeap();
+
+        long start = System.nanoTime();
+        for (int r = 1; r <= ROUNDS; r++) {
+            round.set(r);
+            hub.refresh().block(Duration.ofSeconds(10));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long heapAfterRounds = usedHeap();
+
+        long delivered = subscribers.stream().mapToLong(subscriber -> subscriber.received).sum();
+        log.info("{} subscribers, {} rounds: {} fetches, {} deliveries in {}s ({} deliveries/s); "
+                        + "heap +{} MB after subscribing, +{} MB after rounds",
+                SUBSCRIBERS, ROUNDS, fetches.get(), delivered, String.format("%.2f", seconds),
+                Math.round(delivered / seconds), (heapSubscribed - heapBefore) >> 20, (heapAfterRounds - heapSubscribed) >> 20);
+
+        assertThat(hub.channelCount()).isEqualTo(UNIVERSE);
+        assertThat(fetches.get()).isEqualTo((long) UNIVERSE * ROUNDS);
+        for (CountingSubscriber subscriber : subscribers) {
+            if (subscriber.fast) {
+                assertThat(subscriber.received).isEqualTo(SYMBOLS_PER_SUBSCRIBER * ROUNDS);
+            } else {
+                assertThat(subscriber.received).isZero();
+                subscriber.request(Long.MAX_VALUE);
+                assertThat(subscriber.received).isEqualTo(SYMBOLS_PER_SUBSCRIBER);
+                assertThat(subscriber.lastPrice).isEqualTo(100.0 + ROUNDS);
+            }
+        }
+        subscribers.forEach(BaseSubscriber::dispose);
+        assertThat(hub.subscriberCount()).isZero();
+        assertThat(hub.channelCount()).isZero();
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class CountingSubscriber extends BaseSubscriber<MarketQuote> {
+        final boolean fast;
+        long received;
+        double lastPrice;
+
+        CountingSubscriber(boolean fast) {
+            this.fast = fast;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (fast) {
+                subscription.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(MarketQuote quote) {
+            received++;
+            lastPrice = quote.getPrice();
+        }
+    }
+}
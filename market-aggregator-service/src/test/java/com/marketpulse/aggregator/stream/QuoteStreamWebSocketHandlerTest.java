@@ -0,0 +1,97 @@
+package com.marketpulse.aggregator.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketpulse.aggregator.client.QuoteCache;
+import com.marketpulse.aggregator.config.AvroJacksonModule;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Quote Stream WebSocket Handler Tests")
+class QuoteStreamWebSocketHandlerTest {
+
+    @Mock
+    private QuoteCache quoteCache;
+    @Mock
+    private MarketQuoteProducer marketQuoteProducer;
+    @Mock
+    private WebSocketSession session;
+
+    private QuoteStreamHub hub;
+    private QuoteStreamWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(quoteCache.getQuote(anyString())).thenAnswer(invocation ->
+                Mono.just(MarketQuote.newBuilder().setSymbol(invocation.getArgument(0)).setPrice(42.0).build()));
+        hub = new QuoteStreamHub(quoteCache, marketQuoteProducer, Duration.ofSeconds(1), 10, 5, new SimpleMeterRegistry());
+        handler = new QuoteStreamWebSocketHandler(hub, new ObjectMapper().registerModule(new AvroJacksonModule()));
+    }
+
+    @Test
+    @DisplayName("Should send each quote update as a JSON text frame")
+    void handle_sendsJsonFrames() {
+        connect("/quotes/stream/ws?symbols=msft");
+        List<String> frames = new CopyOnWriteArrayList<>();
+        when(session.textMessage(anyString())).thenAnswer(invocation -> new WebSocketMessage(WebSocketMessage.Type.TEXT,
+                DefaultDataBufferFactory.sharedInstance.wrap(((String) invocation.getArgument(0)).getBytes(StandardCharsets.UTF_8))));
+        when(session.send(any())).thenAnswer(invocation -> Flux.from(invocation.<Publisher<WebSocketMessage>>getArgument(0))
+                .doOnNext(message -> frames.add(message.getPayloadAsText()))
+                .then());
+        when(session.receive()).thenReturn(Flux.never());
+
+        Disposable connection = handler.handle(session).subscribe();
+        hub.refresh().block();
+
+        assertThat(frames).hasSize(1);
+        assertThat(frames.get(0)).contains("\"symbol\":\"MSFT\"").contains("\"price\":42.0").doesNotContain("schema");
+        connection.dispose();
+        assertThat(hub.subscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close with a policy violation when no symbol is given")
+    void handle_noSymbols_closes() {
+        connect("/quotes/stream/ws");
+        when(session.close(any())).thenReturn(Mono.empty());
+
+        handler.handle(session).block(Duration.ofSeconds(1));
+
+        verify(session).close(CloseStatus.POLICY_VIOLATION.withReason("Symbols must not be blank"));
+    }
+
+    private void connect(String path) {
+        when(session.getHandshakeInfo()).thenReturn(
+                new HandshakeInfo(URI.create("ws://localhost" + path), new HttpHeaders(), Mono.empty(), null));
+    }
+}
@@ -0,0 +1,127 @@
+package com.marketpulse.aggregator.support;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for the FMP quote endpoint. Answers {@code GET /quote/{a,b,c}} with one
+ * quote per requested symbol after a configurable delay and counts upstream calls. Single
+ * requests can be slowed down with {@link #queueLatencies}, and {@link #setStatus} makes
+ * every request fail with the given HTTP status. {@code GET /historical-price-full/{symbol}}
+ * answers with one daily bar per day of the requested range, newest first, and records the
+ * range in {@link #historyRequests}.
+ */
+public class StubFmpServer implements AutoCloseable {
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final Queue<String> historyRequests = new ConcurrentLinkedQueue<>();
+    private final Queue<Duration> queuedLatencies = new ConcurrentLinkedQueue<>();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int status = 200;
+    private final DisposableServer server;
+
+    public StubFmpServer() {
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/quote/{symbols}", (request, response) -> {
+                    requestCount.incrementAndGet();
+                    Duration delay = Objects.requireNonNullElse(queuedLatencies.poll(), latency);
+                    if (status != 200) {
+                        return response.status(status)
+                                .sendString(Mono.just("{\"Error Message\":\"stub failure\"}").delayElement(delay));
+                    }
+                    String symbols = URLDecoder.decode(request.param("symbols"), StandardCharsets.UTF_8);
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.just(quotesJson(symbols)).delayElement(delay));
+                })
+                .get("/historical-price-full/{symbol}", (request, response) -> {
+                    requestCount.incrementAndGet();
+                    if (status != 200) {
+                        return response.status(status).sendString(Mono.just("{\"Error Message\":\"stub failure\"}"));
+                    }
+                    QueryStringDecoder query = new QueryStringDecoder(request.uri());
+                    LocalDate from = LocalDate.parse(query.parameters().get("from").get(0));
+                    LocalDate to = LocalDate.parse(query.parameters().get("to").get(0));
+                    historyRequests.add(request.param("symbol") + " " + from + ".." + to);
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.just(historyJson(request.param("symbol"), from, to)));
+                }))
+                .bindNow();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    public void resetRequestCount() {
+        requestCount.set(0);
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Latencies for the next requests, in arrival order; later requests use {@link #setLatency}.
+     */
+    public void queueLatencies(Duration... latencies) {
+        queuedLatencies.addAll(Arrays.asList(latencies));
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * Ranges requested from the history endpoint, as {@code SYMBOL from..to}, in arrival order.
+     */
+    public List<String> historyRequests() {
+        return List.copyOf(historyRequests);
+    }
+
+    public static double priceOf(String symbol) {
+        return 100.0 + Math.floorMod(symbol.hashCode(), 1000) / 10.0;
+    }
+
+    private static String quotesJson(String symbols) {
+        return Arrays.stream(symbols.split(","))
+                .map(symbol -> symbol.trim().toUpperCase(Locale.ROOT))
+                .map(symbol -> "{\"symbol\":\"" + symbol + "\",\"price\":" + priceOf(symbol) + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String historyJson(String symbol, LocalDate from, LocalDate to) {
+        StringBuilder bars = new StringBuilder();
+        for (LocalDate day = to; !day.isBefore(from); day = day.minusDays(1)) {
+            bars.append(bars.isEmpty() ? "" : ",")
+                    .append("{\"date\":\"").append(day).append("\",\"close\":").append(100 + day.getDayOfMonth())
+                    .append(",\"volume\":").append(day.getDayOfYear()).append('}');
+        }
+        return "{\"symbol\":\"" + symbol + "\",\"historical\":[" + bars + "]}";
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
@@ -0,0 +1,41 @@
+package com.marketpulse.aggregator.support;
+
+import com.marketpulse.aggregator.client.FmpCircuitBreaker;
+import com.marketpulse.aggregator.client.FmpClient;
+import com.marketpulse.aggregator.client.FmpRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Builds plain {@link FmpClient}s for tests: a fixed 3s timeout, no rate limit, hedging,
+ * circuit breaker or fallback cache, and metrics in a registry of their own. The disabled
+ * limiter and breaker are available on their own too.
+ */
+public final class TestFmpClients {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    private TestFmpClients() {
+    }
+
+    public static FmpClient plain(WebClient.Builder webClientBuilder, String apiKey, String baseUrl) {
+        return new FmpClient(webClientBuilder, apiKey, baseUrl, noRateLimit(), noCircuitBreaker(),
+                TIMEOUT, TIMEOUT, 1.0, false, Duration.ZERO, 0, new SimpleMeterRegistry());
+    }
+
+    /**
+     * A limiter that never throttles.
+     */
+    public static FmpRateLimiter noRateLimit() {
+        return new FmpRateLimiter(false, 1, 1, Duration.ZERO);
+    }
+
+    /**
+     * A breaker that never opens.
+     */
+    public static FmpCircuitBreaker noCircuitBreaker() {
+        return new FmpCircuitBreaker(false, 1, 1, 1.0, Duration.ZERO, new SimpleMeterRegistry());
+    }
+}
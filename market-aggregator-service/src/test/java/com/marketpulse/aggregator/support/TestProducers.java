@@ -0,0 +1,39 @@
+package com.marketpulse.aggregator.support;
+
+import com.marketpulse.aggregator.logging.QuoteLogSampler;
+import com.marketpulse.aggregator.producer.MarketQuoteProducer;
+import com.marketpulse.aggregator.producer.QuoteChangeFilter;
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * Builds {@link MarketQuoteProducer}s for tests: one partition, no produced-quote logging,
+ * transactional single sends committed one at a time and, unless a scheduler is given, sends
+ * on the calling thread.
+ */
+public final class TestProducers {
+
+    private TestProducers() {
+    }
+
+    public static MarketQuoteProducer producer(KafkaTemplate<String, MarketQuote> kafkaTemplate,
+                                               QuoteChangeFilter changeFilter,
+                                               int maxPendingSends,
+                                               MeterRegistry meterRegistry) {
+        return producer(kafkaTemplate, changeFilter, maxPendingSends, meterRegistry, Schedulers.immediate());
+    }
+
+    public static MarketQuoteProducer producer(KafkaTemplate<String, MarketQuote> kafkaTemplate,
+                                               QuoteChangeFilter changeFilter,
+                                               int maxPendingSends,
+                                               MeterRegistry meterRegistry,
+                                               Scheduler blockingScheduler) {
+        return new MarketQuoteProducer(kafkaTemplate, changeFilter, maxPendingSends, meterRegistry,
+                QuoteLogSampler.never(), blockingScheduler, 1, 1, Duration.ofSeconds(1));
+    }
+}
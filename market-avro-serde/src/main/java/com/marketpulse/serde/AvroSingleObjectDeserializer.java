@@ -0,0 +1,117 @@
+package com.marketpulse.serde;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry-free deserializer for records written by {@link AvroSingleObjectSerializer}.
+ * The writer schema is looked up by the fingerprint in the record header among schemas known
+ * locally: the compiled reader schema plus any older versions listed under the writer-schemas
+ * config key, which are resolved against the reader schema. A record with an unknown
+ * fingerprint fails instead of being decoded with the wrong layout.
+ */
+public class AvroSingleObjectDeserializer<T extends SpecificRecord> implements Deserializer<T> {
+
+    private static final ThreadLocal<BinaryDecoder> DECODER = new ThreadLocal<>();
+
+    private final Schema readerSchema;
+    private final String writerSchemasConfig;
+    private final Map<Long, SpecificDatumReader<T>> readers = new ConcurrentHashMap<>();
+
+    public AvroSingleObjectDeserializer(Schema readerSchema) {
+        this(readerSchema, null);
+    }
+
+    /**
+     * @param writerSchemasConfig config key holding the classpath locations of older writer
+     *                            schemas, as a comma-separated string or a list; may be null
+     */
+    public AvroSingleObjectDeserializer(Schema readerSchema, String writerSchemasConfig) {
+        this.readerSchema = readerSchema;
+        this.writerSchemasConfig = writerSchemasConfig;
+        registerWriterSchema(readerSchema);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (writerSchemasConfig == null) {
+            return;
+        }
+        for (String location : locations(configs.get(writerSchemasConfig))) {
+            registerWriterSchema(load(location));
+        }
+    }
+
+    public void registerWriterSchema(Schema writerSchema) {
+        readers.put(SchemaNormalization.parsingFingerprint64(writerSchema),
+                new SpecificDatumReader<>(writerSchema, readerSchema, SpecificData.getForSchema(readerSchema)));
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        byte[] marker = AvroSingleObjectSerializer.MARKER;
+        int headerLength = AvroSingleObjectSerializer.HEADER_LENGTH;
+        if (data.length < headerLength || data[0] != marker[0] || data[1] != marker[1]) {
+            throw new SerializationException("Record on " + topic + " is not an Avro single-object encoded "
+                    + readerSchema.getName());
+        }
+        long fingerprint = ByteBuffer.wrap(data, marker.length, Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .getLong();
+        SpecificDatumReader<T> reader = readers.get(fingerprint);
+        if (reader == null) {
+            throw new SerializationException("Unknown " + readerSchema.getName() + " writer schema fingerprint "
+                    + Long.toHexString(fingerprint) + " on " + topic);
+        }
+        BinaryDecoder decoder = DecoderFactory.get()
+                .binaryDecoder(data, headerLength, data.length - headerLength, DECODER.get());
+        DECODER.set(decoder);
+        try {
+            return reader.read(null, decoder);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to deserialize " + readerSchema.getName() + " from " + topic, e);
+        }
+    }
+
+    private static Collection<String> locations(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        Collection<?> raw = value instanceof Collection<?> collection ? collection : List.of(value.toString().split(","));
+        return raw.stream().map(Object::toString).map(String::trim).filter(location -> !location.isEmpty()).toList();
+    }
+
+    private Schema load(String location) {
+        String resource = location.startsWith("classpath:") ? location.substring("classpath:".length()) : location;
+        resource = resource.startsWith("/") ? resource.substring(1) : resource;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException(readerSchema.getName() + " writer schema not found on classpath: "
+                        + location);
+            }
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read " + readerSchema.getName() + " writer schema "
+                    + location, e);
+        }
+    }
+}
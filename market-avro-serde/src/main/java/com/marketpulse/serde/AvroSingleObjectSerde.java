@@ -0,0 +1,36 @@
+package com.marketpulse.serde;
+
+import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * {@link AvroSingleObjectSerializer} and {@link AvroSingleObjectDeserializer} as one serde,
+ * for Kafka Streams and for producers that are handed serializer instances.
+ */
+public class AvroSingleObjectSerde<T extends SpecificRecord> implements Serde<T> {
+
+    private final AvroSingleObjectSerializer<T> serializer;
+    private final AvroSingleObjectDeserializer<T> deserializer;
+
+    public AvroSingleObjectSerde(Schema schema) {
+        this(new AvroSingleObjectSerializer<>(schema), new AvroSingleObjectDeserializer<>(schema));
+    }
+
+    public AvroSingleObjectSerde(AvroSingleObjectSerializer<T> serializer, AvroSingleObjectDeserializer<T> deserializer) {
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+    }
+
+    @Override
+    public Serializer<T> serializer() {
+        return serializer;
+    }
+
+    @Override
+    public Deserializer<T> deserializer() {
+        return deserializer;
+    }
+}
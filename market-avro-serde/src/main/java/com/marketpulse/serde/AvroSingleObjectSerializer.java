@@ -0,0 +1,80 @@
+package com.marketpulse.serde;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Registry-free serializer for generated Avro records. Records are written in Avro
+ * single-object encoding: the two-byte marker, the CRC-64 fingerprint of the schema compiled
+ * into the service, then the binary record. The buffer, encoder and datum writer are kept per
+ * thread, so a send allocates only the returned array.
+ *
+ * <p>Read back with {@link AvroSingleObjectDeserializer}, or with the generated
+ * {@code getDecoder()}.
+ */
+public class AvroSingleObjectSerializer<T extends SpecificRecord> implements Serializer<T> {
+
+    // Avro single-object encoding marker, followed by the little-endian schema fingerprint.
+    static final byte[] MARKER = {(byte) 0xC3, 0x01};
+    static final int HEADER_LENGTH = MARKER.length + Long.BYTES;
+
+    private final Schema schema;
+    private final byte[] header;
+    private final ThreadLocal<Encoding> encoding;
+
+    public AvroSingleObjectSerializer(Schema schema) {
+        this.schema = schema;
+        this.header = header(SchemaNormalization.parsingFingerprint64(schema));
+        this.encoding = ThreadLocal.withInitial(Encoding::new);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return encoding.get().encode(value);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to serialize " + schema.getName() + " for topic " + topic, e);
+        }
+    }
+
+    /**
+     * Single-object header for a writer schema with the given fingerprint.
+     */
+    public static byte[] header(long fingerprint) {
+        return ByteBuffer.allocate(HEADER_LENGTH)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .put(MARKER)
+                .putLong(fingerprint)
+                .array();
+    }
+
+    private final class Encoding {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        private final SpecificDatumWriter<T> writer = new SpecificDatumWriter<>(schema, SpecificData.getForSchema(schema));
+        private BinaryEncoder encoder;
+
+        byte[] encode(T value) throws IOException {
+            buffer.reset();
+            buffer.writeBytes(header);
+            encoder = EncoderFactory.get().binaryEncoder(buffer, encoder);
+            writer.write(value, encoder);
+            encoder.flush();
+            return buffer.toByteArray();
+        }
+    }
+}
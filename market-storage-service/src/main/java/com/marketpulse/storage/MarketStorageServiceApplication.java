@@ -0,0 +1,11 @@
+package com.marketpulse.storage;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class MarketStorageServiceApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(MarketStorageServiceApplication.class, args);
+    }
+}
@@ -0,0 +1,80 @@
+package com.marketpulse.storage.analytics;
+
+import com.marketpulse.avro.MarketQuoteAnalytics;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Interactive queries against the {@link QuoteAnalyticsTopology#STORE} store. With
+ * {@code analytics.application-server} set, each symbol is owned by one instance and
+ * {@link #remoteOwner} names it when that is not this one; without it the service assumes a
+ * single instance and always reads the local store.
+ */
+@Service
+@ConditionalOnProperty(prefix = "analytics", name = "enabled", havingValue = "true")
+public class QuoteAnalyticsQueryService {
+
+    private final StreamsBuilderFactoryBean streamsBuilder;
+    private final HostInfo self;
+
+    @Autowired
+    public QuoteAnalyticsQueryService(StreamsBuilderFactoryBean streamsBuilder,
+                                      @Value("${analytics.application-server:}") String applicationServer) {
+        this.streamsBuilder = streamsBuilder;
+        this.self = applicationServer.isBlank() ? null : HostInfo.buildFromEndpoint(applicationServer);
+    }
+
+    /**
+     * The instance that owns the symbol if it is not this one.
+     *
+     * @throws IllegalStateException while the streams client is not running
+     */
+    public Optional<HostInfo> remoteOwner(String symbol) {
+        if (self == null) {
+            return Optional.empty();
+        }
+        KeyQueryMetadata metadata = running().queryMetadataForKey(
+                QuoteAnalyticsTopology.STORE, normalize(symbol), Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new IllegalStateException("Analytics store is rebalancing");
+        }
+        return self.equals(metadata.activeHost()) ? Optional.empty() : Optional.of(metadata.activeHost());
+    }
+
+    /**
+     * Latest analytics for the symbol from the local store.
+     *
+     * @throws IllegalStateException while the streams client is not running
+     */
+    public Optional<MarketQuoteAnalytics> findLocal(String symbol) {
+        String key = normalize(symbol);
+        ReadOnlyKeyValueStore<String, QuoteAnalyticsState> store = running().store(
+                StoreQueryParameters.fromNameAndType(QuoteAnalyticsTopology.STORE, QueryableStoreTypes.keyValueStore()));
+        return Optional.ofNullable(store.get(key)).map(state -> state.toAnalytics(key));
+    }
+
+    private KafkaStreams running() {
+        KafkaStreams streams = streamsBuilder.getKafkaStreams();
+        if (streams == null || streams.state() != KafkaStreams.State.RUNNING) {
+            throw new IllegalStateException("Analytics streams are not running");
+        }
+        return streams;
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
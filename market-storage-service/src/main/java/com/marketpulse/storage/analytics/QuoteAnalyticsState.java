@@ -0,0 +1,217 @@
+package com.marketpulse.storage.analytics;
+
+import com.marketpulse.avro.MarketQuoteAnalytics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Running analytics for one symbol, kept in the RocksDB store between quotes.
+ *
+ * <p>Moving averages use a ring of the last {@code longPeriods} prices with running sums for
+ * both periods, so each quote costs O(1). VWAP is rolling over {@code vwapBuckets} buckets of
+ * {@code vwapBucketMillis} each; a bucket is reused once it falls out of the window, so the
+ * window slides in bucket-sized steps. Traded volume is the increase in the quote's
+ * cumulative day volume, as in the candle engine. VWAP, open and the volume baseline reset
+ * when the session day changes; moving averages carry across sessions.
+ */
+final class QuoteAnalyticsState {
+
+    private static final byte VERSION = 1;
+
+    final int shortPeriods;
+    final int longPeriods;
+    final int vwapBuckets;
+    final long vwapBucketMillis;
+
+    long sessionDay = Long.MIN_VALUE;
+    long lastTimestamp = Long.MIN_VALUE;
+    double lastPrice = Double.NaN;
+    double lastCumulativeVolume = Double.NaN;
+    double open = Double.NaN;
+
+    private final double[] prices;
+    private int priceCount;
+    private int nextPrice;
+    private double shortSum;
+    private double longSum;
+
+    private final long[] bucketIndex;
+    private final double[] bucketNotional;
+    private final double[] bucketVolume;
+
+    QuoteAnalyticsState(int shortPeriods, int longPeriods, int vwapBuckets, long vwapBucketMillis) {
+        this.shortPeriods = shortPeriods;
+        this.longPeriods = longPeriods;
+        this.vwapBuckets = vwapBuckets;
+        this.vwapBucketMillis = vwapBucketMillis;
+        this.prices = new double[longPeriods];
+        this.bucketIndex = new long[vwapBuckets];
+        this.bucketNotional = new double[vwapBuckets];
+        this.bucketVolume = new double[vwapBuckets];
+        Arrays.fill(bucketIndex, Long.MIN_VALUE);
+    }
+
+    boolean hasSameShape(int shortPeriods, int longPeriods, int vwapBuckets, long vwapBucketMillis) {
+        return this.shortPeriods == shortPeriods && this.longPeriods == longPeriods
+                && this.vwapBuckets == vwapBuckets && this.vwapBucketMillis == vwapBucketMillis;
+    }
+
+    /**
+     * Folds one quote in.
+     *
+     * @param quotedOpen the quote's own open, or NaN
+     * @param cumulativeVolume the quote's cumulative day volume, or NaN
+     */
+    void update(long day, long timestamp, double price, double quotedOpen, double cumulativeVolume) {
+        if (day != sessionDay) {
+            sessionDay = day;
+            open = Double.NaN;
+            lastCumulativeVolume = Double.NaN;
+            Arrays.fill(bucketIndex, Long.MIN_VALUE);
+        }
+        if (!Double.isNaN(quotedOpen) && quotedOpen > 0) {
+            open = quotedOpen;
+        } else if (Double.isNaN(open)) {
+            open = price;
+        }
+
+        double traded = 0.0;
+        if (!Double.isNaN(cumulativeVolume)) {
+            if (!Double.isNaN(lastCumulativeVolume)) {
+                traded = cumulativeVolume >= lastCumulativeVolume ? cumulativeVolume - lastCumulativeVolume : cumulativeVolume;
+            }
+            lastCumulativeVolume = cumulativeVolume;
+        }
+        if (traded > 0) {
+            long index = Math.floorDiv(timestamp, vwapBucketMillis);
+            int slot = (int) Math.floorMod(index, (long) vwapBuckets);
+            if (bucketIndex[slot] != index) {
+                bucketIndex[slot] = index;
+                bucketNotional[slot] = 0.0;
+                bucketVolume[slot] = 0.0;
+            }
+            bucketNotional[slot] += price * traded;
+            bucketVolume[slot] += traded;
+        }
+
+        if (priceCount >= shortPeriods) {
+            shortSum -= prices[Math.floorMod(nextPrice - shortPeriods, longPeriods)];
+        }
+        if (priceCount == longPeriods) {
+            longSum -= prices[nextPrice];
+        } else {
+            priceCount++;
+        }
+        prices[nextPrice] = price;
+        shortSum += price;
+        longSum += price;
+        nextPrice = (nextPrice + 1) % longPeriods;
+        if (nextPrice == 0) {
+            resum();
+        }
+
+        lastTimestamp = timestamp;
+        lastPrice = price;
+    }
+
+    // Running sums pick up rounding error; recompute them exactly once per lap of the ring.
+    private void resum() {
+        shortSum = 0.0;
+        longSum = 0.0;
+        for (int i = 0; i < priceCount; i++) {
+            double price = prices[Math.floorMod(nextPrice - 1 - i, longPeriods)];
+            longSum += price;
+            if (i < shortPeriods) {
+                shortSum += price;
+            }
+        }
+    }
+
+    double vwap() {
+        long current = Math.floorDiv(lastTimestamp, vwapBucketMillis);
+        double notional = 0.0;
+        double volume = 0.0;
+        for (int i = 0; i < vwapBuckets; i++) {
+            if (bucketIndex[i] > current - vwapBuckets && bucketIndex[i] <= current) {
+                notional += bucketNotional[i];
+                volume += bucketVolume[i];
+            }
+        }
+        return volume > 0 ? notional / volume : Double.NaN;
+    }
+
+    double movingAverageShort() {
+        return priceCount >= shortPeriods ? shortSum / shortPeriods : Double.NaN;
+    }
+
+    double movingAverageLong() {
+        return priceCount >= longPeriods ? longSum / longPeriods : Double.NaN;
+    }
+
+    MarketQuoteAnalytics toAnalytics(String symbol) {
+        MarketQuoteAnalytics analytics = new MarketQuoteAnalytics();
+        analytics.setSymbol(symbol);
+        analytics.setTimestamp(lastTimestamp);
+        analytics.setPrice(lastPrice);
+        analytics.setVolume(orNull(lastCumulativeVolume));
+        analytics.setVwap(orNull(vwap()));
+        analytics.setMovingAverageShort(orNull(movingAverageShort()));
+        analytics.setMovingAverageLong(orNull(movingAverageLong()));
+        analytics.setOpen(orNull(open));
+        if (!Double.isNaN(open)) {
+            analytics.setChangeFromOpen(lastPrice - open);
+            analytics.setChangeFromOpenPercent(open != 0 ? (lastPrice - open) / open * 100.0 : null);
+        }
+        return analytics;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 3 * Integer.BYTES + 3 * Long.BYTES + 3 * Double.BYTES
+                + 2 * Integer.BYTES + 2 * Double.BYTES + longPeriods * Double.BYTES
+                + vwapBuckets * (Long.BYTES + 2 * Double.BYTES));
+        buffer.put(VERSION)
+                .putInt(shortPeriods).putInt(longPeriods).putInt(vwapBuckets).putLong(vwapBucketMillis)
+                .putLong(sessionDay).putLong(lastTimestamp)
+                .putDouble(lastPrice).putDouble(lastCumulativeVolume).putDouble(open)
+                .putInt(priceCount).putInt(nextPrice).putDouble(shortSum).putDouble(longSum);
+        for (double price : prices) {
+            buffer.putDouble(price);
+        }
+        for (int i = 0; i < vwapBuckets; i++) {
+            buffer.putLong(bucketIndex[i]).putDouble(bucketNotional[i]).putDouble(bucketVolume[i]);
+        }
+        return buffer.array();
+    }
+
+    static QuoteAnalyticsState fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported analytics state version " + version);
+        }
+        QuoteAnalyticsState state = new QuoteAnalyticsState(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+        state.sessionDay = buffer.getLong();
+        state.lastTimestamp = buffer.getLong();
+        state.lastPrice = buffer.getDouble();
+        state.lastCumulativeVolume = buffer.getDouble();
+        state.open = buffer.getDouble();
+        state.priceCount = buffer.getInt();
+        state.nextPrice = buffer.getInt();
+        state.shortSum = buffer.getDouble();
+        state.longSum = buffer.getDouble();
+        for (int i = 0; i < state.longPeriods; i++) {
+            state.prices[i] = buffer.getDouble();
+        }
+        for (int i = 0; i < state.vwapBuckets; i++) {
+            state.bucketIndex[i] = buffer.getLong();
+            state.bucketNotional[i] = buffer.getDouble();
+            state.bucketVolume[i] = buffer.getDouble();
+        }
+        return state;
+    }
+}
@@ -0,0 +1,22 @@
+package com.marketpulse.storage.analytics;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Fixed-layout binary serde for {@link QuoteAnalyticsState}; the store and its changelog
+ * topic hold these bytes.
+ */
+final class QuoteAnalyticsStateSerde implements Serde<QuoteAnalyticsState> {
+
+    @Override
+    public Serializer<QuoteAnalyticsState> serializer() {
+        return (topic, state) -> state == null ? null : state.toBytes();
+    }
+
+    @Override
+    public Deserializer<QuoteAnalyticsState> deserializer() {
+        return (topic, bytes) -> bytes == null ? null : QuoteAnalyticsState.fromBytes(bytes);
+    }
+}
@@ -0,0 +1,184 @@
+package com.marketpulse.storage.analytics;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.avro.MarketQuoteAnalytics;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueBytesStoreSupplier;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Kafka Streams topology turning {@code market-quotes} into per-symbol analytics on
+ * {@code market-quotes-enriched}: rolling VWAP, short and long simple moving averages and
+ * change from the session open. Running state per symbol lives in the RocksDB-backed
+ * {@link #STORE} and is exposed through interactive queries.
+ *
+ * <p>Input is expected keyed by symbol, as the aggregator produces it, so no repartition is
+ * needed. Quotes without a price, and quotes older than the last one seen for the symbol,
+ * are dropped; an exact repeat of the last quote is dropped too so a re-poll does not
+ * count twice in the averages. Event time is the quote's own timestamp, falling back to
+ * the record timestamp.
+ *
+ * <p>Given a rebuild topic, the topology also recomputes analytics from backfills replayed onto
+ * it, into {@link #REBUILD_STORE} rather than the live store, so history older than the live
+ * state is not dropped. A symbol's rebuild state starts afresh whenever a quote from a new
+ * backfill run, named by its {@value #REBUILD_RUN_HEADER} header, arrives. Rebuilt analytics go
+ * to the same output topic as live ones.
+ */
+public final class QuoteAnalyticsTopology {
+
+    public static final String STORE = "quote-analytics";
+    public static final String REBUILD_STORE = "quote-analytics-rebuild";
+    static final String REBUILD_RUNS_STORE = "quote-analytics-rebuild-runs";
+    // Set by the aggregator's backfill on every replayed record.
+    static final String REBUILD_RUN_HEADER = "marketpulse-rebuild-run";
+
+    private final String inputTopic;
+    private final String outputTopic;
+    private final Serde<MarketQuote> quoteSerde;
+    private final Serde<MarketQuoteAnalytics> analyticsSerde;
+    private final int shortPeriods;
+    private final int longPeriods;
+    private final int vwapBuckets;
+    private final long vwapBucketMillis;
+    private final ZoneId sessionZone;
+    private final String rebuildTopic;
+
+    /**
+     * @param rebuildTopic topic backfills are replayed onto for a rebuild, or null for none
+     */
+    public QuoteAnalyticsTopology(String inputTopic, String outputTopic,
+                                  Serde<MarketQuote> quoteSerde, Serde<MarketQuoteAnalytics> analyticsSerde,
+                                  int shortPeriods, int longPeriods, Duration vwapWindow, int vwapBuckets,
+                                  ZoneId sessionZone, String rebuildTopic) {
+        if (shortPeriods < 1 || longPeriods < shortPeriods) {
+            throw new IllegalArgumentException("analytics.moving-average periods must satisfy 1 <= short <= long");
+        }
+        if (vwapBuckets < 1 || vwapWindow.toMillis() < vwapBuckets) {
+            throw new IllegalArgumentException("analytics.vwap.window must be at least one millisecond per bucket");
+        }
+        this.inputTopic = inputTopic;
+        this.outputTopic = outputTopic;
+        this.quoteSerde = quoteSerde;
+        this.analyticsSerde = analyticsSerde;
+        this.shortPeriods = shortPeriods;
+        this.longPeriods = longPeriods;
+        this.vwapBuckets = vwapBuckets;
+        this.vwapBucketMillis = vwapWindow.toMillis() / vwapBuckets;
+        this.sessionZone = sessionZone;
+        this.rebuildTopic = rebuildTopic;
+    }
+
+    public void addTo(StreamsBuilder builder) {
+        addTo(builder, Stores.persistentKeyValueStore(STORE));
+    }
+
+    public Topology build() {
+        return build(Stores.persistentKeyValueStore(STORE));
+    }
+
+    Topology build(KeyValueBytesStoreSupplier storeSupplier) {
+        StreamsBuilder builder = new StreamsBuilder();
+        addTo(builder, storeSupplier);
+        return builder.build();
+    }
+
+    private void addTo(StreamsBuilder builder, KeyValueBytesStoreSupplier storeSupplier) {
+        // The cache absorbs repeated writes of a busy symbol between commits, so RocksDB and the
+        // changelog see one update per symbol per commit interval instead of one per quote.
+        builder.addStateStore(Stores.keyValueStoreBuilder(storeSupplier, Serdes.String(), new QuoteAnalyticsStateSerde())
+                .withCachingEnabled());
+        builder.stream(inputTopic, Consumed.with(Serdes.String(), quoteSerde))
+                .process(() -> new AnalyticsProcessor(STORE, false), STORE)
+                .to(outputTopic, Produced.with(Serdes.String(), analyticsSerde));
+        if (rebuildTopic != null) {
+            builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(REBUILD_STORE),
+                    Serdes.String(), new QuoteAnalyticsStateSerde()).withCachingEnabled());
+            builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(REBUILD_RUNS_STORE),
+                    Serdes.String(), Serdes.String()).withCachingEnabled());
+            builder.stream(rebuildTopic, Consumed.with(Serdes.String(), quoteSerde))
+                    .process(() -> new AnalyticsProcessor(REBUILD_STORE, true), REBUILD_STORE, REBUILD_RUNS_STORE)
+                    .to(outputTopic, Produced.with(Serdes.String(), analyticsSerde));
+        }
+    }
+
+    private final class AnalyticsProcessor implements Processor<String, MarketQuote, String, MarketQuoteAnalytics> {
+
+        private final String storeName;
+        private final boolean rebuild;
+        private ProcessorContext<String, MarketQuoteAnalytics> context;
+        private KeyValueStore<String, QuoteAnalyticsState> store;
+        private KeyValueStore<String, String> runs;
+
+        AnalyticsProcessor(String storeName, boolean rebuild) {
+            this.storeName = storeName;
+            this.rebuild = rebuild;
+        }
+
+        @Override
+        public void init(ProcessorContext<String, MarketQuoteAnalytics> context) {
+            this.context = context;
+            this.store = context.getStateStore(storeName);
+            if (rebuild) {
+                this.runs = context.getStateStore(REBUILD_RUNS_STORE);
+            }
+        }
+
+        @Override
+        public void process(Record<String, MarketQuote> record) {
+            MarketQuote quote = record.value();
+            if (quote == null || quote.getPrice() == null) {
+                return;
+            }
+            String symbol = quote.getSymbol().trim().toUpperCase(Locale.ROOT);
+            long timestamp = quote.getTimestamp() != null ? quote.getTimestamp() * 1000L : record.timestamp();
+            double price = quote.getPrice();
+            double cumulativeVolume = quote.getVolume() != null ? quote.getVolume() : Double.NaN;
+            if (rebuild) {
+                startRunIfNew(symbol, record.headers());
+            }
+
+            QuoteAnalyticsState state = store.get(symbol);
+            if (state == null || !state.hasSameShape(shortPeriods, longPeriods, vwapBuckets, vwapBucketMillis)) {
+                state = new QuoteAnalyticsState(shortPeriods, longPeriods, vwapBuckets, vwapBucketMillis);
+            } else if (timestamp < state.lastTimestamp || isRepeat(state, timestamp, price, cumulativeVolume)) {
+                return;
+            }
+            long day = Instant.ofEpochMilli(timestamp).atZone(sessionZone).toLocalDate().toEpochDay();
+            state.update(day, timestamp, price, quote.getOpen() != null ? quote.getOpen() : Double.NaN, cumulativeVolume);
+            store.put(symbol, state);
+            context.forward(new Record<>(symbol, state.toAnalytics(symbol), record.timestamp()));
+        }
+
+        private void startRunIfNew(String symbol, Headers headers) {
+            Header header = headers.lastHeader(REBUILD_RUN_HEADER);
+            String run = header != null ? new String(header.value(), StandardCharsets.UTF_8) : "";
+            if (!run.equals(runs.get(symbol))) {
+                store.delete(symbol);
+                runs.put(symbol, run);
+            }
+        }
+
+        private static boolean isRepeat(QuoteAnalyticsState state, long timestamp, double price, double cumulativeVolume) {
+            return timestamp == state.lastTimestamp
+                    && price == state.lastPrice
+                    && Double.compare(cumulativeVolume, state.lastCumulativeVolume) == 0;
+        }
+    }
+}
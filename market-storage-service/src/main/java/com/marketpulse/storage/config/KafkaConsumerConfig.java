@@ -1,17 +1,26 @@
 package com.marketpulse.storage.config;
 
+import com.marketpulse.storage.serde.MarketQuoteAvroDeserializer;
 import com.marketpulse.avro.MarketQuote;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -25,22 +34,80 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    // A poll returns once min-bytes are available or flush-interval elapses, up to max-size records.
+    @Value("${storage.batch.max-size:500}")
+    private int maxBatchSize = 500;
+
+    @Value("${storage.batch.flush-interval:500ms}")
+    private Duration flushInterval = Duration.ofMillis(500);
+
+    @Value("${storage.batch.min-bytes:16384}")
+    private int minBatchBytes = 16384;
+
+    // One consumer thread per partition, so it follows the market-quotes partition count.
+    @Value("${storage.consumer.concurrency:${kafka.topics.market-quotes.partitions:6}}")
+    private int concurrency = 6;
+
+    // Must match the producer's kafka.avro.local-serde.enabled.
+    @Value("${kafka.avro.local-serde.enabled:false}")
+    private boolean localSerde = false;
+
+    // Older MarketQuote schemas producers may still write, resolved to the current one.
+    @Value("${kafka.avro.local-serde.writer-schemas:}")
+    private List<String> writerSchemas = List.of();
+
+    // Skips records from aborted producer transactions; harmless when the producer is not transactional.
+    @Value("${storage.consumer.isolation-level:read_committed}")
+    private String isolationLevel = "read_committed";
+
+    // Boot's own switch; the custom container factory below bypasses Boot's configurer, so apply it here.
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads = false;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
     @Bean
     public ConsumerFactory<String, MarketQuote> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaAvroDeserializer.class);
-        props.put("schema.registry.url", schemaRegistryUrl);
-        props.put("specific.avro.reader", true);
+        // A record that cannot be decoded reaches the listener as a null value carrying the failure, instead of failing the poll.
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        if (localSerde) {
+            props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, MarketQuoteAvroDeserializer.class);
+            props.put(MarketQuoteAvroDeserializer.WRITER_SCHEMAS_CONFIG, writerSchemas);
+        } else {
+            props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, KafkaAvroDeserializer.class);
+            props.put("schema.registry.url", schemaRegistryUrl);
+            props.put("specific.avro.reader", true);
+        }
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxBatchSize);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, minBatchBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) flushInterval.toMillis());
+        DefaultKafkaConsumerFactory<String, MarketQuote> factory = new DefaultKafkaConsumerFactory<>(props);
+        if (meterRegistry != null) {
+            factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        }
+        return factory;
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, MarketQuote> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, MarketQuote> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        if (virtualThreads) {
+            // Each consumer runs its poll loop, and the blocking JDBC writes in the listener, on a virtual thread.
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("market-quotes-listener-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
         return factory;
     }
 }
@@ -0,0 +1,172 @@
+package com.marketpulse.storage.config;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.avro.MarketQuoteAnalytics;
+import com.marketpulse.serde.AvroSingleObjectSerde;
+import com.marketpulse.serde.AvroSingleObjectSerializer;
+import com.marketpulse.storage.analytics.QuoteAnalyticsTopology;
+import com.marketpulse.storage.serde.MarketQuoteAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.LogAndContinueExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.streams.KafkaStreamsMicrometerListener;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@link QuoteAnalyticsTopology} inside the storage service when
+ * {@code analytics.enabled=true}. The topology reads the same {@code market-quotes} topic
+ * as the JDBC consumer under its own application id, so the two progress independently.
+ * With {@code analytics.rebuild.enabled} it also rebuilds analytics from backfills replayed
+ * onto {@code analytics.rebuild.topic}, which must match the aggregator's
+ * {@code backfill.rebuild.topic}.
+ * Values use the same Avro framing as the rest of the pipeline: the Schema Registry
+ * serdes by default, the registry-free single-object encoding with
+ * {@code kafka.avro.local-serde.enabled}.
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(prefix = "analytics", name = "enabled", havingValue = "true")
+public class KafkaStreamsConfig {
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.properties.schema.registry.url}")
+    private String schemaRegistryUrl;
+
+    @Value("${analytics.application-id:market-quote-analytics}")
+    private String applicationId = "market-quote-analytics";
+
+    @Value("${analytics.input-topic:market-quotes}")
+    private String inputTopic = "market-quotes";
+
+    @Value("${analytics.output-topic:market-quotes-enriched}")
+    private String outputTopic = "market-quotes-enriched";
+
+    @Value("${analytics.rebuild.enabled:false}")
+    private boolean rebuild = false;
+
+    @Value("${analytics.rebuild.topic:market-quotes-rebuild}")
+    private String rebuildTopic = "market-quotes-rebuild";
+
+    // RocksDB stores live here; keep it on a volume so a restart does not replay the changelog.
+    @Value("${analytics.state-dir:/var/lib/marketpulse/streams}")
+    private String stateDir = "/var/lib/marketpulse/streams";
+
+    @Value("${analytics.stream-threads:1}")
+    private int streamThreads = 1;
+
+    // host:port other instances can reach this one on; blank for a single instance.
+    @Value("${analytics.application-server:}")
+    private String applicationServer = "";
+
+    @Value("${analytics.moving-average.short-periods:50}")
+    private int shortPeriods = 50;
+
+    @Value("${analytics.moving-average.long-periods:200}")
+    private int longPeriods = 200;
+
+    @Value("${analytics.vwap.window:5m}")
+    private Duration vwapWindow = Duration.ofMinutes(5);
+
+    @Value("${analytics.vwap.buckets:30}")
+    private int vwapBuckets = 30;
+
+    // Session days (VWAP and open resets) roll over at midnight in this zone.
+    @Value("${analytics.session-zone:America/New_York}")
+    private String sessionZone = "America/New_York";
+
+    // Must match the producer's kafka.avro.local-serde.enabled.
+    @Value("${kafka.avro.local-serde.enabled:false}")
+    private boolean localSerde = false;
+
+    @Value("${kafka.avro.local-serde.writer-schemas:}")
+    private List<String> writerSchemas = List.of();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, streamThreads);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG,
+                LogAndContinueExceptionHandler.class);
+        if (!applicationServer.isBlank()) {
+            props.put(StreamsConfig.APPLICATION_SERVER_CONFIG, applicationServer);
+        }
+        return new KafkaStreamsConfiguration(props);
+    }
+
+    @Bean
+    public QuoteAnalyticsTopology quoteAnalyticsTopology() {
+        return new QuoteAnalyticsTopology(inputTopic, outputTopic, quoteSerde(), analyticsSerde(),
+                shortPeriods, longPeriods, vwapWindow, vwapBuckets, ZoneId.of(sessionZone), rebuild ? rebuildTopic : null);
+    }
+
+    @Bean
+    public Topology quoteAnalyticsStreams(StreamsBuilder streamsBuilder, QuoteAnalyticsTopology topology) {
+        topology.addTo(streamsBuilder);
+        return streamsBuilder.build();
+    }
+
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer streamsMetricsConfigurer() {
+        return factoryBean -> {
+            if (meterRegistry != null) {
+                factoryBean.addListener(new KafkaStreamsMicrometerListener(meterRegistry));
+            }
+        };
+    }
+
+    Serde<MarketQuote> quoteSerde() {
+        if (localSerde) {
+            MarketQuoteAvroDeserializer deserializer = new MarketQuoteAvroDeserializer();
+            deserializer.configure(Map.of(MarketQuoteAvroDeserializer.WRITER_SCHEMAS_CONFIG, writerSchemas), false);
+            return new AvroSingleObjectSerde<>(new AvroSingleObjectSerializer<>(MarketQuote.getClassSchema()), deserializer);
+        }
+        return registrySerde();
+    }
+
+    Serde<MarketQuoteAnalytics> analyticsSerde() {
+        if (localSerde) {
+            return new AvroSingleObjectSerde<>(MarketQuoteAnalytics.getClassSchema());
+        }
+        return registrySerde();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Serde<T> registrySerde() {
+        Map<String, Object> props = Map.of(
+                "schema.registry.url", schemaRegistryUrl,
+                "specific.avro.reader", true);
+        KafkaAvroSerializer serializer = new KafkaAvroSerializer();
+        serializer.configure(props, false);
+        KafkaAvroDeserializer deserializer = new KafkaAvroDeserializer();
+        deserializer.configure(props, false);
+        return (Serde<T>) (Serde<?>) Serdes.serdeFrom(serializer, deserializer);
+    }
+}
@@ -0,0 +1,215 @@
+package com.marketpulse.storage.config;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.serde.AvroSingleObjectSerializer;
+import com.marketpulse.storage.consumer.MarketQuoteConsumer;
+import com.marketpulse.storage.consumer.MarketQuoteRetryConsumer;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retry topics and DLT for the storage consumer. Spring Kafka's {@code @RetryableTopic} only
+ * supports record listeners, while {@code market-quotes} is consumed in batches, so the tiers
+ * are wired by hand: {@link QuoteRetryRouter} forwards failed records, and each
+ * {@code market-quotes-retry-N} topic gets its own record-mode container so that a tier
+ * waiting out its delay never pauses another. With {@code storage.retry.enabled=false} the
+ * router is disabled and no tier containers or topics are created.
+ */
+@Configuration
+public class QuoteRetryConfig {
+    static final String RETRY_GROUP_ID = "market-quote-storage-retry-group";
+    static final String REPLAY_GROUP_ID = "market-quote-dlt-replay";
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.properties.schema.registry.url}")
+    private String schemaRegistryUrl;
+
+    @Value("${storage.retry.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${storage.retry.topic:market-quotes}")
+    private String topic = "market-quotes";
+
+    // Tier N waits initial-delay * multiplier^(N-1), capped at max-delay.
+    @Value("${storage.retry.attempts:3}")
+    private int attempts = 3;
+
+    @Value("${storage.retry.initial-delay:1s}")
+    private Duration initialDelay = Duration.ofSeconds(1);
+
+    @Value("${storage.retry.multiplier:5}")
+    private double multiplier = 5;
+
+    @Value("${storage.retry.max-delay:5m}")
+    private Duration maxDelay = Duration.ofMinutes(5);
+
+    @Value("${storage.retry.partitions:1}")
+    private int partitions = 1;
+
+    // Must match the producer's kafka.avro.local-serde.enabled.
+    @Value("${kafka.avro.local-serde.enabled:false}")
+    private boolean localSerde = false;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Bean
+    public KafkaTemplate<String, byte[]> retryKafkaTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    @Bean
+    public QuoteRetryRouter quoteRetryRouter() {
+        if (!enabled) {
+            return QuoteRetryRouter.disabled(meterRegistry);
+        }
+        return new QuoteRetryRouter(retryKafkaTemplate(), quoteSerializer(), topic,
+                QuoteRetryRouter.exponentialDelays(attempts, initialDelay, multiplier, maxDelay),
+                meterRegistry);
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics quoteRetryTopics() {
+        QuoteRetryRouter router = quoteRetryRouter();
+        List<NewTopic> topics = new ArrayList<>();
+        if (router.isEnabled()) {
+            for (int tier = 1; tier <= router.tiers(); tier++) {
+                topics.add(TopicBuilder.name(router.retryTopic(tier)).partitions(partitions).build());
+            }
+            topics.add(TopicBuilder.name(router.deadLetterTopic()).partitions(partitions).build());
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Record-mode containers with manual acks, so a tier can nack a record that is not due yet.
+     * Failures that reach the error handler are database outages, retried in place until they
+     * clear, or records that cannot be deserialized, sent to the DLT.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, MarketQuote> retryListenerContainerFactory(
+            ConsumerFactory<String, MarketQuote> consumerFactory) {
+        QuoteRetryRouter router = quoteRetryRouter();
+        ConcurrentKafkaListenerContainerFactory<String, MarketQuote> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(false);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                (consumerRecord, e) -> deadLetter(router, consumerRecord, e),
+                new FixedBackOff(initialDelay.toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS)));
+        return factory;
+    }
+
+    @Bean
+    public KafkaListenerConfigurer quoteRetryListeners(MarketQuoteConsumer marketQuoteConsumer,
+                                                       @Qualifier("retryListenerContainerFactory")
+                                                       ConcurrentKafkaListenerContainerFactory<String, MarketQuote> retryListenerContainerFactory) {
+        QuoteRetryRouter router = quoteRetryRouter();
+        MarketQuoteRetryConsumer retryConsumer = new MarketQuoteRetryConsumer(marketQuoteConsumer, router);
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+        return registrar -> {
+            for (int tier = 1; tier <= router.tiers(); tier++) {
+                MethodKafkaListenerEndpoint<String, MarketQuote> endpoint = new MethodKafkaListenerEndpoint<>();
+                endpoint.setId(router.retryTopic(tier));
+                endpoint.setGroupId(RETRY_GROUP_ID);
+                endpoint.setTopics(router.retryTopic(tier));
+                endpoint.setBean(retryConsumer);
+                endpoint.setMethod(onRetryMethod());
+                endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+                registrar.registerEndpoint(endpoint, retryListenerContainerFactory);
+            }
+        };
+    }
+
+    /**
+     * Reads raw DLT records for {@code QuoteDltReplayer}, without decoding the values.
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, REPLAY_GROUP_ID);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /**
+     * Values go out in the {@code market-quotes} wire format, so the DLT replays onto it as is.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Serializer<MarketQuote> quoteSerializer() {
+        if (localSerde) {
+            return new AvroSingleObjectSerializer<>(MarketQuote.getClassSchema());
+        }
+        KafkaAvroSerializer serializer = new KafkaAvroSerializer();
+        serializer.configure(Map.of("schema.registry.url", schemaRegistryUrl), false);
+        return (Serializer) serializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void deadLetter(QuoteRetryRouter router, ConsumerRecord<?, ?> consumerRecord, Exception e) {
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof DeserializationException)) {
+            cause = cause.getCause();
+        }
+        byte[] value = cause != null ? ((DeserializationException) cause).getData() : null;
+        router.deadLetter((ConsumerRecord<String, ?>) consumerRecord, value, e).join();
+    }
+
+    private static Method onRetryMethod() {
+        try {
+            return MarketQuoteRetryConsumer.class.getMethod("onRetry", ConsumerRecord.class, Acknowledgment.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
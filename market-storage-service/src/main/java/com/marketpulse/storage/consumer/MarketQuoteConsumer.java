@@ -1,20 +1,233 @@
 package com.marketpulse.storage.consumer;
 
 import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.repository.MarketQuoteRepository;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import com.marketpulse.storage.segment.QuoteSegmentStore;
+import com.marketpulse.storage.store.LatestQuoteStore;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class MarketQuoteConsumer {
     private static final Logger log = LoggerFactory.getLogger(MarketQuoteConsumer.class);
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(MarketQuoteConsumer.class);
+    private final MarketQuoteRepository marketQuoteRepository;
+    private final SymbolShardedExecutor shardedExecutor;
+    private final LatestQuoteStore latestQuoteStore;
+    private final QuoteSegmentStore quoteSegmentStore;
+    private final QuoteRetryRouter retryRouter;
+    private final Clock clock;
+    private final Counter received;
+    private final Counter persisted;
+    private final Counter duplicates;
+    private final Counter forwarded;
+    private final Timer persistLatency;
+    private final Timer freshness;
+
+    @Autowired
+    public MarketQuoteConsumer(MarketQuoteRepository marketQuoteRepository,
+                               SymbolShardedExecutor shardedExecutor,
+                               LatestQuoteStore latestQuoteStore,
+                               QuoteSegmentStore quoteSegmentStore,
+                               QuoteRetryRouter retryRouter,
+                               MeterRegistry meterRegistry) {
+        this.marketQuoteRepository = marketQuoteRepository;
+        this.shardedExecutor = shardedExecutor;
+        this.latestQuoteStore = latestQuoteStore;
+        this.quoteSegmentStore = quoteSegmentStore;
+        this.retryRouter = retryRouter;
+        this.clock = meterRegistry.config().clock();
+        this.received = meterRegistry.counter("storage.consumer.records", "result", "received");
+        this.persisted = meterRegistry.counter("storage.consumer.records", "result", "persisted");
+        this.duplicates = meterRegistry.counter("storage.consumer.records", "result", "duplicate");
+        this.forwarded = meterRegistry.counter("storage.consumer.records", "result", "forwarded");
+        this.persistLatency = meterRegistry.timer("storage.consumer.persist.latency");
+        this.freshness = meterRegistry.timer("storage.quote.freshness");
+    }
 
+    /**
+     * Splits a poll by symbol shard and persists the shards in parallel, keeping per-symbol
+     * order. The container commits the batch's offsets only after every shard is written, so
+     * a failed write is redelivered rather than lost. The latest-quote store is updated only
+     * once a shard is persisted, so reads never run ahead of the database, and the same goes
+     * for the columnar history segments. Quotes already in the database, redelivered after a
+     * crash or a rebalance, are skipped by the insert, counted as {@code duplicate} and not
+     * appended to the segments again.
+     *
+     * <p>Each shard writes in its own transaction, so a poll is not atomic: if one shard fails,
+     * the shards that already committed stay committed and the whole poll is redelivered. That
+     * trade buys parallel writes; the idempotent insert is what keeps the redelivered shards
+     * from being stored twice.
+     *
+     * <p>With the {@link QuoteRetryRouter} enabled, a shard write that fails for anything but
+     * a database outage is retried quote by quote, and only the quotes that still fail are
+     * forwarded to the first retry topic (counted as {@code forwarded}), so one poison record
+     * no longer holds back the partition. Records that could not be deserialized go to the
+     * DLT. Both are sent before this method returns, so before the offsets are committed.
+     * Outages still fail the whole poll for redelivery.
+     *
+     * <p>{@code storage.consumer.persist.latency} times a poll from hand-off to the last shard
+     * written; {@code storage.quote.freshness} is the age of each persisted quote, measured from
+     * its own timestamp.
+     */
     @KafkaListener(topics = "market-quotes", groupId = "market-quote-storage-group")
-    public void consume(ConsumerRecord<String, MarketQuote> consumerRecord) {
-        MarketQuote quote = consumerRecord.value();
-        log.info("Consumed MarketQuote: {}", quote);
-        // TODO: Persist to Postgres
+    public void consume(List<ConsumerRecord<String, MarketQuote>> consumerRecords) {
+        handle(consumerRecords);
+    }
+
+    /**
+     * Stores a record taken off a retry topic. Returns {@code false} if it failed again and
+     * was forwarded to the next tier or the DLT.
+     */
+    public boolean redeliver(ConsumerRecord<String, MarketQuote> consumerRecord) {
+        return handle(List.of(consumerRecord)) == 0;
+    }
+
+    /**
+     * Returns the number of records forwarded to a retry topic or the DLT.
+     */
+    private int handle(List<ConsumerRecord<String, MarketQuote>> consumerRecords) {
+        long start = clock.monotonicTime();
+        received.increment(consumerRecords.size());
+        Queue<CompletableFuture<?>> forwards = new ConcurrentLinkedQueue<>();
+        List<List<ConsumerRecord<String, MarketQuote>>> shards = new ArrayList<>(shardedExecutor.shardCount());
+        for (int i = 0; i < shardedExecutor.shardCount(); i++) {
+            shards.add(new ArrayList<>());
+        }
+        int quotes = 0;
+        int undeserializable = 0;
+        for (ConsumerRecord<String, MarketQuote> consumerRecord : consumerRecords) {
+            MarketQuote quote = consumerRecord.value();
+            if (quote != null) {
+                shards.get(shardedExecutor.shardOf(quote.getSymbol())).add(consumerRecord);
+                quotes++;
+            } else {
+                DeserializationException failure = SerializationUtils.getExceptionFromHeader(consumerRecord,
+                        SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+                if (failure != null && retryRouter.isEnabled()) {
+                    forwards.add(retryRouter.deadLetter(consumerRecord, failure.getData(), failure));
+                    undeserializable++;
+                } else if (failure != null) {
+                    log.warn("Skipping undeserializable record {}-{}@{}: {}", consumerRecord.topic(),
+                            consumerRecord.partition(), consumerRecord.offset(), failure.getMessage());
+                }
+            }
+        }
+
+        List<CompletableFuture<Integer>> writes = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<ConsumerRecord<String, MarketQuote>> shardRecords = shards.get(shard);
+            if (!shardRecords.isEmpty()) {
+                writes.add(shardedExecutor.submit(shard, () -> persistOrForward(shardRecords, forwards)));
+            }
+        }
+        int saved;
+        try {
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+            saved = writes.stream().mapToInt(CompletableFuture::join).sum();
+            CompletableFuture.allOf(forwards.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        int failed = forwards.size();
+        persistLatency.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+        persisted.increment(saved);
+        forwarded.increment(failed);
+        duplicates.increment(quotes - saved - (failed - undeserializable));
+        log.debug("Persisted {} MarketQuotes from {} records, forwarded {}", saved, consumerRecords.size(), failed);
+        return failed;
+    }
+
+    private int persistOrForward(List<ConsumerRecord<String, MarketQuote>> shardRecords,
+                                 Queue<CompletableFuture<?>> forwards) {
+        if (!retryRouter.isEnabled()) {
+            return persist(shardRecords);
+        }
+        try {
+            return persist(shardRecords);
+        } catch (RuntimeException e) {
+            if (isOutage(e)) {
+                throw e;
+            }
+            log.warn("Persisting {} MarketQuotes failed, retrying them one by one: {}", shardRecords.size(), e.getMessage());
+        }
+        int saved = 0;
+        for (ConsumerRecord<String, MarketQuote> consumerRecord : shardRecords) {
+            try {
+                saved += persist(List.of(consumerRecord));
+            } catch (RuntimeException e) {
+                if (isOutage(e)) {
+                    throw e;
+                }
+                forwards.add(retryRouter.retry(consumerRecord, e));
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Failures that say nothing about the record itself: retrying it elsewhere would only
+     * drain the partition into the DLT.
+     */
+    private static boolean isOutage(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException;
+    }
+
+    /**
+     * Segments get only the rows the insert kept, so a redelivered quote is not appended twice.
+     */
+    private int persist(List<ConsumerRecord<String, MarketQuote>> shardRecords) {
+        List<MarketQuote> quotes = shardRecords.stream().map(ConsumerRecord::value).toList();
+        List<MarketQuote> saved = marketQuoteRepository.saveAll(quotes);
+        long now = clock.wallTime();
+        int next = 0;
+        for (ConsumerRecord<String, MarketQuote> consumerRecord : shardRecords) {
+            MarketQuote quote = consumerRecord.value();
+            long eventTime = eventTime(consumerRecord);
+            latestQuoteStore.update(quote);
+            // saveAll returns the inserted quotes themselves, in input order.
+            if (next < saved.size() && saved.get(next) == quote) {
+                quoteSegmentStore.append(quote, eventTime);
+                next++;
+            }
+            if (eventTime >= 0) {
+                // Clock skew between FMP and this host can make a fresh quote look like it is from the future.
+                freshness.record(Math.max(0, now - eventTime), TimeUnit.MILLISECONDS);
+            }
+        }
+        return saved.size();
+    }
+
+    /**
+     * FMP quote timestamps are epoch seconds; quotes without one fall back to the record timestamp.
+     */
+    private static long eventTime(ConsumerRecord<String, MarketQuote> consumerRecord) {
+        Long timestamp = consumerRecord.value().getTimestamp();
+        return timestamp != null ? timestamp * 1000L : consumerRecord.timestamp();
     }
 }
@@ -0,0 +1,38 @@
+package com.marketpulse.storage.consumer;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+
+/**
+ * Listener for the {@code market-quotes-retry-N} topics, one container per tier (see
+ * {@code QuoteRetryConfig}). A record that is not due yet is nacked for the rest of its delay,
+ * which pauses only that tier's container, so later tiers and the main topic keep flowing
+ * while it waits. A due record goes through {@link MarketQuoteConsumer} again, which forwards
+ * it to the next tier or the DLT if it fails once more.
+ */
+public class MarketQuoteRetryConsumer {
+
+    private final MarketQuoteConsumer marketQuoteConsumer;
+    private final QuoteRetryRouter retryRouter;
+
+    public MarketQuoteRetryConsumer(MarketQuoteConsumer marketQuoteConsumer, QuoteRetryRouter retryRouter) {
+        this.marketQuoteConsumer = marketQuoteConsumer;
+        this.retryRouter = retryRouter;
+    }
+
+    public void onRetry(ConsumerRecord<String, MarketQuote> consumerRecord, Acknowledgment acknowledgment) {
+        long remaining = retryRouter.remainingDelay(consumerRecord);
+        if (remaining > 0) {
+            acknowledgment.nack(Duration.ofMillis(remaining));
+            return;
+        }
+        if (marketQuoteConsumer.redeliver(consumerRecord)) {
+            retryRouter.recovered(QuoteRetryRouter.tierOf(consumerRecord));
+        }
+        acknowledgment.acknowledge();
+    }
+}
@@ -0,0 +1,63 @@
+package com.marketpulse.storage.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of single-threaded workers running on virtual threads. Work for a given symbol
+ * always lands on the same worker, so it runs in submission order while different symbols
+ * are processed in parallel.
+ */
+@Component
+public class SymbolShardedExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor[] workers;
+
+    @Autowired
+    public SymbolShardedExecutor(@Value("${storage.workers.count:8}") int workerCount, MeterRegistry meterRegistry) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("storage.workers.count must be positive");
+        }
+        workers = new ThreadPoolExecutor[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), Thread.ofVirtual().name("quote-writer-" + i + "-", 0).factory());
+            workers[i] = worker;
+            Gauge.builder("storage.writer.queue.depth", worker, w -> w.getQueue().size())
+                    .tag("worker", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    public int shardCount() {
+        return workers.length;
+    }
+
+    public int shardOf(String symbol) {
+        return Math.floorMod(symbol.hashCode(), workers.length);
+    }
+
+    public <T> CompletableFuture<T> submit(int shard, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, workers[shard]);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+        for (ThreadPoolExecutor worker : workers) {
+            worker.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.storage.retry.QuoteDltReplayer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+/**
+ * Operator endpoint to replay dead-lettered quotes onto {@code market-quotes}. The replay
+ * polls and produces synchronously, so it runs on the bounded-elastic scheduler.
+ */
+@RestController
+public class DeadLetterController {
+
+    private static final int MAX_LIMIT = 100_000;
+
+    private final QuoteDltReplayer quoteDltReplayer;
+
+    @Autowired
+    public DeadLetterController(QuoteDltReplayer quoteDltReplayer) {
+        this.quoteDltReplayer = quoteDltReplayer;
+    }
+
+    @PostMapping(value = "/dlt/replay", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, Integer>> replay(@RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return Mono.fromCallable(() -> Map.of("replayed", quoteDltReplayer.replay(limit)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(IllegalStateException.class,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage()));
+    }
+}
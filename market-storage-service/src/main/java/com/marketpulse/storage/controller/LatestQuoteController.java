@@ -0,0 +1,55 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.storage.dto.LatestQuoteDto;
+import com.marketpulse.storage.store.LatestQuoteStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Serves latest quotes straight from {@link LatestQuoteStore}; lookups never block on the
+ * database.
+ */
+@RestController
+public class LatestQuoteController {
+
+    private final LatestQuoteStore latestQuoteStore;
+
+    @Autowired
+    public LatestQuoteController(LatestQuoteStore latestQuoteStore) {
+        this.latestQuoteStore = latestQuoteStore;
+    }
+
+    @GetMapping(value = "/quotes/latest/{symbol}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<LatestQuoteDto> getLatest(@PathVariable String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Symbol must not be blank");
+        }
+        return Mono.justOrEmpty(latestQuoteStore.get(symbol))
+                .map(LatestQuoteDto::from)
+                .switchIfEmpty(Mono.error(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "No quote stored for " + symbol)));
+    }
+
+    @GetMapping(value = "/quotes/latest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<LatestQuoteDto> getLatest(@RequestParam List<String> symbols) {
+        List<String> requested = symbols.stream()
+                .filter(symbol -> symbol != null && !symbol.trim().isEmpty())
+                .distinct()
+                .toList();
+        if (requested.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Symbols must not be blank");
+        }
+        return Flux.fromIterable(latestQuoteStore.getAll(requested))
+                .map(LatestQuoteDto::from);
+    }
+}
@@ -0,0 +1,63 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.storage.analytics.QuoteAnalyticsQueryService;
+import com.marketpulse.storage.dto.QuoteAnalyticsDto;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Serves the analytics topology's state store. Requests for a symbol owned by another
+ * instance are redirected there.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "analytics", name = "enabled", havingValue = "true")
+public class QuoteAnalyticsController {
+
+    private final QuoteAnalyticsQueryService queryService;
+
+    @Autowired
+    public QuoteAnalyticsController(QuoteAnalyticsQueryService queryService) {
+        this.queryService = queryService;
+    }
+
+    @GetMapping(value = "/analytics/{symbol}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<QuoteAnalyticsDto>> getAnalytics(@PathVariable String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Symbol must not be blank");
+        }
+        // RocksDB reads block, so keep them off the event loop.
+        return Mono.fromCallable(() -> lookup(symbol)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private ResponseEntity<QuoteAnalyticsDto> lookup(String symbol) {
+        try {
+            Optional<HostInfo> owner = queryService.remoteOwner(symbol);
+            if (owner.isPresent()) {
+                HostInfo host = owner.get();
+                return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                        .location(URI.create("http://" + host.host() + ":" + host.port() + "/analytics/" + symbol.trim()))
+                        .build();
+            }
+            return queryService.findLocal(symbol)
+                    .map(QuoteAnalyticsDto::from)
+                    .map(ResponseEntity::ok)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No analytics for " + symbol));
+        } catch (IllegalStateException | InvalidStateStoreException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.storage.dto.QuoteHistoryDto;
+import com.marketpulse.storage.segment.QuoteSegmentStore;
+import com.marketpulse.storage.segment.SegmentColumn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Range scans over the columnar quote history. Segment reads touch the disk, so they run on
+ * the bounded-elastic scheduler rather than the event loop.
+ */
+@RestController
+public class QuoteHistoryController {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(30);
+
+    private final QuoteSegmentStore quoteSegmentStore;
+
+    @Autowired
+    public QuoteHistoryController(QuoteSegmentStore quoteSegmentStore) {
+        this.quoteSegmentStore = quoteSegmentStore;
+    }
+
+    @GetMapping(value = "/quotes/history/{symbol}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<QuoteHistoryDto> getHistory(@PathVariable String symbol,
+                                            @RequestParam(required = false) Instant from,
+                                            @RequestParam(required = false) Instant to,
+                                            @RequestParam(defaultValue = "price,volume") List<String> fields) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Symbol must not be blank");
+        }
+        if (!quoteSegmentStore.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Quote history is disabled");
+        }
+        List<SegmentColumn> columns;
+        try {
+            columns = fields.stream().map(SegmentColumn::fromFieldName).toList();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        return Mono.fromCallable(() -> QuoteHistoryDto.from(quoteSegmentStore.scan(symbol, start, end, columns)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+}
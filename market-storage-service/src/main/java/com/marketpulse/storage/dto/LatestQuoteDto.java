@@ -0,0 +1,54 @@
+package com.marketpulse.storage.dto;
+
+import com.marketpulse.avro.MarketQuote;
+
+public record LatestQuoteDto(
+        String symbol,
+        String name,
+        Double price,
+        Double changesPercentage,
+        Double change,
+        Double dayLow,
+        Double dayHigh,
+        Double yearHigh,
+        Double yearLow,
+        Double marketCap,
+        Double priceAvg50,
+        Double priceAvg200,
+        Double volume,
+        Double avgVolume,
+        String exchange,
+        Double open,
+        Double previousClose,
+        Double eps,
+        Double pe,
+        String earningsAnnouncement,
+        Double sharesOutstanding,
+        Long timestamp
+) {
+    public static LatestQuoteDto from(MarketQuote quote) {
+        return new LatestQuoteDto(
+                quote.getSymbol(),
+                quote.getName(),
+                quote.getPrice(),
+                quote.getChangesPercentage(),
+                quote.getChange(),
+                quote.getDayLow(),
+                quote.getDayHigh(),
+                quote.getYearHigh(),
+                quote.getYearLow(),
+                quote.getMarketCap(),
+                quote.getPriceAvg50(),
+                quote.getPriceAvg200(),
+                quote.getVolume(),
+                quote.getAvgVolume(),
+                quote.getExchange(),
+                quote.getOpen(),
+                quote.getPreviousClose(),
+                quote.getEps(),
+                quote.getPe(),
+                quote.getEarningsAnnouncement(),
+                quote.getSharesOutstanding(),
+                quote.getTimestamp());
+    }
+}
@@ -0,0 +1,30 @@
+package com.marketpulse.storage.dto;
+
+import com.marketpulse.avro.MarketQuoteAnalytics;
+
+public record QuoteAnalyticsDto(
+        String symbol,
+        long timestamp,
+        double price,
+        Double volume,
+        Double vwap,
+        Double movingAverageShort,
+        Double movingAverageLong,
+        Double open,
+        Double changeFromOpen,
+        Double changeFromOpenPercent
+) {
+    public static QuoteAnalyticsDto from(MarketQuoteAnalytics analytics) {
+        return new QuoteAnalyticsDto(
+                analytics.getSymbol(),
+                analytics.getTimestamp(),
+                analytics.getPrice(),
+                analytics.getVolume(),
+                analytics.getVwap(),
+                analytics.getMovingAverageShort(),
+                analytics.getMovingAverageLong(),
+                analytics.getOpen(),
+                analytics.getChangeFromOpen(),
+                analytics.getChangeFromOpenPercent());
+    }
+}
@@ -0,0 +1,28 @@
+package com.marketpulse.storage.dto;
+
+import com.marketpulse.storage.segment.QuoteSegmentStore.QuoteSeries;
+import com.marketpulse.storage.segment.SegmentColumn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented range scan result: {@code values.get("price").get(i)} belongs to
+ * {@code timestamps.get(i)}. Missing fields are null.
+ */
+public record QuoteHistoryDto(String symbol, long[] timestamps, Map<String, List<Double>> values) {
+
+    public static QuoteHistoryDto from(QuoteSeries series) {
+        Map<String, List<Double>> values = new LinkedHashMap<>();
+        for (Map.Entry<SegmentColumn, double[]> column : series.columns().entrySet()) {
+            List<Double> boxed = new ArrayList<>(column.getValue().length);
+            for (double value : column.getValue()) {
+                boxed.add(Double.isNaN(value) ? null : value);
+            }
+            values.put(column.getKey().fieldName(), boxed);
+        }
+        return new QuoteHistoryDto(series.symbol(), series.timestamps(), values);
+    }
+}
@@ -0,0 +1,195 @@
+package com.marketpulse.storage.repository;
+
+import com.marketpulse.avro.MarketQuote;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Writes quotes to {@code market_quotes} with multi-row {@code INSERT ... VALUES (...), (...)}
+ * statements of up to {@code rowsPerStatement} rows, so a whole Kafka poll lands in a handful
+ * of round trips inside one transaction. Inserts are idempotent on {@code (symbol, quote_timestamp)}:
+ * a quote that is already stored, for example one redelivered after a consumer crash or a
+ * rebalance, is skipped by the unique index instead of being written twice. A quote without a
+ * timestamp is never a duplicate, since the index treats NULLs as distinct. Each statement
+ * returns the keys of the rows it actually inserted ({@code RETURNING symbol, quote_timestamp}
+ * on PostgreSQL), so callers can tell new quotes from skipped ones.
+ */
+@Repository
+public class MarketQuoteRepository {
+
+    static final String[] COLUMNS = {
+            "symbol", "name", "price", "changes_percentage", "change", "day_low", "day_high",
+            "year_high", "year_low", "market_cap", "price_avg50", "price_avg200", "volume",
+            "avg_volume", "exchange", "open", "previous_close", "eps", "pe",
+            "earnings_announcement", "shares_outstanding", "quote_timestamp"
+    };
+    private static final String[] KEY_COLUMNS = {"symbol", "quote_timestamp"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rowsPerStatement;
+    private final String fullStatement;
+
+    @Autowired
+    public MarketQuoteRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${storage.jdbc.rows-per-statement:500}") int rowsPerStatement) {
+        if (rowsPerStatement < 1 || rowsPerStatement * COLUMNS.length > 65_535) {
+            throw new IllegalArgumentException("storage.jdbc.rows-per-statement must be between 1 and "
+                    + 65_535 / COLUMNS.length);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowsPerStatement = rowsPerStatement;
+        this.fullStatement = insertStatement(rowsPerStatement);
+    }
+
+    /**
+     * Returns the quotes actually inserted, in input order, which leaves out quotes already stored.
+     */
+    @Transactional
+    public List<MarketQuote> saveAll(List<MarketQuote> quotes) {
+        List<MarketQuote> saved = new ArrayList<>(quotes.size());
+        for (int from = 0; from < quotes.size(); from += rowsPerStatement) {
+            List<MarketQuote> chunk = quotes.subList(from, Math.min(from + rowsPerStatement, quotes.size()));
+            String sql = chunk.size() == rowsPerStatement ? fullStatement : insertStatement(chunk.size());
+            ArgumentPreparedStatementSetter parameters = new ArgumentPreparedStatementSetter(parameters(chunk));
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, KEY_COLUMNS);
+                parameters.setValues(statement);
+                return statement;
+            }, keys);
+            collectInserted(chunk, keys.getKeyList(), saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Matches the returned keys back to the quotes; a key is used once, so of two identical
+     * quotes in one statement only the one that was inserted counts.
+     */
+    private static void collectInserted(List<MarketQuote> chunk, List<Map<String, Object>> keys,
+                                        List<MarketQuote> saved) {
+        if (keys.size() == chunk.size()) {
+            saved.addAll(chunk);
+            return;
+        }
+        Map<String, Integer> remaining = new HashMap<>();
+        for (Map<String, Object> key : keys) {
+            Object timestamp = key.get("quote_timestamp");
+            remaining.merge(key(String.valueOf(key.get("symbol")),
+                    timestamp != null ? ((Number) timestamp).longValue() : null), 1, Integer::sum);
+        }
+        for (MarketQuote quote : chunk) {
+            String key = key(quote.getSymbol(), quote.getTimestamp());
+            Integer count = remaining.get(key);
+            if (count != null) {
+                if (count == 1) {
+                    remaining.remove(key);
+                } else {
+                    remaining.put(key, count - 1);
+                }
+                saved.add(quote);
+            }
+        }
+    }
+
+    private static String key(String symbol, Long timestamp) {
+        return symbol + ":" + timestamp;
+    }
+
+    /**
+     * Returns the row with the newest quote timestamp for every symbol, used to warm the
+     * in-memory latest-quote store on startup. Insertion order does not count, so history
+     * backfilled after live quotes never wins; rows without a timestamp only win when a symbol
+     * has nothing else.
+     */
+    public List<MarketQuote> findLatestPerSymbol() {
+        String columns = String.join(", ", COLUMNS);
+        return jdbcTemplate.query("SELECT " + columns + " FROM (SELECT " + columns + ", ROW_NUMBER() OVER ("
+                + "PARTITION BY symbol ORDER BY quote_timestamp DESC NULLS LAST, id DESC) AS recency FROM market_quotes)"
+                + " ranked WHERE recency = 1", MarketQuoteRepository::mapRow);
+    }
+
+    private static MarketQuote mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return MarketQuote.newBuilder()
+                .setSymbol(rs.getString("symbol"))
+                .setName(rs.getString("name"))
+                .setPrice(rs.getObject("price", Double.class))
+                .setChangesPercentage(rs.getObject("changes_percentage", Double.class))
+                .setChange(rs.getObject("change", Double.class))
+                .setDayLow(rs.getObject("day_low", Double.class))
+                .setDayHigh(rs.getObject("day_high", Double.class))
+                .setYearHigh(rs.getObject("year_high", Double.class))
+                .setYearLow(rs.getObject("year_low", Double.class))
+                .setMarketCap(rs.getObject("market_cap", Double.class))
+                .setPriceAvg50(rs.getObject("price_avg50", Double.class))
+                .setPriceAvg200(rs.getObject("price_avg200", Double.class))
+                .setVolume(rs.getObject("volume", Double.class))
+                .setAvgVolume(rs.getObject("avg_volume", Double.class))
+                .setExchange(rs.getString("exchange"))
+                .setOpen(rs.getObject("open", Double.class))
+                .setPreviousClose(rs.getObject("previous_close", Double.class))
+                .setEps(rs.getObject("eps", Double.class))
+                .setPe(rs.getObject("pe", Double.class))
+                .setEarningsAnnouncement(rs.getString("earnings_announcement"))
+                .setSharesOutstanding(rs.getObject("shares_outstanding", Double.class))
+                .setTimestamp(rs.getObject("quote_timestamp", Long.class))
+                .build();
+    }
+
+    private static Object[] parameters(List<MarketQuote> chunk) {
+        Object[] args = new Object[chunk.size() * COLUMNS.length];
+        int i = 0;
+        for (MarketQuote quote : chunk) {
+            args[i++] = quote.getSymbol();
+            args[i++] = quote.getName();
+            args[i++] = quote.getPrice();
+            args[i++] = quote.getChangesPercentage();
+            args[i++] = quote.getChange();
+            args[i++] = quote.getDayLow();
+            args[i++] = quote.getDayHigh();
+            args[i++] = quote.getYearHigh();
+            args[i++] = quote.getYearLow();
+            args[i++] = quote.getMarketCap();
+            args[i++] = quote.getPriceAvg50();
+            args[i++] = quote.getPriceAvg200();
+            args[i++] = quote.getVolume();
+            args[i++] = quote.getAvgVolume();
+            args[i++] = quote.getExchange();
+            args[i++] = quote.getOpen();
+            args[i++] = quote.getPreviousClose();
+            args[i++] = quote.getEps();
+            args[i++] = quote.getPe();
+            args[i++] = quote.getEarningsAnnouncement();
+            args[i++] = quote.getSharesOutstanding();
+            args[i++] = quote.getTimestamp();
+        }
+        return args;
+    }
+
+    private static String insertStatement(int rows) {
+        StringJoiner row = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            row.add("?");
+        }
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < rows; i++) {
+            values.add(row.toString());
+        }
+        return "INSERT INTO market_quotes (" + String.join(", ", COLUMNS) + ") VALUES " + values
+                + " ON CONFLICT DO NOTHING";
+    }
+}
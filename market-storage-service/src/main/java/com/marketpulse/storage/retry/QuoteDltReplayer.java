@@ -0,0 +1,133 @@
+package com.marketpulse.storage.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puts dead-lettered quotes back on {@code market-quotes} once whatever made them fail is
+ * fixed. The DLT holds values in the main topic's wire format, so records are copied byte for
+ * byte; the retry and {@code kafka_dlt-*} headers are dropped, so a replayed record starts
+ * over with a full set of retries. Progress is committed under its own consumer group once
+ * the copies are acknowledged, so a replay resumes where the last one stopped and never
+ * sends a record twice unless it crashes between the two.
+ */
+@Service
+public class QuoteDltReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteDltReplayer.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final QuoteRetryRouter retryRouter;
+    private final Counter replayed;
+
+    @Autowired
+    public QuoteDltReplayer(@Qualifier("deadLetterConsumerFactory") ConsumerFactory<String, byte[]> consumerFactory,
+                            @Qualifier("retryKafkaTemplate") KafkaTemplate<String, byte[]> kafkaTemplate,
+                            QuoteRetryRouter retryRouter,
+                            MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.retryRouter = retryRouter;
+        this.replayed = meterRegistry.counter("storage.dlt.replayed");
+    }
+
+    /**
+     * Replays up to {@code limit} DLT records, oldest first per partition, and returns how many
+     * were sent. Blocks until they are acknowledged.
+     */
+    public synchronized int replay(int limit) {
+        if (!retryRouter.isEnabled()) {
+            throw new IllegalStateException("Retry topics are disabled");
+        }
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo partition : consumer.partitionsFor(retryRouter.deadLetterTopic())) {
+                partitions.add(new TopicPartition(partition.topic(), partition.partition()));
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                if (offset == null) {
+                    consumer.seekToBeginning(List.of(partition));
+                } else {
+                    consumer.seek(partition, offset.offset());
+                }
+            }
+
+            // Stop at the end offsets seen now, so records dead-lettered during the replay wait for the next one.
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, OffsetAndMetadata> progress = new HashMap<>();
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            while (sends.size() < limit && !reached(consumer, endOffsets)) {
+                for (ConsumerRecord<String, byte[]> consumerRecord : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(consumerRecord.topic(), consumerRecord.partition());
+                    if (consumerRecord.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    if (sends.size() == limit) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(retryRouter.topic(), null,
+                            consumerRecord.key(), consumerRecord.value(), replayHeaders(consumerRecord.headers()))));
+                    progress.put(partition, new OffsetAndMetadata(consumerRecord.offset() + 1));
+                }
+            }
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            if (!progress.isEmpty()) {
+                consumer.commitSync(progress);
+            }
+            replayed.increment(sends.size());
+            log.info("Replayed {} records from {} onto {}", sends.size(), retryRouter.deadLetterTopic(), retryRouter.topic());
+            return sends.size();
+        }
+    }
+
+    private static boolean reached(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Headers replayHeaders(Headers headers) {
+        Headers replay = new RecordHeaders();
+        for (Header header : headers) {
+            if (!header.key().startsWith(KafkaHeaders.PREFIX + "dlt-")
+                    && !header.key().equals(QuoteRetryRouter.TIER_HEADER)
+                    && !header.key().equals(QuoteRetryRouter.DUE_HEADER)) {
+                replay.add(header);
+            }
+        }
+        return replay;
+    }
+}
@@ -0,0 +1,219 @@
+package com.marketpulse.storage.retry;
+
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Moves {@code market-quotes} records that cannot be stored off the main partition, so one
+ * poison record never holds back the symbols behind it. A record that fails to persist goes
+ * to {@code market-quotes-retry-1}, then {@code -retry-2} and so on, each tier with a longer
+ * delay (exponential from {@code storage.retry.initial-delay}), and finally to
+ * {@code market-quotes-dlt}. Records that cannot even be deserialized go straight to the DLT
+ * with their original bytes.
+ *
+ * <p>Values keep the {@code market-quotes} wire format, so the DLT can be replayed onto the
+ * main topic as is. Every forwarded record carries the origin (topic, partition, offset,
+ * timestamp) of its first failure and the exception of its latest one in Spring Kafka's
+ * {@code kafka_dlt-*} headers, plus {@link #TIER_HEADER} and {@link #DUE_HEADER} (both
+ * big-endian numbers) for the retry tiers.
+ */
+public class QuoteRetryRouter {
+
+    public static final String TIER_HEADER = "marketpulse-retry-tier";
+    public static final String DUE_HEADER = "marketpulse-retry-due";
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteRetryRouter.class);
+    private static final Set<String> REPLACED_HEADERS = Set.of(TIER_HEADER, DUE_HEADER,
+            KafkaHeaders.DLT_EXCEPTION_FQCN, KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN,
+            KafkaHeaders.DLT_EXCEPTION_MESSAGE, KafkaHeaders.DLT_EXCEPTION_STACKTRACE,
+            SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, SerializationUtils.KEY_DESERIALIZER_EXCEPTION_HEADER);
+    private static final int MAX_STACKTRACE_LENGTH = 4096;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final Serializer<MarketQuote> serializer;
+    private final String topic;
+    private final List<Duration> delays;
+    private final LongSupplier clock;
+    private final List<Counter> scheduled = new ArrayList<>();
+    private final List<Counter> recovered = new ArrayList<>();
+    private final Counter exhausted;
+    private final Counter undeserializable;
+
+    public QuoteRetryRouter(KafkaTemplate<String, byte[]> kafkaTemplate,
+                            Serializer<MarketQuote> serializer,
+                            String topic,
+                            List<Duration> delays,
+                            MeterRegistry meterRegistry) {
+        this(kafkaTemplate, serializer, topic, delays, meterRegistry, System::currentTimeMillis);
+    }
+
+    QuoteRetryRouter(KafkaTemplate<String, byte[]> kafkaTemplate,
+                     Serializer<MarketQuote> serializer,
+                     String topic,
+                     List<Duration> delays,
+                     MeterRegistry meterRegistry,
+                     LongSupplier clock) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.serializer = serializer;
+        this.topic = topic;
+        this.delays = List.copyOf(delays);
+        this.clock = clock;
+        for (int tier = 1; tier <= this.delays.size(); tier++) {
+            String tag = String.valueOf(tier);
+            scheduled.add(meterRegistry.counter("storage.retry.records", "tier", tag, "outcome", "scheduled"));
+            recovered.add(meterRegistry.counter("storage.retry.records", "tier", tag, "outcome", "recovered"));
+        }
+        this.exhausted = meterRegistry.counter("storage.dlt.records", "reason", "retries-exhausted");
+        this.undeserializable = meterRegistry.counter("storage.dlt.records", "reason", "deserialization");
+    }
+
+    /**
+     * Router with no topics: the consumer keeps failing the whole poll and relies on the
+     * container's in-place redelivery.
+     */
+    public static QuoteRetryRouter disabled(MeterRegistry meterRegistry) {
+        return new QuoteRetryRouter(null, null, "market-quotes", List.of(), meterRegistry);
+    }
+
+    /**
+     * Exponential delays: {@code initialDelay}, times {@code multiplier} per tier, capped at {@code maxDelay}.
+     */
+    public static List<Duration> exponentialDelays(int attempts, Duration initialDelay, double multiplier, Duration maxDelay) {
+        List<Duration> delays = new ArrayList<>(attempts);
+        double millis = initialDelay.toMillis();
+        for (int i = 0; i < attempts; i++) {
+            delays.add(Duration.ofMillis((long) Math.min(millis, maxDelay.toMillis())));
+            millis *= multiplier;
+        }
+        return delays;
+    }
+
+    public boolean isEnabled() {
+        return kafkaTemplate != null;
+    }
+
+    public int tiers() {
+        return delays.size();
+    }
+
+    public String retryTopic(int tier) {
+        return topic + "-retry-" + tier;
+    }
+
+    public String deadLetterTopic() {
+        return topic + "-dlt";
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    /**
+     * Retry tier a record was read from; 0 for the main topic.
+     */
+    public static int tierOf(ConsumerRecord<?, ?> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(TIER_HEADER);
+        return header == null ? 0 : ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    /**
+     * Milliseconds until a retry record is due, or 0 if it already is.
+     */
+    public long remainingDelay(ConsumerRecord<?, ?> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(DUE_HEADER);
+        return header == null ? 0 : Math.max(0, ByteBuffer.wrap(header.value()).getLong() - clock.getAsLong());
+    }
+
+    public void recovered(int tier) {
+        if (tier >= 1 && tier <= recovered.size()) {
+            recovered.get(tier - 1).increment();
+        }
+    }
+
+    /**
+     * Forwards a quote that failed to persist to the next retry tier, or to the DLT after the last one.
+     */
+    public CompletableFuture<?> retry(ConsumerRecord<String, MarketQuote> consumerRecord, Throwable cause) {
+        int tier = tierOf(consumerRecord) + 1;
+        byte[] value = serializer.serialize(topic, consumerRecord.value());
+        if (tier > delays.size()) {
+            exhausted.increment();
+            log.warn("Dead-lettering MarketQuote for {} after {} retries: {}", consumerRecord.key(), delays.size(), cause.getMessage());
+            return send(deadLetterTopic(), consumerRecord, value, cause, tier - 1, 0);
+        }
+        scheduled.get(tier - 1).increment();
+        log.debug("Retrying MarketQuote for {} on tier {}: {}", consumerRecord.key(), tier, cause.getMessage());
+        return send(retryTopic(tier), consumerRecord, value, cause, tier, clock.getAsLong() + delays.get(tier - 1).toMillis());
+    }
+
+    /**
+     * Sends a record that could not be deserialized straight to the DLT with its original bytes.
+     */
+    public CompletableFuture<?> deadLetter(ConsumerRecord<String, ?> consumerRecord, byte[] value, Throwable cause) {
+        undeserializable.increment();
+        log.warn("Dead-lettering undeserializable record {}-{}@{}: {}", consumerRecord.topic(),
+                consumerRecord.partition(), consumerRecord.offset(), cause.getMessage());
+        return send(deadLetterTopic(), consumerRecord, value, cause, tierOf(consumerRecord), 0);
+    }
+
+    private CompletableFuture<?> send(String target, ConsumerRecord<String, ?> consumerRecord, byte[] value,
+                                      Throwable cause, int tier, long due) {
+        Headers headers = new RecordHeaders();
+        for (Header header : consumerRecord.headers()) {
+            if (!REPLACED_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        if (headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC) == null) {
+            headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, utf8(consumerRecord.topic()));
+            headers.add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(consumerRecord.partition()).array());
+            headers.add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(consumerRecord.offset()).array());
+            headers.add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(consumerRecord.timestamp()).array());
+        }
+        headers.add(KafkaHeaders.DLT_EXCEPTION_FQCN, utf8(cause.getClass().getName()));
+        if (cause.getCause() != null) {
+            headers.add(KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN, utf8(cause.getCause().getClass().getName()));
+        }
+        headers.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, utf8(String.valueOf(cause.getMessage())));
+        headers.add(KafkaHeaders.DLT_EXCEPTION_STACKTRACE, utf8(stackTrace(cause)));
+        headers.add(TIER_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(tier).array());
+        if (due > 0) {
+            headers.add(DUE_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(due).array());
+        }
+        return kafkaTemplate.send(new ProducerRecord<>(target, null, consumerRecord.key(), value, headers));
+    }
+
+    private static String stackTrace(Throwable cause) {
+        StringWriter trace = new StringWriter();
+        cause.printStackTrace(new PrintWriter(trace));
+        String text = trace.toString();
+        return text.length() > MAX_STACKTRACE_LENGTH ? text.substring(0, MAX_STACKTRACE_LENGTH) : text;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
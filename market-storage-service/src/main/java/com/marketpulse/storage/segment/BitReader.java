@@ -0,0 +1,48 @@
+package com.marketpulse.storage.segment;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bits written by {@link BitWriter} from a region of a (typically memory-mapped) buffer
+ * using absolute gets, so the buffer's position is never touched.
+ */
+final class BitReader {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private long bitPosition;
+
+    BitReader(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    boolean readBit() {
+        return readBits(1) != 0;
+    }
+
+    long readBits(int bits) {
+        long value = 0;
+        while (bits > 0) {
+            int current = buffer.get(offset + (int) (bitPosition >>> 3)) & 0xFF;
+            int available = 8 - (int) (bitPosition & 7);
+            int take = Math.min(available, bits);
+            int chunk = (current >>> (available - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            bits -= take;
+            bitPosition += take;
+        }
+        return value;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        long b;
+        do {
+            b = readBits(8);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
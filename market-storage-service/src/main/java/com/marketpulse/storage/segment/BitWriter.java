@@ -0,0 +1,46 @@
+package com.marketpulse.storage.segment;
+
+import java.util.Arrays;
+
+/**
+ * Append-only bit buffer, most significant bit first.
+ */
+final class BitWriter {
+    private byte[] buffer;
+    private long bitPosition;
+
+    BitWriter(int initialBytes) {
+        this.buffer = new byte[Math.max(16, initialBytes)];
+    }
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1L : 0L, 1);
+    }
+
+    void writeBits(long value, int bits) {
+        while (bits > 0) {
+            int byteIndex = (int) (bitPosition >>> 3);
+            if (byteIndex >= buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int free = 8 - (int) (bitPosition & 7);
+            int take = Math.min(free, bits);
+            int chunk = (int) ((value >>> (bits - take)) & ((1L << take) - 1));
+            buffer[byteIndex] |= (byte) (chunk << (free - take));
+            bits -= take;
+            bitPosition += take;
+        }
+    }
+
+    void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeBits((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        writeBits(value, 8);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitPosition + 7) >>> 3));
+    }
+}
@@ -0,0 +1,172 @@
+package com.marketpulse.storage.segment;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Column encodings used by segment files.
+ *
+ * <p>Timestamps are stored as the first value followed by zig-zag varint deltas-of-deltas,
+ * so evenly spaced ticks cost about one byte each.
+ *
+ * <p>Doubles use Gorilla-style XOR compression: each value is XORed with the previous one
+ * and only the meaningful bits are written, reusing the previous leading/trailing-zero
+ * window when it fits. Unchanged values cost a single bit. NaN marks a missing field and is
+ * tracked in a presence bitmap, which is omitted when every row is present or every row is
+ * missing.
+ */
+final class ColumnCodec {
+
+    private static final int ALL_PRESENT = 0;
+    private static final int ALL_MISSING = 1;
+    private static final int BITMAP = 2;
+
+    private ColumnCodec() {
+    }
+
+    static byte[] encodeTimestamps(long[] timestamps, int rows) {
+        BitWriter writer = new BitWriter(rows + 16);
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < rows; i++) {
+            long delta = timestamps[i] - previous;
+            writer.writeVarLong(zigZag(i == 0 ? timestamps[0] : delta - previousDelta));
+            previousDelta = i == 0 ? 0 : delta;
+            previous = timestamps[i];
+        }
+        return writer.toByteArray();
+    }
+
+    static long[] decodeTimestamps(ByteBuffer buffer, int offset, int rows) {
+        BitReader reader = new BitReader(buffer, offset);
+        long[] timestamps = new long[rows];
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < rows; i++) {
+            long encoded = unZigZag(reader.readVarLong());
+            if (i == 0) {
+                timestamps[0] = encoded;
+            } else {
+                long delta = previousDelta + encoded;
+                timestamps[i] = previous + delta;
+                previousDelta = delta;
+            }
+            previous = timestamps[i];
+        }
+        return timestamps;
+    }
+
+    static byte[] encodeDoubles(double[] values, int rows) {
+        int present = 0;
+        for (int i = 0; i < rows; i++) {
+            if (!Double.isNaN(values[i])) {
+                present++;
+            }
+        }
+        BitWriter writer = new BitWriter(rows + 16);
+        if (present == 0) {
+            writer.writeBits(ALL_MISSING, 8);
+            return writer.toByteArray();
+        }
+        if (present == rows) {
+            writer.writeBits(ALL_PRESENT, 8);
+        } else {
+            writer.writeBits(BITMAP, 8);
+            for (int i = 0; i < rows; i++) {
+                writer.writeBit(!Double.isNaN(values[i]));
+            }
+        }
+
+        long previous = 0;
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        boolean first = true;
+        for (int i = 0; i < rows; i++) {
+            if (Double.isNaN(values[i])) {
+                continue;
+            }
+            long bits = Double.doubleToRawLongBits(values[i]);
+            if (first) {
+                writer.writeBits(bits, 64);
+                first = false;
+            } else {
+                long xor = bits ^ previous;
+                if (xor == 0) {
+                    writer.writeBit(false);
+                } else {
+                    writer.writeBit(true);
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                        writer.writeBit(false);
+                        writer.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                    } else {
+                        int significant = 64 - leading - trailing;
+                        writer.writeBit(true);
+                        writer.writeBits(leading, 5);
+                        writer.writeBits(significant - 1, 6);
+                        writer.writeBits(xor >>> trailing, significant);
+                        previousLeading = leading;
+                        previousTrailing = trailing;
+                    }
+                }
+            }
+            previous = bits;
+        }
+        return writer.toByteArray();
+    }
+
+    static double[] decodeDoubles(ByteBuffer buffer, int offset, int rows) {
+        BitReader reader = new BitReader(buffer, offset);
+        double[] values = new double[rows];
+        int layout = (int) reader.readBits(8);
+        if (layout == ALL_MISSING) {
+            Arrays.fill(values, Double.NaN);
+            return values;
+        }
+        boolean[] presence = null;
+        if (layout == BITMAP) {
+            presence = new boolean[rows];
+            for (int i = 0; i < rows; i++) {
+                presence[i] = reader.readBit();
+            }
+        }
+
+        long previous = 0;
+        int leading = 0;
+        int trailing = 0;
+        boolean first = true;
+        for (int i = 0; i < rows; i++) {
+            if (presence != null && !presence[i]) {
+                values[i] = Double.NaN;
+                continue;
+            }
+            long bits;
+            if (first) {
+                bits = reader.readBits(64);
+                first = false;
+            } else if (!reader.readBit()) {
+                bits = previous;
+            } else {
+                if (reader.readBit()) {
+                    leading = (int) reader.readBits(5);
+                    int significant = (int) reader.readBits(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                long xor = reader.readBits(64 - leading - trailing) << trailing;
+                bits = previous ^ xor;
+            }
+            values[i] = Double.longBitsToDouble(bits);
+            previous = bits;
+        }
+        return values;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
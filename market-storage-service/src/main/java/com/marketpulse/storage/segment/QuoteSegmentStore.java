@@ -0,0 +1,711 @@
+package com.marketpulse.storage.segment;
+
+import com.marketpulse.avro.MarketQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Quote history kept as per-symbol, per-day (UTC) columnar segment files under
+ * {@code <directory>/<SYMBOL>/<yyyy-MM-dd>/}.
+ *
+ * <p>Appends go to an in-memory buffer per symbol-day and to a {@link SegmentJournal}, so
+ * rows buffered at a crash are replayed on the next start rather than lost. A buffer is
+ * sealed when it fills up, on every flush tick and on shutdown, then sorted and written out
+ * as an immutable chunk by a single background flusher, never on the appending thread. Each
+ * day's {@code MANIFEST} names its live chunks and is replaced atomically, so a chunk
+ * written or a compaction finished just before a crash either fully counts or not at all;
+ * files the manifest does not name are ignored and swept at the day's next compaction. When
+ * a day collects more than {@code max-chunks-per-day} chunks they are merged into one.
+ *
+ * <p>Range scans take the symbol lock only to snapshot the chunk list and copy the matching
+ * buffered rows, then map the chunks and decode only the requested columns without it.
+ */
+@Component
+public class QuoteSegmentStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteSegmentStore.class);
+    private static final String MANIFEST = "MANIFEST";
+    private static final int SCAN_ATTEMPTS = 3;
+
+    private final Path directory;
+    private final boolean enabled;
+    private final int rowsPerChunk;
+    private final Duration flushInterval;
+    private final int maxChunksPerDay;
+    private final Map<String, SymbolSegments> symbols = new ConcurrentHashMap<>();
+    // Chunk names are unique per process run, so a new chunk never replaces an existing one.
+    private final String runId = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 1);
+    private final AtomicLong chunkSequence = new AtomicLong();
+    private final SegmentJournal journal;
+    private final ScheduledExecutorService flusher;
+
+    private final Counter rowsAppended;
+    private final Counter rowsRejected;
+    private final Counter rowsRecovered;
+    private final Counter chunksWritten;
+    private final Counter bytesWritten;
+
+    private volatile ScheduledFuture<?> tick;
+
+    @Autowired
+    public QuoteSegmentStore(@Value("${storage.segments.directory:./data/segments}") Path directory,
+                             @Value("${storage.segments.enabled:true}") boolean enabled,
+                             @Value("${storage.segments.rows-per-chunk:65536}") int rowsPerChunk,
+                             @Value("${storage.segments.flush-interval:5m}") Duration flushInterval,
+                             @Value("${storage.segments.max-chunks-per-day:16}") int maxChunksPerDay,
+                             MeterRegistry meterRegistry) {
+        if (rowsPerChunk < 1 || maxChunksPerDay < 1) {
+            throw new IllegalArgumentException("storage.segments.rows-per-chunk and max-chunks-per-day must be positive");
+        }
+        this.directory = directory;
+        this.enabled = enabled;
+        this.rowsPerChunk = rowsPerChunk;
+        this.flushInterval = flushInterval;
+        this.maxChunksPerDay = maxChunksPerDay;
+        this.rowsAppended = meterRegistry.counter("storage.segments.rows.appended");
+        this.rowsRejected = meterRegistry.counter("storage.segments.rows.rejected");
+        this.rowsRecovered = meterRegistry.counter("storage.segments.rows.recovered");
+        this.chunksWritten = meterRegistry.counter("storage.segments.chunks.written");
+        this.bytesWritten = meterRegistry.counter("storage.segments.bytes.written");
+        if (enabled) {
+            this.journal = new SegmentJournal(directory.resolve("_journal"), SegmentColumn.values().length);
+            this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("segment-flusher").factory());
+            recover();
+        } else {
+            this.journal = null;
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(MarketQuote quote, long timestampMillis) {
+        if (!enabled) {
+            return;
+        }
+        String key = normalize(quote.getSymbol());
+        if (!isValid(key)) {
+            rowsRejected.increment();
+            log.warn("Not keeping history for symbol '{}': not a usable directory name", quote.getSymbol());
+            return;
+        }
+        SymbolSegments segments = symbols.computeIfAbsent(key, SymbolSegments::new);
+        synchronized (segments) {
+            LocalDate day = dayOf(timestampMillis);
+            DayBuffer buffer = segments.buffers.computeIfAbsent(day, d -> new DayBuffer());
+            buffer.add(quote, timestampMillis);
+            try {
+                journal.append(key, timestampMillis, buffer.columns, buffer.rows - 1);
+            } catch (RuntimeException e) {
+                buffer.rows--;
+                throw e;
+            }
+            if (buffer.rows >= rowsPerChunk) {
+                seal(segments, day, buffer);
+                try {
+                    flusher.execute(() -> writeSealedQuietly(segments));
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: the journal still holds the rows.
+                }
+            }
+        }
+        rowsAppended.increment();
+    }
+
+    /**
+     * Writes every non-empty buffer to disk and returns once it is committed.
+     */
+    public void flushAll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flusher.submit(this::flushNow).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing quote segments", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to flush quote segments", e.getCause());
+        }
+    }
+
+    /**
+     * Rows for {@code symbol} with {@code from <= timestamp < to}, sorted by timestamp.
+     *
+     * @throws IllegalArgumentException if {@code symbol} cannot name a segment directory
+     */
+    public QuoteSeries scan(String symbol, Instant from, Instant to, Collection<SegmentColumn> columns) {
+        String key = normalize(symbol);
+        if (!isValid(key)) {
+            throw new IllegalArgumentException("Invalid symbol: " + symbol);
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<SegmentColumn> requested = columns.stream().distinct().sorted().toList();
+        if (!enabled || fromMillis >= toMillis) {
+            return new SeriesBuilder(requested).build(key);
+        }
+        // Unknown symbols are not registered, so lookups cannot grow the map.
+        SymbolSegments known = symbols.get(key);
+        SymbolSegments segments = known != null ? known : new SymbolSegments(key);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return scan(segments, fromMillis, toMillis, requested);
+            } catch (UncheckedIOException e) {
+                // A compaction removed a chunk between the snapshot and the read; take a new snapshot.
+                if (!(e.getCause() instanceof NoSuchFileException) || attempt == SCAN_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private QuoteSeries scan(SymbolSegments segments, long fromMillis, long toMillis, List<SegmentColumn> requested) {
+        LocalDate first = dayOf(fromMillis);
+        LocalDate last = dayOf(toMillis - 1);
+        Map<LocalDate, List<String>> onDisk = new HashMap<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            onDisk.put(day, chunkNames(segments, day));
+        }
+        SeriesBuilder result = new SeriesBuilder(requested);
+        List<Path> chunks = new ArrayList<>();
+        synchronized (segments) {
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                Path dayDirectory = dayDirectory(segments, day);
+                for (String name : segments.chunks.getOrDefault(day, onDisk.get(day))) {
+                    chunks.add(dayDirectory.resolve(name));
+                }
+                for (SealedBuffer sealed : segments.sealed) {
+                    if (sealed.day().equals(day)) {
+                        result.addBuffer(sealed.buffer(), fromMillis, toMillis);
+                    }
+                }
+                DayBuffer buffer = segments.buffers.get(day);
+                if (buffer != null) {
+                    result.addBuffer(buffer, fromMillis, toMillis);
+                }
+            }
+        }
+        for (Path chunk : chunks) {
+            SegmentFile file = SegmentFile.open(chunk);
+            if (file.overlaps(fromMillis, toMillis)) {
+                result.addChunk(file, fromMillis, toMillis);
+            }
+        }
+        return result.build(segments.symbol);
+    }
+
+    /**
+     * Replays rows the journal holds from before the last run, skipping any that already made
+     * it into a committed chunk, and writes them out.
+     */
+    private void recover() {
+        Map<String, long[]> committed = new HashMap<>();
+        long[] recovered = new long[1];
+        journal.replay((symbol, timestampMillis, values) -> {
+            if (!isValid(symbol)) {
+                return;
+            }
+            SymbolSegments segments = symbols.computeIfAbsent(symbol, SymbolSegments::new);
+            LocalDate day = dayOf(timestampMillis);
+            long[] timestamps = committed.computeIfAbsent(symbol + "/" + day, k -> committedTimestamps(segments, day));
+            if (Arrays.binarySearch(timestamps, timestampMillis) >= 0) {
+                return;
+            }
+            segments.buffers.computeIfAbsent(day, d -> new DayBuffer()).add(timestampMillis, values);
+            recovered[0]++;
+        });
+        flushNow();
+        if (recovered[0] > 0) {
+            rowsRecovered.increment(recovered[0]);
+            log.info("Recovered {} buffered quote rows from the segment journal", recovered[0]);
+        }
+    }
+
+    private long[] committedTimestamps(SymbolSegments segments, LocalDate day) {
+        long[] timestamps = new long[0];
+        Path dayDirectory = dayDirectory(segments, day);
+        for (String name : readManifest(dayDirectory)) {
+            long[] chunk = SegmentFile.open(dayDirectory.resolve(name)).timestamps();
+            int offset = timestamps.length;
+            timestamps = Arrays.copyOf(timestamps, offset + chunk.length);
+            System.arraycopy(chunk, 0, timestamps, offset, chunk.length);
+        }
+        Arrays.sort(timestamps);
+        return timestamps;
+    }
+
+    /**
+     * Runs on the flusher: seals every buffer, writes all sealed buffers and, once they are
+     * committed, drops the journal generations that held them.
+     */
+    private void flushNow() {
+        long finished = journal.rotate();
+        for (SymbolSegments segments : symbols.values()) {
+            synchronized (segments) {
+                for (Map.Entry<LocalDate, DayBuffer> entry : new ArrayList<>(segments.buffers.entrySet())) {
+                    seal(segments, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        RuntimeException failure = null;
+        for (SymbolSegments segments : symbols.values()) {
+            try {
+                writeSealed(segments);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            // Keep the journal: the rows that failed are still only in memory.
+            throw failure;
+        }
+        journal.deleteThrough(finished);
+    }
+
+    /**
+     * Moves a buffer out of the appenders' way; scans keep seeing it until its chunk is committed.
+     */
+    private static void seal(SymbolSegments segments, LocalDate day, DayBuffer buffer) {
+        segments.buffers.remove(day);
+        if (buffer.rows > 0) {
+            buffer.sort();
+            segments.sealed.add(new SealedBuffer(day, buffer));
+        }
+    }
+
+    private void writeSealedQuietly(SymbolSegments segments) {
+        try {
+            writeSealed(segments);
+        } catch (RuntimeException e) {
+            log.error("Segment flush for {} failed, retrying on the next tick: {}", segments.symbol, e.getMessage());
+        }
+    }
+
+    private void writeSealed(SymbolSegments segments) {
+        while (true) {
+            SealedBuffer next;
+            synchronized (segments) {
+                if (segments.sealed.isEmpty()) {
+                    return;
+                }
+                next = segments.sealed.get(0);
+            }
+            commit(segments, next);
+        }
+    }
+
+    /**
+     * Writes a sealed buffer as a new chunk, compacting the day if it has too many, then
+     * switches scans over to the new manifest in one step.
+     */
+    private void commit(SymbolSegments segments, SealedBuffer sealed) {
+        LocalDate day = sealed.day();
+        DayBuffer buffer = sealed.buffer();
+        Path dayDirectory = dayDirectory(segments, day);
+        List<String> live = new ArrayList<>(chunkNames(segments, day));
+        String name = chunkName(buffer.timestamps[0]);
+        bytesWritten.increment(SegmentFile.write(dayDirectory.resolve(name), buffer.timestamps, buffer.columns,
+                buffer.rows));
+        chunksWritten.increment();
+        live.add(name);
+        boolean compacted = live.size() > maxChunksPerDay;
+        if (compacted) {
+            String merged = compact(dayDirectory, live);
+            log.debug("Compacted {} chunks for {} {} into {}", live.size(), segments.symbol, day, merged);
+            live = List.of(merged);
+        }
+        List<String> committed = List.copyOf(live);
+        Path manifest = dayDirectory.resolve(MANIFEST);
+        Path temp = dayDirectory.resolve(MANIFEST + ".tmp");
+        try {
+            Files.write(temp, committed, StandardCharsets.UTF_8);
+            synchronized (segments) {
+                Files.move(temp, manifest, StandardCopyOption.ATOMIC_MOVE);
+                segments.chunks.put(day, committed);
+                segments.sealed.remove(sealed);
+            }
+            if (compacted) {
+                sweep(dayDirectory, committed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit segments for " + segments.symbol + " " + day, e);
+        }
+    }
+
+    private String compact(Path dayDirectory, List<String> chunks) {
+        DayBuffer merged = new DayBuffer();
+        for (String chunk : chunks) {
+            SegmentFile file = SegmentFile.open(dayDirectory.resolve(chunk));
+            long[] timestamps = file.timestamps();
+            double[][] columns = new double[SegmentColumn.values().length][];
+            for (SegmentColumn column : SegmentColumn.values()) {
+                columns[column.ordinal()] = file.column(column);
+            }
+            for (int row = 0; row < file.rows(); row++) {
+                merged.add(timestamps[row], columns, row);
+            }
+        }
+        merged.sort();
+        String name = chunkName(merged.timestamps[0]);
+        bytesWritten.increment(SegmentFile.write(dayDirectory.resolve(name), merged.timestamps, merged.columns,
+                merged.rows));
+        return name;
+    }
+
+    /**
+     * Deletes chunks the manifest no longer names: compaction inputs and leftovers of a crash.
+     */
+    private static void sweep(Path dayDirectory, List<String> live) throws IOException {
+        Set<String> keep = new HashSet<>(live);
+        keep.add(MANIFEST);
+        try (Stream<Path> files = Files.list(dayDirectory)) {
+            for (Path file : files.toList()) {
+                if (!keep.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private String chunkName(long firstTimestamp) {
+        return String.format(Locale.ROOT, "%019d-%s-%d%s", firstTimestamp, runId, chunkSequence.incrementAndGet(),
+                SegmentFile.EXTENSION);
+    }
+
+    /**
+     * The day's committed chunks, from the cached manifest or, the first time, from disk.
+     */
+    private List<String> chunkNames(SymbolSegments segments, LocalDate day) {
+        synchronized (segments) {
+            List<String> cached = segments.chunks.get(day);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<String> loaded = readManifest(dayDirectory(segments, day));
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        synchronized (segments) {
+            // The flusher may have committed meanwhile; its list is the newer one.
+            return segments.chunks.computeIfAbsent(day, d -> loaded);
+        }
+    }
+
+    /**
+     * The chunks the day's manifest names; a day without a manifest has none committed, so
+     * any chunk files in it are leftovers of a crash.
+     */
+    private static List<String> readManifest(Path dayDirectory) {
+        Path manifest = dayDirectory.resolve(MANIFEST);
+        try {
+            return List.copyOf(Files.readAllLines(manifest, StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read segment manifest " + manifest, e);
+        }
+    }
+
+    private Path dayDirectory(SymbolSegments segments, LocalDate day) {
+        return directory.resolve(segments.directoryName).resolve(day.toString());
+    }
+
+    private static LocalDate dayOf(long timestampMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneOffset.UTC);
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Rejects symbols whose directory name would be empty, {@code .} or {@code ..}, and so
+     * could point outside their own directory.
+     */
+    private static boolean isValid(String symbol) {
+        String name = directoryName(symbol);
+        return !name.isEmpty() && !name.chars().allMatch(c -> c == '.');
+    }
+
+    private static String directoryName(String symbol) {
+        return symbol.replaceAll("[^A-Z0-9._^-]", "_");
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        tick = flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flushNow();
+            } catch (RuntimeException e) {
+                log.error("Segment flush failed: {}", e.getMessage());
+            }
+        }, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes out every buffer, then stops the flusher and closes the journal.
+     */
+    @Override
+    public void stop() {
+        ScheduledFuture<?> scheduled = tick;
+        if (scheduled == null) {
+            return;
+        }
+        scheduled.cancel(false);
+        tick = null;
+        try {
+            flushAll();
+        } finally {
+            flusher.shutdown();
+            journal.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return tick != null;
+    }
+
+    /**
+     * Stops after the Kafka listener containers, so the final flush sees their last appends.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 200;
+    }
+
+    public record QuoteSeries(String symbol, long[] timestamps, Map<SegmentColumn, double[]> columns) {
+        public int size() {
+            return timestamps.length;
+        }
+    }
+
+    /**
+     * Per-symbol state, guarded by the instance's monitor.
+     */
+    private static final class SymbolSegments {
+        final String symbol;
+        final String directoryName;
+        final Map<LocalDate, DayBuffer> buffers = new HashMap<>();
+        final List<SealedBuffer> sealed = new ArrayList<>();
+        final Map<LocalDate, List<String>> chunks = new HashMap<>();
+
+        SymbolSegments(String symbol) {
+            this.symbol = symbol;
+            this.directoryName = directoryName(symbol);
+        }
+    }
+
+    private record SealedBuffer(LocalDate day, DayBuffer buffer) {
+    }
+
+    private static final class DayBuffer {
+        long[] timestamps = new long[256];
+        double[][] columns = new double[SegmentColumn.values().length][256];
+        int rows;
+
+        void add(MarketQuote quote, long timestampMillis) {
+            ensureCapacity();
+            timestamps[rows] = timestampMillis;
+            for (SegmentColumn column : SegmentColumn.values()) {
+                columns[column.ordinal()][rows] = column.extract(quote);
+            }
+            rows++;
+        }
+
+        void add(long timestampMillis, double[] values) {
+            ensureCapacity();
+            timestamps[rows] = timestampMillis;
+            for (int c = 0; c < columns.length; c++) {
+                columns[c][rows] = values[c];
+            }
+            rows++;
+        }
+
+        void add(long timestampMillis, double[][] source, int row) {
+            ensureCapacity();
+            timestamps[rows] = timestampMillis;
+            for (int c = 0; c < columns.length; c++) {
+                columns[c][rows] = source[c][row];
+            }
+            rows++;
+        }
+
+        private void ensureCapacity() {
+            if (rows == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, rows * 2);
+                for (int c = 0; c < columns.length; c++) {
+                    columns[c] = Arrays.copyOf(columns[c], rows * 2);
+                }
+            }
+        }
+
+        /**
+         * Stable sort by timestamp; a no-op for the common in-order case.
+         */
+        void sort() {
+            boolean sorted = true;
+            for (int i = 1; i < rows && sorted; i++) {
+                sorted = timestamps[i - 1] <= timestamps[i];
+            }
+            if (sorted) {
+                return;
+            }
+            Integer[] order = new Integer[rows];
+            for (int i = 0; i < rows; i++) {
+                order[i] = i;
+            }
+            long[] keys = timestamps;
+            Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+            long[] sortedTimestamps = new long[timestamps.length];
+            double[][] sortedColumns = new double[columns.length][timestamps.length];
+            for (int i = 0; i < rows; i++) {
+                sortedTimestamps[i] = timestamps[order[i]];
+                for (int c = 0; c < columns.length; c++) {
+                    sortedColumns[c][i] = columns[c][order[i]];
+                }
+            }
+            timestamps = sortedTimestamps;
+            columns = sortedColumns;
+        }
+    }
+
+    /**
+     * Accumulates matching rows from chunks and buffers, then sorts once at the end.
+     */
+    private static final class SeriesBuilder {
+        private final List<SegmentColumn> columns;
+        private long[] timestamps = new long[0];
+        private final double[][] values;
+        private int rows;
+
+        SeriesBuilder(List<SegmentColumn> columns) {
+            this.columns = columns;
+            this.values = new double[columns.size()][0];
+        }
+
+        void addChunk(SegmentFile file, long from, long to) {
+            long[] chunkTimestamps = file.timestamps();
+            int start = lowerBound(chunkTimestamps, chunkTimestamps.length, from);
+            int end = lowerBound(chunkTimestamps, chunkTimestamps.length, to);
+            if (start >= end) {
+                return;
+            }
+            double[][] chunkValues = new double[columns.size()][];
+            for (int c = 0; c < columns.size(); c++) {
+                chunkValues[c] = file.column(columns.get(c));
+            }
+            append(chunkTimestamps, chunkValues, start, end);
+        }
+
+        void addBuffer(DayBuffer buffer, long from, long to) {
+            double[][] bufferValues = new double[columns.size()][];
+            for (int c = 0; c < columns.size(); c++) {
+                bufferValues[c] = buffer.columns[columns.get(c).ordinal()];
+            }
+            // The live buffer is not necessarily sorted, so filter row by row.
+            for (int row = 0; row < buffer.rows; row++) {
+                long timestamp = buffer.timestamps[row];
+                if (timestamp >= from && timestamp < to) {
+                    append(buffer.timestamps, bufferValues, row, row + 1);
+                }
+            }
+        }
+
+        private void append(long[] sourceTimestamps, double[][] sourceValues, int start, int end) {
+            int count = end - start;
+            if (rows + count > timestamps.length) {
+                int capacity = Math.max(rows + count, timestamps.length * 2);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                for (int c = 0; c < values.length; c++) {
+                    values[c] = Arrays.copyOf(values[c], capacity);
+                }
+            }
+            System.arraycopy(sourceTimestamps, start, timestamps, rows, count);
+            for (int c = 0; c < values.length; c++) {
+                System.arraycopy(sourceValues[c], start, values[c], rows, count);
+            }
+            rows += count;
+        }
+
+        QuoteSeries build(String symbol) {
+            DayBuffer sorter = new DayBuffer();
+            sorter.timestamps = timestamps;
+            sorter.columns = values;
+            sorter.rows = rows;
+            sorter.sort();
+            Map<SegmentColumn, double[]> byColumn = new EnumMap<>(SegmentColumn.class);
+            for (int c = 0; c < columns.size(); c++) {
+                byColumn.put(columns.get(c), Arrays.copyOf(sorter.columns[c], rows));
+            }
+            return new QuoteSeries(symbol, Arrays.copyOf(sorter.timestamps, rows), byColumn);
+        }
+
+        private static int lowerBound(long[] sorted, int length, long key) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.marketpulse.storage.segment;
+
+import com.marketpulse.avro.MarketQuote;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Numeric {@link MarketQuote} fields kept in segments, one column each. The ordinal is the
+ * column's position in the segment file, so new columns must be appended.
+ */
+public enum SegmentColumn {
+    PRICE("price", MarketQuote::getPrice),
+    CHANGES_PERCENTAGE("changesPercentage", MarketQuote::getChangesPercentage),
+    CHANGE("change", MarketQuote::getChange),
+    DAY_LOW("dayLow", MarketQuote::getDayLow),
+    DAY_HIGH("dayHigh", MarketQuote::getDayHigh),
+    YEAR_HIGH("yearHigh", MarketQuote::getYearHigh),
+    YEAR_LOW("yearLow", MarketQuote::getYearLow),
+    MARKET_CAP("marketCap", MarketQuote::getMarketCap),
+    PRICE_AVG50("priceAvg50", MarketQuote::getPriceAvg50),
+    PRICE_AVG200("priceAvg200", MarketQuote::getPriceAvg200),
+    VOLUME("volume", MarketQuote::getVolume),
+    AVG_VOLUME("avgVolume", MarketQuote::getAvgVolume),
+    OPEN("open", MarketQuote::getOpen),
+    PREVIOUS_CLOSE("previousClose", MarketQuote::getPreviousClose),
+    EPS("eps", MarketQuote::getEps),
+    PE("pe", MarketQuote::getPe),
+    SHARES_OUTSTANDING("sharesOutstanding", MarketQuote::getSharesOutstanding);
+
+    private final String fieldName;
+    private final Function<MarketQuote, Double> accessor;
+
+    SegmentColumn(String fieldName, Function<MarketQuote, Double> accessor) {
+        this.fieldName = fieldName;
+        this.accessor = accessor;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Field value, with a missing field stored as NaN.
+     */
+    double extract(MarketQuote quote) {
+        Double value = accessor.apply(quote);
+        return value == null ? Double.NaN : value;
+    }
+
+    public static SegmentColumn fromFieldName(String fieldName) {
+        for (SegmentColumn column : values()) {
+            if (column.fieldName.equalsIgnoreCase(fieldName.trim())) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown quote field: " + fieldName.toLowerCase(Locale.ROOT));
+    }
+}
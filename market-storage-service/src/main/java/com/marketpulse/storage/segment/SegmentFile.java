@@ -0,0 +1,134 @@
+package com.marketpulse.storage.segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * One immutable, sorted chunk of a symbol-day.
+ *
+ * <pre>
+ * int    magic "MPQS"
+ * byte   version
+ * int    row count
+ * long   first timestamp, long last timestamp
+ * byte   column count (n)
+ * (n + 1) x (int offset, int length)   timestamps first, then columns by ordinal
+ * column data
+ * </pre>
+ *
+ * Readers memory-map the file and decode only the columns they ask for.
+ */
+final class SegmentFile {
+
+    static final String EXTENSION = ".seg";
+    private static final int MAGIC = 0x4D505153;
+    private static final byte VERSION = 1;
+    private static final int FIXED_HEADER = 4 + 1 + 4 + 8 + 8 + 1;
+
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final int columnCount;
+
+    private SegmentFile(MappedByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION) {
+            throw new IllegalStateException("Not a quote segment file");
+        }
+        this.buffer = buffer;
+        this.rows = buffer.getInt(5);
+        this.firstTimestamp = buffer.getLong(9);
+        this.lastTimestamp = buffer.getLong(17);
+        this.columnCount = buffer.get(25);
+    }
+
+    /**
+     * Writes rows that are already sorted by timestamp. The file appears atomically.
+     *
+     * @return bytes written
+     */
+    static long write(Path path, long[] timestamps, double[][] columns, int rows) {
+        SegmentColumn[] all = SegmentColumn.values();
+        byte[][] sections = new byte[all.length + 1][];
+        sections[0] = ColumnCodec.encodeTimestamps(timestamps, rows);
+        for (SegmentColumn column : all) {
+            sections[column.ordinal() + 1] = ColumnCodec.encodeDoubles(columns[column.ordinal()], rows);
+        }
+        int headerSize = FIXED_HEADER + sections.length * 8;
+        int size = headerSize;
+        for (byte[] section : sections) {
+            size += section.length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC).put(VERSION).putInt(rows)
+                .putLong(timestamps[0]).putLong(timestamps[rows - 1])
+                .put((byte) all.length);
+        int offset = headerSize;
+        for (byte[] section : sections) {
+            out.putInt(offset).putInt(section.length);
+            offset += section.length;
+        }
+        for (byte[] section : sections) {
+            out.put(section);
+        }
+        out.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write segment " + path, e);
+        }
+        return size;
+    }
+
+    static SegmentFile open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new SegmentFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map segment " + path, e);
+        }
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    boolean overlaps(long fromInclusive, long toExclusive) {
+        return firstTimestamp < toExclusive && lastTimestamp >= fromInclusive;
+    }
+
+    long[] timestamps() {
+        return ColumnCodec.decodeTimestamps(buffer, sectionOffset(0), rows);
+    }
+
+    double[] column(SegmentColumn column) {
+        if (column.ordinal() >= columnCount) {
+            double[] missing = new double[rows];
+            Arrays.fill(missing, Double.NaN);
+            return missing;
+        }
+        return ColumnCodec.decodeDoubles(buffer, sectionOffset(column.ordinal() + 1), rows);
+    }
+
+    private int sectionOffset(int section) {
+        return buffer.getInt(FIXED_HEADER + section * 8);
+    }
+}
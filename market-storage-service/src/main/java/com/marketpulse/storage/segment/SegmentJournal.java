@@ -0,0 +1,202 @@
+package com.marketpulse.storage.segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead log of rows appended to segment buffers, so rows that were still buffered when
+ * the process died are not lost. Rows go to numbered generation files under
+ * {@code <segments>/_journal/}:
+ *
+ * <pre>
+ * header: int magic "MPQJ", byte version, byte column count (n)
+ * record: short symbol length, symbol (UTF-8), long timestamp, n x double
+ * </pre>
+ *
+ * Every row is handed to the OS before {@code append} returns, so it survives a process crash;
+ * {@link #rotate} forces the finished generation to disk. A generation can be deleted once
+ * every row in it has been written to a committed chunk. A torn record at the end of a file,
+ * from a crash mid-write, is ignored on replay.
+ */
+final class SegmentJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x4D50514A;
+    private static final byte VERSION = 1;
+    private static final int HEADER = 4 + 1 + 1;
+    private static final String EXTENSION = ".wal";
+
+    private final Path directory;
+    private final int columns;
+    private ByteBuffer record;
+    private FileChannel channel;
+    private long generation;
+
+    SegmentJournal(Path directory, int columns) {
+        this.directory = directory;
+        this.columns = columns;
+        this.record = ByteBuffer.allocate(2 + 32 + 8 + columns * 8);
+        List<Long> existing = generations();
+        open(existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1);
+    }
+
+    /**
+     * Logs row {@code row} of the given column arrays.
+     */
+    synchronized void append(String symbol, long timestampMillis, double[][] values, int row) {
+        byte[] name = symbol.getBytes(StandardCharsets.UTF_8);
+        int size = 2 + name.length + 8 + columns * 8;
+        if (record.capacity() < size) {
+            record = ByteBuffer.allocate(size);
+        }
+        record.clear();
+        record.putShort((short) name.length).put(name).putLong(timestampMillis);
+        for (double[] column : values) {
+            record.putDouble(column[row]);
+        }
+        record.flip();
+        write(record);
+    }
+
+    /**
+     * Starts a new generation and returns the one just finished.
+     */
+    synchronized long rotate() {
+        long finished = generation;
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close segment journal " + path(finished), e);
+        }
+        open(finished + 1);
+        return finished;
+    }
+
+    /**
+     * Deletes every generation up to and including {@code generation}.
+     */
+    void deleteThrough(long generation) {
+        for (long existing : generations()) {
+            if (existing <= generation) {
+                try {
+                    Files.deleteIfExists(path(existing));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to delete segment journal " + path(existing), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every row from generations before the current one, oldest first.
+     */
+    void replay(RowConsumer consumer) {
+        long current;
+        synchronized (this) {
+            current = generation;
+        }
+        for (long existing : generations()) {
+            if (existing < current) {
+                replay(path(existing), consumer);
+            }
+        }
+    }
+
+    private void replay(Path file, RowConsumer consumer) {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read segment journal " + file, e);
+        }
+        if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            return;
+        }
+        int fileColumns = buffer.get();
+        double[] values = new double[columns];
+        try {
+            while (buffer.hasRemaining()) {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                long timestamp = buffer.getLong();
+                for (int c = 0; c < fileColumns; c++) {
+                    double value = buffer.getDouble();
+                    if (c < columns) {
+                        values[c] = value;
+                    }
+                }
+                for (int c = fileColumns; c < columns; c++) {
+                    values[c] = Double.NaN;
+                }
+                consumer.accept(new String(name, StandardCharsets.UTF_8), timestamp, values);
+            }
+        } catch (BufferUnderflowException e) {
+            // Torn tail from a crash mid-append: the row was never acknowledged.
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close segment journal " + path(generation), e);
+        }
+    }
+
+    private void open(long next) {
+        Path file = path(next);
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open segment journal " + file, e);
+        }
+        generation = next;
+        write(ByteBuffer.allocate(HEADER).putInt(MAGIC).put(VERSION).put((byte) columns).flip());
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to segment journal " + path(generation), e);
+        }
+    }
+
+    private List<Long> generations() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - EXTENSION.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list segment journals in " + directory, e);
+        }
+    }
+
+    private Path path(long generation) {
+        return directory.resolve(String.format(Locale.ROOT, "%019d%s", generation, EXTENSION));
+    }
+
+    @FunctionalInterface
+    interface RowConsumer {
+        void accept(String symbol, long timestampMillis, double[] values);
+    }
+}
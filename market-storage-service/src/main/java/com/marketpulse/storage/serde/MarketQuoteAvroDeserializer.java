@@ -0,0 +1,24 @@
+package com.marketpulse.storage.serde;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.serde.AvroSingleObjectDeserializer;
+
+/**
+ * Registry-free deserializer for market-quotes written by the aggregator's
+ * {@code MarketQuoteAvroSerializer} (Avro single-object encoding), resolving older writer
+ * schemas listed under {@link #WRITER_SCHEMAS_CONFIG} against the compiled
+ * {@link MarketQuote} schema. Named in consumer configs, which need a class with a
+ * no-argument constructor.
+ */
+public class MarketQuoteAvroDeserializer extends AvroSingleObjectDeserializer<MarketQuote> {
+
+    /**
+     * Classpath locations of older {@code MarketQuote} schemas that producers may still write,
+     * as a comma-separated string or a list.
+     */
+    public static final String WRITER_SCHEMAS_CONFIG = "marketquote.avro.writer-schemas";
+
+    public MarketQuoteAvroDeserializer() {
+        super(MarketQuote.getClassSchema(), WRITER_SCHEMAS_CONFIG);
+    }
+}
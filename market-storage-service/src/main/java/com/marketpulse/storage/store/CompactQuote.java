@@ -0,0 +1,30 @@
+package com.marketpulse.storage.store;
+
+/**
+ * Flyweight over one record of a {@link CompactQuoteArena}: reads fields in place, without
+ * materializing a {@code MarketQuote} or boxing, and is re-pointed with {@link #moveTo}
+ * instead of allocated per record. An absent timestamp reads as {@link #NO_TIMESTAMP}.
+ * Not thread-safe.
+ */
+final class CompactQuote {
+
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final CompactQuoteArena arena;
+    private int slot;
+
+    CompactQuote(CompactQuoteArena arena) {
+        this.arena = arena;
+    }
+
+    CompactQuote moveTo(int slot) {
+        this.slot = slot;
+        return this;
+    }
+
+    long timestamp() {
+        return arena.isSet(slot, CompactQuoteArena.TIMESTAMP)
+                ? arena.longAt(slot, CompactQuoteArena.TIMESTAMP)
+                : NO_TIMESTAMP;
+    }
+}
@@ -0,0 +1,206 @@
+package com.marketpulse.storage.store;
+
+import com.marketpulse.avro.MarketQuote;
+import org.apache.avro.Schema;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fixed-size {@link MarketQuote} records in one off-heap direct buffer, addressed by slot.
+ * The record layout follows the Avro schema: an eight-byte bitmap with a bit per field
+ * position that is set when the field is non-null, then every {@code double} and
+ * {@code long} field as a primitive, then the low-cardinality string fields (symbol and
+ * exchange) as {@link StringDictionary} ids. A fully populated quote takes
+ * {@link #RECORD_BYTES} bytes instead of a record object and its boxed {@code Double}s.
+ *
+ * <p>The dictionary never releases an id, so other string fields, such as the company name
+ * and earnings date, which change over time, are not interned: they stay on the heap in a
+ * per-slot array and are dropped when the slot is overwritten.
+ *
+ * <p>{@link #write} and {@link #read} convert to and from {@code MarketQuote} without loss;
+ * {@link CompactQuote} reads single fields in place. Not thread-safe; callers synchronize.
+ */
+final class CompactQuoteArena {
+
+    private static final Set<String> INTERNED = Set.of("symbol", "exchange");
+    private static final Schema.Type[] TYPES;
+    private static final boolean[] ON_HEAP;
+    // Byte offset in the record, or the column in heapStrings for fields kept on the heap.
+    private static final int[] OFFSETS;
+    private static final int HEAP_FIELDS;
+
+    static final int RECORD_BYTES;
+    static final int SYMBOL = field("symbol");
+    static final int TIMESTAMP = field("timestamp");
+
+    static {
+        List<Schema.Field> fields = MarketQuote.getClassSchema().getFields();
+        if (fields.size() > Long.SIZE) {
+            throw new IllegalStateException("MarketQuote has more fields than the null bitmap holds: " + fields.size());
+        }
+        TYPES = new Schema.Type[fields.size()];
+        ON_HEAP = new boolean[fields.size()];
+        OFFSETS = new int[fields.size()];
+        // Eight-byte fields first so they stay aligned, then the four-byte string ids.
+        int offset = Long.BYTES;
+        for (Schema.Field field : fields) {
+            TYPES[field.pos()] = valueType(field);
+            if (TYPES[field.pos()] != Schema.Type.STRING) {
+                OFFSETS[field.pos()] = offset;
+                offset += Long.BYTES;
+            }
+        }
+        int heapFields = 0;
+        for (Schema.Field field : fields) {
+            if (TYPES[field.pos()] != Schema.Type.STRING) {
+                continue;
+            }
+            if (INTERNED.contains(field.name())) {
+                OFFSETS[field.pos()] = offset;
+                offset += Integer.BYTES;
+            } else {
+                ON_HEAP[field.pos()] = true;
+                OFFSETS[field.pos()] = heapFields++;
+            }
+        }
+        RECORD_BYTES = (offset + Long.BYTES - 1) & -Long.BYTES;
+        HEAP_FIELDS = heapFields;
+    }
+
+    private final StringDictionary strings;
+    private ByteBuffer memory;
+    private String[][] heapStrings;
+
+    CompactQuoteArena(int expectedRecords, StringDictionary strings) {
+        this.strings = strings;
+        this.memory = allocate(Math.max(expectedRecords, 16));
+        this.heapStrings = new String[HEAP_FIELDS][capacity()];
+    }
+
+    int capacity() {
+        return memory.capacity() / RECORD_BYTES;
+    }
+
+    /**
+     * Off-heap bytes reserved for records, used or not.
+     */
+    long bytes() {
+        return memory.capacity();
+    }
+
+    /**
+     * Grows the arena, at least doubling it, until slots {@code 0..records-1} fit.
+     */
+    void ensureCapacity(int records) {
+        int capacity = capacity();
+        if (records <= capacity) {
+            return;
+        }
+        ByteBuffer grown = allocate(Math.max(records, (int) Math.min(2L * capacity, Integer.MAX_VALUE / RECORD_BYTES)));
+        grown.put(0, memory, 0, memory.capacity());
+        memory = grown;
+        for (int column = 0; column < HEAP_FIELDS; column++) {
+            heapStrings[column] = Arrays.copyOf(heapStrings[column], capacity());
+        }
+    }
+
+    /**
+     * Stores {@code quote} in {@code slot}, replacing what was there.
+     */
+    void write(int slot, MarketQuote quote) {
+        int base = slot * RECORD_BYTES;
+        long present = 0;
+        for (int field = 0; field < TYPES.length; field++) {
+            Object value = quote.get(field);
+            if (ON_HEAP[field]) {
+                heapStrings[OFFSETS[field]][slot] = value == null ? null : value.toString();
+            }
+            if (value == null) {
+                continue;
+            }
+            present |= 1L << field;
+            int at = base + OFFSETS[field];
+            switch (TYPES[field]) {
+                case DOUBLE -> memory.putDouble(at, (Double) value);
+                case LONG -> memory.putLong(at, (Long) value);
+                default -> {
+                    if (!ON_HEAP[field]) {
+                        memory.putInt(at, strings.intern(value.toString()));
+                    }
+                }
+            }
+        }
+        memory.putLong(base, present);
+    }
+
+    /**
+     * Materializes the quote in {@code slot}.
+     */
+    MarketQuote read(int slot) {
+        MarketQuote quote = new MarketQuote();
+        long present = memory.getLong(slot * RECORD_BYTES);
+        for (int field = 0; field < TYPES.length; field++) {
+            if ((present & (1L << field)) != 0) {
+                quote.put(field, switch (TYPES[field]) {
+                    case DOUBLE -> doubleAt(slot, field);
+                    case LONG -> longAt(slot, field);
+                    default -> stringAt(slot, field);
+                });
+            }
+        }
+        return quote;
+    }
+
+    /**
+     * Whether a quote has been written to {@code slot}; every quote has a symbol.
+     */
+    boolean holds(int slot) {
+        return slot < capacity() && isSet(slot, SYMBOL);
+    }
+
+    boolean isSet(int slot, int field) {
+        return (memory.getLong(slot * RECORD_BYTES) & (1L << field)) != 0;
+    }
+
+    double doubleAt(int slot, int field) {
+        return memory.getDouble(slot * RECORD_BYTES + OFFSETS[field]);
+    }
+
+    long longAt(int slot, int field) {
+        return memory.getLong(slot * RECORD_BYTES + OFFSETS[field]);
+    }
+
+    String stringAt(int slot, int field) {
+        if (ON_HEAP[field]) {
+            return heapStrings[OFFSETS[field]][slot];
+        }
+        return strings.value(memory.getInt(slot * RECORD_BYTES + OFFSETS[field]));
+    }
+
+    private static ByteBuffer allocate(int records) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(records, RECORD_BYTES)).order(ByteOrder.nativeOrder());
+    }
+
+    private static int field(String name) {
+        return MarketQuote.getClassSchema().getField(name).pos();
+    }
+
+    private static Schema.Type valueType(Schema.Field field) {
+        Schema schema = field.schema();
+        if (schema.isUnion()) {
+            schema = schema.getTypes().stream()
+                    .filter(branch -> branch.getType() != Schema.Type.NULL)
+                    .findFirst()
+                    .orElse(schema);
+        }
+        return switch (schema.getType()) {
+            case DOUBLE, LONG, STRING -> schema.getType();
+            default -> throw new IllegalStateException(
+                    "No compact layout for MarketQuote." + field.name() + " of type " + schema.getType());
+        };
+    }
+}
@@ -0,0 +1,142 @@
+package com.marketpulse.storage.store;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.repository.MarketQuoteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Latest quote per symbol, kept in memory so "what is X trading at" never touches the
+ * database. The consumer updates it after each write; on startup it is warmed from the most
+ * recent stored row per symbol, before the Kafka listeners start.
+ *
+ * <p>Quotes are held in compact form rather than as {@code MarketQuote} objects, in an
+ * off-heap {@link CompactQuoteArena}. A symbol's id in the arena's string dictionary is also
+ * its slot; exchanges are interned in the same dictionary, so each is stored once and leaves
+ * one slot unused. Lookups materialize a fresh {@code MarketQuote} from the slot.
+ */
+@Component
+public class LatestQuoteStore implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LatestQuoteStore.class);
+    private static final int INITIAL_SYMBOLS = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary strings = new StringDictionary(INITIAL_SYMBOLS);
+    private final CompactQuoteArena quotes = new CompactQuoteArena(INITIAL_SYMBOLS, strings);
+    private final CompactQuote held = new CompactQuote(quotes);
+    private int symbols;
+    private final MarketQuoteRepository marketQuoteRepository;
+    private final boolean warmOnStartup;
+
+    @Autowired
+    public LatestQuoteStore(MarketQuoteRepository marketQuoteRepository,
+                            @Value("${storage.latest.warm-on-startup:true}") boolean warmOnStartup,
+                            MeterRegistry meterRegistry) {
+        this.marketQuoteRepository = marketQuoteRepository;
+        this.warmOnStartup = warmOnStartup;
+        Gauge.builder("storage.latest.symbols", this, LatestQuoteStore::size).register(meterRegistry);
+        Gauge.builder("storage.latest.offheap", this, LatestQuoteStore::offHeapBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (warmOnStartup) {
+            warm();
+        }
+    }
+
+    void warm() {
+        try {
+            List<MarketQuote> stored = marketQuoteRepository.findLatestPerSymbol();
+            stored.forEach(this::update);
+            log.info("Warmed latest-quote store with {} symbols", stored.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not warm latest-quote store from the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records a quote unless a quote with a later timestamp is already held for its symbol.
+     * Quotes without a timestamp replace whatever is there.
+     */
+    public void update(MarketQuote quote) {
+        String symbol = normalize(quote.getSymbol());
+        Long timestamp = quote.getTimestamp();
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            int slot = strings.intern(symbol);
+            quotes.ensureCapacity(slot + 1);
+            if (!quotes.holds(slot)) {
+                symbols++;
+            } else if (timestamp != null && timestamp < held.moveTo(slot).timestamp()) {
+                return;
+            }
+            quotes.write(slot, quote);
+        } finally {
+            write.unlock();
+        }
+    }
+
+    public MarketQuote get(String symbol) {
+        String key = normalize(symbol);
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            int slot = strings.find(key);
+            return slot != StringDictionary.ABSENT && quotes.holds(slot) ? quotes.read(slot) : null;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    public List<MarketQuote> getAll(Collection<String> symbols) {
+        return symbols.stream()
+                .map(this::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public int size() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return symbols;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    long offHeapBytes() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return quotes.bytes();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,88 @@
+package com.marketpulse.storage.store;
+
+import java.util.Arrays;
+
+/**
+ * Interns strings to dense {@code int} ids, starting at 0 in insertion order, so repeated
+ * values such as symbols and exchanges are held once and referenced by a four-byte id.
+ * Ids are never released, so only values from a bounded set belong here. The hash table is
+ * open-addressing over an {@code int[]} of ids, so the only objects per entry are the
+ * strings themselves. Not thread-safe; callers synchronize.
+ */
+final class StringDictionary {
+
+    static final int ABSENT = -1;
+
+    private String[] values;
+    private int[] table;
+    private int size;
+
+    StringDictionary(int expectedValues) {
+        values = new String[Math.max(expectedValues, 16)];
+        table = new int[tableSizeFor(values.length * 2)];
+        Arrays.fill(table, ABSENT);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id of {@code value}, or {@link #ABSENT} if it has not been interned.
+     */
+    int find(String value) {
+        return table[slotOf(value)];
+    }
+
+    /**
+     * Returns the id of {@code value}, assigning the next free id the first time it is seen.
+     */
+    int intern(String value) {
+        int slot = slotOf(value);
+        if (table[slot] != ABSENT) {
+            return table[slot];
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+            slot = slotOf(value);
+        }
+        values[size] = value;
+        table[slot] = size;
+        return size++;
+    }
+
+    String value(int id) {
+        return values[id];
+    }
+
+    /**
+     * The slot holding {@code value}'s id, or the empty slot where it would go.
+     */
+    private int slotOf(String value) {
+        int mask = table.length - 1;
+        int slot = mix(value.hashCode()) & mask;
+        while (table[slot] != ABSENT && !values[table[slot]].equals(value)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, ABSENT);
+        for (int id = 0; id < size; id++) {
+            table[slotOf(values[id])] = id;
+        }
+    }
+
+    private static int tableSizeFor(int n) {
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
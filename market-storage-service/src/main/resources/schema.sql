@@ -0,0 +1,29 @@
+CREATE TABLE IF NOT EXISTS market_quotes (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol                VARCHAR(32)      NOT NULL,
+    name                  VARCHAR(255),
+    price                 DOUBLE PRECISION,
+    changes_percentage    DOUBLE PRECISION,
+    change                DOUBLE PRECISION,
+    day_low               DOUBLE PRECISION,
+    day_high              DOUBLE PRECISION,
+    year_high             DOUBLE PRECISION,
+    year_low              DOUBLE PRECISION,
+    market_cap            DOUBLE PRECISION,
+    price_avg50           DOUBLE PRECISION,
+    price_avg200          DOUBLE PRECISION,
+    volume                DOUBLE PRECISION,
+    avg_volume            DOUBLE PRECISION,
+    exchange              VARCHAR(32),
+    open                  DOUBLE PRECISION,
+    previous_close        DOUBLE PRECISION,
+    eps                   DOUBLE PRECISION,
+    pe                    DOUBLE PRECISION,
+    earnings_announcement VARCHAR(64),
+    shares_outstanding    DOUBLE PRECISION,
+    quote_timestamp       BIGINT
+);
+
+-- Unique so redelivered quotes are dropped on insert (see MarketQuoteRepository.saveAll).
+-- NULLs are distinct here, so quotes without a quote_timestamp are never deduplicated.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_market_quotes_symbol_timestamp ON market_quotes (symbol, quote_timestamp);
@@ -0,0 +1,198 @@
+package com.marketpulse.storage.analytics;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.avro.MarketQuoteAnalytics;
+import com.marketpulse.serde.AvroSingleObjectSerde;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.test.TestRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuoteAnalyticsTopologyTest {
+    // 2024-03-01 09:30 America/New_York
+    private static final long OPEN_SECONDS = Instant.parse("2024-03-01T14:30:00Z").getEpochSecond();
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, MarketQuote> input;
+    private TestInputTopic<String, MarketQuote> rebuild;
+    private TestOutputTopic<String, MarketQuoteAnalytics> output;
+
+    @BeforeEach
+    void setUp() {
+        AvroSingleObjectSerde<MarketQuote> quoteSerde =
+                new AvroSingleObjectSerde<>(MarketQuote.getClassSchema());
+        AvroSingleObjectSerde<MarketQuoteAnalytics> analyticsSerde =
+                new AvroSingleObjectSerde<>(MarketQuoteAnalytics.getClassSchema());
+        QuoteAnalyticsTopology topology = new QuoteAnalyticsTopology("market-quotes", "market-quotes-enriched",
+                quoteSerde, analyticsSerde, 2, 3, Duration.ofMinutes(5), 5, ZoneId.of("America/New_York"),
+                "market-quotes-rebuild");
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "analytics-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(topology.build(), props);
+        input = driver.createInputTopic("market-quotes", Serdes.String().serializer(), quoteSerde.serializer());
+        rebuild = driver.createInputTopic("market-quotes-rebuild", Serdes.String().serializer(), quoteSerde.serializer());
+        output = driver.createOutputTopic("market-quotes-enriched", Serdes.String().deserializer(), analyticsSerde.deserializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void shouldComputeVwapMovingAveragesAndChangeFromOpen() {
+        input.pipeInput("AAPL", quote("AAPL", 0, 100.0, 99.0, 1_000.0));
+        input.pipeInput("AAPL", quote("AAPL", 10, 102.0, 99.0, 1_100.0));
+        input.pipeInput("AAPL", quote("AAPL", 20, 104.0, 99.0, 1_400.0));
+
+        List<MarketQuoteAnalytics> results = output.readValuesToList();
+        assertEquals(3, results.size());
+
+        MarketQuoteAnalytics first = results.get(0);
+        assertEquals("AAPL", first.getSymbol());
+        assertNull(first.getVwap());
+        assertNull(first.getMovingAverageShort());
+        assertEquals(99.0, first.getOpen());
+
+        MarketQuoteAnalytics second = results.get(1);
+        assertEquals(102.0, second.getVwap(), 1e-9);
+        assertEquals(101.0, second.getMovingAverageShort(), 1e-9);
+        assertNull(second.getMovingAverageLong());
+
+        MarketQuoteAnalytics third = results.get(2);
+        assertEquals((102.0 * 100 + 104.0 * 300) / 400, third.getVwap(), 1e-9);
+        assertEquals(103.0, third.getMovingAverageShort(), 1e-9);
+        assertEquals(102.0, third.getMovingAverageLong(), 1e-9);
+        assertEquals(5.0, third.getChangeFromOpen(), 1e-9);
+        assertEquals(5.0 / 99.0 * 100.0, third.getChangeFromOpenPercent(), 1e-9);
+        assertEquals((OPEN_SECONDS + 20) * 1000L, third.getTimestamp());
+    }
+
+    @Test
+    void shouldRollVwapWindowAndResetOnNewSession() {
+        input.pipeInput("MSFT", quote("MSFT", 0, 400.0, null, 1_000.0));
+        input.pipeInput("MSFT", quote("MSFT", 10, 410.0, null, 1_100.0));
+        // Six minutes later the first bucket has left the five-minute window.
+        input.pipeInput("MSFT", quote("MSFT", 370, 420.0, null, 1_300.0));
+        assertEquals(420.0, output.readValuesToList().get(2).getVwap(), 1e-9);
+
+        long nextDay = Duration.ofDays(1).toSeconds();
+        input.pipeInput("MSFT", quote("MSFT", nextDay, 430.0, null, 50.0));
+        MarketQuoteAnalytics nextSession = output.readValue();
+        assertEquals(430.0, nextSession.getOpen());
+        assertEquals(0.0, nextSession.getChangeFromOpen(), 1e-9);
+        assertNull(nextSession.getVwap());
+        // Moving averages carry across sessions.
+        assertEquals((420.0 + 430.0) / 2, nextSession.getMovingAverageShort(), 1e-9);
+    }
+
+    @Test
+    void shouldDropOutOfOrderRepeatedAndPricelessQuotes() {
+        input.pipeInput("NVDA", quote("NVDA", 10, 900.0, null, 1_000.0));
+        input.pipeInput("NVDA", quote("NVDA", 10, 900.0, null, 1_000.0));
+        input.pipeInput("NVDA", quote("NVDA", 5, 800.0, null, 900.0));
+        input.pipeInput("NVDA", quote("NVDA", 20, null, null, 1_100.0));
+        input.pipeInput("NVDA", quote("NVDA", 30, 910.0, null, 1_200.0));
+
+        List<MarketQuoteAnalytics> results = output.readValuesToList();
+        assertEquals(List.of(900.0, 910.0), results.stream().map(MarketQuoteAnalytics::getPrice).toList());
+        assertEquals(905.0, results.get(1).getMovingAverageShort(), 1e-9);
+    }
+
+    @Test
+    void shouldKeepStateQueryableInStore() {
+        input.pipeInput("tsla", quote("tsla", 0, 200.0, null, 10.0));
+        input.pipeInput("GOOGL", quote("GOOGL", 0, 150.0, null, 10.0));
+
+        KeyValueStore<String, QuoteAnalyticsState> store = driver.getKeyValueStore(QuoteAnalyticsTopology.STORE);
+        QuoteAnalyticsState state = store.get("TSLA");
+        assertNotNull(state);
+        assertEquals(200.0, state.toAnalytics("TSLA").getPrice());
+        assertEquals("TSLA", output.readKeyValue().key);
+    }
+
+    @Test
+    void shouldRebuildHistoryBehindLiveStateAndStartOverForANewRun() {
+        input.pipeInput("NVDA", quote("NVDA", 100, 950.0, null, 5_000.0));
+
+        rebuild.pipeInput(rebuildRecord(quote("NVDA", 10, 900.0, null, 1_000.0), "run-1"));
+        rebuild.pipeInput(rebuildRecord(quote("NVDA", 20, 910.0, null, 1_100.0), "run-1"));
+        // Resent after a resume: older than the run's state, so dropped as usual.
+        rebuild.pipeInput(rebuildRecord(quote("NVDA", 10, 900.0, null, 1_000.0), "run-1"));
+        rebuild.pipeInput(rebuildRecord(quote("NVDA", 10, 800.0, null, 1_000.0), "run-2"));
+
+        List<MarketQuoteAnalytics> results = output.readValuesToList();
+        assertEquals(List.of(950.0, 900.0, 910.0, 800.0), results.stream().map(MarketQuoteAnalytics::getPrice).toList());
+        assertEquals(905.0, results.get(2).getMovingAverageShort(), 1e-9);
+        assertNull(results.get(3).getMovingAverageShort());
+        KeyValueStore<String, QuoteAnalyticsState> live = driver.getKeyValueStore(QuoteAnalyticsTopology.STORE);
+        assertEquals(950.0, live.get("NVDA").toAnalytics("NVDA").getPrice());
+    }
+
+    @Test
+    void stateShouldRoundTripThroughBytes() {
+        QuoteAnalyticsState state = new QuoteAnalyticsState(2, 3, 5, 60_000);
+        state.update(1, 1_000, 10.0, Double.NaN, 100.0);
+        state.update(1, 2_000, 11.0, Double.NaN, 150.0);
+        state.update(1, 3_000, 12.0, Double.NaN, 175.0);
+        state.update(1, 4_000, 13.0, Double.NaN, 200.0);
+
+        QuoteAnalyticsState copy = QuoteAnalyticsState.fromBytes(state.toBytes());
+
+        assertEquals(state.toAnalytics("X"), copy.toAnalytics("X"));
+        assertTrue(copy.hasSameShape(2, 3, 5, 60_000));
+    }
+
+    @Test
+    void shouldRejectInvalidPeriods() {
+        AvroSingleObjectSerde<MarketQuote> quoteSerde =
+                new AvroSingleObjectSerde<>(MarketQuote.getClassSchema());
+        AvroSingleObjectSerde<MarketQuoteAnalytics> analyticsSerde =
+                new AvroSingleObjectSerde<>(MarketQuoteAnalytics.getClassSchema());
+        assertThrows(IllegalArgumentException.class, () -> new QuoteAnalyticsTopology("in", "out",
+                quoteSerde, analyticsSerde, 5, 3, Duration.ofMinutes(5), 5, ZoneId.of("UTC"), null));
+    }
+
+    private static TestRecord<String, MarketQuote> rebuildRecord(MarketQuote quote, String run) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(QuoteAnalyticsTopology.REBUILD_RUN_HEADER, run.getBytes(StandardCharsets.UTF_8));
+        return new TestRecord<>(quote.getSymbol(), quote, headers, (Instant) null);
+    }
+
+    private static MarketQuote quote(String symbol, long secondsAfterOpen, Double price, Double open, Double volume) {
+        return MarketQuote.newBuilder()
+                .setSymbol(symbol)
+                .setPrice(price)
+                .setOpen(open)
+                .setVolume(volume)
+                .setTimestamp(OPEN_SECONDS + secondsAfterOpen)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.marketpulse.storage.analytics;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.avro.MarketQuoteAnalytics;
+import com.marketpulse.serde.AvroSingleObjectSerde;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueBytesStoreSupplier;
+import org.apache.kafka.streams.state.Stores;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pushes a synthetic session of quotes for many symbols through the analytics topology on
+ * {@link TopologyTestDriver} and reports quotes per second, once with the in-memory store
+ * (processor and serdes) and once with RocksDB. The driver commits, and so flushes RocksDB,
+ * after every record, where a real stream thread commits every {@code commit.interval.ms};
+ * the RocksDB figure is therefore a worst case, not the expected production throughput.
+ * Run with {@code ./gradlew :market-storage-service:benchmark}.
+ */
+@Tag("benchmark")
+class QuoteAnalyticsTopologyThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteAnalyticsTopologyThroughputTest.class);
+    private static final int SYMBOLS = 500;
+    private static final int TICKS_PER_SYMBOL = 400;
+    private static final int WARMUP_TICKS = 50;
+    private static final int ROCKSDB_TICKS_PER_SYMBOL = 60;
+    private static final ByteArrayDeserializer BYTES = new ByteArrayDeserializer();
+    private static final long START_SECONDS = Instant.parse("2024-03-01T14:30:00Z").getEpochSecond();
+
+    @TempDir
+    Path stateDir;
+
+    @Test
+    void inMemoryStoreThroughput() {
+        run("in-memory", Stores.inMemoryKeyValueStore(QuoteAnalyticsTopology.STORE), TICKS_PER_SYMBOL);
+    }
+
+    @Test
+    void rocksDbStoreThroughput() {
+        run("RocksDB", Stores.persistentKeyValueStore(QuoteAnalyticsTopology.STORE), ROCKSDB_TICKS_PER_SYMBOL);
+    }
+
+    private void run(String name, KeyValueBytesStoreSupplier storeSupplier, int ticksPerSymbol) {
+        AvroSingleObjectSerde<MarketQuote> quoteSerde =
+                new AvroSingleObjectSerde<>(MarketQuote.getClassSchema());
+        AvroSingleObjectSerde<MarketQuoteAnalytics> analyticsSerde =
+                new AvroSingleObjectSerde<>(MarketQuoteAnalytics.getClassSchema());
+        QuoteAnalyticsTopology topology = new QuoteAnalyticsTopology("market-quotes", "market-quotes-enriched",
+                quoteSerde, analyticsSerde, 50, 200, Duration.ofMinutes(5), 30, ZoneId.of("America/New_York"), null);
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "analytics-benchmark");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+
+        try (TopologyTestDriver driver = new TopologyTestDriver(topology.build(storeSupplier), props)) {
+            TestInputTopic<String, MarketQuote> input =
+                    driver.createInputTopic("market-quotes", Serdes.String().serializer(), quoteSerde.serializer());
+            // The driver keeps every produced record, including each full state written to the
+            // changelog; drain both as we go so the heap holds one tick at a time.
+            List<TestOutputTopic<byte[], byte[]>> outputs = List.of(
+                    driver.createOutputTopic("market-quotes-enriched", BYTES, BYTES),
+                    driver.createOutputTopic("analytics-benchmark-" + QuoteAnalyticsTopology.STORE + "-changelog", BYTES, BYTES));
+            Random random = new Random(42);
+            double[] prices = new double[SYMBOLS];
+            double[] volumes = new double[SYMBOLS];
+            for (int s = 0; s < SYMBOLS; s++) {
+                prices[s] = 50 + random.nextDouble() * 400;
+            }
+
+            pipe(input, outputs, random, prices, volumes, 0, WARMUP_TICKS);
+
+            long start = System.nanoTime();
+            long emitted = pipe(input, outputs, random, prices, volumes, WARMUP_TICKS, ticksPerSymbol);
+            long elapsed = System.nanoTime() - start;
+
+            long quotes = (long) SYMBOLS * (ticksPerSymbol - WARMUP_TICKS);
+            log.info("Analytics topology ({} store): {} quotes for {} symbols in {} ms, {} quotes/s, {} us/quote",
+                    name, quotes, SYMBOLS, elapsed / 1_000_000, quotes * 1_000_000_000L / elapsed,
+                    String.format("%.2f", elapsed / 1_000.0 / quotes));
+            assertEquals(quotes, emitted);
+        }
+    }
+
+    /**
+     * Returns the number of analytics records emitted.
+     */
+    private static long pipe(TestInputTopic<String, MarketQuote> input, List<TestOutputTopic<byte[], byte[]>> outputs,
+                             Random random, double[] prices, double[] volumes, int fromTick, int toTick) {
+        long emitted = 0;
+        for (int tick = fromTick; tick < toTick; tick++) {
+            for (int s = 0; s < prices.length; s++) {
+                prices[s] *= 1 + (random.nextDouble() - 0.5) * 0.002;
+                volumes[s] += random.nextInt(1_000);
+                String symbol = "SYM" + s;
+                input.pipeInput(symbol, MarketQuote.newBuilder()
+                        .setSymbol(symbol)
+                        .setPrice(prices[s])
+                        .setVolume(volumes[s])
+                        .setTimestamp(START_SECONDS + tick)
+                        .build());
+            }
+            emitted += outputs.get(0).getQueueSize();
+            outputs.forEach(TestOutputTopic::readRecordsToList);
+        }
+        return emitted;
+    }
+}
@@ -1,16 +1,27 @@
 package com.marketpulse.storage.config;
 
 import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.serde.MarketQuoteAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,10 +44,38 @@ class KafkaConsumerConfigTest {
         Map<String, Object> props = ((DefaultKafkaConsumerFactory<String, MarketQuote>) factory).getConfigurationProperties();
         assertEquals("localhost:9092", props.get(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG));
         assertEquals(StringDeserializer.class, props.get(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG));
-        assertEquals(KafkaAvroDeserializer.class, props.get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG));
+        assertEquals(ErrorHandlingDeserializer.class, props.get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG));
+        assertEquals(KafkaAvroDeserializer.class, props.get(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS));
         assertEquals("http://localhost:8081", props.get("schema.registry.url"));
         assertEquals(true, props.get("specific.avro.reader"));
         assertEquals("test-group", props.get(ConsumerConfig.GROUP_ID_CONFIG));
+        assertEquals(false, props.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+        assertEquals("read_committed", props.get(ConsumerConfig.ISOLATION_LEVEL_CONFIG));
+        assertEquals(500, props.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertEquals(500, props.get(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG));
+    }
+
+    @Test
+    void consumerFactory_shouldApplyBatchSettings() {
+        setField(config, "maxBatchSize", 2000);
+        setField(config, "flushInterval", Duration.ofMillis(250));
+        setField(config, "minBatchBytes", 65536);
+
+        Map<String, Object> props = ((DefaultKafkaConsumerFactory<String, MarketQuote>) config.consumerFactory()).getConfigurationProperties();
+        assertEquals(2000, props.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertEquals(250, props.get(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG));
+        assertEquals(65536, props.get(ConsumerConfig.FETCH_MIN_BYTES_CONFIG));
+    }
+
+    @Test
+    void consumerFactory_localSerde_shouldSkipSchemaRegistry() {
+        setField(config, "localSerde", true);
+        setField(config, "writerSchemas", List.of("avro/MarketQuote-v0.avsc"));
+
+        Map<String, Object> props = ((DefaultKafkaConsumerFactory<String, MarketQuote>) config.consumerFactory()).getConfigurationProperties();
+        assertEquals(MarketQuoteAvroDeserializer.class, props.get(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS));
+        assertEquals(List.of("avro/MarketQuote-v0.avsc"), props.get(MarketQuoteAvroDeserializer.WRITER_SCHEMAS_CONFIG));
+        assertFalse(props.containsKey("schema.registry.url"));
     }
 
     @Test
@@ -44,6 +83,40 @@ class KafkaConsumerConfigTest {
         ConcurrentKafkaListenerContainerFactory<String, MarketQuote> factory = config.kafkaListenerContainerFactory();
         assertNotNull(factory);
         assertNotNull(factory.getConsumerFactory());
+        assertEquals(Boolean.TRUE, factory.isBatchListener());
+        assertEquals(ContainerProperties.AckMode.BATCH, factory.getContainerProperties().getAckMode());
+    }
+
+    @Test
+    void containerFactory_shouldDefaultToOneConsumerPerMarketQuotesPartition() {
+        ConcurrentKafkaListenerContainerFactory<String, MarketQuote> factory = config.kafkaListenerContainerFactory();
+        assertEquals(6, ReflectionTestUtils.getField(factory, "concurrency"));
+    }
+
+    @Test
+    void containerAndConsumerFactory_shouldApplyConcurrencyAndLagMetrics() {
+        setField(config, "concurrency", 12);
+        setField(config, "meterRegistry", new SimpleMeterRegistry());
+
+        ConcurrentKafkaListenerContainerFactory<String, MarketQuote> factory = config.kafkaListenerContainerFactory();
+        assertEquals(12, ReflectionTestUtils.getField(factory, "concurrency"));
+        assertTrue(factory.getConsumerFactory().getListeners().get(0) instanceof MicrometerConsumerListener);
+    }
+
+    @Test
+    void kafkaListenerContainerFactory_shouldUsePlatformThreadsByDefault() {
+        assertNull(config.kafkaListenerContainerFactory().getContainerProperties().getListenerTaskExecutor());
+    }
+
+    @Test
+    void kafkaListenerContainerFactory_virtualThreads_shouldRunListenersOnVirtualThreads() throws Exception {
+        setField(config, "virtualThreads", true);
+
+        AsyncTaskExecutor executor = config.kafkaListenerContainerFactory().getContainerProperties().getListenerTaskExecutor();
+        assertNotNull(executor);
+        Future<Thread> thread = executor.submit(Thread::currentThread);
+        assertTrue(thread.get(5, TimeUnit.SECONDS).isVirtual());
+        assertTrue(thread.get().getName().startsWith("market-quotes-listener-"));
     }
 
     private static void setField(Object target, String fieldName, Object value) {
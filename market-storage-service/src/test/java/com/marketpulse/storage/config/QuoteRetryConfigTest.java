@@ -0,0 +1,108 @@
+package com.marketpulse.storage.config;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.consumer.MarketQuoteConsumer;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class QuoteRetryConfigTest {
+    private QuoteRetryConfig config;
+    private KafkaConsumerConfig consumerConfig;
+
+    @BeforeEach
+    void setUp() {
+        config = new QuoteRetryConfig();
+        setField(config, "bootstrapServers", "localhost:9092");
+        setField(config, "schemaRegistryUrl", "http://localhost:8081");
+        setField(config, "localSerde", true);
+        setField(config, "meterRegistry", new SimpleMeterRegistry());
+        consumerConfig = new KafkaConsumerConfig();
+        setField(consumerConfig, "bootstrapServers", "localhost:9092");
+        setField(consumerConfig, "schemaRegistryUrl", "http://localhost:8081");
+        setField(consumerConfig, "groupId", "test-group");
+    }
+
+    @Test
+    void quoteRetryRouter_shouldUseExponentialTiers() {
+        QuoteRetryRouter router = config.quoteRetryRouter();
+
+        assertTrue(router.isEnabled());
+        assertEquals(3, router.tiers());
+        List<String> topics = newTopics(config).stream().map(NewTopic::name).toList();
+        assertEquals(List.of("market-quotes-retry-1", "market-quotes-retry-2", "market-quotes-retry-3", "market-quotes-dlt"),
+                topics);
+    }
+
+    @Test
+    void quoteRetryRouter_disabled_shouldCreateNoTopics() {
+        setField(config, "enabled", false);
+
+        assertFalse(config.quoteRetryRouter().isEnabled());
+        assertEquals(0, newTopics(config).size());
+    }
+
+    @Test
+    void retryListenerContainerFactory_shouldUseManualAcksPerRecord() {
+        ConcurrentKafkaListenerContainerFactory<String, MarketQuote> factory =
+                config.retryListenerContainerFactory(consumerConfig.consumerFactory());
+
+        assertFalse(Boolean.TRUE.equals(factory.isBatchListener()));
+        assertEquals(ContainerProperties.AckMode.MANUAL, factory.getContainerProperties().getAckMode());
+    }
+
+    @Test
+    void quoteRetryListeners_shouldRegisterOneContainerPerTier() {
+        setField(config, "attempts", 2);
+        setField(config, "initialDelay", Duration.ofMillis(100));
+        KafkaListenerEndpointRegistry registry = new KafkaListenerEndpointRegistry();
+        KafkaListenerEndpointRegistrar registrar = new KafkaListenerEndpointRegistrar();
+        registrar.setEndpointRegistry(registry);
+
+        config.quoteRetryListeners(mock(MarketQuoteConsumer.class),
+                        config.retryListenerContainerFactory(consumerConfig.consumerFactory()))
+                .configureKafkaListeners(registrar);
+        registrar.afterPropertiesSet();
+
+        for (int tier = 1; tier <= 2; tier++) {
+            MessageListenerContainer container = registry.getListenerContainer("market-quotes-retry-" + tier);
+            assertNotNull(container);
+            assertEquals(QuoteRetryConfig.RETRY_GROUP_ID, container.getGroupId());
+            assertArrayEquals(new String[]{"market-quotes-retry-" + tier}, container.getContainerProperties().getTopics());
+        }
+        assertEquals(2, registry.getListenerContainerIds().size());
+    }
+
+    private static Collection<NewTopic> newTopics(QuoteRetryConfig config) {
+        return ReflectionTestUtils.invokeMethod(config.quoteRetryTopics(), "getNewTopics");
+    }
+
+    private static void setField(Object target, String fieldName, Object value) {
+        try {
+            java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.marketpulse.storage.consumer;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.repository.MarketQuoteRepository;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import com.marketpulse.storage.segment.QuoteSegmentStore;
+import com.marketpulse.storage.segment.SegmentColumn;
+import com.marketpulse.storage.store.LatestQuoteStore;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Crash-injection test for at-least-once delivery into idempotent writes. A simulated
+ * partition is consumed from its committed offset while the consumer "crashes" before a
+ * write, halfway through a poll's shard writes, or after the writes but before the offset
+ * commit, restarting with a fresh consumer each time. Every quote must end up in the
+ * database exactly once, and no quote may be appended to the history segments twice.
+ */
+class MarketQuoteConsumerRedeliveryTest {
+    private static final int QUOTES = 5_000;
+    private static final int MAX_POLL = 200;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @TempDir
+    Path segmentDirectory;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:redelivery-" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(8);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void consume_crashesAndRedeliveries_shouldLeaveNoDuplicatesOrGaps() throws InterruptedException {
+        List<ConsumerRecord<String, MarketQuote>> partition = IntStream.range(0, QUOTES)
+                .mapToObj(offset -> {
+                    MarketQuote quote = MarketQuote.newBuilder()
+                            .setSymbol("SYM" + offset % 37)
+                            .setPrice(100.0 + offset)
+                            .setTimestamp(1_700_000_000L + offset)
+                            .build();
+                    return new ConsumerRecord<>("market-quotes", 0, offset, quote.getSymbol(), quote);
+                })
+                .toList();
+        Random random = new Random(42);
+        CrashingRepository repository = new CrashingRepository(jdbcTemplate, random);
+        QuoteSegmentStore segmentStore = segmentStore();
+        int committed = 0;
+        int crashes = 0;
+
+        while (committed < QUOTES) {
+            List<ConsumerRecord<String, MarketQuote>> poll =
+                    partition.subList(committed, Math.min(committed + 1 + random.nextInt(MAX_POLL), QUOTES));
+            SymbolShardedExecutor shardedExecutor = new SymbolShardedExecutor(4, meterRegistry);
+            MarketQuoteConsumer consumer = new MarketQuoteConsumer(repository, shardedExecutor,
+                    new LatestQuoteStore(repository, false, meterRegistry), segmentStore,
+                QuoteRetryRouter.disabled(meterRegistry), meterRegistry);
+            try {
+                if (random.nextInt(10) == 0) {
+                    throw new IllegalStateException("crash before persisting");
+                }
+                consumer.consume(poll);
+                if (random.nextInt(4) == 0) {
+                    throw new IllegalStateException("crash before committing offsets");
+                }
+                committed += poll.size();
+            } catch (IllegalStateException e) {
+                crashes++;
+            } finally {
+                shardedExecutor.destroy();
+            }
+        }
+
+        assertTrue(crashes > 10, "The run should inject crashes, got " + crashes);
+        assertTrue(meterRegistry.counter("storage.consumer.records", "result", "duplicate").count() > 0);
+        assertEquals(QUOTES, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+        Set<String> stored = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT symbol || ':' || quote_timestamp FROM market_quotes", String.class));
+        for (ConsumerRecord<String, MarketQuote> consumerRecord : partition) {
+            MarketQuote quote = consumerRecord.value();
+            assertTrue(stored.contains(quote.getSymbol() + ":" + quote.getTimestamp()),
+                    "Missing quote at offset " + consumerRecord.offset());
+        }
+        segmentStore.flushAll();
+        for (int i = 0; i < 37; i++) {
+            long[] timestamps = history(segmentStore, "SYM" + i).timestamps();
+            assertEquals(timestamps.length, Arrays.stream(timestamps).distinct().count(),
+                    "SYM" + i + " has a quote appended to its history twice");
+        }
+    }
+
+    @Test
+    void consume_failedShard_shouldKeepCommittedShardsAndRedeliverWholePoll() throws InterruptedException {
+        SymbolShardedExecutor shardedExecutor = new SymbolShardedExecutor(2, meterRegistry);
+        String failing = IntStream.range(0, 100).mapToObj(i -> "SYM" + i)
+                .filter(symbol -> shardedExecutor.shardOf(symbol) != shardedExecutor.shardOf("AAPL"))
+                .findFirst()
+                .orElseThrow();
+        List<ConsumerRecord<String, MarketQuote>> poll = IntStream.range(0, 10)
+                .mapToObj(offset -> {
+                    String symbol = offset % 2 == 0 ? "AAPL" : failing;
+                    MarketQuote quote = MarketQuote.newBuilder()
+                            .setSymbol(symbol)
+                            .setPrice(100.0 + offset)
+                            .setTimestamp(1_700_000_000L + offset)
+                            .build();
+                    return new ConsumerRecord<>("market-quotes", 0, offset, symbol, quote);
+                })
+                .toList();
+        boolean[] failOnce = {true};
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 50) {
+            @Override
+            public List<MarketQuote> saveAll(List<MarketQuote> quotes) {
+                if (quotes.get(0).getSymbol().equals(failing) && failOnce[0]) {
+                    failOnce[0] = false;
+                    throw new IllegalStateException("shard write failed");
+                }
+                return super.saveAll(quotes);
+            }
+        };
+        QuoteSegmentStore segmentStore = segmentStore();
+        MarketQuoteConsumer consumer = new MarketQuoteConsumer(repository, shardedExecutor,
+                new LatestQuoteStore(repository, false, meterRegistry), segmentStore,
+                QuoteRetryRouter.disabled(meterRegistry), meterRegistry);
+        try {
+            assertThrows(IllegalStateException.class, () -> consumer.consume(poll));
+            // Shards commit independently: the healthy shard's rows are already stored.
+            assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+
+            consumer.consume(poll);
+        } finally {
+            shardedExecutor.destroy();
+        }
+
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+        assertEquals(5.0, meterRegistry.counter("storage.consumer.records", "result", "duplicate").count());
+        // The redelivered AAPL quotes were skipped by the insert, so they are not appended again.
+        assertEquals(5, history(segmentStore, "AAPL").size());
+        assertEquals(5, history(segmentStore, failing).size());
+    }
+
+    private QuoteSegmentStore segmentStore() {
+        return new QuoteSegmentStore(segmentDirectory, true, 1_000, Duration.ofMinutes(5), 16, meterRegistry);
+    }
+
+    private static QuoteSegmentStore.QuoteSeries history(QuoteSegmentStore segmentStore, String symbol) {
+        Instant from = Instant.ofEpochSecond(1_700_000_000L);
+        return segmentStore.scan(symbol, from, from.plus(Duration.ofDays(1)), List.of(SegmentColumn.PRICE));
+    }
+
+    /**
+     * Fails one shard write in eight, half of them after the rows are already in the database.
+     */
+    private static final class CrashingRepository extends MarketQuoteRepository {
+        private final Random random;
+
+        CrashingRepository(JdbcTemplate jdbcTemplate, Random random) {
+            super(jdbcTemplate, 50);
+            this.random = random;
+        }
+
+        @Override
+        public List<MarketQuote> saveAll(List<MarketQuote> quotes) {
+            int roll;
+            synchronized (random) {
+                roll = random.nextInt(16);
+            }
+            if (roll == 0) {
+                throw new IllegalStateException("crash during write");
+            }
+            List<MarketQuote> saved = super.saveAll(quotes);
+            if (roll == 1) {
+                throw new IllegalStateException("crash after write");
+            }
+            return saved;
+        }
+    }
+}
@@ -1,24 +1,261 @@
 package com.marketpulse.storage.consumer;
 
 import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.serde.AvroSingleObjectSerializer;
+import com.marketpulse.storage.repository.MarketQuoteRepository;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import com.marketpulse.storage.segment.QuoteSegmentStore;
+import com.marketpulse.storage.segment.SegmentColumn;
+import com.marketpulse.storage.store.LatestQuoteStore;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
 class MarketQuoteConsumerTest {
-    @InjectMocks
+    @Mock
+    private MarketQuoteRepository marketQuoteRepository;
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private SymbolShardedExecutor shardedExecutor;
+    private LatestQuoteStore latestQuoteStore;
+    private QuoteSegmentStore quoteSegmentStore;
     private MarketQuoteConsumer consumer;
 
+    @TempDir
+    Path segmentDirectory;
+
+    @BeforeEach
+    void setUp() {
+        shardedExecutor = new SymbolShardedExecutor(1, new SimpleMeterRegistry());
+        latestQuoteStore = new LatestQuoteStore(marketQuoteRepository, false, new SimpleMeterRegistry());
+        quoteSegmentStore = new QuoteSegmentStore(segmentDirectory, true, 1_000, Duration.ofMinutes(5), 16,
+                new SimpleMeterRegistry());
+        consumer = consumer(marketQuoteRepository, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        shardedExecutor.destroy();
+    }
+
     @Test
     void consume_shouldProcessQuote() {
         MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
         ConsumerRecord<String, MarketQuote> consumerRecord = new ConsumerRecord<>("market-quotes", 0, 0L, "AAPL", quote);
-        consumer.consume(consumerRecord);
+        when(marketQuoteRepository.saveAll(List.of(quote))).thenReturn(List.of(quote));
+        consumer.consume(List.of(consumerRecord));
         assertEquals(quote, consumerRecord.value(), "The consumed MarketQuote should match the input quote");
+        verify(marketQuoteRepository).saveAll(List.of(quote));
+    }
+
+    @Test
+    void consume_shouldRecordThroughputAndFreshness() {
+        MockClock clock = new MockClock();
+        clock.add(Duration.ofSeconds(1_700_000_030).minusMillis(clock.wallTime()));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        consumer = consumer(marketQuoteRepository, meterRegistry);
+        MarketQuote apple = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(1_700_000_000L).build();
+        MarketQuote microsoft = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(410.0).setTimestamp(1_700_000_020L).build();
+        when(marketQuoteRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        consumer.consume(List.of(
+                new ConsumerRecord<>("market-quotes", 0, 0L, "AAPL", apple),
+                new ConsumerRecord<>("market-quotes", 0, 1L, "TSLA", null),
+                new ConsumerRecord<>("market-quotes", 0, 2L, "MSFT", microsoft)));
+
+        assertEquals(3.0, meterRegistry.counter("storage.consumer.records", "result", "received").count());
+        assertEquals(2.0, meterRegistry.counter("storage.consumer.records", "result", "persisted").count());
+        assertEquals(1, meterRegistry.timer("storage.consumer.persist.latency").count());
+        Timer freshness = meterRegistry.timer("storage.quote.freshness");
+        assertEquals(2, freshness.count());
+        assertEquals(30_000.0, freshness.max(TimeUnit.MILLISECONDS));
+        assertEquals(40_000.0, freshness.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void consume_shouldPersistWholeBatchAndSkipTombstones() {
+        MarketQuote apple = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        MarketQuote microsoft = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(410.0).build();
+        when(marketQuoteRepository.saveAll(List.of(apple, microsoft))).thenReturn(List.of(apple, microsoft));
+
+        consumer.consume(List.of(
+                new ConsumerRecord<>("market-quotes", 0, 0L, "AAPL", apple),
+                new ConsumerRecord<>("market-quotes", 0, 1L, "TSLA", null),
+                new ConsumerRecord<>("market-quotes", 0, 2L, "MSFT", microsoft)));
+
+        verify(marketQuoteRepository).saveAll(List.of(apple, microsoft));
+        assertEquals(apple, latestQuoteStore.get("AAPL"));
+        assertEquals(microsoft, latestQuoteStore.get("MSFT"));
+        assertNull(latestQuoteStore.get("TSLA"));
+    }
+
+    @Test
+    void consume_shouldKeepPerSymbolOrderAcrossShards() throws InterruptedException {
+        shardedExecutor.destroy();
+        shardedExecutor = new SymbolShardedExecutor(4, new SimpleMeterRegistry());
+        List<MarketQuote> written = Collections.synchronizedList(new ArrayList<>());
+        consumer = new MarketQuoteConsumer(new MarketQuoteRepository(null, 1) {
+            @Override
+            public List<MarketQuote> saveAll(List<MarketQuote> quotes) {
+                written.addAll(quotes);
+                return quotes;
+            }
+        }, shardedExecutor, latestQuoteStore, quoteSegmentStore, QuoteRetryRouter.disabled(new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+
+        List<ConsumerRecord<String, MarketQuote>> records = new ArrayList<>();
+        String[] symbols = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA"};
+        for (int i = 0; i < 500; i++) {
+            String symbol = symbols[i % symbols.length];
+            records.add(new ConsumerRecord<>("market-quotes", 0, i, symbol,
+                    MarketQuote.newBuilder().setSymbol(symbol).setPrice((double) i).setTimestamp((long) i).build()));
+        }
+        consumer.consume(records);
+
+        assertEquals(500, written.size());
+        for (String symbol : symbols) {
+            List<Long> timestamps = written.stream()
+                    .filter(quote -> quote.getSymbol().equals(symbol))
+                    .map(MarketQuote::getTimestamp)
+                    .toList();
+            assertEquals(timestamps.stream().sorted().toList(), timestamps, "Quotes for " + symbol + " must stay in order");
+        }
+    }
+
+    @Test
+    void consume_shouldAppendToHistoryAtTheQuoteTimestamp() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(1_700_000_000L).build();
+        when(marketQuoteRepository.saveAll(List.of(quote))).thenReturn(List.of(quote));
+
+        consumer.consume(List.of(new ConsumerRecord<>("market-quotes", 0, 0L, "AAPL", quote)));
+
+        Instant at = Instant.ofEpochSecond(1_700_000_000L);
+        QuoteSegmentStore.QuoteSeries series = quoteSegmentStore.scan("AAPL", at, at.plusSeconds(1), List.of(SegmentColumn.PRICE));
+        assertEquals(1, series.size());
+        assertEquals(150.0, series.columns().get(SegmentColumn.PRICE)[0]);
+    }
+
+    @Test
+    void consume_shouldPropagateWriteFailureSoOffsetsAreNotCommitted() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(marketQuoteRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> consumer.consume(
+                List.of(new ConsumerRecord<>("market-quotes", 0, 0L, "AAPL", quote))));
+        assertNull(latestQuoteStore.get("AAPL"), "Unpersisted quotes must not become visible to readers");
+    }
+
+    @Test
+    void consume_withRetryTopics_shouldForwardOnlyThePoisonQuote() {
+        MarketQuote apple = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        MarketQuote poison = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(-1.0).build();
+        when(marketQuoteRepository.saveAll(List.of(apple, poison))).thenThrow(new IllegalArgumentException("bad price"));
+        when(marketQuoteRepository.saveAll(List.of(apple))).thenReturn(List.of(apple));
+        when(marketQuoteRepository.saveAll(List.of(poison))).thenThrow(new IllegalArgumentException("bad price"));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        consumer = new MarketQuoteConsumer(marketQuoteRepository, shardedExecutor, latestQuoteStore, quoteSegmentStore,
+                retryRouter(meterRegistry), meterRegistry);
+
+        consumer.consume(List.of(
+                new ConsumerRecord<>("market-quotes", 0, 0L, "AAPL", apple),
+                new ConsumerRecord<>("market-quotes", 0, 1L, "MSFT", poison)));
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> forwarded = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(forwarded.capture());
+        assertEquals("market-quotes-retry-1", forwarded.getValue().topic());
+        assertEquals("MSFT", forwarded.getValue().key());
+        assertEquals(apple, latestQuoteStore.get("AAPL"));
+        assertNull(latestQuoteStore.get("MSFT"));
+        assertEquals(1.0, meterRegistry.counter("storage.consumer.records", "result", "persisted").count());
+        assertEquals(1.0, meterRegistry.counter("storage.consumer.records", "result", "forwarded").count());
+        assertEquals(0.0, meterRegistry.counter("storage.consumer.records", "result", "duplicate").count());
+    }
+
+    @Test
+    void consume_withRetryTopics_shouldStillFailThePollOnADatabaseOutage() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        when(marketQuoteRepository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("database down"));
+        consumer = new MarketQuoteConsumer(marketQuoteRepository, shardedExecutor, latestQuoteStore, quoteSegmentStore,
+                retryRouter(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> consumer.consume(
+                List.of(new ConsumerRecord<>("market-quotes", 0, 0L, "AAPL", quote))));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void consume_withRetryTopics_shouldDeadLetterUndeserializableRecords() {
+        byte[] raw = {0x01, 0x02};
+        RecordHeaders headers = new RecordHeaders();
+        SerializationUtils.deserializationException(headers, raw,
+                new DeserializationException("not Avro", raw, false, new IllegalStateException("bad marker")), false);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        consumer = new MarketQuoteConsumer(marketQuoteRepository, shardedExecutor, latestQuoteStore, quoteSegmentStore,
+                retryRouter(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        consumer.consume(List.of(new ConsumerRecord<>("market-quotes", 0, 4L, ConsumerRecord.NO_TIMESTAMP,
+                TimestampType.NO_TIMESTAMP_TYPE, 0, 0, "AAPL", null, headers, Optional.empty())));
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> deadLettered = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(deadLettered.capture());
+        assertEquals("market-quotes-dlt", deadLettered.getValue().topic());
+        assertArrayEquals(raw, deadLettered.getValue().value());
+        assertNull(deadLettered.getValue().headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER));
+        verifyNoInteractions(marketQuoteRepository);
+    }
+
+    /**
+     * Consumer without retry topics: any failed write fails the whole poll.
+     */
+    private MarketQuoteConsumer consumer(MarketQuoteRepository repository, SimpleMeterRegistry meterRegistry) {
+        return new MarketQuoteConsumer(repository, shardedExecutor, latestQuoteStore, quoteSegmentStore,
+                QuoteRetryRouter.disabled(meterRegistry), meterRegistry);
+    }
+
+    private QuoteRetryRouter retryRouter(SimpleMeterRegistry meterRegistry) {
+        return new QuoteRetryRouter(kafkaTemplate,
+                new AvroSingleObjectSerializer<>(MarketQuote.getClassSchema()),
+                "market-quotes", List.of(Duration.ofSeconds(1)), meterRegistry);
     }
-} 
\ No newline at end of file
+}
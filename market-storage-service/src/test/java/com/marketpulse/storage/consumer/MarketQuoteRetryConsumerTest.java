@@ -0,0 +1,76 @@
+package com.marketpulse.storage.consumer;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.retry.QuoteRetryRouter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MarketQuoteRetryConsumerTest {
+    @Mock
+    private MarketQuoteConsumer marketQuoteConsumer;
+    @Mock
+    private QuoteRetryRouter retryRouter;
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private MarketQuoteRetryConsumer retryConsumer;
+    private ConsumerRecord<String, MarketQuote> consumerRecord;
+
+    @BeforeEach
+    void setUp() {
+        retryConsumer = new MarketQuoteRetryConsumer(marketQuoteConsumer, retryRouter);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(QuoteRetryRouter.TIER_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(2).array());
+        consumerRecord = new ConsumerRecord<>("market-quotes-retry-2", 0, 0L, 0L, TimestampType.CREATE_TIME, 0, 0, "AAPL",
+                MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build(), headers, Optional.empty());
+    }
+
+    @Test
+    void onRetry_beforeDue_shouldNackForTheRemainingDelay() {
+        when(retryRouter.remainingDelay(consumerRecord)).thenReturn(4_000L);
+
+        retryConsumer.onRetry(consumerRecord, acknowledgment);
+
+        verify(acknowledgment).nack(Duration.ofSeconds(4));
+        verify(acknowledgment, never()).acknowledge();
+        verify(marketQuoteConsumer, never()).redeliver(consumerRecord);
+    }
+
+    @Test
+    void onRetry_whenDue_shouldStoreAndCountTheRecovery() {
+        when(retryRouter.remainingDelay(consumerRecord)).thenReturn(0L);
+        when(marketQuoteConsumer.redeliver(consumerRecord)).thenReturn(true);
+
+        retryConsumer.onRetry(consumerRecord, acknowledgment);
+
+        verify(retryRouter).recovered(2);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void onRetry_whenItFailsAgain_shouldAcknowledgeTheForwardedRecord() {
+        when(retryRouter.remainingDelay(consumerRecord)).thenReturn(0L);
+        when(marketQuoteConsumer.redeliver(consumerRecord)).thenReturn(false);
+
+        retryConsumer.onRetry(consumerRecord, acknowledgment);
+
+        verify(retryRouter, never()).recovered(2);
+        verify(acknowledgment).acknowledge();
+    }
+}
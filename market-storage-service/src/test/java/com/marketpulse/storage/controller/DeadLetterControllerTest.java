@@ -0,0 +1,52 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.storage.retry.QuoteDltReplayer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DeadLetterControllerTest {
+    private QuoteDltReplayer replayer;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        replayer = mock(QuoteDltReplayer.class);
+        webTestClient = WebTestClient.bindToController(new DeadLetterController(replayer)).build();
+    }
+
+    @Test
+    void replay_shouldReturnTheReplayedCount() {
+        when(replayer.replay(50)).thenReturn(12);
+
+        webTestClient.post().uri("/dlt/replay?limit=50")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.replayed").isEqualTo(12);
+        verify(replayer).replay(50);
+    }
+
+    @Test
+    void replay_shouldRejectAnInvalidLimit() {
+        webTestClient.post().uri("/dlt/replay?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(replayer);
+    }
+
+    @Test
+    void replay_whenRetryTopicsAreDisabled_shouldReturnConflict() {
+        when(replayer.replay(anyInt())).thenThrow(new IllegalStateException("Retry topics are disabled"));
+
+        webTestClient.post().uri("/dlt/replay")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+}
@@ -0,0 +1,59 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.dto.LatestQuoteDto;
+import com.marketpulse.storage.store.LatestQuoteStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatestQuoteControllerTest {
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        LatestQuoteStore store = new LatestQuoteStore(null, false, new SimpleMeterRegistry());
+        store.update(MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(1L).build());
+        store.update(MarketQuote.newBuilder().setSymbol("MSFT").setPrice(410.0).setTimestamp(1L).build());
+        webTestClient = WebTestClient.bindToController(new LatestQuoteController(store)).build();
+    }
+
+    @Test
+    void getLatest_shouldReturnStoredQuote() {
+        webTestClient.get().uri("/quotes/latest/aapl")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.symbol").isEqualTo("AAPL")
+                .jsonPath("$.price").isEqualTo(150.0)
+                .jsonPath("$.timestamp").isEqualTo(1);
+    }
+
+    @Test
+    void getLatest_shouldReturnNotFoundForUnknownSymbol() {
+        webTestClient.get().uri("/quotes/latest/TSLA")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getLatest_shouldReturnKnownQuotesForSeveralSymbols() {
+        webTestClient.get().uri("/quotes/latest?symbols=AAPL,TSLA,MSFT")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LatestQuoteDto.class)
+                .value(quotes -> assertEquals(List.of("AAPL", "MSFT"), quotes.stream().map(LatestQuoteDto::symbol).toList()));
+    }
+
+    @Test
+    void getLatest_shouldRejectBlankSymbols() {
+        webTestClient.get().uri("/quotes/latest?symbols= ,")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,75 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.avro.MarketQuoteAnalytics;
+import com.marketpulse.storage.analytics.QuoteAnalyticsQueryService;
+import org.apache.kafka.streams.state.HostInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuoteAnalyticsControllerTest {
+    private QuoteAnalyticsQueryService queryService;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        queryService = mock(QuoteAnalyticsQueryService.class);
+        when(queryService.remoteOwner("AAPL")).thenReturn(Optional.empty());
+        webTestClient = WebTestClient.bindToController(new QuoteAnalyticsController(queryService)).build();
+    }
+
+    @Test
+    void getAnalytics_shouldReturnLocalState() {
+        MarketQuoteAnalytics analytics = MarketQuoteAnalytics.newBuilder()
+                .setSymbol("AAPL").setTimestamp(1_000L).setPrice(150.0)
+                .setVwap(149.5).setMovingAverageShort(148.0).setOpen(145.0)
+                .setChangeFromOpen(5.0).setChangeFromOpenPercent(5.0 / 145.0 * 100.0)
+                .build();
+        when(queryService.findLocal("AAPL")).thenReturn(Optional.of(analytics));
+
+        webTestClient.get().uri("/analytics/AAPL")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.symbol").isEqualTo("AAPL")
+                .jsonPath("$.vwap").isEqualTo(149.5)
+                .jsonPath("$.movingAverageShort").isEqualTo(148.0)
+                .jsonPath("$.movingAverageLong").doesNotExist()
+                .jsonPath("$.changeFromOpen").isEqualTo(5.0);
+    }
+
+    @Test
+    void getAnalytics_shouldReturnNotFoundForUnknownSymbol() {
+        when(queryService.findLocal("AAPL")).thenReturn(Optional.empty());
+
+        webTestClient.get().uri("/analytics/AAPL")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getAnalytics_shouldRedirectToOwningInstance() {
+        when(queryService.remoteOwner("MSFT")).thenReturn(Optional.of(new HostInfo("storage-2", 8081)));
+
+        webTestClient.get().uri("/analytics/MSFT")
+                .exchange()
+                .expectStatus().isTemporaryRedirect()
+                .expectHeader().value("Location",
+                        location -> assertEquals("http://storage-2:8081/analytics/MSFT", location));
+    }
+
+    @Test
+    void getAnalytics_shouldReturnServiceUnavailableWhileNotRunning() {
+        when(queryService.remoteOwner("NVDA")).thenThrow(new IllegalStateException("Analytics streams are not running"));
+
+        webTestClient.get().uri("/analytics/NVDA")
+                .exchange()
+                .expectStatus().isEqualTo(503);
+    }
+}
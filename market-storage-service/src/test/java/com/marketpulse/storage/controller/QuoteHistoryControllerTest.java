@@ -0,0 +1,62 @@
+package com.marketpulse.storage.controller;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.segment.QuoteSegmentStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+class QuoteHistoryControllerTest {
+    private static final Instant START = Instant.parse("2024-03-04T14:30:00Z");
+
+    @TempDir
+    Path directory;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        QuoteSegmentStore store = new QuoteSegmentStore(directory, true, 1_000, Duration.ofMinutes(5), 16,
+                new SimpleMeterRegistry());
+        store.append(MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setVolume(1_000.0).build(),
+                START.toEpochMilli());
+        store.append(MarketQuote.newBuilder().setSymbol("AAPL").setPrice(151.0).build(),
+                START.plusSeconds(1).toEpochMilli());
+        store.flushAll();
+        webTestClient = WebTestClient.bindToController(new QuoteHistoryController(store)).build();
+    }
+
+    @Test
+    void getHistory_shouldReturnRequestedColumns() {
+        webTestClient.get().uri("/quotes/history/AAPL?from={from}&to={to}&fields=price,volume",
+                        START, START.plusSeconds(60))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.symbol").isEqualTo("AAPL")
+                .jsonPath("$.timestamps.length()").isEqualTo(2)
+                .jsonPath("$.values.price[1]").isEqualTo(151.0)
+                .jsonPath("$.values.volume[0]").isEqualTo(1_000.0)
+                .jsonPath("$.values.volume[1]").isEmpty();
+    }
+
+    @Test
+    void getHistory_shouldRejectUnknownFields() {
+        webTestClient.get().uri("/quotes/history/AAPL?fields=price,bogus")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getHistory_shouldRejectSymbolsThatAreNotDirectoryNames() {
+        webTestClient.get().uri("/quotes/history/...")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,172 @@
+package com.marketpulse.storage.repository;
+
+import com.marketpulse.avro.MarketQuote;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the bulk insert path against an in-memory H2 database in PostgreSQL mode, using the
+ * same schema.sql the service applies on startup, and reports rows/sec.
+ */
+class MarketQuoteRepositoryTest {
+    private static final Logger log = LoggerFactory.getLogger(MarketQuoteRepositoryTest.class);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:quotes-" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void saveAll_shouldPersistEveryField() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 500);
+        MarketQuote quote = MarketQuote.newBuilder()
+                .setSymbol("AAPL").setName("Apple Inc.").setPrice(150.0).setVolume(1_000.0)
+                .setExchange("NASDAQ").setTimestamp(1_700_000_000L)
+                .build();
+
+        assertEquals(List.of(quote), repository.saveAll(List.of(quote)));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM market_quotes");
+        assertEquals("AAPL", row.get("SYMBOL"));
+        assertEquals("Apple Inc.", row.get("NAME"));
+        assertEquals(150.0, row.get("PRICE"));
+        assertEquals(1_000.0, row.get("VOLUME"));
+        assertEquals("NASDAQ", row.get("EXCHANGE"));
+        assertEquals(1_700_000_000L, row.get("QUOTE_TIMESTAMP"));
+        assertNull(row.get("DAY_HIGH"));
+    }
+
+    @Test
+    void saveAll_shouldSplitIntoMultiRowStatements() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 100);
+
+        assertEquals(250, repository.saveAll(quotes(250)).size());
+        assertEquals(250, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+        assertEquals(List.of(), repository.saveAll(List.of()));
+    }
+
+    @Test
+    void saveAll_shouldReportRowsPerSecond() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 500);
+        int batchSize = 500;
+        int batches = 100;
+        List<List<MarketQuote>> polls = IntStream.rangeClosed(0, batches)
+                .mapToObj(i -> quotes(i * batchSize, batchSize))
+                .toList();
+
+        repository.saveAll(polls.get(0));
+        long start = System.nanoTime();
+        for (int i = 1; i <= batches; i++) {
+            repository.saveAll(polls.get(i));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("Bulk insert into H2: {} rows/sec", Math.round(batchSize * batches / seconds));
+        assertEquals(batchSize * (batches + 1),
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+    }
+
+    @Test
+    void saveAll_shouldSkipQuotesAlreadyStored() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 100);
+        repository.saveAll(quotes(150));
+
+        assertEquals(quotes(250).subList(150, 250), repository.saveAll(quotes(250)));
+        assertEquals(List.of(), repository.saveAll(quotes(250)));
+        assertEquals(250, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+        assertEquals(250, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT symbol || ':' || quote_timestamp) FROM market_quotes", Integer.class));
+    }
+
+    @Test
+    void saveAll_shouldReturnOnlyOneOfTwoIdenticalQuotesInABatch() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 100);
+        MarketQuote quote = quotes(1).get(0);
+
+        assertEquals(List.of(quote), repository.saveAll(List.of(quote, MarketQuote.newBuilder(quote).build())));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+    }
+
+    @Test
+    void saveAll_shouldNeverTreatQuotesWithoutTimestampAsDuplicates() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 100);
+        MarketQuote untimed = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(1.0).build();
+
+        assertEquals(List.of(untimed), repository.saveAll(List.of(untimed)));
+        assertEquals(List.of(untimed), repository.saveAll(List.of(untimed)));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM market_quotes", Integer.class));
+    }
+
+    @Test
+    void findLatestPerSymbol_shouldReturnNewestRowForEachSymbol() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 500);
+        repository.saveAll(quotes(150));
+
+        List<MarketQuote> latest = repository.findLatestPerSymbol();
+
+        assertEquals(50, latest.size());
+        MarketQuote sym7 = latest.stream().filter(q -> q.getSymbol().equals("SYM7")).findFirst().orElseThrow();
+        assertEquals(207.0, sym7.getPrice());
+        assertEquals(1_700_000_107L, sym7.getTimestamp());
+        assertNull(sym7.getDayHigh());
+    }
+
+    @Test
+    void findLatestPerSymbol_shouldPickNewestTimestampNotLastInserted() {
+        MarketQuoteRepository repository = new MarketQuoteRepository(jdbcTemplate, 500);
+        MarketQuote live = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(190.0).setTimestamp(1_700_000_000L).build();
+        MarketQuote backfilled = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).setTimestamp(1_600_000_000L).build();
+        MarketQuote untimed = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(1.0).build();
+        repository.saveAll(List.of(live));
+        repository.saveAll(List.of(backfilled, untimed));
+
+        assertEquals(List.of(live), repository.findLatestPerSymbol());
+    }
+
+    @Test
+    void constructor_shouldRejectStatementsOverParameterLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new MarketQuoteRepository(jdbcTemplate, 5_000));
+    }
+
+    private static List<MarketQuote> quotes(int count) {
+        return quotes(0, count);
+    }
+
+    private static List<MarketQuote> quotes(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> MarketQuote.newBuilder()
+                        .setSymbol("SYM" + i % 50)
+                        .setPrice(100.0 + i)
+                        .setVolume((double) i)
+                        .setTimestamp(1_700_000_000L + i)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.marketpulse.storage.retry;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.serde.AvroSingleObjectSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dead-letters quotes through {@link QuoteRetryRouter} on an embedded broker and replays them
+ * onto the main topic in two passes.
+ */
+class QuoteDltReplayerTest {
+    private static final Serializer<MarketQuote> SERIALIZER =
+            new AvroSingleObjectSerializer<>(MarketQuote.getClassSchema());
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, "market-quotes", "market-quotes-dlt");
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void replay_shouldCopyDeadLettersOntoTheMainTopicOnce() {
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+        KafkaTemplate<String, byte[]> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // No retry tiers: every failure goes straight to the DLT.
+        QuoteRetryRouter router = new QuoteRetryRouter(kafkaTemplate, SERIALIZER, "market-quotes", List.of(), meterRegistry);
+        List<MarketQuote> quotes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MarketQuote quote = MarketQuote.newBuilder().setSymbol("SYM" + i).setPrice(100.0 + i).build();
+            quotes.add(quote);
+            router.retry(new ConsumerRecord<>("market-quotes", 0, i, quote.getSymbol(), quote),
+                    new IllegalArgumentException("poison " + i)).join();
+        }
+        QuoteDltReplayer replayer = new QuoteDltReplayer(new DefaultKafkaConsumerFactory<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "market-quote-dlt-replay",
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)),
+                kafkaTemplate, router, meterRegistry);
+
+        try {
+            assertEquals(2, replayer.replay(2));
+            assertEquals(1, replayer.replay(10));
+            assertEquals(0, replayer.replay(10));
+        } finally {
+            producerFactory.destroy();
+        }
+
+        List<ConsumerRecord<String, byte[]>> replayed = consume("market-quotes", 3);
+        assertEquals(3, replayed.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("SYM" + i, replayed.get(i).key());
+            assertArrayEquals(SERIALIZER.serialize("market-quotes", quotes.get(i)), replayed.get(i).value());
+            for (Header header : replayed.get(i).headers()) {
+                assertTrue(!header.key().startsWith("kafka_dlt-") && !header.key().startsWith("marketpulse-retry-"),
+                        "Replayed records must start over without retry headers, found " + header.key());
+            }
+        }
+        assertEquals(3.0, meterRegistry.counter("storage.dlt.records", "reason", "retries-exhausted").count());
+        assertEquals(3.0, meterRegistry.counter("storage.dlt.replayed").count());
+    }
+
+    private static List<ConsumerRecord<String, byte[]>> consume(String topic, int expected) {
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class))) {
+            TopicPartition partition = new TopicPartition(topic, 0);
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (records.size() < expected && System.nanoTime() < deadline) {
+                consumer.poll(Duration.ofMillis(200)).forEach(records::add);
+            }
+            consumer.poll(Duration.ofMillis(500)).forEach(records::add);
+        }
+        return records;
+    }
+}
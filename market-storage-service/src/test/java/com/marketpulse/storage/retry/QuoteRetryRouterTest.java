@@ -0,0 +1,174 @@
+package com.marketpulse.storage.retry;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.serde.AvroSingleObjectSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteRetryRouterTest {
+    private static final List<Duration> DELAYS = List.of(Duration.ofSeconds(1), Duration.ofSeconds(5));
+    private static final Serializer<MarketQuote> SERIALIZER =
+            new AvroSingleObjectSerializer<>(MarketQuote.getClassSchema());
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private QuoteRetryRouter router;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        router = new QuoteRetryRouter(kafkaTemplate, SERIALIZER, "market-quotes", DELAYS, meterRegistry, now::get);
+    }
+
+    @Test
+    void retry_fromMainTopic_shouldScheduleFirstTierWithOriginAndFailure() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        ProducerRecord<String, byte[]> sent = retry(record("market-quotes", 7L, quote, new RecordHeaders()),
+                new IllegalArgumentException("price out of range"));
+
+        assertEquals("market-quotes-retry-1", sent.topic());
+        assertEquals("AAPL", sent.key());
+        assertArrayEquals(SERIALIZER.serialize("market-quotes", quote), sent.value());
+        assertEquals(1, intHeader(sent.headers(), QuoteRetryRouter.TIER_HEADER));
+        assertEquals(now.get() + 1_000, longHeader(sent.headers(), QuoteRetryRouter.DUE_HEADER));
+        assertEquals("market-quotes", stringHeader(sent.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        assertEquals(7L, longHeader(sent.headers(), KafkaHeaders.DLT_ORIGINAL_OFFSET));
+        assertEquals(IllegalArgumentException.class.getName(), stringHeader(sent.headers(), KafkaHeaders.DLT_EXCEPTION_FQCN));
+        assertEquals("price out of range", stringHeader(sent.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        assertTrue(stringHeader(sent.headers(), KafkaHeaders.DLT_EXCEPTION_STACKTRACE).contains("QuoteRetryRouterTest"));
+        assertEquals(1.0, meterRegistry.counter("storage.retry.records", "tier", "1", "outcome", "scheduled").count());
+    }
+
+    @Test
+    void retry_fromLastTier_shouldDeadLetterAndKeepTheOrigin() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        ProducerRecord<String, byte[]> first = retry(record("market-quotes", 7L, quote, new RecordHeaders()),
+                new IllegalArgumentException("first"));
+        ProducerRecord<String, byte[]> second = retry(record("market-quotes-retry-1", 0L, quote, first.headers()),
+                new IllegalArgumentException("second"));
+        ProducerRecord<String, byte[]> third = retry(record("market-quotes-retry-2", 0L, quote, second.headers()),
+                new IllegalStateException("third"));
+
+        assertEquals("market-quotes-retry-2", second.topic());
+        assertEquals(now.get() + 5_000, longHeader(second.headers(), QuoteRetryRouter.DUE_HEADER));
+        assertEquals("market-quotes-dlt", third.topic());
+        assertNull(third.headers().lastHeader(QuoteRetryRouter.DUE_HEADER));
+        assertEquals(1, count(third.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        assertEquals("market-quotes", stringHeader(third.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        assertEquals(7L, longHeader(third.headers(), KafkaHeaders.DLT_ORIGINAL_OFFSET));
+        assertEquals(1, count(third.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        assertEquals("third", stringHeader(third.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        assertEquals(1.0, meterRegistry.counter("storage.dlt.records", "reason", "retries-exhausted").count());
+    }
+
+    @Test
+    void deadLetter_shouldKeepTheOriginalBytes() {
+        byte[] raw = {1, 2, 3};
+        ProducerRecord<String, byte[]> sent = capture(() -> router.deadLetter(
+                record("market-quotes", 3L, null, new RecordHeaders()), raw, new IllegalStateException("bad bytes")));
+
+        assertEquals("market-quotes-dlt", sent.topic());
+        assertArrayEquals(raw, sent.value());
+        assertEquals(1.0, meterRegistry.counter("storage.dlt.records", "reason", "deserialization").count());
+    }
+
+    @Test
+    void remainingDelay_shouldCountDownToTheDueTime() {
+        MarketQuote quote = MarketQuote.newBuilder().setSymbol("AAPL").setPrice(150.0).build();
+        ProducerRecord<String, byte[]> sent = retry(record("market-quotes", 0L, quote, new RecordHeaders()),
+                new IllegalArgumentException("poison"));
+        ConsumerRecord<String, MarketQuote> onTier = record("market-quotes-retry-1", 0L, quote, sent.headers());
+
+        assertEquals(1_000, router.remainingDelay(onTier));
+        now.addAndGet(1_500);
+        assertEquals(0, router.remainingDelay(onTier));
+        assertEquals(1, QuoteRetryRouter.tierOf(onTier));
+        assertEquals(0, QuoteRetryRouter.tierOf(record("market-quotes", 0L, quote, new RecordHeaders())));
+    }
+
+    @Test
+    void exponentialDelays_shouldGrowByTheMultiplierUpToTheCap() {
+        assertEquals(List.of(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(25), Duration.ofSeconds(30)),
+                QuoteRetryRouter.exponentialDelays(4, Duration.ofSeconds(1), 5, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void disabled_shouldHaveNoTiers() {
+        QuoteRetryRouter disabled = QuoteRetryRouter.disabled(new SimpleMeterRegistry());
+        assertFalse(disabled.isEnabled());
+        assertEquals(0, disabled.tiers());
+    }
+
+    private ProducerRecord<String, byte[]> retry(ConsumerRecord<String, MarketQuote> consumerRecord, Throwable cause) {
+        return capture(() -> router.retry(consumerRecord, cause));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, byte[]> capture(Runnable send) {
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        send.run();
+        verify(kafkaTemplate, atLeastOnce()).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ConsumerRecord<String, MarketQuote> record(String topic, long offset, MarketQuote quote, Headers headers) {
+        return new ConsumerRecord<>(topic, 0, offset, 1_700_000_000_000L, TimestampType.CREATE_TIME, 0, 0,
+                "AAPL", quote, headers, Optional.empty());
+    }
+
+    private static int count(Headers headers, String key) {
+        int count = 0;
+        for (var ignored : headers.headers(key)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String stringHeader(Headers headers, String key) {
+        return new String(headers.lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+
+    private static int intHeader(Headers headers, String key) {
+        return ByteBuffer.wrap(headers.lastHeader(key).value()).getInt();
+    }
+
+    private static long longHeader(Headers headers, String key) {
+        return ByteBuffer.wrap(headers.lastHeader(key).value()).getLong();
+    }
+}
@@ -0,0 +1,87 @@
+package com.marketpulse.storage.segment;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnCodecTest {
+
+    @Test
+    void timestamps_shouldRoundTripIrregularAndDescendingDeltas() {
+        long[] timestamps = {1_700_000_000_000L, 1_700_000_001_000L, 1_700_000_002_000L, 1_700_000_002_003L,
+                1_699_999_999_000L, 1_700_000_500_000L, 1_700_000_500_000L};
+
+        byte[] encoded = ColumnCodec.encodeTimestamps(timestamps, timestamps.length);
+
+        assertArrayEquals(timestamps, ColumnCodec.decodeTimestamps(ByteBuffer.wrap(encoded), 0, timestamps.length));
+    }
+
+    @Test
+    void timestamps_shouldCostAboutOneBytePerEvenlySpacedTick() {
+        long[] timestamps = new long[10_000];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = 1_700_000_000_000L + i * 1_000L;
+        }
+
+        byte[] encoded = ColumnCodec.encodeTimestamps(timestamps, timestamps.length);
+
+        assertTrue(encoded.length < timestamps.length + 16, "encoded size was " + encoded.length);
+        assertArrayEquals(timestamps, ColumnCodec.decodeTimestamps(ByteBuffer.wrap(encoded), 0, timestamps.length));
+    }
+
+    @Test
+    void doubles_shouldRoundTripRandomWalkAndSpecialValues() {
+        Random random = new Random(7);
+        double[] values = new double[5_000];
+        double price = 150.0;
+        for (int i = 0; i < values.length; i++) {
+            price += Math.round(random.nextGaussian() * 10) / 100.0;
+            values[i] = price;
+        }
+        values[10] = Double.POSITIVE_INFINITY;
+        values[11] = -0.0;
+        values[12] = Double.MIN_VALUE;
+        values[13] = -1e300;
+
+        assertRoundTrip(values);
+    }
+
+    @Test
+    void doubles_shouldRoundTripMissingValues() {
+        double[] values = {Double.NaN, 1.5, 1.5, Double.NaN, 2.25, Double.NaN};
+        double[] allMissing = {Double.NaN, Double.NaN, Double.NaN};
+
+        assertRoundTrip(values);
+        assertRoundTrip(allMissing);
+        assertEquals(1, ColumnCodec.encodeDoubles(allMissing, allMissing.length).length);
+    }
+
+    @Test
+    void doubles_shouldSpendOneBitOnRepeatedValues() {
+        double[] values = new double[8_000];
+        Arrays.fill(values, 3_000_000_000_000.0);
+
+        byte[] encoded = ColumnCodec.encodeDoubles(values, values.length);
+
+        assertTrue(encoded.length <= 1 + 8 + values.length / 8, "encoded size was " + encoded.length);
+        assertRoundTrip(values);
+    }
+
+    private static void assertRoundTrip(double[] values) {
+        byte[] encoded = ColumnCodec.encodeDoubles(values, values.length);
+        // Decode from a non-zero offset, as segment files do.
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 3);
+        buffer.position(3);
+        buffer.put(encoded);
+        double[] decoded = ColumnCodec.decodeDoubles(buffer, 3, values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.doubleToLongBits(values[i]), Double.doubleToLongBits(decoded[i]), "row " + i);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.marketpulse.storage.segment;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.segment.QuoteSegmentStore.QuoteSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuoteSegmentStoreTest {
+
+    private static final Instant DAY_ONE = Instant.parse("2024-03-04T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scan_shouldReturnFlushedAndBufferedRowsInTimeOrder() {
+        QuoteSegmentStore store = store(1_000, 16);
+        store.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.plusSeconds(10).toEpochMilli());
+        store.append(quote("AAPL", 151.0, null), DAY_ONE.plusSeconds(20).toEpochMilli());
+        store.flushAll();
+        store.append(quote("AAPL", 149.5, 1_300.0), DAY_ONE.plusSeconds(15).toEpochMilli());
+        store.append(quote("MSFT", 410.0, 5.0), DAY_ONE.plusSeconds(12).toEpochMilli());
+
+        QuoteSeries series = store.scan("aapl", DAY_ONE, DAY_ONE.plusSeconds(60),
+                List.of(SegmentColumn.PRICE, SegmentColumn.VOLUME));
+
+        assertArrayEquals(new long[]{
+                DAY_ONE.plusSeconds(10).toEpochMilli(),
+                DAY_ONE.plusSeconds(15).toEpochMilli(),
+                DAY_ONE.plusSeconds(20).toEpochMilli()}, series.timestamps());
+        assertArrayEquals(new double[]{150.0, 149.5, 151.0}, series.columns().get(SegmentColumn.PRICE));
+        assertEquals(Double.NaN, series.columns().get(SegmentColumn.VOLUME)[2]);
+    }
+
+    @Test
+    void scan_shouldCoverSeveralDaysAndHonourHalfOpenRange() {
+        QuoteSegmentStore store = store(1_000, 16);
+        for (int day = 0; day < 5; day++) {
+            store.append(quote("AAPL", 100.0 + day, null), DAY_ONE.plus(Duration.ofDays(day)).toEpochMilli());
+        }
+        store.flushAll();
+
+        QuoteSeries series = store.scan("AAPL", DAY_ONE.plus(Duration.ofDays(1)), DAY_ONE.plus(Duration.ofDays(4)),
+                List.of(SegmentColumn.PRICE));
+
+        assertArrayEquals(new double[]{101.0, 102.0, 103.0}, series.columns().get(SegmentColumn.PRICE));
+        assertTrue(Files.isDirectory(directory.resolve("AAPL").resolve("2024-03-05")));
+    }
+
+    @Test
+    void append_shouldWriteChunksWhenFullAndCompactBusyDays() throws IOException {
+        QuoteSegmentStore store = store(10, 3);
+        for (int i = 0; i < 100; i++) {
+            store.append(quote("AAPL", 100.0 + i, (double) i), DAY_ONE.plusSeconds(i).toEpochMilli());
+        }
+        store.flushAll();
+
+        assertTrue(chunkFiles("AAPL", "2024-03-04").size() <= 3);
+        QuoteSeries series = store.scan("AAPL", DAY_ONE, DAY_ONE.plus(Duration.ofDays(1)), List.of(SegmentColumn.VOLUME));
+        assertEquals(100, series.size());
+        assertEquals(99.0, series.columns().get(SegmentColumn.VOLUME)[99]);
+    }
+
+    @Test
+    void scan_shouldReadSegmentsWrittenByAnEarlierInstance() {
+        QuoteSegmentStore first = store(1_000, 16);
+        first.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.toEpochMilli());
+        first.flushAll();
+
+        QuoteSeries series = store(1_000, 16).scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(1),
+                List.of(SegmentColumn.PRICE));
+
+        assertArrayEquals(new double[]{150.0}, series.columns().get(SegmentColumn.PRICE));
+    }
+
+    @Test
+    void scan_shouldRecoverRowsBufferedWhenTheProcessDied() {
+        QuoteSegmentStore crashed = store(1_000, 16);
+        crashed.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.plusSeconds(1).toEpochMilli());
+        crashed.append(quote("AAPL", 151.0, 1_100.0), DAY_ONE.plusSeconds(2).toEpochMilli());
+
+        QuoteSeries series = store(1_000, 16).scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(60),
+                List.of(SegmentColumn.PRICE));
+
+        assertArrayEquals(new double[]{150.0, 151.0}, series.columns().get(SegmentColumn.PRICE));
+        assertEquals(1, chunkFiles("AAPL", "2024-03-04").size());
+    }
+
+    @Test
+    void recovery_shouldSkipJournalRowsAlreadyInACommittedChunk() throws IOException {
+        QuoteSegmentStore crashed = store(1_000, 16);
+        crashed.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.plusSeconds(1).toEpochMilli());
+        crashed.append(quote("AAPL", 151.0, 1_100.0), DAY_ONE.plusSeconds(2).toEpochMilli());
+        // Died after committing the chunk but before dropping the journal.
+        Path journal = directory.resolve("_journal");
+        Path saved = Files.createDirectory(directory.resolveSibling(directory.getFileName() + "-journal"));
+        for (Path file : list(journal)) {
+            Files.copy(file, saved.resolve(file.getFileName()));
+        }
+        crashed.flushAll();
+        for (Path file : list(saved)) {
+            Files.copy(file, journal.resolve(file.getFileName()));
+        }
+
+        QuoteSeries series = store(1_000, 16).scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(60),
+                List.of(SegmentColumn.PRICE));
+
+        assertArrayEquals(new double[]{150.0, 151.0}, series.columns().get(SegmentColumn.PRICE));
+    }
+
+    @Test
+    void scan_shouldIgnoreChunksTheManifestDoesNotName() throws IOException {
+        QuoteSegmentStore store = store(1_000, 16);
+        store.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.plusSeconds(1).toEpochMilli());
+        store.flushAll();
+        // A compaction output or chunk written just before a crash, never committed.
+        Path chunk = chunkFiles("AAPL", "2024-03-04").get(0);
+        Files.copy(chunk, chunk.resolveSibling("0000000000000000000-orphan-1.seg"));
+
+        QuoteSeries series = store(1_000, 16).scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(60),
+                List.of(SegmentColumn.PRICE));
+
+        assertArrayEquals(new double[]{150.0}, series.columns().get(SegmentColumn.PRICE));
+    }
+
+    @Test
+    void scan_shouldTreatADayWithoutManifestAsEmpty() throws IOException {
+        QuoteSegmentStore store = store(1_000, 16);
+        store.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.plusSeconds(1).toEpochMilli());
+        store.flushAll();
+        // Chunks written before the first manifest of the day, never committed.
+        Files.delete(directory.resolve("AAPL").resolve("2024-03-04").resolve("MANIFEST"));
+
+        QuoteSeries series = store(1_000, 16).scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(60),
+                List.of(SegmentColumn.PRICE));
+
+        assertEquals(0, series.size());
+    }
+
+    @Test
+    void stop_shouldFlushBuffersAndCloseTheJournal() {
+        QuoteSegmentStore store = store(1_000, 16);
+        store.start();
+        store.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.plusSeconds(1).toEpochMilli());
+        store.stop();
+
+        assertThrows(UncheckedIOException.class,
+                () -> store.append(quote("AAPL", 151.0, 1_000.0), DAY_ONE.plusSeconds(2).toEpochMilli()));
+        QuoteSeries series = store(1_000, 16).scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(60),
+                List.of(SegmentColumn.PRICE));
+        assertArrayEquals(new double[]{150.0}, series.columns().get(SegmentColumn.PRICE));
+    }
+
+    @Test
+    void flushAll_shouldNeverReplaceAChunkFromAnEarlierRun() {
+        QuoteSegmentStore first = store(1_000, 16);
+        first.append(quote("AAPL", 150.0, null), DAY_ONE.toEpochMilli());
+        first.flushAll();
+        QuoteSegmentStore second = store(1_000, 16);
+        second.append(quote("AAPL", 151.0, null), DAY_ONE.toEpochMilli());
+        second.flushAll();
+
+        QuoteSeries series = store(1_000, 16).scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(1),
+                List.of(SegmentColumn.PRICE));
+
+        assertEquals(2, series.size());
+        assertEquals(2, chunkFiles("AAPL", "2024-03-04").size());
+    }
+
+    @Test
+    void append_shouldRejectSymbolsThatAreNotDirectoryNames() {
+        QuoteSegmentStore store = store(1_000, 16);
+        store.append(quote("..", 150.0, null), DAY_ONE.toEpochMilli());
+        store.flushAll();
+
+        assertTrue(Files.notExists(directory.resolve("2024-03-04")));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.scan(".", DAY_ONE, DAY_ONE.plusSeconds(1), List.of(SegmentColumn.PRICE)));
+    }
+
+    @Test
+    void append_shouldDoNothingWhenDisabled() {
+        QuoteSegmentStore store = new QuoteSegmentStore(directory, false, 1, Duration.ofMinutes(5), 16,
+                new SimpleMeterRegistry());
+        store.append(quote("AAPL", 150.0, 1_000.0), DAY_ONE.toEpochMilli());
+
+        assertEquals(0, store.scan("AAPL", DAY_ONE, DAY_ONE.plusSeconds(1), List.of(SegmentColumn.PRICE)).size());
+        assertTrue(Files.notExists(directory.resolve("AAPL")));
+    }
+
+    private QuoteSegmentStore store(int rowsPerChunk, int maxChunksPerDay) {
+        return new QuoteSegmentStore(directory, true, rowsPerChunk, Duration.ofMinutes(5), maxChunksPerDay,
+                new SimpleMeterRegistry());
+    }
+
+    private List<Path> chunkFiles(String symbol, String day) {
+        return list(directory.resolve(symbol).resolve(day)).stream()
+                .filter(path -> path.getFileName().toString().endsWith(".seg"))
+                .toList();
+    }
+
+    private static List<Path> list(Path path) {
+        try (Stream<Path> files = Files.list(path)) {
+            return files.sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MarketQuote quote(String symbol, double price, Double volume) {
+        return MarketQuote.newBuilder().setSymbol(symbol).setPrice(price).setVolume(volume).build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.marketpulse.storage.serde;
+
+import com.marketpulse.avro.MarketQuote;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketQuoteAvroDeserializerTest {
+
+    private static final String TOPIC = "market-quotes";
+    private static final byte[] MARKER = {(byte) 0xC3, 0x01};
+
+    private final MarketQuoteAvroDeserializer deserializer = new MarketQuoteAvroDeserializer();
+
+    @Test
+    void deserialize_readsSingleObjectEncodedQuote() throws IOException {
+        MarketQuote quote = MarketQuote.newBuilder()
+                .setSymbol("MSFT")
+                .setPrice(410.5)
+                .setVolume(1000.0)
+                .setExchange("NASDAQ")
+                .setTimestamp(1_714_766_401L)
+                .build();
+
+        assertEquals(quote, deserializer.deserialize(TOPIC, toArray(MarketQuote.getEncoder().encode(quote))));
+    }
+
+    @Test
+    void deserialize_nullIsTombstone() {
+        assertNull(deserializer.deserialize(TOPIC, null));
+    }
+
+    @Test
+    void deserialize_rejectsUnknownFingerprintAndForeignFraming() throws IOException {
+        byte[] payload = toArray(MarketQuote.getEncoder().encode(MarketQuote.newBuilder().setSymbol("AAPL").build()));
+        payload[9] ^= 0x01;
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, payload));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, new byte[] {0, 0, 0, 0, 1, 2}));
+    }
+
+    @Test
+    void deserialize_resolvesConfiguredOlderWriterSchema() throws IOException {
+        Schema v0;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("avro/MarketQuote-v0.avsc")) {
+            v0 = new Schema.Parser().parse(in);
+        }
+        GenericRecord old = new GenericData.Record(v0);
+        old.put("symbol", "AAPL");
+        old.put("price", 150.0);
+        byte[] payload = write(v0, old);
+
+        deserializer.configure(Map.of(MarketQuoteAvroDeserializer.WRITER_SCHEMAS_CONFIG, "avro/MarketQuote-v0.avsc"), false);
+        MarketQuote quote = deserializer.deserialize(TOPIC, payload);
+
+        assertEquals("AAPL", quote.getSymbol());
+        assertEquals(150.0, quote.getPrice());
+        assertNull(quote.getVolume());
+    }
+
+    private static byte[] write(Schema schema, GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(MARKER);
+        out.writeBytes(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(SchemaNormalization.parsingFingerprint64(schema)).array());
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
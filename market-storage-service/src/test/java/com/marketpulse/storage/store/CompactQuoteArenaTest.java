@@ -0,0 +1,149 @@
+package com.marketpulse.storage.store;
+
+import com.marketpulse.avro.MarketQuote;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactQuoteArenaTest {
+
+    @Test
+    void readAndWrite_shouldRoundTripEveryField() {
+        CompactQuoteArena arena = new CompactQuoteArena(4, new StringDictionary(4));
+        MarketQuote quote = fullQuote("AAPL", 189.84, 1714766401L);
+
+        arena.write(0, quote);
+
+        assertEquals(quote, arena.read(0));
+    }
+
+    @Test
+    void readAndWrite_shouldKeepNullsDistinctFromZero() {
+        CompactQuoteArena arena = new CompactQuoteArena(4, new StringDictionary(4));
+        MarketQuote sparse = MarketQuote.newBuilder().setSymbol("MSFT").setPrice(0.0).build();
+
+        arena.write(1, fullQuote("MSFT", 410.0, 1L));
+        arena.write(1, sparse);
+
+        MarketQuote read = arena.read(1);
+        assertEquals(sparse, read);
+        assertEquals(0.0, read.getPrice());
+        assertNull(read.getVolume());
+        assertNull(read.getTimestamp());
+    }
+
+    @Test
+    void write_shouldStoreRepeatedStringsOnce() {
+        StringDictionary strings = new StringDictionary(4);
+        CompactQuoteArena arena = new CompactQuoteArena(4, strings);
+
+        arena.write(0, fullQuote("AAPL", 1.0, 1L));
+        arena.write(1, fullQuote("MSFT", 2.0, 2L));
+
+        // Two symbols plus the shared exchange.
+        assertEquals(3, strings.size());
+        assertSame(arena.read(0).getExchange(), arena.read(1).getExchange());
+    }
+
+    @Test
+    void write_shouldNotInternChangingStrings() {
+        StringDictionary strings = new StringDictionary(4);
+        CompactQuoteArena arena = new CompactQuoteArena(4, strings);
+        arena.write(0, fullQuote("AAPL", 1.0, 1L));
+
+        for (int day = 1; day <= 9; day++) {
+            MarketQuote quote = fullQuote("AAPL", 1.0, day);
+            quote.setName("Apple Inc. " + day);
+            quote.setEarningsAnnouncement("2024-05-0" + day + "T20:30:00.000+0000");
+            arena.write(0, quote);
+        }
+
+        assertEquals(2, strings.size());
+        assertEquals("Apple Inc. 9", arena.read(0).getName());
+        assertEquals("2024-05-09T20:30:00.000+0000", arena.read(0).getEarningsAnnouncement());
+    }
+
+    @Test
+    void write_shouldClearHeapStringWhenFieldBecomesNull() {
+        CompactQuoteArena arena = new CompactQuoteArena(4, new StringDictionary(4));
+        arena.write(0, fullQuote("AAPL", 1.0, 1L));
+
+        arena.write(0, MarketQuote.newBuilder().setSymbol("AAPL").build());
+
+        assertNull(arena.stringAt(0, MarketQuote.getClassSchema().getField("name").pos()));
+    }
+
+    @Test
+    void ensureCapacity_shouldPreserveRecordsWhenGrowing() {
+        CompactQuoteArena arena = new CompactQuoteArena(16, new StringDictionary(16));
+        MarketQuote first = fullQuote("AAPL", 189.84, 1L);
+        arena.write(0, first);
+
+        arena.ensureCapacity(1_000);
+        MarketQuote last = fullQuote("ZZZ", 1.0, 2L);
+        arena.write(999, last);
+
+        assertTrue(arena.capacity() >= 1_000);
+        assertEquals(first, arena.read(0));
+        assertEquals(last, arena.read(999));
+    }
+
+    @Test
+    void recordBytes_shouldFitEveryFieldAndStayAligned() {
+        // Bitmap, 17 doubles and the timestamp at eight bytes, symbol and exchange ids at four bytes.
+        assertEquals(160, CompactQuoteArena.RECORD_BYTES);
+    }
+
+    @Test
+    void compactQuote_shouldReadTimestampInPlace() {
+        CompactQuoteArena arena = new CompactQuoteArena(4, new StringDictionary(4));
+        arena.write(0, fullQuote("AAPL", 189.84, 1714766401L));
+        arena.write(1, MarketQuote.newBuilder().setSymbol("MSFT").build());
+        CompactQuote view = new CompactQuote(arena);
+
+        assertEquals(1714766401L, view.moveTo(0).timestamp());
+        assertEquals(CompactQuote.NO_TIMESTAMP, view.moveTo(1).timestamp());
+        assertFalse(arena.isSet(1, CompactQuoteArena.TIMESTAMP));
+    }
+
+    @Test
+    void holds_shouldBeFalseForSlotsNeverWritten() {
+        CompactQuoteArena arena = new CompactQuoteArena(4, new StringDictionary(4));
+        arena.write(1, MarketQuote.newBuilder().setSymbol("MSFT").build());
+
+        assertTrue(arena.holds(1));
+        assertFalse(arena.holds(0));
+        assertFalse(arena.holds(arena.capacity()));
+    }
+
+    static MarketQuote fullQuote(String symbol, double price, long timestamp) {
+        return MarketQuote.newBuilder()
+                .setSymbol(symbol)
+                .setName("Apple Inc.")
+                .setPrice(price)
+                .setChangesPercentage(0.5829)
+                .setChange(1.1)
+                .setDayLow(187.45)
+                .setDayHigh(190.32)
+                .setYearHigh(199.62)
+                .setYearLow(164.08)
+                .setMarketCap(2952226545600.0)
+                .setPriceAvg50(182.5436)
+                .setPriceAvg200(181.66545)
+                .setVolume(53600542.0)
+                .setAvgVolume(55446373.0)
+                .setExchange("NASDAQ")
+                .setOpen(188.15)
+                .setPreviousClose(188.74)
+                .setEps(6.43)
+                .setPe(29.52)
+                .setEarningsAnnouncement("2024-05-02T20:30:00.000+0000")
+                .setSharesOutstanding(15550100000.0)
+                .setTimestamp(timestamp)
+                .build();
+    }
+}
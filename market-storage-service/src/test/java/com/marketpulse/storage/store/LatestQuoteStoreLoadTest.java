@@ -0,0 +1,110 @@
+package com.marketpulse.storage.store;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.controller.LatestQuoteController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers the latest-quote store from several reader threads while a writer keeps updating
+ * it, then measures end-to-end lookups through the WebFlux handler, reporting QPS and p99.
+ */
+class LatestQuoteStoreLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(LatestQuoteStoreLoadTest.class);
+    private static final int SYMBOLS = 10_000;
+    private static final int READERS = 8;
+    private static final int READS_PER_READER = 250_000;
+
+    private LatestQuoteStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LatestQuoteStore(null, false, new SimpleMeterRegistry());
+        IntStream.range(0, SYMBOLS).forEach(i -> store.update(quote(i, 0L)));
+    }
+
+    @Test
+    void concurrentReads_shouldStaySubMillisecond() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + 1);
+        Future<?> writer = pool.submit(() -> {
+            for (long ts = 1; !Thread.currentThread().isInterrupted(); ts++) {
+                store.update(quote((int) (ts % SYMBOLS), ts));
+            }
+        });
+        long start = System.nanoTime();
+        Future<long[]>[] readers = IntStream.range(0, READERS)
+                .mapToObj(r -> pool.submit(this::timedReads))
+                .toArray(Future[]::new);
+        long[] latencies = new long[0];
+        for (Future<long[]> reader : readers) {
+            long[] sample = reader.get(60, TimeUnit.SECONDS);
+            long[] merged = Arrays.copyOf(latencies, latencies.length + sample.length);
+            System.arraycopy(sample, 0, merged, latencies.length, sample.length);
+            latencies = merged;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        writer.cancel(true);
+        pool.shutdownNow();
+
+        long p99 = percentile(latencies, 0.99);
+        log.info("Latest-quote store: {} reads/sec across {} readers, p99 {} ns",
+                Math.round(READERS * (double) READS_PER_READER / seconds), READERS, p99);
+        assertTrue(p99 < TimeUnit.MILLISECONDS.toNanos(1), "p99 read latency should be below 1ms, was " + p99 + "ns");
+    }
+
+    @Test
+    void endpointReads_shouldReportLatency() {
+        WebTestClient client = WebTestClient.bindToController(new LatestQuoteController(store)).build();
+        int requests = 5_000;
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long begin = System.nanoTime();
+            client.get().uri("/quotes/latest/SYM" + (i % SYMBOLS))
+                    .exchange()
+                    .expectStatus().isOk();
+            latencies[i] = System.nanoTime() - begin;
+        }
+        // The first requests warm up the handler chain; report steady state.
+        long[] steady = Arrays.copyOfRange(latencies, requests / 5, requests);
+        log.info("Latest-quote endpoint via WebTestClient (includes client overhead): p50 {} us, p99 {} us",
+                percentile(steady, 0.50) / 1_000, percentile(steady, 0.99) / 1_000);
+    }
+
+    private long[] timedReads() {
+        long[] latencies = new long[READS_PER_READER];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < READS_PER_READER; i++) {
+            String symbol = "SYM" + random.nextInt(SYMBOLS);
+            long begin = System.nanoTime();
+            MarketQuote quote = store.get(symbol);
+            latencies[i] = System.nanoTime() - begin;
+            assertNotNull(quote);
+        }
+        return latencies;
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static MarketQuote quote(int i, long timestamp) {
+        return MarketQuote.newBuilder().setSymbol("SYM" + i).setPrice(100.0 + i).setTimestamp(timestamp).build();
+    }
+}
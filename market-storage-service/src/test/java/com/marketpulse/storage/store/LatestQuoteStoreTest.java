@@ -0,0 +1,93 @@
+package com.marketpulse.storage.store;
+
+import com.marketpulse.avro.MarketQuote;
+import com.marketpulse.storage.repository.MarketQuoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LatestQuoteStoreTest {
+    @Mock
+    private MarketQuoteRepository marketQuoteRepository;
+
+    @Test
+    void update_shouldKeepNewestQuoteByTimestamp() {
+        LatestQuoteStore store = new LatestQuoteStore(marketQuoteRepository, false, new SimpleMeterRegistry());
+        MarketQuote newer = quote("AAPL", 151.0, 2L);
+        MarketQuote older = quote("AAPL", 150.0, 1L);
+
+        store.update(newer);
+        store.update(older);
+
+        assertEquals(newer, store.get("aapl "));
+        MarketQuote untimed = quote("AAPL", 152.0, null);
+        store.update(untimed);
+        assertEquals(untimed, store.get("AAPL"));
+    }
+
+    @Test
+    void getAll_shouldSkipUnknownSymbols() {
+        LatestQuoteStore store = new LatestQuoteStore(marketQuoteRepository, false, new SimpleMeterRegistry());
+        MarketQuote apple = quote("AAPL", 150.0, 1L);
+        store.update(apple);
+
+        assertEquals(List.of(apple), store.getAll(List.of("AAPL", "MSFT")));
+        assertNull(store.get("MSFT"));
+    }
+
+    @Test
+    void get_shouldNotMistakeAnExchangeForASymbol() {
+        LatestQuoteStore store = new LatestQuoteStore(marketQuoteRepository, false, new SimpleMeterRegistry());
+        store.update(MarketQuote.newBuilder().setSymbol("AAPL").setExchange("NASDAQ").setPrice(150.0).build());
+
+        assertNull(store.get("NASDAQ"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldWarmFromDatabase() {
+        MarketQuote apple = quote("AAPL", 150.0, 1L);
+        when(marketQuoteRepository.findLatestPerSymbol()).thenReturn(List.of(apple));
+        LatestQuoteStore store = new LatestQuoteStore(marketQuoteRepository, true, new SimpleMeterRegistry());
+
+        store.afterSingletonsInstantiated();
+
+        assertEquals(apple, store.get("AAPL"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldStartEmptyWhenDatabaseIsUnavailable() {
+        when(marketQuoteRepository.findLatestPerSymbol()).thenThrow(new DataAccessResourceFailureException("down"));
+        LatestQuoteStore store = new LatestQuoteStore(marketQuoteRepository, true, new SimpleMeterRegistry());
+
+        store.afterSingletonsInstantiated();
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldSkipWarmingWhenDisabled() {
+        LatestQuoteStore store = new LatestQuoteStore(marketQuoteRepository, false, new SimpleMeterRegistry());
+
+        store.afterSingletonsInstantiated();
+
+        verify(marketQuoteRepository, never()).findLatestPerSymbol();
+    }
+
+    private static MarketQuote quote(String symbol, double price, Long timestamp) {
+        return MarketQuote.newBuilder().setSymbol(symbol).setPrice(price).setTimestamp(timestamp).build();
+    }
+}
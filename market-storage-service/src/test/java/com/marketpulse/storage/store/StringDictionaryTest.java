@@ -0,0 +1,37 @@
+package com.marketpulse.storage.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StringDictionaryTest {
+
+    @Test
+    void intern_shouldAssignDenseIdsInInsertionOrder() {
+        StringDictionary dictionary = new StringDictionary(4);
+
+        assertEquals(0, dictionary.intern("AAPL"));
+        assertEquals(1, dictionary.intern("MSFT"));
+        assertEquals(0, dictionary.intern(new String("AAPL")));
+
+        assertEquals(2, dictionary.size());
+        assertEquals("MSFT", dictionary.value(1));
+        assertEquals(1, dictionary.find("MSFT"));
+        assertEquals(StringDictionary.ABSENT, dictionary.find("GOOGL"));
+    }
+
+    @Test
+    void intern_shouldKeepIdsStableWhenGrowing() {
+        StringDictionary dictionary = new StringDictionary(1);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.intern("SYM" + i));
+        }
+
+        assertEquals(10_000, dictionary.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.find("SYM" + i));
+            assertEquals("SYM" + i, dictionary.value(i));
+        }
+    }
+}